@@ -0,0 +1,30 @@
+package org.knowm.xchange.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, which reports the bytes allocated per operation next to
+ * the time. Takes the usual JMH arguments, e.g. a regexp of the benchmarks to run:
+ *
+ * <pre>
+ * mvn -Pbenchmarks -pl xchange-benchmarks -am package -DskipTests
+ * java -jar xchange-benchmarks/target/benchmarks.jar OrderBook -rf json
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+
+    new Runner(
+            new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,163 @@
+package org.knowm.xchange.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import info.bitrich.xchangestream.binance.BinanceOrderBookResyncScheduler;
+import info.bitrich.xchangestream.binance.BinanceStreamingMarketDataService;
+import info.bitrich.xchangestream.binance.BinanceStreamingService;
+import info.bitrich.xchangestream.binance.dto.BinanceWebsocketTransaction;
+import info.bitrich.xchangestream.binance.dto.DepthBinanceWebSocketTransaction;
+import info.bitrich.xchangestream.core.ProductSubscription;
+import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.ExchangeFactory;
+import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.binance.BinanceExchange;
+import org.knowm.xchange.binance.dto.marketdata.BinanceOrderbook;
+import org.knowm.xchange.binance.service.BinanceMarketDataService;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The Binance diff depth stream, from the text of a combined stream frame to the updated order
+ * book: dispatch by {@link BinanceStreamingService} and the order book of {@link
+ * BinanceStreamingMarketDataService}, synchronized on a canned snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinanceDepthBenchmark {
+
+  private static final CurrencyPair ETH_BTC = CurrencyPair.ETH_BTC;
+  private static final long SNAPSHOT_UPDATE_ID = 1000;
+
+  private final ObjectMapper mapper = StreamingObjectMapperHelper.getObjectMapper();
+  private final JavaType depthType =
+      mapper
+          .getTypeFactory()
+          .constructType(
+              new TypeReference<
+                  BinanceWebsocketTransaction<DepthBinanceWebSocketTransaction>>() {});
+  private String message;
+  private JsonNode messageNode;
+  // the frames of the benchmark without their update ids, which have to grow with each frame
+  private String framePrefix;
+  private String frameSuffix;
+  private long updateId = SNAPSHOT_UPDATE_ID;
+  private BinanceOrderBookResyncScheduler resyncScheduler;
+  private BinanceStreamingService service;
+  private Disposable subscription;
+  private volatile OrderBook handled;
+
+  @Setup
+  public void setup() throws IOException, InterruptedException {
+
+    // The recorded event is commented, the frames of the combined streams wrap it
+    ObjectNode event =
+        (ObjectNode)
+            new ObjectMapper(new JsonFactory().enable(JsonParser.Feature.ALLOW_COMMENTS))
+                .readTree(Fixtures.read("binance/testDepthEvent.json"));
+    ObjectNode frame = mapper.createObjectNode();
+    frame.put("stream", "ethbtc@depth");
+    frame.set("data", event);
+    message = mapper.writeValueAsString(frame);
+    messageNode = mapper.readTree(message);
+
+    event.remove("u");
+    framePrefix = "{\"stream\":\"ethbtc@depth\",\"data\":{\"U\":";
+    frameSuffix = "," + mapper.writeValueAsString(event).substring(1) + "}";
+
+    ExchangeSpecification specification = new ExchangeSpecification(BinanceExchange.class);
+    specification.setShouldLoadRemoteMetaData(false);
+    BinanceExchange exchange =
+        (BinanceExchange) ExchangeFactory.INSTANCE.createExchange(specification);
+    BinanceMarketDataService snapshots =
+        new BinanceMarketDataService(exchange, null, exchange.getResilienceRegistries()) {
+          @Override
+          public BinanceOrderbook getBinanceOrderbook(CurrencyPair pair, Integer limit) {
+            return new BinanceOrderbook(
+                SNAPSHOT_UPDATE_ID, Collections.emptyList(), Collections.emptyList());
+          }
+        };
+
+    // replay mode takes the socket for open and sends nothing
+    service =
+        new BinanceStreamingService(
+            "wss://stream.binance.com:9443/stream?streams=",
+            ProductSubscription.create().addOrderbook(ETH_BTC).build());
+    service.setReplayMode(true);
+    resyncScheduler = new BinanceOrderBookResyncScheduler(null, false, 0, 1);
+    BinanceStreamingMarketDataService marketDataService =
+        new BinanceStreamingMarketDataService(
+            Collections.singletonList(service),
+            service.getProductSubscription(),
+            snapshots,
+            () -> {},
+            "",
+            resyncScheduler);
+    subscription = marketDataService.getOrderBook(ETH_BTC).subscribe(book -> handled = book);
+
+    // the first frame asks for the snapshot, one of the next ones installs it
+    while (handled == null) {
+      service.messageHandler(nextFrame());
+      Thread.sleep(1);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+
+    subscription.dispose();
+    resyncScheduler.shutdown();
+  }
+
+  @Benchmark
+  public JsonNode parseFrame() throws IOException {
+
+    return mapper.readTree(message);
+  }
+
+  @Benchmark
+  public DepthBinanceWebSocketTransaction readTransaction() throws IOException {
+
+    BinanceWebsocketTransaction<DepthBinanceWebSocketTransaction> transaction =
+        mapper.readValue(mapper.treeAsTokens(messageNode), depthType);
+    return transaction.getData();
+  }
+
+  /** Hands the next frame to the streaming service and returns the order book it updated. */
+  @Benchmark
+  public OrderBook handleDepthFrame() {
+
+    service.messageHandler(nextFrame());
+    return handled;
+  }
+
+  private String nextFrame() {
+
+    updateId++;
+    return framePrefix + updateId + ",\"u\":" + updateId + frameSuffix;
+  }
+}
@@ -0,0 +1,54 @@
+package org.knowm.xchange.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Parsing and formatting of currency pairs, done for every symbol of every message. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CurrencyPairBenchmark {
+
+  @Param({"BTC/USDT", "XBT/EUR"})
+  public String symbol;
+
+  private CurrencyPair pair;
+
+  @Setup
+  public void setup() {
+
+    pair = new CurrencyPair(symbol);
+  }
+
+  @Benchmark
+  public CurrencyPair parse() {
+
+    return new CurrencyPair(symbol);
+  }
+
+  @Benchmark
+  public String format() {
+
+    return pair.toString();
+  }
+
+  @Benchmark
+  public boolean parseAndCompare() {
+
+    return new CurrencyPair(symbol).equals(pair);
+  }
+}
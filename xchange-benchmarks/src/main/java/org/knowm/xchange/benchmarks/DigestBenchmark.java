@@ -0,0 +1,80 @@
+package org.knowm.xchange.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+import org.knowm.xchange.binance.service.BinanceHmacDigest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import si.mazi.rescu.ParamsDigest;
+import si.mazi.rescu.RequestWriterResolver;
+import si.mazi.rescu.RestInvocation;
+import si.mazi.rescu.RestMethodMetadata;
+
+/**
+ * Signing of an authenticated call with a {@link org.knowm.xchange.service.BaseParamsDigest}, as
+ * rescu does for every call: the invocation is created from the arguments, then digested.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DigestBenchmark {
+
+  private static final String SECRET_KEY =
+      "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+
+  private RestMethodMetadata metadata;
+  private BinanceHmacDigest digest;
+  private final RequestWriterResolver requestWriterResolver =
+      RequestWriterResolver.createDefault(new ObjectMapper());
+  private long timestamp = 1_499_827_319_559L;
+
+  /** A signed endpoint in the manner of the REST interfaces of the exchanges. */
+  @Path("api/v3")
+  public interface SignedApi {
+
+    @GET
+    @Path("openOrders")
+    Object openOrders(
+        @QueryParam("symbol") String symbol,
+        @QueryParam("recvWindow") Long recvWindow,
+        @QueryParam("timestamp") long timestamp,
+        @QueryParam("signature") ParamsDigest signature);
+  }
+
+  @Setup
+  public void setup() throws NoSuchMethodException {
+
+    Method method =
+        SignedApi.class.getMethod(
+            "openOrders", String.class, Long.class, long.class, ParamsDigest.class);
+    metadata = RestMethodMetadata.create(method, "https://api.binance.com", "api/v3");
+    digest = BinanceHmacDigest.createInstance(SECRET_KEY);
+  }
+
+  @Benchmark
+  public String sign() {
+
+    RestInvocation invocation =
+        RestInvocation.create(
+            requestWriterResolver,
+            metadata,
+            new Object[] {"LTCBTC", 5000L, timestamp++, digest},
+            null);
+    return digest.digestParams(invocation);
+  }
+}
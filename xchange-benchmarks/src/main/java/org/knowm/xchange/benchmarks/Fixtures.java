@@ -0,0 +1,30 @@
+package org.knowm.xchange.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/** Recorded payloads of the tests of the exchanges, packaged under /fixtures by the build. */
+final class Fixtures {
+
+  private Fixtures() {}
+
+  static String read(String path) {
+
+    try (InputStream is = Fixtures.class.getResourceAsStream("/fixtures/" + path)) {
+      if (is == null) {
+        throw new IllegalArgumentException("Missing fixture " + path);
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int read; (read = is.read(buffer)) != -1; ) {
+        bytes.write(buffer, 0, read);
+      }
+      return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package org.knowm.xchange.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import info.bitrich.xchangestream.kraken.KrakenStreamingAdapters;
+import info.bitrich.xchangestream.service.netty.JsonNettyStreamingService;
+import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
+import io.reactivex.disposables.Disposable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The Kraken order book stream, from the text of a frame to the updated order book: parsing,
+ * dispatch by {@link JsonNettyStreamingService#messageHandler} and {@link
+ * KrakenStreamingAdapters#adaptOrderbookMessage}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KrakenOrderBookBenchmark {
+
+  private static final CurrencyPair XBT_EUR = new CurrencyPair(Currency.XBT, Currency.EUR);
+
+  private final ObjectMapper mapper = StreamingObjectMapperHelper.getObjectMapper();
+  private String snapshot;
+  private String update;
+  private ArrayNode snapshotNode;
+  private ArrayNode updateNode;
+  private OrderBook orderBook;
+  private DispatchingService service;
+  private Disposable subscription;
+  private OrderBook handled;
+
+  @Setup
+  public void setup() throws IOException {
+
+    snapshot = Fixtures.read("kraken/orderBookMessageSnapshot.json");
+    update = Fixtures.read("kraken/orderBookMessageUpdate.json");
+    snapshotNode = (ArrayNode) mapper.readTree(snapshot);
+    updateNode = (ArrayNode) mapper.readTree(update);
+    orderBook = KrakenStreamingAdapters.adaptOrderbookMessage(emptyBook(), XBT_EUR, snapshotNode);
+
+    service = new DispatchingService();
+    subscription =
+        service
+            .subscribeChannel(XBT_EUR.toString())
+            .map(
+                message ->
+                    KrakenStreamingAdapters.adaptOrderbookMessage(
+                        orderBook, XBT_EUR, (ArrayNode) message))
+            .subscribe(book -> handled = book);
+  }
+
+  @TearDown
+  public void tearDown() {
+
+    subscription.dispose();
+  }
+
+  private static OrderBook emptyBook() {
+
+    return new OrderBook(null, new ArrayList<>(), new ArrayList<>());
+  }
+
+  @Benchmark
+  public JsonNode parseUpdate() throws IOException {
+
+    return mapper.readTree(update);
+  }
+
+  @Benchmark
+  public OrderBook adaptSnapshot() {
+
+    return KrakenStreamingAdapters.adaptOrderbookMessage(emptyBook(), XBT_EUR, snapshotNode);
+  }
+
+  @Benchmark
+  public OrderBook adaptUpdate() {
+
+    return KrakenStreamingAdapters.adaptOrderbookMessage(orderBook, XBT_EUR, updateNode);
+  }
+
+  /** Parses the frame, dispatches it to the channel and applies it to the order book. */
+  @Benchmark
+  public OrderBook handleUpdateFrame() {
+
+    service.messageHandler(update);
+    return handled;
+  }
+
+  /** Dispatches the messages of Kraken by their pair, without a connection. */
+  private static class DispatchingService extends JsonNettyStreamingService {
+
+    DispatchingService() {
+      super("wss://ws.kraken.com");
+    }
+
+    @Override
+    public boolean isSocketOpen() {
+      return true;
+    }
+
+    @Override
+    public boolean processArrayMessageSeparately() {
+      return false;
+    }
+
+    @Override
+    protected String getChannelNameFromMessage(JsonNode message) {
+      return message.get(message.size() - 1).asText();
+    }
+
+    @Override
+    public String getSubscribeMessage(String channelName, Object... args) {
+      return null;
+    }
+
+    @Override
+    public String getUnsubscribeMessage(String channelName) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package org.knowm.xchange.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.BookLevel;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Updates of an order book of the given depth, spread over all its levels. Every update changes the
+ * amount at an existing price, so the book keeps its depth however long the benchmark runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OrderBookBenchmark {
+
+  private static final CurrencyPair PAIR = CurrencyPair.BTC_USDT;
+  private static final int PRICE_SCALE = 2;
+  private static final int AMOUNT_SCALE = 8;
+  private static final long MID_PRICE = 3_000_000;
+
+  @Param({"25", "1000"})
+  public int depth;
+
+  private OrderBook orderBook;
+  private LimitOrder[] limitOrders;
+  private OrderBookUpdate[] orderBookUpdates;
+  private BookLevel[] bookLevels;
+  private int next;
+
+  @Setup
+  public void setup() {
+
+    List<LimitOrder> asks = new ArrayList<>(depth);
+    List<LimitOrder> bids = new ArrayList<>(depth);
+    int updates = 2 * depth;
+    limitOrders = new LimitOrder[updates];
+    orderBookUpdates = new OrderBookUpdate[updates];
+    bookLevels = new BookLevel[updates];
+    for (int i = 0; i < depth; i++) {
+      asks.add(level(OrderType.ASK, MID_PRICE + 1 + i, 100_000_000).toLimitOrder(PAIR));
+      bids.add(level(OrderType.BID, MID_PRICE - 1 - i, 100_000_000).toLimitOrder(PAIR));
+    }
+    orderBook = new OrderBook(null, asks, bids);
+
+    // Alternates sides, walking the levels in an order unrelated to their position in the book
+    for (int i = 0; i < updates; i++) {
+      int offset = (int) ((i * 7919L) % depth);
+      OrderType type = i % 2 == 0 ? OrderType.ASK : OrderType.BID;
+      long price = type == OrderType.ASK ? MID_PRICE + 1 + offset : MID_PRICE - 1 - offset;
+      BookLevel level = level(type, price, 50_000_000 + i);
+      bookLevels[i] = level;
+      limitOrders[i] = new LimitOrder(type, level.getAmount(), PAIR, null, null, level.getPrice());
+      orderBookUpdates[i] =
+          new OrderBookUpdate(
+              type, level.getAmount(), PAIR, level.getPrice(), null, level.getAmount());
+    }
+  }
+
+  private static BookLevel level(OrderType type, long price, long amount) {
+
+    return new BookLevel(type, price, PRICE_SCALE, amount, AMOUNT_SCALE, BookLevel.NO_TIMESTAMP);
+  }
+
+  private int nextIndex() {
+
+    int index = next;
+    next = index + 1 == limitOrders.length ? 0 : index + 1;
+    return index;
+  }
+
+  @Benchmark
+  public OrderBook updateLimitOrder() {
+
+    orderBook.update(limitOrders[nextIndex()]);
+    return orderBook;
+  }
+
+  @Benchmark
+  public OrderBook updateOrderBookUpdate() {
+
+    orderBook.update(orderBookUpdates[nextIndex()]);
+    return orderBook;
+  }
+
+  @Benchmark
+  public OrderBook updateBookLevel() {
+
+    orderBook.update(PAIR, bookLevels[nextIndex()]);
+    return orderBook;
+  }
+}
@@ -1,5 +1,8 @@
 package org.knowm.xchange.binance;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Map;
@@ -18,6 +21,7 @@ import org.knowm.xchange.currency.Currency;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.meta.CurrencyMetaData;
 import org.knowm.xchange.dto.meta.CurrencyPairMetaData;
+import org.knowm.xchange.dto.meta.ExchangeMetaData;
 import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.utils.AuthUtils;
 import si.mazi.rescu.SynchronizedValueFactory;
@@ -26,7 +30,7 @@ public class BinanceExchange extends BaseExchange {
 
   private static ResilienceRegistries RESILIENCE_REGISTRIES;
 
-  private BinanceExchangeInfo exchangeInfo;
+  private volatile BinanceExchangeInfo exchangeInfo;
   private BinanceAuthenticated binance;
   private SynchronizedValueFactory<Long> timestampFactory;
 
@@ -87,14 +91,20 @@ public class BinanceExchange extends BaseExchange {
   @Override
   public void remoteInit() {
 
+    exchangeMetaData = loadRemoteMetaData(exchangeMetaData);
+  }
+
+  @Override
+  protected ExchangeMetaData loadRemoteMetaData(ExchangeMetaData staticMetaData) {
+
     try {
       // populate currency pair keys only, exchange does not provide any other metadata for download
-      Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = exchangeMetaData.getCurrencyPairs();
-      Map<Currency, CurrencyMetaData> currencies = exchangeMetaData.getCurrencies();
+      Map<CurrencyPair, CurrencyPairMetaData> currencyPairs = staticMetaData.getCurrencyPairs();
+      Map<Currency, CurrencyMetaData> currencies = staticMetaData.getCurrencies();
 
       BinanceMarketDataService marketDataService =
           (BinanceMarketDataService) this.marketDataService;
-      exchangeInfo = marketDataService.getExchangeInfo();
+      BinanceExchangeInfo exchangeInfo = marketDataService.getExchangeInfo();
       Symbol[] symbols = exchangeInfo.getSymbols();
 
       BinanceAccountService accountService = (BinanceAccountService) getAccountService();
@@ -167,11 +177,33 @@ public class BinanceExchange extends BaseExchange {
           currencies.put(counterCurrency, counterCurrencyMetaData);
         }
       }
+      this.exchangeInfo = exchangeInfo;
+      return staticMetaData;
     } catch (Exception e) {
       throw new ExchangeException("Failed to initialize: " + e.getMessage(), e);
     }
   }
 
+  @Override
+  protected Object getRemoteInitState() {
+
+    return exchangeInfo;
+  }
+
+  @Override
+  protected boolean restoreRemoteInitState(JsonNode state) {
+
+    if (state == null) {
+      return false;
+    }
+    try {
+      exchangeInfo = new ObjectMapper().treeToValue(state, BinanceExchangeInfo.class);
+      return true;
+    } catch (JsonProcessingException e) {
+      return false;
+    }
+  }
+
   private int numberOfDecimals(String value) {
 
     return new BigDecimal(value).stripTrailingZeros().scale();
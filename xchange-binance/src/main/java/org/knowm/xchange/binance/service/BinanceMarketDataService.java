@@ -1,6 +1,7 @@
 package org.knowm.xchange.binance.service;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -24,6 +25,7 @@ import org.knowm.xchange.dto.marketdata.Trades.TradeSortType;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
 import org.knowm.xchange.service.marketdata.params.Params;
 
 public class BinanceMarketDataService extends BinanceMarketDataServiceRaw
@@ -80,7 +82,15 @@ public class BinanceMarketDataService extends BinanceMarketDataServiceRaw
   @Override
   public List<Ticker> getTickers(Params params) throws IOException {
     try {
-      return ticker24h().stream().map(BinanceTicker24h::toTicker).collect(Collectors.toList());
+      // one call for all the symbols, filtered to the requested pairs if any
+      Collection<CurrencyPair> pairs =
+          params instanceof CurrencyPairsParam
+              ? ((CurrencyPairsParam) params).getCurrencyPairs()
+              : null;
+      return ticker24h().stream()
+          .map(BinanceTicker24h::toTicker)
+          .filter(ticker -> pairs == null || pairs.contains(ticker.getCurrencyPair()))
+          .collect(Collectors.toList());
     } catch (BinanceException e) {
       throw BinanceErrorAdapter.adapt(e);
     }
@@ -114,7 +114,7 @@ public class BinanceMarketDataServiceRaw extends BinanceBaseService {
         .call();
   }
 
-  protected int depthPermits(Integer limit) {
+  public int depthPermits(Integer limit) {
     if (limit == null || limit <= 100) {
       return 1;
     } else if (limit <= 500) {
@@ -0,0 +1,41 @@
+package org.knowm.xchange.binance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.knowm.xchange.ExchangeFactory;
+import org.knowm.xchange.binance.dto.meta.exchangeinfo.BinanceExchangeInfo;
+
+public class BinanceExchangeTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testRestoresTheCachedExchangeInfo() throws Exception {
+    BinanceExchange loaded = createExchange();
+    assertThat(loaded.restoreRemoteInitState(null)).isFalse();
+    assertThat(
+            loaded.restoreRemoteInitState(
+                mapper.readTree(
+                    "{\"timezone\":\"UTC\",\"symbols\":[{\"symbol\":\"ETHBTC\",\"status\":\"TRADING\","
+                        + "\"baseAsset\":\"ETH\",\"quoteAsset\":\"BTC\",\"filters\":[{\"filterType\":"
+                        + "\"PRICE_FILTER\",\"tickSize\":\"0.000001\"}]}]}")))
+        .isTrue();
+
+    // the state as written to the cache file
+    BinanceExchange restarted = createExchange();
+    assertThat(restarted.restoreRemoteInitState(mapper.valueToTree(loaded.getRemoteInitState())))
+        .isTrue();
+
+    BinanceExchangeInfo exchangeInfo = restarted.getExchangeInfo();
+    assertThat(exchangeInfo.getTimezone()).isEqualTo("UTC");
+    assertThat(exchangeInfo.getSymbols()[0].getSymbol()).isEqualTo("ETHBTC");
+    assertThat(exchangeInfo.getSymbols()[0].getFilters()[0].getTickSize()).isEqualTo("0.000001");
+  }
+
+  private static BinanceExchange createExchange() {
+    return (BinanceExchange)
+        ExchangeFactory.INSTANCE.createExchangeWithoutSpecification(BinanceExchange.class);
+  }
+}
@@ -3,9 +3,12 @@ package org.knowm.xchange.bitmex.service;
 import static org.knowm.xchange.bitmex.dto.trade.BitmexSide.fromOrderType;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 import org.knowm.xchange.bitmex.BitmexAdapters;
@@ -16,8 +19,10 @@ import org.knowm.xchange.bitmex.dto.trade.BitmexOrderFlags;
 import org.knowm.xchange.bitmex.dto.trade.BitmexPlaceOrderParameters;
 import org.knowm.xchange.bitmex.dto.trade.BitmexPlaceOrderParameters.Builder;
 import org.knowm.xchange.bitmex.dto.trade.BitmexReplaceOrderParameters;
+import org.knowm.xchange.bitmex.dto.trade.PlaceOrderCommand;
 import org.knowm.xchange.dto.Order;
 import org.knowm.xchange.dto.marketdata.Trades.TradeSortType;
+import org.knowm.xchange.dto.trade.BatchOrderResult;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.MarketOrder;
 import org.knowm.xchange.dto.trade.OpenOrders;
@@ -26,8 +31,10 @@ import org.knowm.xchange.dto.trade.UserTrade;
 import org.knowm.xchange.dto.trade.UserTrades;
 import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.trade.ParallelOrderSubmitter;
 import org.knowm.xchange.service.trade.TradeService;
 import org.knowm.xchange.service.trade.params.CancelAllOrders;
+import org.knowm.xchange.service.trade.params.CancelOrderByIdParams;
 import org.knowm.xchange.service.trade.params.CancelOrderParams;
 import org.knowm.xchange.service.trade.params.DefaultCancelOrderParamId;
 import org.knowm.xchange.service.trade.params.TradeHistoryParamCurrencyPair;
@@ -86,6 +93,38 @@ public class BitmexTradeService extends BitmexTradeServiceRaw implements TradeSe
 
   @Override
   public String placeLimitOrder(LimitOrder limitOrder) throws ExchangeException {
+    return placeOrder(limitOrderParameters(limitOrder)).getId();
+  }
+
+  /** Places the orders with one request. Bitmex places all of them or none. */
+  @Override
+  public List<BatchOrderResult<LimitOrder>> placeLimitOrders(List<LimitOrder> limitOrders)
+      throws ExchangeException {
+    List<PlaceOrderCommand> commands =
+        limitOrders.stream()
+            .map(order -> new PlaceOrderCommand(limitOrderParameters(order)))
+            .collect(Collectors.toList());
+    List<BitmexPrivateOrder> placed;
+    try {
+      placed = placeOrderBulk(commands);
+    } catch (ExchangeException e) {
+      return limitOrders.stream()
+          .map(order -> BatchOrderResult.<LimitOrder>failed(order, e))
+          .collect(Collectors.toList());
+    }
+    List<BatchOrderResult<LimitOrder>> results = new ArrayList<>(limitOrders.size());
+    for (int i = 0; i < limitOrders.size(); i++) {
+      // The orders come back in the order they were sent
+      results.add(
+          i < placed.size()
+              ? BatchOrderResult.placed(limitOrders.get(i), placed.get(i).getId())
+              : BatchOrderResult.failed(
+                  limitOrders.get(i), new ExchangeException("Order missing from the response")));
+    }
+    return results;
+  }
+
+  private static BitmexPlaceOrderParameters limitOrderParameters(LimitOrder limitOrder) {
     String symbol = BitmexAdapters.adaptCurrencyPairToSymbol(limitOrder.getCurrencyPair());
 
     Builder b =
@@ -97,7 +136,7 @@ public class BitmexTradeService extends BitmexTradeServiceRaw implements TradeSe
     if (limitOrder.hasFlag(BitmexOrderFlags.POST)) {
       b.addExecutionInstruction(BitmexExecutionInstruction.PARTICIPATE_DO_NOT_INITIATE);
     }
-    return placeOrder(b.build()).getId();
+    return b.build();
   }
 
   @Override
@@ -153,6 +192,54 @@ public class BitmexTradeService extends BitmexTradeServiceRaw implements TradeSe
         String.format("Unexpected type of parameter: %s", params));
   }
 
+  /**
+   * Cancels the orders given by id with one request, the others one request each as in {@link
+   * #cancelOrder(CancelOrderParams)}.
+   */
+  @Override
+  public List<BatchOrderResult<CancelOrderParams>> cancelOrders(
+      Collection<CancelOrderParams> orderParams) throws IOException {
+    List<CancelOrderParams> byId = new ArrayList<>();
+    List<CancelOrderParams> others = new ArrayList<>();
+    for (CancelOrderParams params : orderParams) {
+      (params instanceof CancelOrderByIdParams ? byId : others).add(params);
+    }
+
+    Map<CancelOrderParams, BatchOrderResult<CancelOrderParams>> results = new IdentityHashMap<>();
+    if (!byId.isEmpty()) {
+      String orderIds =
+          byId.stream()
+              .map(params -> ((CancelOrderByIdParams) params).getOrderId())
+              .collect(Collectors.joining(","));
+      try {
+        Map<String, BitmexPrivateOrder> cancelled =
+            cancelBitmexOrder(orderIds).stream()
+                .collect(Collectors.toMap(BitmexPrivateOrder::getId, order -> order, (a, b) -> a));
+        for (CancelOrderParams params : byId) {
+          String orderId = ((CancelOrderByIdParams) params).getOrderId();
+          BitmexPrivateOrder order = cancelled.get(orderId);
+          results.put(
+              params,
+              order == null || order.getError() != null
+                  ? BatchOrderResult.failed(
+                      params,
+                      new ExchangeException(
+                          order == null ? "Order missing from the response" : order.getError()))
+                  : BatchOrderResult.cancelled(
+                      params,
+                      orderId,
+                      order.getOrderStatus() == BitmexPrivateOrder.OrderStatus.Canceled));
+        }
+      } catch (ExchangeException e) {
+        byId.forEach(params -> results.put(params, BatchOrderResult.failed(params, e)));
+      }
+    }
+    ParallelOrderSubmitter.cancelOrders(this, others, ParallelOrderSubmitter.DEFAULT_PARALLELISM)
+        .forEach(result -> results.put(result.getRequest(), result));
+
+    return orderParams.stream().map(results::get).collect(Collectors.toList());
+  }
+
   @Override
   public Collection<Order> getOrder(String... orderIds) throws ExchangeException {
 
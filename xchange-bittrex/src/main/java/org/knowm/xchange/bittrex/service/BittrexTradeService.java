@@ -3,16 +3,31 @@ package org.knowm.xchange.bittrex.service;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.knowm.xchange.bittrex.*;
 import org.knowm.xchange.bittrex.dto.BittrexException;
+import org.knowm.xchange.bittrex.dto.batch.BatchResponse;
+import org.knowm.xchange.bittrex.dto.batch.order.BatchOrder;
+import org.knowm.xchange.bittrex.dto.batch.order.Operation;
+import org.knowm.xchange.bittrex.dto.batch.order.cancelorder.CancelOrderPayload;
+import org.knowm.xchange.bittrex.dto.batch.order.neworder.Direction;
+import org.knowm.xchange.bittrex.dto.batch.order.neworder.NewOrderPayload;
+import org.knowm.xchange.bittrex.dto.batch.order.neworder.TimeInForce;
+import org.knowm.xchange.bittrex.dto.batch.order.neworder.Type;
 import org.knowm.xchange.bittrex.dto.trade.BittrexOrder;
 import org.knowm.xchange.client.ResilienceRegistries;
 import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.Order.OrderType;
 import org.knowm.xchange.dto.marketdata.Trades;
+import org.knowm.xchange.dto.trade.BatchOrderResult;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.OpenOrders;
 import org.knowm.xchange.dto.trade.UserTrades;
+import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.service.trade.TradeService;
 import org.knowm.xchange.service.trade.params.CancelOrderByIdParams;
 import org.knowm.xchange.service.trade.params.CancelOrderParams;
@@ -45,6 +60,111 @@ public class BittrexTradeService extends BittrexTradeServiceRaw implements Trade
     }
   }
 
+  /** Places the orders with one batch request, each of them succeeds or fails on its own. */
+  @Override
+  public List<BatchOrderResult<LimitOrder>> placeLimitOrders(List<LimitOrder> limitOrders)
+      throws IOException {
+    BatchOrder[] batchOrders =
+        limitOrders.stream()
+            .map(
+                limitOrder ->
+                    new BatchOrder(
+                        Operation.POST,
+                        new NewOrderPayload(
+                            BittrexUtils.toPairString(limitOrder.getCurrencyPair()),
+                            OrderType.BID.equals(limitOrder.getType())
+                                ? Direction.BUY
+                                : Direction.SELL,
+                            Type.LIMIT,
+                            limitOrder.getRemainingAmount().toPlainString(),
+                            limitOrder.getLimitPrice().toPlainString(),
+                            TimeInForce.GOOD_TIL_CANCELLED)))
+            .toArray(BatchOrder[]::new);
+    return executeBatch(
+        limitOrders,
+        batchOrders,
+        (order, orderId, payload) -> BatchOrderResult.placed(order, orderId));
+  }
+
+  /**
+   * Cancels the orders given by id with one batch request. The other params are rejected without
+   * being sent.
+   */
+  @Override
+  public List<BatchOrderResult<CancelOrderParams>> cancelOrders(
+      Collection<CancelOrderParams> orderParams) throws IOException {
+    List<CancelOrderParams> byId =
+        orderParams.stream()
+            .filter(params -> params instanceof CancelOrderByIdParams)
+            .collect(Collectors.toList());
+    Iterator<BatchOrderResult<CancelOrderParams>> batched = Collections.emptyIterator();
+    if (!byId.isEmpty()) {
+      BatchOrder[] batchOrders =
+          byId.stream()
+              .map(
+                  params ->
+                      new BatchOrder(
+                          Operation.DELETE,
+                          new CancelOrderPayload(((CancelOrderByIdParams) params).getOrderId())))
+              .toArray(BatchOrder[]::new);
+      batched =
+          executeBatch(
+                  byId,
+                  batchOrders,
+                  (params, orderId, payload) ->
+                      BatchOrderResult.cancelled(
+                          params,
+                          orderId,
+                          BittrexConstants.CLOSED.equalsIgnoreCase(
+                              String.valueOf(payload.get("status")))))
+              .iterator();
+    }
+    List<BatchOrderResult<CancelOrderParams>> results = new ArrayList<>(orderParams.size());
+    for (CancelOrderParams params : orderParams) {
+      results.add(
+          params instanceof CancelOrderByIdParams
+              ? batched.next()
+              : BatchOrderResult.failed(
+                  params, new IllegalArgumentException("Orders can only be cancelled by id")));
+    }
+    return results;
+  }
+
+  private <T> List<BatchOrderResult<T>> executeBatch(
+      List<T> requests, BatchOrder[] batchOrders, BatchResult<T> result) throws IOException {
+    BatchResponse[] responses;
+    try {
+      responses = executeOrdersBatch(batchOrders);
+    } catch (BittrexException e) {
+      ExchangeException error = BittrexErrorAdapter.adapt(e);
+      return requests.stream()
+          .map(request -> BatchOrderResult.failed(request, error))
+          .collect(Collectors.toList());
+    }
+    List<BatchOrderResult<T>> results = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      T request = requests.get(i);
+      // The responses come in the order of the batch
+      BatchResponse response = responses != null && i < responses.length ? responses[i] : null;
+      if (response == null || response.getPayload() == null) {
+        results.add(
+            BatchOrderResult.failed(
+                request, new ExchangeException("Order missing from the response")));
+      } else if (response.getStatus() == null || !response.getStatus().startsWith("2")) {
+        results.add(
+            BatchOrderResult.failed(
+                request,
+                new ExchangeException(
+                    response.getStatus() + " " + response.getPayload().get("code"))));
+      } else {
+        Map<?, ?> payload = response.getPayload();
+        Object id = payload.get("id");
+        results.add(result.of(request, id == null ? null : id.toString(), payload));
+      }
+    }
+    return results;
+  }
+
   @Override
   public OpenOrders getOpenOrders() throws IOException {
     return getOpenOrders(createOpenOrdersParams());
@@ -117,4 +237,10 @@ public class BittrexTradeService extends BittrexTradeServiceRaw implements Trade
       throw BittrexErrorAdapter.adapt(e);
     }
   }
+
+  /** Makes the result of a request the exchange answered successfully. */
+  @FunctionalInterface
+  private interface BatchResult<T> {
+    BatchOrderResult<T> of(T request, String orderId, Map<?, ?> payload);
+  }
 }
@@ -1,12 +1,27 @@
 package org.knowm.xchange;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.meta.ExchangeMetaData;
@@ -24,7 +39,7 @@ public abstract class BaseExchange implements Exchange {
 
   protected final Logger logger = LoggerFactory.getLogger(getClass());
   protected ExchangeSpecification exchangeSpecification;
-  protected ExchangeMetaData exchangeMetaData;
+  protected volatile ExchangeMetaData exchangeMetaData;
   protected MarketDataService marketDataService;
   protected TradeService tradeService;
   protected AccountService accountService;
@@ -32,6 +47,29 @@ public abstract class BaseExchange implements Exchange {
   private final SynchronizedValueFactory<Long> nonceFactory =
       new CurrentTimeIncrementalNonceFactory(TimeUnit.MILLISECONDS);
 
+  /** Configured once and shared, building a mapper per exchange is a good part of its startup. */
+  private static final ObjectMapper META_DATA_MAPPER = new ObjectMapper();
+
+  private static final ScheduledExecutorService META_DATA_REFRESHER =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "xchange-metadata-refresh");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  /** The meta data readers see while {@link #refreshMetaData()} builds the next one. */
+  private volatile ExchangeMetaData publishedMetaData;
+
+  /** The static meta data json, read but parsed only on first use of the meta data. */
+  private volatile byte[] unparsedMetaData;
+
+  private final Object metaDataRefreshLock = new Object();
+  private ScheduledFuture<?> metaDataRefresh;
+
+  private static final String CACHED_META_DATA = "metaData";
+  private static final String CACHED_REMOTE_INIT_STATE = "remoteInitState";
+
   protected abstract void initServices();
 
   @Override
@@ -77,12 +115,38 @@ public abstract class BaseExchange implements Exchange {
       this.exchangeSpecification = exchangeSpecification;
     }
 
+    loadStaticMetaData(true);
+
+    initServices();
+
+    if (this.exchangeSpecification.isShouldLoadRemoteMetaData()) {
+      if (!loadCachedMetaData()) {
+        // remoteInit() implementations complete the static meta data in place
+        parseStaticMetaData();
+        try {
+          logger.info("Calling Remote Init...");
+          remoteInit();
+        } catch (IOException e) {
+          throw new ExchangeException(e);
+        }
+        writeMetaDataCache();
+        scheduleMetaDataRefresh(null);
+      }
+    }
+  }
+
+  /**
+   * @param deferParsing only read the json and parse it on first use, unless a subclass handles the
+   *     parsing itself
+   */
+  private void loadStaticMetaData(boolean deferParsing) {
+
     if (this.exchangeSpecification.getMetaDataJsonFileOverride()
         != null) { // load the metadata from the file system
 
       try (InputStream is =
           new FileInputStream(this.exchangeSpecification.getMetaDataJsonFileOverride())) {
-        loadExchangeMetaData(is);
+        loadStaticMetaData(is, deferParsing);
       } catch (IOException e) {
         throw new ExchangeException(e);
       }
@@ -95,7 +159,7 @@ public abstract class BaseExchange implements Exchange {
               .getClassLoader()
               .getResourceAsStream(getMetaDataFileName(this.exchangeSpecification) + ".json")) {
 
-        loadExchangeMetaData(is);
+        loadStaticMetaData(is, deferParsing);
       } catch (IOException e) {
         throw new ExchangeException(e);
       }
@@ -104,17 +168,267 @@ public abstract class BaseExchange implements Exchange {
       logger.warn(
           "No \"exchange name\" found in the ExchangeSpecification. The name is used to load the meta data file from the classpath and may lead to unexpected results.");
     }
+  }
 
-    initServices();
+  private void loadStaticMetaData(InputStream is, boolean deferParsing) throws IOException {
 
-    if (this.exchangeSpecification.isShouldLoadRemoteMetaData()) {
+    if (!deferParsing || is == null || overridesLoadExchangeMetaData()) {
+      unparsedMetaData = null;
+      loadExchangeMetaData(is);
+      return;
+    }
+    ByteArrayOutputStream json = new ByteArrayOutputStream();
+    byte[] buffer = new byte[8192];
+    int read;
+    while ((read = is.read(buffer)) != -1) {
+      json.write(buffer, 0, read);
+    }
+    exchangeMetaData = null;
+    unparsedMetaData = json.toByteArray();
+  }
+
+  private boolean overridesLoadExchangeMetaData() {
+
+    return overrides("loadExchangeMetaData", InputStream.class);
+  }
+
+  private boolean overridesLoadRemoteMetaData() {
+
+    return overrides("loadRemoteMetaData", ExchangeMetaData.class);
+  }
+
+  private boolean overrides(String method, Class<?>... parameterTypes) {
+
+    for (Class<?> type = getClass(); type != BaseExchange.class; type = type.getSuperclass()) {
       try {
-        logger.info("Calling Remote Init...");
+        type.getDeclaredMethod(method, parameterTypes);
+        return true;
+      } catch (NoSuchMethodException e) {
+        // look further up
+      }
+    }
+    return false;
+  }
+
+  /** @return the static meta data, read again without touching the current one */
+  private ExchangeMetaData readStaticMetaData() throws IOException {
+
+    String override = exchangeSpecification.getMetaDataJsonFileOverride();
+    if (override == null && exchangeSpecification.getExchangeName() == null) {
+      return null;
+    }
+    try (InputStream is =
+        override != null
+            ? new FileInputStream(override)
+            : BaseExchangeService.class
+                .getClassLoader()
+                .getResourceAsStream(getMetaDataFileName(exchangeSpecification) + ".json")) {
+      return is == null ? null : loadMetaData(is, ExchangeMetaData.class);
+    }
+  }
+
+  private void parseStaticMetaData() {
+
+    if (unparsedMetaData == null) {
+      return;
+    }
+    synchronized (this) {
+      byte[] json = unparsedMetaData;
+      if (json != null) {
+        loadExchangeMetaData(new ByteArrayInputStream(json));
+        unparsedMetaData = null;
+      }
+    }
+  }
+
+  /** @return true if the meta data was loaded from the cache file */
+  private boolean loadCachedMetaData() {
+
+    String cacheFile = exchangeSpecification.getMetaDataCacheFile();
+    if (cacheFile == null) {
+      return false;
+    }
+    Path path = Paths.get(cacheFile);
+    if (!Files.isReadable(path)) {
+      return false;
+    }
+    ExchangeMetaData cached;
+    JsonNode state;
+    long ageMillis;
+    try (InputStream is = Files.newInputStream(path)) {
+      ageMillis = System.currentTimeMillis() - Files.getLastModifiedTime(path).toMillis();
+      JsonNode json = META_DATA_MAPPER.readTree(is);
+      // the files written before the remote init state was cached only hold the meta data
+      JsonNode metaData = json.has(CACHED_META_DATA) ? json.get(CACHED_META_DATA) : json;
+      cached = META_DATA_MAPPER.treeToValue(metaData, ExchangeMetaData.class);
+      state = json.has(CACHED_META_DATA) ? json.get(CACHED_REMOTE_INIT_STATE) : null;
+    } catch (IOException e) {
+      logger.warn("Could not read the meta data cache {}", path, e);
+      return false;
+    }
+    if (cached == null) {
+      return false;
+    }
+    unparsedMetaData = null;
+    exchangeMetaData = cached;
+    logger.info("Loaded the meta data from {}, {}s old", path, ageMillis / 1000);
+
+    // remoteInit() of the exchanges which do not load their meta data aside also sets up state the
+    // cache cannot restore, so it still runs right away while the cached meta data is served
+    Duration ttl = exchangeSpecification.getMetaDataCacheTtl();
+    if (ttl != null
+        && ageMillis < ttl.toMillis()
+        && overridesLoadRemoteMetaData()
+        && restoreRemoteInitState(state == null || state.isNull() ? null : state)) {
+      scheduleMetaDataRefresh(Duration.ofMillis(ttl.toMillis() - Math.max(0, ageMillis)));
+    } else {
+      scheduleMetaDataRefresh(Duration.ZERO);
+    }
+    return true;
+  }
+
+  private void writeMetaDataCache() {
+
+    String cacheFile = exchangeSpecification.getMetaDataCacheFile();
+    if (cacheFile == null) {
+      return;
+    }
+    Path path = Paths.get(cacheFile).toAbsolutePath();
+    // Write aside and move, so other processes sharing the file never read it half written
+    Path tmp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    try {
+      Files.createDirectories(path.getParent());
+      ObjectNode json = META_DATA_MAPPER.createObjectNode();
+      json.set(CACHED_META_DATA, META_DATA_MAPPER.valueToTree(getExchangeMetaData()));
+      json.set(CACHED_REMOTE_INIT_STATE, META_DATA_MAPPER.valueToTree(getRemoteInitState()));
+      Files.write(tmp, META_DATA_MAPPER.writeValueAsBytes(json));
+      Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      logger.warn("Could not write the meta data cache {}", path, e);
+      try {
+        Files.deleteIfExists(tmp);
+      } catch (IOException ignored) {
+        // nothing left to do
+      }
+    }
+  }
+
+  /**
+   * Refreshes the meta data after the initial delay, then every TTL if there is one.
+   *
+   * @param initialDelay null to only refresh every TTL
+   */
+  private void scheduleMetaDataRefresh(Duration initialDelay) {
+
+    Duration ttl = exchangeSpecification.getMetaDataCacheTtl();
+    if (exchangeSpecification.getMetaDataCacheFile() == null
+        || (initialDelay == null && ttl == null)) {
+      return;
+    }
+    synchronized (metaDataRefreshLock) {
+      stopMetaDataRefresh();
+      MetaDataRefreshTask task = new MetaDataRefreshTask(this);
+      long delayMillis = (initialDelay == null ? ttl : initialDelay).toMillis();
+      metaDataRefresh =
+          ttl == null
+              ? META_DATA_REFRESHER.schedule(task, delayMillis, TimeUnit.MILLISECONDS)
+              : META_DATA_REFRESHER.scheduleWithFixedDelay(
+                  task, delayMillis, ttl.toMillis(), TimeUnit.MILLISECONDS);
+      task.future = metaDataRefresh;
+    }
+  }
+
+  /**
+   * Stops the background refresh of the meta data scheduled when a {@link
+   * ExchangeSpecification#getMetaDataCacheFile() cache file} is set. It also stops by itself once
+   * the exchange is no longer referenced.
+   */
+  public void stopMetaDataRefresh() {
+
+    synchronized (metaDataRefreshLock) {
+      if (metaDataRefresh != null) {
+        metaDataRefresh.cancel(false);
+        metaDataRefresh = null;
+      }
+    }
+  }
+
+  /**
+   * Reloads the meta data from the exchange and updates the cache file, if any. Until the new meta
+   * data is complete, {@link #getExchangeMetaData()} keeps returning the current one. Exchanges
+   * implementing {@link #loadRemoteMetaData} replace it in one step, for the others {@code
+   * remoteInit()} completes the static meta data in place.
+   *
+   * @throws ExchangeException if the exchange could not be reached, the current meta data is kept
+   */
+  public void refreshMetaData() {
+
+    synchronized (metaDataRefreshLock) {
+      if (overridesLoadRemoteMetaData()) {
+        try {
+          ExchangeMetaData staticMetaData = readStaticMetaData();
+          ExchangeMetaData refreshed =
+              loadRemoteMetaData(
+                  staticMetaData != null
+                      ? staticMetaData
+                      : new ExchangeMetaData(new HashMap<>(), new HashMap<>(), null, null, null));
+          exchangeMetaData = refreshed;
+        } catch (IOException e) {
+          throw new ExchangeException(e);
+        }
+        writeMetaDataCache();
+        return;
+      }
+      ExchangeMetaData current = getExchangeMetaData();
+      publishedMetaData = current;
+      try {
+        loadStaticMetaData(false);
         remoteInit();
-      } catch (IOException e) {
-        throw new ExchangeException(e);
+      } catch (IOException | RuntimeException e) {
+        exchangeMetaData = current;
+        throw e instanceof ExchangeException ? (ExchangeException) e : new ExchangeException(e);
+      } finally {
+        publishedMetaData = null;
       }
     }
+    writeMetaDataCache();
+  }
+
+  /**
+   * Loads the meta data from the exchange, like {@code remoteInit()}, but builds it aside from the
+   * meta data in use, which {@link #refreshMetaData()} then replaces in one step. Exchanges
+   * implementing it also keep the state they set up besides the meta data in {@link
+   * #getRemoteInitState()}, so a recent {@link ExchangeSpecification#getMetaDataCacheFile() cache}
+   * stands in for {@code remoteInit()} at startup until it expires.
+   *
+   * @param staticMetaData a copy of the static meta data of the exchange, to start from
+   * @return the complete meta data
+   */
+  protected ExchangeMetaData loadRemoteMetaData(ExchangeMetaData staticMetaData)
+      throws IOException {
+
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @return the state set up by {@link #loadRemoteMetaData} besides the meta data, serializable to
+   *     json, which is cached along with the meta data; null for none
+   */
+  protected Object getRemoteInitState() {
+
+    return null;
+  }
+
+  /**
+   * Restores the state of {@link #getRemoteInitState()} from the cache.
+   *
+   * @param state the cached state, null if the cache has none
+   * @return false if the exchange cannot do without calling the exchange, which then happens right
+   *     away
+   */
+  protected boolean restoreRemoteInitState(JsonNode state) {
+
+    return true;
   }
 
   @Override
@@ -137,11 +451,8 @@ public abstract class BaseExchange implements Exchange {
 
   protected <T> T loadMetaData(InputStream is, Class<T> type) {
 
-    // Use Jackson to parse it
-    ObjectMapper mapper = new ObjectMapper();
-
     try {
-      T result = mapper.readValue(is, type);
+      T result = META_DATA_MAPPER.readValue(is, type);
       logger.debug(result.toString());
       return result;
     } catch (Exception e) {
@@ -177,6 +488,11 @@ public abstract class BaseExchange implements Exchange {
   @Override
   public ExchangeMetaData getExchangeMetaData() {
 
+    ExchangeMetaData published = publishedMetaData;
+    if (published != null) {
+      return published;
+    }
+    parseStaticMetaData();
     return exchangeMetaData;
   }
 
@@ -204,4 +520,32 @@ public abstract class BaseExchange implements Exchange {
             : getClass().getName();
     return name + "#" + hashCode();
   }
+
+  /** Refreshes an exchange without keeping it from being garbage collected. */
+  private static final class MetaDataRefreshTask implements Runnable {
+
+    private final WeakReference<BaseExchange> exchange;
+    private volatile ScheduledFuture<?> future;
+
+    private MetaDataRefreshTask(BaseExchange exchange) {
+      this.exchange = new WeakReference<>(exchange);
+    }
+
+    @Override
+    public void run() {
+      BaseExchange target = exchange.get();
+      if (target == null) {
+        ScheduledFuture<?> scheduled = future;
+        if (scheduled != null) {
+          scheduled.cancel(false);
+        }
+        return;
+      }
+      try {
+        target.refreshMetaData();
+      } catch (RuntimeException e) {
+        target.logger.warn("Refreshing the meta data failed, keeping the current one", e);
+      }
+    }
+  }
 }
@@ -2,6 +2,13 @@ package org.knowm.xchange;
 
 import static org.knowm.xchange.ExchangeClassUtils.exchangeClassForName;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.utils.Assert;
 import org.slf4j.Logger;
@@ -17,6 +24,9 @@ import org.slf4j.LoggerFactory;
 public enum ExchangeFactory {
   INSTANCE;
 
+  /** Upper bound of the exchanges {@link #createExchanges(List)} initializes at the same time. */
+  private static final int MAX_PARALLEL_CREATIONS = 32;
+
   // flags
   private final Logger log = LoggerFactory.getLogger(ExchangeFactory.class);
 
@@ -131,6 +141,76 @@ public enum ExchangeFactory {
     return exchange;
   }
 
+  /**
+   * Create several Exchange objects at once. The exchanges are created and initialized in parallel,
+   * so the class loading, meta data loading and remote initialization of one exchange do not wait
+   * for the others.
+   *
+   * @param exchangeSpecifications the exchange specifications
+   * @return the new exchange instances, in the order of the specifications
+   * @throws ExchangeException if any of the exchanges could not be created, the failures of the
+   *     other exchanges are added as suppressed exceptions
+   */
+  public List<Exchange> createExchanges(List<ExchangeSpecification> exchangeSpecifications) {
+
+    Assert.notNull(exchangeSpecifications, "exchangeSpecifications cannot be null");
+
+    log.debug("Creating {} exchanges from specifications", exchangeSpecifications.size());
+
+    if (exchangeSpecifications.isEmpty()) {
+      return new ArrayList<>();
+    }
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(exchangeSpecifications.size(), MAX_PARALLEL_CREATIONS),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "xchange-exchange-init-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<Exchange>> futures = new ArrayList<>(exchangeSpecifications.size());
+      for (ExchangeSpecification exchangeSpecification : exchangeSpecifications) {
+        Assert.notNull(exchangeSpecification, "exchangeSpecification cannot be null");
+        futures.add(executor.submit(() -> createExchange(exchangeSpecification)));
+      }
+
+      List<Exchange> exchanges = new ArrayList<>(futures.size());
+      ExchangeException failure = null;
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          exchanges.add(futures.get(i).get());
+        } catch (ExecutionException e) {
+          Class<? extends Exchange> exchangeClass =
+              exchangeSpecifications.get(i).getExchangeClass();
+          ExchangeException exception =
+              new ExchangeException(
+                  "Problem creating Exchange "
+                      + (exchangeClass == null
+                          ? exchangeSpecifications.get(i).getExchangeName()
+                          : exchangeClass.getName()),
+                  e.getCause());
+          if (failure == null) {
+            failure = exception;
+          } else {
+            failure.addSuppressed(exception);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return exchanges;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExchangeException("Interrupted while creating exchanges", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   /**
    * Create an Exchange object without default ExchangeSpecification
    *
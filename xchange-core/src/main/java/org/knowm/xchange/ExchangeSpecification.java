@@ -2,6 +2,7 @@ package org.knowm.xchange;
 
 import static org.knowm.xchange.ExchangeClassUtils.exchangeClassForName;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -33,6 +34,8 @@ public class ExchangeSpecification {
   private ResilienceSpecification resilience = new ResilienceSpecification();
   private String metaDataJsonFileOverride = null;
   private boolean shouldLoadRemoteMetaData = true; // default value
+  private String metaDataCacheFile = null;
+  private Duration metaDataCacheTtl = Duration.ofHours(1);
   /** arbitrary exchange params that can be set for unique cases */
   private Map<String, Object> exchangeSpecificParameters = new HashMap<>();
 
@@ -475,6 +478,50 @@ public class ExchangeSpecification {
     this.shouldLoadRemoteMetaData = shouldLoadRemoteMetaData;
   }
 
+  /**
+   * Get the file caching the remotely loaded meta data, see {@link #setMetaDataCacheFile(String)}.
+   *
+   * @return
+   */
+  public String getMetaDataCacheFile() {
+
+    return metaDataCacheFile;
+  }
+
+  /**
+   * Set a file to cache the remotely loaded meta data in. If the file exists, the meta data is
+   * served from it at startup, and is refreshed every {@link #getMetaDataCacheTtl()} after that.
+   * Exchanges which cache the state they set up besides the meta data are only called once the file
+   * is older than the TTL, the others are called right away in the background, and their state is
+   * only available once the call completes. Only used if {@link #isShouldLoadRemoteMetaData()}.
+   *
+   * @param metaDataCacheFile
+   */
+  public void setMetaDataCacheFile(String metaDataCacheFile) {
+
+    this.metaDataCacheFile = metaDataCacheFile;
+  }
+
+  /**
+   * How often the cached meta data is refreshed (default 1 hour).
+   *
+   * @return
+   */
+  public Duration getMetaDataCacheTtl() {
+
+    return metaDataCacheTtl;
+  }
+
+  /**
+   * How often the cached meta data is refreshed, null to only refresh it at startup.
+   *
+   * @param metaDataCacheTtl
+   */
+  public void setMetaDataCacheTtl(Duration metaDataCacheTtl) {
+
+    this.metaDataCacheTtl = metaDataCacheTtl;
+  }
+
   public static class ResilienceSpecification {
     private boolean retryEnabled = false;
     private boolean rateLimiterEnabled = false;
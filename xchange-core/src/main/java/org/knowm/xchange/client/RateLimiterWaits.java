@@ -0,0 +1,26 @@
+package org.knowm.xchange.client;
+
+/**
+ * Time the current thread waited for rate limiter permits before its next REST call. The rate
+ * limiters applied with {@link ResilienceUtils.DecorateCallableApi#withRateLimiter} add to it, so
+ * that an {@link si.mazi.rescu.Interceptor} around the call can attribute the wait to it.
+ */
+public final class RateLimiterWaits {
+
+  private static final ThreadLocal<long[]> PENDING_NANOS =
+      ThreadLocal.withInitial(() -> new long[1]);
+
+  private RateLimiterWaits() {}
+
+  static void add(long nanos) {
+    PENDING_NANOS.get()[0] += nanos;
+  }
+
+  /** @return the nanos waited since the last call, and resets them */
+  public static long consume() {
+    long[] pending = PENDING_NANOS.get();
+    long nanos = pending[0];
+    pending[0] = 0;
+    return nanos;
+  }
+}
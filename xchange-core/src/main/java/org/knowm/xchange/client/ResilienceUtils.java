@@ -75,9 +75,20 @@ public final class ResilienceUtils {
 
     public DecorateCallableApi<T> withRateLimiter(RateLimiter rateLimiter, int permits) {
       if (resilienceSpecification.isRateLimiterEnabled()) {
+        CallableApi<T> permitted = this.callable;
         this.callable =
-            CallableApi.wrapCallable(
-                RateLimiter.decorateCallable(rateLimiter, permits, this.callable));
+            () -> {
+              long waitStart = System.nanoTime();
+              return CallableApi.wrapCallable(
+                      RateLimiter.decorateCallable(
+                          rateLimiter,
+                          permits,
+                          () -> {
+                            RateLimiterWaits.add(System.nanoTime() - waitStart);
+                            return permitted.call();
+                          }))
+                  .call();
+            };
       }
       return this;
     }
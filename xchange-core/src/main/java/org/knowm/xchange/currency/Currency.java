@@ -5,11 +5,11 @@ import com.fasterxml.jackson.annotation.JsonValue;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A Currency class roughly modeled after {@link java.util.Currency}. Each object retains the code
@@ -19,7 +19,7 @@ import java.util.TreeSet;
 public class Currency implements Comparable<Currency>, Serializable {
 
   private static final long serialVersionUID = -7340731832345284129L;
-  private static final Map<String, Currency> currencies = new HashMap<>();
+  private static final Map<String, Currency> currencies = new ConcurrentHashMap<>();
 
   /** Global currency codes */
   // TODO: Load from json resource
@@ -500,7 +500,10 @@ public class Currency implements Comparable<Currency>, Serializable {
     Currency currency = getInstanceNoCreate(currencyCode.toUpperCase());
 
     if (currency == null) {
-      return createCurrency(currencyCode.toUpperCase(), null, null);
+      // exchanges are created in parallel, all of them get the same instance of a new code
+      return currencies.computeIfAbsent(
+          currencyCode.toUpperCase(),
+          code -> new Currency(code, new CurrencyAttributes(code, null, null)));
     } else {
       return currency;
     }
@@ -534,10 +537,10 @@ public class Currency implements Comparable<Currency>, Serializable {
 
         currencies.put(code, currency);
 
-      } else if (!currencies.containsKey(code)) {
+      } else {
         // alternative codes will never overwrite common codes
 
-        currencies.put(code, new Currency(code, attributes));
+        currencies.putIfAbsent(code, new Currency(code, attributes));
       }
     }
 
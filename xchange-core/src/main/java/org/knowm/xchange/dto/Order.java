@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Random;
@@ -40,8 +41,8 @@ public abstract class Order implements Serializable {
   private final String userReference;
   /** The timestamp on the order according to the exchange's server, null if not provided */
   private final Date timestamp;
-  /** Any applicable order flags */
-  private final Set<IOrderFlags> orderFlags = new HashSet<>();
+  /** Any applicable order flags, allocated when the first one is added */
+  private Set<IOrderFlags> orderFlags;
   /** Status of order during it lifecycle */
   private OrderStatus status;
   /** Amount to be ordered / amount that has been matched against order on the order book/filled */
@@ -265,25 +266,30 @@ public abstract class Order implements Serializable {
 
   public Set<IOrderFlags> getOrderFlags() {
 
+    if (orderFlags == null) {
+      orderFlags = new HashSet<>();
+    }
     return orderFlags;
   }
 
   public void setOrderFlags(Set<IOrderFlags> flags) {
 
-    this.orderFlags.clear();
-    if (flags != null) {
-      this.orderFlags.addAll(flags);
+    if (orderFlags != null) {
+      orderFlags.clear();
+    }
+    if (flags != null && !flags.isEmpty()) {
+      getOrderFlags().addAll(flags);
     }
   }
 
   public boolean hasFlag(IOrderFlags flag) {
 
-    return orderFlags.contains(flag);
+    return orderFlags != null && orderFlags.contains(flag);
   }
 
   public void addOrderFlag(IOrderFlags flag) {
 
-    orderFlags.add(flag);
+    getOrderFlags().add(flag);
   }
 
   public void setOrderStatus(OrderStatus status) {
@@ -321,7 +327,8 @@ public abstract class Order implements Serializable {
         + ", status="
         + status
         + ", flags="
-        + orderFlags
+        // not getOrderFlags(), which creates the set
+        + (orderFlags == null ? Collections.emptySet() : orderFlags)
         + ", userReference="
         + userReference
         + "]";
@@ -477,7 +484,9 @@ public abstract class Order implements Serializable {
 
   public abstract static class Builder {
 
-    protected final Set<IOrderFlags> flags = new HashSet<>();
+    /** Allocated when the first flag is added, null for orders without flags */
+    protected Set<IOrderFlags> flags;
+
     protected OrderType orderType;
     protected BigDecimal originalAmount;
     protected BigDecimal cumulativeAmount;
@@ -580,12 +589,20 @@ public abstract class Order implements Serializable {
     @JsonProperty("orderFlags")
     public Builder flags(Set<IOrderFlags> flags) {
 
-      this.flags.addAll(flags);
+      if (!flags.isEmpty()) {
+        if (this.flags == null) {
+          this.flags = new HashSet<>();
+        }
+        this.flags.addAll(flags);
+      }
       return this;
     }
 
     public Builder flag(IOrderFlags flag) {
 
+      if (this.flags == null) {
+        this.flags = new HashSet<>();
+      }
       this.flags.add(flag);
       return this;
     }
@@ -0,0 +1,495 @@
+package org.knowm.xchange.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.knowm.xchange.dto.meta.CurrencyPairMetaData;
+
+/**
+ * Fixed-point decimal number, an unscaled {@code long} with a decimal scale, i.e. the number is
+ * {@code unscaledValue / 10^scale}. The prices of one instrument share a scale, usually the {@link
+ * #priceScale(CurrencyPairMetaData) price scale} of the instrument, so that they are compared as
+ * plain longs. Amounts have their own {@link #amountScale(CurrencyPairMetaData) amount scale}, as
+ * they are often finer than the price tick.
+ *
+ * <p>The static methods work on unscaled longs and never allocate, they are meant for code on the
+ * hot path of market data, e.g. order book maintenance. Instances are immutable and compute their
+ * {@link BigDecimal} view on first use only.
+ *
+ * <p>All operations are exact: a result that does not fit in a {@code long}, or that would need
+ * rounding without a {@link RoundingMode} given, throws an {@link ArithmeticException}.
+ */
+public final class ScaledDecimal extends Number implements Comparable<ScaledDecimal> {
+
+  private static final long serialVersionUID = 4390137204618729461L;
+
+  /** Scale used when an instrument has no price or amount scale in its meta data. */
+  public static final int DEFAULT_SCALE = 8;
+
+  /** Largest supported scale, 10^18 is the largest power of ten in a {@code long}. */
+  public static final int MAX_SCALE = 18;
+
+  public static final ScaledDecimal ZERO = new ScaledDecimal(0, 0);
+
+  private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private final long unscaledValue;
+  private final int scale;
+
+  /** Computed on first use, racy but safe as BigDecimal is immutable. */
+  private transient BigDecimal bigDecimal;
+
+  private ScaledDecimal(long unscaledValue, int scale) {
+    this.unscaledValue = unscaledValue;
+    this.scale = scale;
+  }
+
+  /**
+   * @param unscaledValue the unscaled value
+   * @param scale the number of decimal places, between 0 and {@link #MAX_SCALE}
+   */
+  public static ScaledDecimal of(long unscaledValue, int scale) {
+    checkScale(scale);
+    return new ScaledDecimal(unscaledValue, scale);
+  }
+
+  /** @return the given value with the given scale */
+  public static ScaledDecimal valueOf(BigDecimal value, int scale) {
+    checkScale(scale);
+    return new ScaledDecimal(value.setScale(scale).unscaledValue().longValueExact(), scale);
+  }
+
+  /** @return the given value with the given scale, or null if the value is null */
+  public static ScaledDecimal valueOf(BigDecimal value, CurrencyPairMetaData metaData) {
+    return value == null ? null : valueOf(value, priceScale(metaData));
+  }
+
+  /**
+   * @return the text parsed with the scale of its decimal places, e.g. 2 for "1.50", for sources
+   *     that send prices with a fixed number of decimals
+   * @throws ArithmeticException if the number needs more than {@link #MAX_SCALE} decimal places
+   */
+  public static ScaledDecimal parse(CharSequence text) {
+    int length = text.length();
+    int scale = 0;
+    boolean fraction = false;
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c == 'e' || c == 'E') {
+        // rare in market data, let BigDecimal work out the scale
+        BigDecimal value = new BigDecimal(text.toString());
+        return valueOf(value, Math.max(0, value.stripTrailingZeros().scale()));
+      }
+      if (fraction) {
+        scale++;
+      } else if (c == '.') {
+        fraction = true;
+      }
+    }
+    // trailing zeros beyond the largest scale carry no value
+    for (int end = length; scale > MAX_SCALE && text.charAt(end - 1) == '0'; end--) {
+      scale--;
+    }
+    return parse(text, Math.min(scale, MAX_SCALE));
+  }
+
+  /** @return the text parsed with the given scale */
+  public static ScaledDecimal parse(CharSequence text, int scale) {
+    return new ScaledDecimal(parseUnscaled(text, 0, text.length(), scale), checkScale(scale));
+  }
+
+  /**
+   * Parses the current token, a JSON number or a string, without materializing it as a String or
+   * BigDecimal.
+   *
+   * @return the value of the current token with the given scale, or null for a JSON null
+   */
+  public static ScaledDecimal parse(JsonParser parser, int scale) throws IOException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    return new ScaledDecimal(parseUnscaled(parser, scale), checkScale(scale));
+  }
+
+  /** @return the price scale of the instrument, or {@link #DEFAULT_SCALE} if it is unknown */
+  public static int priceScale(CurrencyPairMetaData metaData) {
+    return metaData == null || metaData.getPriceScale() == null
+        ? DEFAULT_SCALE
+        : metaData.getPriceScale();
+  }
+
+  /**
+   * @return the amount scale of the instrument, its base scale or else its volume scale, or {@link
+   *     #DEFAULT_SCALE} if both are unknown
+   */
+  public static int amountScale(CurrencyPairMetaData metaData) {
+    if (metaData == null) {
+      return DEFAULT_SCALE;
+    }
+    if (metaData.getBaseScale() != null) {
+      return metaData.getBaseScale();
+    }
+    return metaData.getVolumeScale() == null ? DEFAULT_SCALE : metaData.getVolumeScale();
+  }
+
+  /** @return the unscaled value of the current token of the parser, see {@link #parse} */
+  public static long parseUnscaled(JsonParser parser, int scale) throws IOException {
+    JsonToken token = parser.getCurrentToken();
+    if (token != JsonToken.VALUE_NUMBER_INT
+        && token != JsonToken.VALUE_NUMBER_FLOAT
+        && token != JsonToken.VALUE_STRING) {
+      throw new NumberFormatException("Not a number: " + token);
+    }
+    return parseUnscaled(
+        parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), scale);
+  }
+
+  /**
+   * @return the unscaled value of the decimal number in {@code text[from, to)}, in plain or
+   *     scientific notation
+   * @throws NumberFormatException if the text is not a number
+   * @throws ArithmeticException if the number has more decimal places than the scale, or is too
+   *     large
+   */
+  public static long parseUnscaled(CharSequence text, int from, int to, int scale) {
+    return parseUnscaled(text, null, from, to, scale);
+  }
+
+  /** @see #parseUnscaled(CharSequence, int, int, int) */
+  public static long parseUnscaled(char[] text, int offset, int length, int scale) {
+    return parseUnscaled(null, text, offset, offset + length, scale);
+  }
+
+  private static long parseUnscaled(CharSequence seq, char[] arr, int from, int to, int scale) {
+    checkScale(scale);
+    int i = from;
+    boolean negative = false;
+    if (i < to && (charAt(seq, arr, i) == '-' || charAt(seq, arr, i) == '+')) {
+      negative = charAt(seq, arr, i) == '-';
+      i++;
+    }
+    // accumulated as a negative number, which has the larger range
+    long value = 0;
+    int digits = 0;
+    int fractionDigits = 0;
+    boolean fraction = false;
+    boolean dropped = false;
+    for (; i < to; i++) {
+      char c = charAt(seq, arr, i);
+      if (c >= '0' && c <= '9') {
+        digits++;
+        if (fraction) {
+          fractionDigits++;
+        }
+        if (fraction && fractionDigits > scale) {
+          // beyond the scale, only zeros can be dropped unless an exponent follows
+          dropped |= c != '0';
+          fractionDigits--;
+          continue;
+        }
+        value = Math.subtractExact(Math.multiplyExact(value, 10), c - '0');
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else if (c == 'e' || c == 'E') {
+        break;
+      } else {
+        throw new NumberFormatException("Not a number: " + text(seq, arr, from, to));
+      }
+    }
+    if (digits == 0) {
+      throw new NumberFormatException("Not a number: " + text(seq, arr, from, to));
+    }
+    int exponent = 0;
+    if (i < to) {
+      exponent = parseExponent(seq, arr, i + 1, to);
+    } else if (dropped) {
+      throw new ArithmeticException(
+          "Rounding necessary to parse " + text(seq, arr, from, to) + " with scale " + scale);
+    }
+    if (dropped) {
+      // rare, e.g. 1.2345e2 with scale 2: fall back to an exact conversion
+      return new BigDecimal(text(seq, arr, from, to).toString())
+          .setScale(scale)
+          .unscaledValue()
+          .longValueExact();
+    }
+    long result = rescale(value, fractionDigits - exponent, scale);
+    if (negative) {
+      return result;
+    }
+    if (result == Long.MIN_VALUE) {
+      throw new ArithmeticException("Overflow parsing " + text(seq, arr, from, to));
+    }
+    return -result;
+  }
+
+  private static int parseExponent(CharSequence seq, char[] arr, int from, int to) {
+    int i = from;
+    boolean negative = false;
+    if (i < to && (charAt(seq, arr, i) == '-' || charAt(seq, arr, i) == '+')) {
+      negative = charAt(seq, arr, i) == '-';
+      i++;
+    }
+    if (i == to) {
+      throw new NumberFormatException("Not a number: " + text(seq, arr, from, to));
+    }
+    int exponent = 0;
+    for (; i < to; i++) {
+      char c = charAt(seq, arr, i);
+      if (c < '0' || c > '9' || exponent > 1000) {
+        throw new NumberFormatException("Not a number: " + text(seq, arr, from, to));
+      }
+      exponent = exponent * 10 + c - '0';
+    }
+    return negative ? -exponent : exponent;
+  }
+
+  private static char charAt(CharSequence seq, char[] arr, int i) {
+    return seq != null ? seq.charAt(i) : arr[i];
+  }
+
+  private static CharSequence text(CharSequence seq, char[] arr, int from, int to) {
+    return seq != null ? seq.subSequence(from, to) : new String(arr, from, to - from);
+  }
+
+  /**
+   * @return the unscaled value converted from one scale to another
+   * @throws ArithmeticException if the value overflows, or has to be rounded
+   */
+  public static long rescale(long unscaledValue, int fromScale, int toScale) {
+    if (fromScale == toScale) {
+      return unscaledValue;
+    }
+    if (toScale > fromScale) {
+      long result = unscaledValue;
+      for (int diff = toScale - fromScale; diff > 0; diff -= MAX_SCALE) {
+        result = Math.multiplyExact(result, POWERS_OF_TEN[Math.min(diff, MAX_SCALE)]);
+      }
+      return result;
+    }
+    return divide(unscaledValue, fromScale - toScale, RoundingMode.UNNECESSARY);
+  }
+
+  /** @return the unscaled value converted from one scale to another, rounding if needed */
+  public static long rescale(
+      long unscaledValue, int fromScale, int toScale, RoundingMode roundingMode) {
+    return toScale >= fromScale
+        ? rescale(unscaledValue, fromScale, toScale)
+        : divide(unscaledValue, fromScale - toScale, roundingMode);
+  }
+
+  /** Compares two unscaled values of possibly different scales, without allocating. */
+  public static int compare(long a, int aScale, long b, int bScale) {
+    if (aScale == bScale) {
+      return Long.compare(a, b);
+    }
+    if (Long.signum(a) != Long.signum(b)) {
+      return Integer.compare(Long.signum(a), Long.signum(b));
+    }
+    // bring both to the larger scale; if that overflows, the scaled up one is the larger in size
+    try {
+      return aScale < bScale
+          ? Long.compare(rescale(a, aScale, bScale), b)
+          : Long.compare(a, rescale(b, bScale, aScale));
+    } catch (ArithmeticException overflow) {
+      return aScale < bScale ? Long.signum(a) : -Long.signum(b);
+    }
+  }
+
+  /**
+   * Multiplies two unscaled values, e.g. a price and an amount.
+   *
+   * @return the product with the result scale
+   */
+  public static long multiply(
+      long a, int aScale, long b, int bScale, int resultScale, RoundingMode roundingMode) {
+    return rescale(Math.multiplyExact(a, b), aScale + bScale, resultScale, roundingMode);
+  }
+
+  private static long divide(long unscaledValue, int digits, RoundingMode roundingMode) {
+    if (digits > MAX_SCALE) {
+      // the divisor exceeds any long
+      return BigDecimal.valueOf(unscaledValue, digits).setScale(0, roundingMode).longValueExact();
+    }
+    long divisor = POWERS_OF_TEN[digits];
+    long quotient = unscaledValue / divisor;
+    long remainder = unscaledValue % divisor;
+    if (remainder == 0) {
+      return quotient;
+    }
+    int sign = Long.signum(remainder);
+    int half = Long.compare(Math.abs(remainder), divisor - Math.abs(remainder));
+    boolean increment;
+    switch (roundingMode) {
+      case UNNECESSARY:
+        throw new ArithmeticException("Rounding necessary");
+      case DOWN:
+        increment = false;
+        break;
+      case UP:
+        increment = true;
+        break;
+      case FLOOR:
+        increment = sign < 0;
+        break;
+      case CEILING:
+        increment = sign > 0;
+        break;
+      case HALF_UP:
+        increment = half >= 0;
+        break;
+      case HALF_DOWN:
+        increment = half > 0;
+        break;
+      case HALF_EVEN:
+        increment = half > 0 || (half == 0 && (quotient & 1) != 0);
+        break;
+      default:
+        throw new IllegalArgumentException("Unsupported rounding mode " + roundingMode);
+    }
+    return increment ? Math.addExact(quotient, sign) : quotient;
+  }
+
+  private static int checkScale(int scale) {
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+    }
+    return scale;
+  }
+
+  public long getUnscaledValue() {
+    return unscaledValue;
+  }
+
+  public int getScale() {
+    return scale;
+  }
+
+  public int signum() {
+    return Long.signum(unscaledValue);
+  }
+
+  /** @return this value with the given scale */
+  public ScaledDecimal withScale(int scale) {
+    return scale == this.scale
+        ? this
+        : new ScaledDecimal(rescale(unscaledValue, this.scale, checkScale(scale)), scale);
+  }
+
+  /** @return the sum, with the larger scale of the two */
+  public ScaledDecimal add(ScaledDecimal other) {
+    int resultScale = Math.max(scale, other.scale);
+    return new ScaledDecimal(
+        Math.addExact(
+            rescale(unscaledValue, scale, resultScale),
+            rescale(other.unscaledValue, other.scale, resultScale)),
+        resultScale);
+  }
+
+  /** @return the difference, with the larger scale of the two */
+  public ScaledDecimal subtract(ScaledDecimal other) {
+    int resultScale = Math.max(scale, other.scale);
+    return new ScaledDecimal(
+        Math.subtractExact(
+            rescale(unscaledValue, scale, resultScale),
+            rescale(other.unscaledValue, other.scale, resultScale)),
+        resultScale);
+  }
+
+  /** @return the product with the given scale */
+  public ScaledDecimal multiply(ScaledDecimal other, int scale, RoundingMode roundingMode) {
+    return new ScaledDecimal(
+        multiply(
+            unscaledValue,
+            this.scale,
+            other.unscaledValue,
+            other.scale,
+            checkScale(scale),
+            roundingMode),
+        scale);
+  }
+
+  public ScaledDecimal negate() {
+    return new ScaledDecimal(Math.negateExact(unscaledValue), scale);
+  }
+
+  /** @return the value as a BigDecimal with the same scale, created once */
+  public BigDecimal toBigDecimal() {
+    BigDecimal result = bigDecimal;
+    if (result == null) {
+      result = BigDecimal.valueOf(unscaledValue, scale);
+      bigDecimal = result;
+    }
+    return result;
+  }
+
+  @Override
+  public int compareTo(ScaledDecimal other) {
+    return compare(unscaledValue, scale, other.unscaledValue, other.scale);
+  }
+
+  @Override
+  public int intValue() {
+    return (int) longValue();
+  }
+
+  @Override
+  public long longValue() {
+    return unscaledValue / POWERS_OF_TEN[scale];
+  }
+
+  @Override
+  public float floatValue() {
+    return (float) doubleValue();
+  }
+
+  @Override
+  public double doubleValue() {
+    return (double) unscaledValue / POWERS_OF_TEN[scale];
+  }
+
+  /** Equal if numerically equal, like {@link #compareTo}, so 1.50 equals 1.5. */
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof ScaledDecimal)) {
+      return false;
+    }
+    return compareTo((ScaledDecimal) obj) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode(unscaledValue, scale);
+  }
+
+  /**
+   * @return the hash code of an unscaled value, equal for numerically equal values of different
+   *     scales like {@link #hashCode()}, without allocating
+   */
+  public static int hashCode(long unscaledValue, int scale) {
+    long value = unscaledValue;
+    int stripped = scale;
+    while (stripped > 0 && value % 10 == 0) {
+      value /= 10;
+      stripped--;
+    }
+    return 31 * Long.hashCode(value) + stripped;
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString();
+  }
+}
@@ -0,0 +1,169 @@
+package org.knowm.xchange.dto.marketdata;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.ScaledDecimal;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.instrument.Instrument;
+
+/**
+ * DTO representing one price level of an order book, a lightweight alternative to {@link
+ * LimitOrder} for streaming order book updates. Price and amount are {@link ScaledDecimal} unscaled
+ * values and the timestamp is in epoch millis, so creating a level is a single allocation.
+ *
+ * @see OrderBook#update(Instrument, BookLevel)
+ */
+public final class BookLevel implements Serializable {
+
+  private static final long serialVersionUID = 2271740530964187329L;
+
+  /** Timestamp of a level for which the exchange did not provide one. */
+  public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  private final OrderType type;
+  private final long price;
+  private final int priceScale;
+  private final long amount;
+  private final int amountScale;
+  private final long timestamp;
+
+  /**
+   * @param type Either BID or ASK
+   * @param price The unscaled price
+   * @param priceScale The scale of the price
+   * @param amount The unscaled total amount at the price, 0 if the level was removed
+   * @param amountScale The scale of the amount
+   * @param timestamp The timestamp in epoch millis according to the exchange's server, {@link
+   *     #NO_TIMESTAMP} if not provided
+   */
+  public BookLevel(
+      OrderType type, long price, int priceScale, long amount, int amountScale, long timestamp) {
+
+    this.type = type;
+    this.price = price;
+    this.priceScale = priceScale;
+    this.amount = amount;
+    this.amountScale = amountScale;
+    this.timestamp = timestamp;
+  }
+
+  public OrderType getType() {
+
+    return type;
+  }
+
+  /** @return The unscaled price */
+  public long getUnscaledPrice() {
+
+    return price;
+  }
+
+  public int getPriceScale() {
+
+    return priceScale;
+  }
+
+  /** @return The unscaled amount */
+  public long getUnscaledAmount() {
+
+    return amount;
+  }
+
+  public int getAmountScale() {
+
+    return amountScale;
+  }
+
+  /** @return The timestamp in epoch millis, {@link #NO_TIMESTAMP} if not provided */
+  public long getTimestamp() {
+
+    return timestamp;
+  }
+
+  /** @return true if the level was removed from the book */
+  public boolean isRemoval() {
+
+    return amount == 0;
+  }
+
+  public BigDecimal getPrice() {
+
+    return BigDecimal.valueOf(price, priceScale);
+  }
+
+  public BigDecimal getAmount() {
+
+    return BigDecimal.valueOf(amount, amountScale);
+  }
+
+  /**
+   * Compares the price of this level with the price of an order of the same book, without
+   * allocating if the order has a {@link LimitOrder#getScaledLimitPrice() scaled limit price}.
+   */
+  public int comparePrice(LimitOrder limitOrder) {
+
+    ScaledDecimal scaled = limitOrder.getScaledLimitPrice();
+    return scaled != null
+        ? ScaledDecimal.compare(price, priceScale, scaled.getUnscaledValue(), scaled.getScale())
+        : getPrice().compareTo(limitOrder.getLimitPrice());
+  }
+
+  /** @return the level as a {@link LimitOrder} with a scaled limit price */
+  public LimitOrder toLimitOrder(Instrument instrument) {
+
+    return new LimitOrder(
+        type,
+        getAmount(),
+        instrument,
+        null,
+        timestamp == NO_TIMESTAMP ? null : new Date(timestamp),
+        null,
+        null,
+        null,
+        null,
+        null,
+        ScaledDecimal.of(price, priceScale));
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    BookLevel other = (BookLevel) obj;
+    return type == other.type
+        && ScaledDecimal.compare(price, priceScale, other.price, other.priceScale) == 0
+        && ScaledDecimal.compare(amount, amountScale, other.amount, other.amountScale) == 0
+        && timestamp == other.timestamp;
+  }
+
+  @Override
+  public int hashCode() {
+
+    int hash = type != null ? type.hashCode() : 0;
+    hash = 31 * hash + ScaledDecimal.hashCode(price, priceScale);
+    hash = 31 * hash + ScaledDecimal.hashCode(amount, amountScale);
+    hash = 31 * hash + Long.hashCode(timestamp);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+
+    return "BookLevel [type="
+        + type
+        + ", price="
+        + getPrice().toPlainString()
+        + ", amount="
+        + getAmount().toPlainString()
+        + ", timestamp="
+        + (timestamp == NO_TIMESTAMP ? null : timestamp)
+        + "]";
+  }
+}
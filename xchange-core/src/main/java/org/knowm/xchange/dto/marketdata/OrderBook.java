@@ -13,6 +13,7 @@ import java.util.stream.Stream;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order.OrderType;
 import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.instrument.Instrument;
 
 /** DTO representing the exchange order book */
 public final class OrderBook implements Serializable {
@@ -107,6 +108,20 @@ public final class OrderBook implements Serializable {
     CurrencyPair currencyPair = limitOrder.getCurrencyPair();
     String id = limitOrder.getId();
     Date date = limitOrder.getTimestamp();
+    if (limitOrder.getScaledLimitPrice() != null) {
+      return new LimitOrder(
+          type,
+          tradeableAmount,
+          currencyPair,
+          id,
+          date,
+          null,
+          null,
+          null,
+          null,
+          null,
+          limitOrder.getScaledLimitPrice());
+    }
     BigDecimal limit = limitOrder.getLimitPrice();
     return new LimitOrder(type, tradeableAmount, currencyPair, id, date, limit);
   }
@@ -185,6 +200,51 @@ public final class OrderBook implements Serializable {
     updateDate(limitOrder.getTimestamp());
   }
 
+  /**
+   * Given a {@link BookLevel}, it will replace the limit order at the same price in the orderbook
+   * if one is found, or add the level if one is not. A level with a zero amount removes the price
+   * without creating any order. timeStamp will be updated if the level's timestamp is in the
+   * future.
+   *
+   * @param instrument the instrument of the orderbook
+   * @param level the new level
+   */
+  public void update(Instrument instrument, BookLevel level) {
+
+    List<LimitOrder> limitOrders = getOrders(level.getType());
+    // asks ascending, bids descending
+    int direction = level.getType() == OrderType.ASK ? 1 : -1;
+    int low = 0;
+    int high = limitOrders.size() - 1;
+    int idx = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = -level.comparePrice(limitOrders.get(mid)) * direction;
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        idx = mid;
+        break;
+      }
+    }
+    if (idx >= 0) {
+      limitOrders.remove(idx);
+    } else {
+      idx = low;
+    }
+
+    if (!level.isRemoval()) {
+      limitOrders.add(idx, level.toLimitOrder(instrument));
+    }
+
+    if (level.getTimestamp() != BookLevel.NO_TIMESTAMP
+        && (timeStamp == null || level.getTimestamp() > timeStamp.getTime())) {
+      this.timeStamp = new Date(level.getTimestamp());
+    }
+  }
+
   // Replace timeStamp if the provided date is non-null and in the future
   // TODO should this raise an exception if the order timestamp is in the past?
   private void updateDate(Date updateDate) {
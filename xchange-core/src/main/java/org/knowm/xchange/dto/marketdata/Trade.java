@@ -9,6 +9,7 @@ import java.util.Date;
 import java.util.Objects;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.ScaledDecimal;
 import org.knowm.xchange.instrument.Instrument;
 import org.knowm.xchange.service.marketdata.MarketDataService;
 
@@ -27,8 +28,14 @@ public class Trade implements Serializable {
   /** The instrument */
   protected final Instrument instrument;
 
-  /** The price */
-  protected final BigDecimal price;
+  /**
+   * The price. For a trade created with a {@link #getScaledPrice() scaled price} it is null until
+   * the first call to {@link #getPrice()}, so read it through the getter.
+   */
+  protected BigDecimal price;
+
+  /** The price as a fixed-point number, null if the trade was created with a BigDecimal */
+  private final ScaledDecimal scaledPrice;
 
   /** The timestamp of the trade according to the exchange's server, null if not provided */
   protected final Date timestamp;
@@ -68,6 +75,39 @@ public class Trade implements Serializable {
     this.originalAmount = originalAmount;
     this.instrument = instrument;
     this.price = price;
+    this.scaledPrice = null;
+    this.timestamp = timestamp;
+    this.id = id;
+    this.makerOrderId = makerOrderId;
+    this.takerOrderId = takerOrderId;
+  }
+
+  /**
+   * @param type The trade type (BID side or ASK side)
+   * @param originalAmount The depth of this trade
+   * @param timestamp The timestamp of the trade according to the exchange's server, null if not
+   *     provided
+   * @param id The id of the trade
+   * @param makerOrderId The orderId of the maker in the trade
+   * @param takerOrderId The orderId of the taker in the trade
+   * @param scaledPrice The price as a fixed-point number, converted to the BigDecimal {@link
+   *     #getPrice()} returns on first use only
+   */
+  public Trade(
+      OrderType type,
+      BigDecimal originalAmount,
+      Instrument instrument,
+      Date timestamp,
+      String id,
+      String makerOrderId,
+      String takerOrderId,
+      ScaledDecimal scaledPrice) {
+
+    this.type = type;
+    this.originalAmount = originalAmount;
+    this.instrument = instrument;
+    this.price = null;
+    this.scaledPrice = scaledPrice;
     this.timestamp = timestamp;
     this.id = id;
     this.makerOrderId = makerOrderId;
@@ -109,7 +149,20 @@ public class Trade implements Serializable {
 
   public BigDecimal getPrice() {
 
-    return price;
+    BigDecimal result = price;
+    if (result == null && scaledPrice != null) {
+      // racy but safe, the view is immutable and always the same value
+      result = scaledPrice.toBigDecimal();
+      price = result;
+    }
+    return result;
+  }
+
+  /** @return The price as a fixed-point number, null if the trade was not created with one */
+  @JsonIgnore
+  public ScaledDecimal getScaledPrice() {
+
+    return scaledPrice;
   }
 
   public Date getTimestamp() {
@@ -158,7 +211,7 @@ public class Trade implements Serializable {
         + ", instrument="
         + instrument
         + ", price="
-        + price
+        + (scaledPrice != null ? scaledPrice : price)
         + ", timestamp="
         + timestamp
         + ", id='"
@@ -180,19 +233,23 @@ public class Trade implements Serializable {
     protected BigDecimal originalAmount;
     protected Instrument instrument;
     protected BigDecimal price;
+    protected ScaledDecimal scaledPrice;
     protected Date timestamp;
     protected String id;
     protected String makerOrderId;
     protected String takerOrderId;
 
     public static Builder from(Trade trade) {
-      return new Builder()
-          .type(trade.getType())
-          .originalAmount(trade.getOriginalAmount())
-          .instrument(trade.getInstrument())
-          .price(trade.getPrice())
-          .timestamp(trade.getTimestamp())
-          .id(trade.getId());
+      Builder builder =
+          new Builder()
+              .type(trade.getType())
+              .originalAmount(trade.getOriginalAmount())
+              .instrument(trade.getInstrument())
+              .timestamp(trade.getTimestamp())
+              .id(trade.getId());
+      return trade.getScaledPrice() != null
+          ? builder.scaledPrice(trade.getScaledPrice())
+          : builder.price(trade.getPrice());
     }
 
     public Builder type(OrderType type) {
@@ -227,6 +284,16 @@ public class Trade implements Serializable {
     public Builder price(BigDecimal price) {
 
       this.price = price;
+      this.scaledPrice = null;
+      return this;
+    }
+
+    /** Sets the price as a fixed-point number, instead of {@link #price(BigDecimal)} */
+    @JsonIgnore
+    public Builder scaledPrice(ScaledDecimal scaledPrice) {
+
+      this.scaledPrice = scaledPrice;
+      this.price = null;
       return this;
     }
 
@@ -256,8 +323,18 @@ public class Trade implements Serializable {
 
     public Trade build() {
 
-      return new Trade(
-          type, originalAmount, instrument, price, timestamp, id, makerOrderId, takerOrderId);
+      return scaledPrice != null
+          ? new Trade(
+              type,
+              originalAmount,
+              instrument,
+              timestamp,
+              id,
+              makerOrderId,
+              takerOrderId,
+              scaledPrice)
+          : new Trade(
+              type, originalAmount, instrument, price, timestamp, id, makerOrderId, takerOrderId);
     }
   }
 }
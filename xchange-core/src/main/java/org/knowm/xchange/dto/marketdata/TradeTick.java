@@ -0,0 +1,134 @@
+package org.knowm.xchange.dto.marketdata;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.ScaledDecimal;
+import org.knowm.xchange.instrument.Instrument;
+
+/**
+ * DTO representing a public trade, a lightweight alternative to {@link Trade} for trade streams.
+ * Price and amount are {@link org.knowm.xchange.dto.ScaledDecimal} unscaled values and the
+ * timestamp is in epoch millis, so creating a tick is a single allocation.
+ */
+public final class TradeTick implements Serializable {
+
+  private static final long serialVersionUID = -1204551749931823357L;
+
+  /** Timestamp of a trade for which the exchange did not provide one. */
+  public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  private final OrderType type;
+  private final long price;
+  private final int priceScale;
+  private final long amount;
+  private final int amountScale;
+  private final long timestamp;
+  private final String id;
+
+  /**
+   * @param type The taker side, BID for a buy
+   * @param price The unscaled price
+   * @param priceScale The scale of the price
+   * @param amount The unscaled amount
+   * @param amountScale The scale of the amount
+   * @param timestamp The timestamp in epoch millis according to the exchange's server, {@link
+   *     #NO_TIMESTAMP} if not provided
+   * @param id The trade id, null if not provided
+   */
+  public TradeTick(
+      OrderType type,
+      long price,
+      int priceScale,
+      long amount,
+      int amountScale,
+      long timestamp,
+      String id) {
+
+    this.type = type;
+    this.price = price;
+    this.priceScale = priceScale;
+    this.amount = amount;
+    this.amountScale = amountScale;
+    this.timestamp = timestamp;
+    this.id = id;
+  }
+
+  public OrderType getType() {
+
+    return type;
+  }
+
+  /** @return The unscaled price */
+  public long getUnscaledPrice() {
+
+    return price;
+  }
+
+  public int getPriceScale() {
+
+    return priceScale;
+  }
+
+  /** @return The unscaled amount */
+  public long getUnscaledAmount() {
+
+    return amount;
+  }
+
+  public int getAmountScale() {
+
+    return amountScale;
+  }
+
+  /** @return The timestamp in epoch millis, {@link #NO_TIMESTAMP} if not provided */
+  public long getTimestamp() {
+
+    return timestamp;
+  }
+
+  public String getId() {
+
+    return id;
+  }
+
+  public BigDecimal getPrice() {
+
+    return BigDecimal.valueOf(price, priceScale);
+  }
+
+  public BigDecimal getAmount() {
+
+    return BigDecimal.valueOf(amount, amountScale);
+  }
+
+  /** @return the tick as a {@link Trade} with a scaled price */
+  public Trade toTrade(Instrument instrument) {
+
+    return new Trade.Builder()
+        .type(type)
+        .originalAmount(getAmount())
+        .instrument(instrument)
+        .scaledPrice(ScaledDecimal.of(price, priceScale))
+        .timestamp(timestamp == NO_TIMESTAMP ? null : new Date(timestamp))
+        .id(id)
+        .build();
+  }
+
+  @Override
+  public String toString() {
+
+    return "TradeTick [type="
+        + type
+        + ", price="
+        + getPrice().toPlainString()
+        + ", amount="
+        + getAmount().toPlainString()
+        + ", timestamp="
+        + (timestamp == NO_TIMESTAMP ? null : timestamp)
+        + ", id="
+        + id
+        + "]";
+  }
+}
@@ -0,0 +1,68 @@
+package org.knowm.xchange.dto.trade;
+
+/**
+ * DTO representing the outcome of one order of a batch placement or cancellation
+ *
+ * @param <T> the type of the request, e.g. {@link LimitOrder} or a cancel order params type
+ */
+public final class BatchOrderResult<T> {
+
+  private final T request;
+  private final String orderId;
+  private final boolean success;
+  private final Exception error;
+
+  private BatchOrderResult(T request, String orderId, boolean success, Exception error) {
+    this.request = request;
+    this.orderId = orderId;
+    this.success = success;
+    this.error = error;
+  }
+
+  /** An order that was placed with the given id. */
+  public static <T> BatchOrderResult<T> placed(T request, String orderId) {
+    return new BatchOrderResult<>(request, orderId, true, null);
+  }
+
+  /** A cancellation which the exchange answered, successful or not. */
+  public static <T> BatchOrderResult<T> cancelled(T request, String orderId, boolean success) {
+    return new BatchOrderResult<>(request, orderId, success, null);
+  }
+
+  /** A request which failed with an error. */
+  public static <T> BatchOrderResult<T> failed(T request, Exception error) {
+    return new BatchOrderResult<>(request, null, false, error);
+  }
+
+  /** @return the order or cancel params this result belongs to */
+  public T getRequest() {
+    return request;
+  }
+
+  /** @return the id of the placed or cancelled order, if known */
+  public String getOrderId() {
+    return orderId;
+  }
+
+  public boolean isSuccess() {
+    return success;
+  }
+
+  /** @return the error the request failed with, null if the exchange answered it */
+  public Exception getError() {
+    return error;
+  }
+
+  @Override
+  public String toString() {
+    return "BatchOrderResult [request="
+        + request
+        + ", orderId="
+        + orderId
+        + ", success="
+        + success
+        + ", error="
+        + error
+        + "]";
+  }
+}
@@ -1,6 +1,7 @@
 package org.knowm.xchange.dto.trade;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
@@ -9,6 +10,7 @@ import java.util.Date;
 import java.util.Set;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.ScaledDecimal;
 import org.knowm.xchange.instrument.Instrument;
 
 /**
@@ -24,8 +26,14 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
 
   private static final long serialVersionUID = -5166848178471347540L;
 
-  /** The limit price */
-  protected final BigDecimal limitPrice;
+  /**
+   * The limit price. For an order created with a {@link #getScaledLimitPrice() scaled limit price}
+   * it is null until the first call to {@link #getLimitPrice()}, so read it through the getter.
+   */
+  protected BigDecimal limitPrice;
+
+  /** The limit price as a fixed-point number, null if the order was created with a BigDecimal */
+  private final ScaledDecimal scaledLimitPrice;
 
   /**
    * @param type Either BID (buying) or ASK (selling)
@@ -47,6 +55,7 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
 
     super(type, originalAmount, instrument, id, timestamp);
     this.limitPrice = limitPrice;
+    this.scaledLimitPrice = null;
   }
 
   /**
@@ -80,6 +89,7 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
         BigDecimal.ZERO,
         OrderStatus.PENDING_NEW);
     this.limitPrice = limitPrice;
+    this.scaledLimitPrice = null;
   }
 
   /**
@@ -119,6 +129,7 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
         fee,
         status);
     this.limitPrice = limitPrice;
+    this.scaledLimitPrice = null;
   }
 
   /**
@@ -160,12 +171,69 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
         status,
         userReference);
     this.limitPrice = limitPrice;
+    this.scaledLimitPrice = null;
+  }
+
+  /**
+   * @param type Either BID (buying) or ASK (selling)
+   * @param originalAmount The amount to trade
+   * @param instrument The identifier (e.g. BTC/USD)
+   * @param id An id (usually provided by the exchange)
+   * @param timestamp a Date object representing the order's timestamp according to the exchange's
+   *     server, null if not provided
+   * @param averagePrice the weighted average price of any fills belonging to the order
+   * @param cumulativeAmount the amount that has been filled
+   * @param fee the fee associated with this order
+   * @param status the status of the order at the exchange or broker
+   * @param userReference An id provided by the user
+   * @param scaledLimitPrice The limit price as a fixed-point number, converted to the BigDecimal
+   *     {@link #getLimitPrice()} returns on first use only
+   */
+  public LimitOrder(
+      OrderType type,
+      BigDecimal originalAmount,
+      Instrument instrument,
+      String id,
+      Date timestamp,
+      BigDecimal averagePrice,
+      BigDecimal cumulativeAmount,
+      BigDecimal fee,
+      OrderStatus status,
+      String userReference,
+      ScaledDecimal scaledLimitPrice) {
+
+    super(
+        type,
+        originalAmount,
+        instrument,
+        id,
+        timestamp,
+        averagePrice,
+        cumulativeAmount,
+        fee,
+        status,
+        userReference);
+    this.limitPrice = null;
+    this.scaledLimitPrice = scaledLimitPrice;
   }
 
   /** @return The limit price */
   public BigDecimal getLimitPrice() {
 
-    return limitPrice;
+    BigDecimal result = limitPrice;
+    if (result == null && scaledLimitPrice != null) {
+      // racy but safe, the view is immutable and always the same value
+      result = scaledLimitPrice.toBigDecimal();
+      limitPrice = result;
+    }
+    return result;
+  }
+
+  /** @return The limit price as a fixed-point number, null if the order was not created with one */
+  @JsonIgnore
+  public ScaledDecimal getScaledLimitPrice() {
+
+    return scaledLimitPrice;
   }
 
   @Override
@@ -175,7 +243,9 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
   }
 
   private String printLimitPrice() {
-    return limitPrice == null ? null : limitPrice.toPlainString();
+    return scaledLimitPrice != null
+        ? scaledLimitPrice.toString()
+        : limitPrice == null ? null : limitPrice.toPlainString();
   }
 
   @Override
@@ -185,9 +255,11 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
 
     if (this.getType() == limitOrder.getType()) {
       // Same side
-      ret =
-          this.getLimitPrice().compareTo(limitOrder.getLimitPrice())
-              * (getType() == OrderType.BID ? -1 : 1);
+      int priceComparison =
+          scaledLimitPrice != null && limitOrder.scaledLimitPrice != null
+              ? scaledLimitPrice.compareTo(limitOrder.scaledLimitPrice)
+              : this.getLimitPrice().compareTo(limitOrder.getLimitPrice());
+      ret = priceComparison * (getType() == OrderType.BID ? -1 : 1);
     } else {
       // Keep bid side be less than ask side
       ret = this.getType() == OrderType.BID ? -1 : 1;
@@ -200,7 +272,8 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
   public int hashCode() {
 
     int hash = super.hashCode();
-    hash = 59 * hash + (this.limitPrice != null ? this.limitPrice.hashCode() : 0);
+    BigDecimal price = getLimitPrice();
+    hash = 59 * hash + (price != null ? price.hashCode() : 0);
     return hash;
   }
 
@@ -214,9 +287,9 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
       return false;
     }
     final LimitOrder other = (LimitOrder) obj;
-    if (this.limitPrice == null
-        ? (other.limitPrice != null)
-        : this.limitPrice.compareTo(other.limitPrice) != 0) {
+    BigDecimal price = getLimitPrice();
+    BigDecimal otherPrice = other.getLimitPrice();
+    if (price == null ? (otherPrice != null) : price.compareTo(otherPrice) != 0) {
       return false;
     }
     return super.equals(obj);
@@ -227,6 +300,8 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
 
     protected BigDecimal limitPrice;
 
+    protected ScaledDecimal scaledLimitPrice;
+
     @JsonCreator
     public Builder(
         @JsonProperty("orderType") OrderType orderType,
@@ -250,7 +325,11 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
               .userReference(order.getUserReference());
       if (order instanceof LimitOrder) {
         LimitOrder limitOrder = (LimitOrder) order;
-        builder.limitPrice(limitOrder.getLimitPrice());
+        if (limitOrder.getScaledLimitPrice() != null) {
+          builder.scaledLimitPrice(limitOrder.getScaledLimitPrice());
+        } else {
+          builder.limitPrice(limitOrder.getLimitPrice());
+        }
       }
       return builder;
     }
@@ -342,27 +421,52 @@ public class LimitOrder extends Order implements Comparable<LimitOrder> {
     public Builder limitPrice(BigDecimal limitPrice) {
 
       this.limitPrice = limitPrice;
+      this.scaledLimitPrice = null;
+      return this;
+    }
+
+    /** Sets the limit price as a fixed-point number, instead of {@link #limitPrice(BigDecimal)} */
+    @JsonIgnore
+    public Builder scaledLimitPrice(ScaledDecimal scaledLimitPrice) {
+
+      this.scaledLimitPrice = scaledLimitPrice;
+      this.limitPrice = null;
       return this;
     }
 
     @Override
     public LimitOrder build() {
 
+      BigDecimal cumulative =
+          originalAmount == null || remainingAmount == null
+              ? cumulativeAmount
+              : originalAmount.subtract(remainingAmount);
       LimitOrder order =
-          new LimitOrder(
-              orderType,
-              originalAmount,
-              instrument,
-              id,
-              timestamp,
-              limitPrice,
-              averagePrice,
-              originalAmount == null || remainingAmount == null
-                  ? cumulativeAmount
-                  : originalAmount.subtract(remainingAmount),
-              fee,
-              status,
-              userReference);
+          scaledLimitPrice != null
+              ? new LimitOrder(
+                  orderType,
+                  originalAmount,
+                  instrument,
+                  id,
+                  timestamp,
+                  averagePrice,
+                  cumulative,
+                  fee,
+                  status,
+                  userReference,
+                  scaledLimitPrice)
+              : new LimitOrder(
+                  orderType,
+                  originalAmount,
+                  instrument,
+                  id,
+                  timestamp,
+                  limitPrice,
+                  averagePrice,
+                  cumulative,
+                  fee,
+                  status,
+                  userReference);
       order.setOrderFlags(flags);
       order.setLeverage(leverage);
       return order;
@@ -98,7 +98,7 @@ public class UserTrade extends Trade {
         + ", instrument="
         + instrument
         + ", price="
-        + price
+        + getPrice()
         + ", timestamp="
         + timestamp
         + ", id="
@@ -215,7 +215,8 @@ public class UserTrade extends Trade {
           type,
           originalAmount,
           instrument,
-          price,
+          // a user trade keeps only the BigDecimal price
+          scaledPrice != null ? scaledPrice.toBigDecimal() : price,
           timestamp,
           id,
           orderId,
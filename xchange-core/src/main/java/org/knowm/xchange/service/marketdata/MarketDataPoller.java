@@ -0,0 +1,359 @@
+package org.knowm.xchange.service.marketdata;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import org.knowm.xchange.Exchange;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.dto.meta.ExchangeMetaData;
+import org.knowm.xchange.dto.meta.RateLimit;
+import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.exceptions.FrequencyLimitExceededException;
+import org.knowm.xchange.exceptions.RateLimitExceededException;
+import org.knowm.xchange.exceptions.SystemOverloadException;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
+import org.knowm.xchange.service.marketdata.params.OrderBookDepthParam;
+import org.knowm.xchange.service.marketdata.params.Params;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Polls the tickers or order books of many currency pairs with as few calls as the exchange allows,
+ * and hands them over together once per poll.
+ *
+ * <p>Each poll first tries the bulk call of the service, {@link MarketDataService#getTickers} or
+ * {@link MarketDataService#getOrderBooks}, which costs one call whatever the number of pairs. The
+ * pairs missing from its response are then polled one call each, as are all of them when the bulk
+ * call fails. When the service has no bulk call the poller falls back to one call per pair for
+ * good. The calls one by one are paced to the public {@link RateLimit}s of the exchange, and the
+ * interval between two polls is stretched to what they allow for the calls of a poll.
+ *
+ * <p>A pair whose call fails is polled as null, the other pairs are still handed over. When the
+ * exchange tells it is rate limited or overloaded, the poll stops making calls: it is skipped if
+ * that was the bulk call, and the interval to the next polls is backed off until one goes through.
+ *
+ * <pre>
+ * MarketDataPoller&lt;Ticker&gt; poller = MarketDataPoller.tickers(exchange, pairs);
+ * poller.start(scheduler, 1, TimeUnit.SECONDS, tickers -&gt; ..., e -&gt; LOG.warn("Poll failed", e));
+ * </pre>
+ */
+public final class MarketDataPoller<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MarketDataPoller.class);
+
+  private static final long MIN_BACKOFF_MILLIS = 1000;
+  private static final int MAX_BACKOFFS = 6;
+
+  private final BulkFetch<T> bulkFetch;
+  private final Fetch<T> fetch;
+  private final Params params;
+  private final List<CurrencyPair> currencyPairs;
+  private final long callDelayMillis;
+
+  private final AtomicLong calls = new AtomicLong();
+  private volatile boolean bulk = true;
+  private volatile int callsPerPoll = 1;
+  private volatile int backoffs;
+
+  private volatile boolean running;
+  private volatile ScheduledFuture<?> next;
+
+  private MarketDataPoller(
+      BulkFetch<T> bulkFetch,
+      Fetch<T> fetch,
+      Params params,
+      Collection<CurrencyPair> currencyPairs,
+      RateLimit[] rateLimits) {
+    this.bulkFetch = bulkFetch;
+    this.fetch = fetch;
+    this.params = params;
+    this.currencyPairs = Collections.unmodifiableList(new ArrayList<>(currencyPairs));
+    long delay = 0;
+    if (rateLimits != null) {
+      for (RateLimit rateLimit : rateLimits) {
+        delay = Math.max(delay, rateLimit.getPollDelayMillis());
+      }
+    }
+    this.callDelayMillis = delay;
+  }
+
+  /** Polls the tickers within the public rate limits of the exchange. */
+  public static MarketDataPoller<Ticker> tickers(
+      Exchange exchange, Collection<CurrencyPair> currencyPairs) {
+    return tickers(exchange.getMarketDataService(), currencyPairs, publicRateLimits(exchange));
+  }
+
+  /** Polls the tickers within the given rate limits, none meaning as often as asked. */
+  public static MarketDataPoller<Ticker> tickers(
+      MarketDataService marketDataService,
+      Collection<CurrencyPair> currencyPairs,
+      RateLimit... rateLimits) {
+    return new MarketDataPoller<>(
+        params -> {
+          Map<CurrencyPair, Ticker> tickers = new LinkedHashMap<>();
+          for (Ticker ticker : marketDataService.getTickers(params)) {
+            if (ticker.getInstrument() instanceof CurrencyPair) {
+              tickers.put((CurrencyPair) ticker.getInstrument(), ticker);
+            }
+          }
+          return tickers;
+        },
+        marketDataService::getTicker,
+        new PollParams(currencyPairs, null),
+        currencyPairs,
+        rateLimits);
+  }
+
+  /**
+   * Polls the order books within the public rate limits of the exchange.
+   *
+   * @param depth the levels of each side, null for the exchange's default
+   */
+  public static MarketDataPoller<OrderBook> orderBooks(
+      Exchange exchange, Collection<CurrencyPair> currencyPairs, Integer depth) {
+    return orderBooks(
+        exchange.getMarketDataService(), currencyPairs, depth, publicRateLimits(exchange));
+  }
+
+  /**
+   * Polls the order books within the given rate limits, none meaning as often as asked.
+   *
+   * @param depth the levels of each side, null for the exchange's default
+   */
+  public static MarketDataPoller<OrderBook> orderBooks(
+      MarketDataService marketDataService,
+      Collection<CurrencyPair> currencyPairs,
+      Integer depth,
+      RateLimit... rateLimits) {
+    return new MarketDataPoller<>(
+        marketDataService::getOrderBooks,
+        depth == null
+            ? marketDataService::getOrderBook
+            : currencyPair -> marketDataService.getOrderBook(currencyPair, depth),
+        new PollParams(currencyPairs, depth),
+        currencyPairs,
+        rateLimits);
+  }
+
+  private static RateLimit[] publicRateLimits(Exchange exchange) {
+    ExchangeMetaData metaData = exchange.getExchangeMetaData();
+    return metaData == null ? null : metaData.getPublicRateLimits();
+  }
+
+  /**
+   * Polls all the currency pairs once, pacing the calls one by one to the rate limits.
+   *
+   * @return the tickers or order books by currency pair, in the order of the pairs, null for the
+   *     pairs whose call failed
+   * @throws ExchangeException e.g. a {@link RateLimitExceededException}, when the bulk call is
+   *     throttled by the exchange; the poll is then skipped and the next ones backed off
+   */
+  public Map<CurrencyPair, T> poll() throws IOException {
+    Map<CurrencyPair, T> polled = new LinkedHashMap<>();
+    int pollCalls = 0;
+    long lastCallNanos = 0;
+    if (bulk) {
+      try {
+        lastCallNanos = System.nanoTime();
+        Map<CurrencyPair, T> all = bulkFetch.fetch(params);
+        pollCalls++;
+        calls.incrementAndGet();
+        for (CurrencyPair currencyPair : currencyPairs) {
+          T value = all == null ? null : all.get(currencyPair);
+          if (value != null) {
+            polled.put(currencyPair, value);
+          }
+        }
+      } catch (UnsupportedOperationException e) {
+        LOG.info("No bulk call, polling the {} currency pairs one by one", currencyPairs.size());
+        bulk = false;
+      } catch (IOException | ExchangeException e) {
+        // the failed call still counts against the rate limits, the next poll tries it again
+        pollCalls++;
+        calls.incrementAndGet();
+        if (isThrottled(e)) {
+          // one call per pair would only make it worse
+          callsPerPoll = pollCalls;
+          backoffs++;
+          throw e;
+        }
+        LOG.warn(
+            "Bulk call failed, polling the {} currency pairs one by one", currencyPairs.size(), e);
+      }
+    }
+    boolean throttled = false;
+    for (CurrencyPair currencyPair : currencyPairs) {
+      if (throttled || polled.containsKey(currencyPair)) {
+        continue;
+      }
+      if (pollCalls > 0) {
+        pace(lastCallNanos);
+      }
+      lastCallNanos = System.nanoTime();
+      pollCalls++;
+      calls.incrementAndGet();
+      try {
+        polled.put(currencyPair, fetch.fetch(currencyPair));
+      } catch (IOException | ExchangeException e) {
+        throttled = isThrottled(e);
+        if (throttled) {
+          LOG.warn(
+              "Call for {} throttled, skipping the remaining pairs of the poll", currencyPair, e);
+        } else {
+          LOG.warn("Call for {} failed", currencyPair, e);
+        }
+      }
+    }
+    // the values of the map keep the order of the pairs, the ones fetched one by one included
+    Map<CurrencyPair, T> ordered = new LinkedHashMap<>();
+    for (CurrencyPair currencyPair : currencyPairs) {
+      ordered.put(currencyPair, polled.get(currencyPair));
+    }
+    callsPerPoll = pollCalls;
+    backoffs = throttled ? backoffs + 1 : 0;
+    return ordered;
+  }
+
+  private static boolean isThrottled(Exception e) {
+    return e instanceof RateLimitExceededException
+        || e instanceof FrequencyLimitExceededException
+        || e instanceof SystemOverloadException;
+  }
+
+  /** Waits until the call delay of the rate limits has passed since the last call. */
+  private void pace(long lastCallNanos) throws InterruptedIOException {
+    long waitMillis =
+        callDelayMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastCallNanos);
+    if (waitMillis > 0) {
+      try {
+        Thread.sleep(waitMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while pacing the calls");
+      }
+    }
+  }
+
+  /**
+   * Polls the currency pairs until {@link #stop()}, on the scheduler.
+   *
+   * @param interval the interval between the start of two polls, stretched to the rate limits
+   * @param listener receives the result of each poll, on the scheduler
+   * @param errorHandler receives the failures of the polls, the next ones still happen
+   */
+  public synchronized void start(
+      ScheduledExecutorService scheduler,
+      long interval,
+      TimeUnit unit,
+      Consumer<Map<CurrencyPair, T>> listener,
+      Consumer<Exception> errorHandler) {
+    if (running) {
+      throw new IllegalStateException("Already started");
+    }
+    running = true;
+    long intervalMillis = unit.toMillis(interval);
+    Runnable[] task = new Runnable[1];
+    task[0] =
+        () -> {
+          if (!running) {
+            return;
+          }
+          long start = System.currentTimeMillis();
+          try {
+            listener.accept(poll());
+          } catch (Exception e) {
+            errorHandler.accept(e);
+          }
+          if (running) {
+            long delay =
+                Math.max(intervalMillis, getMinimumIntervalMillis())
+                    - (System.currentTimeMillis() - start);
+            next = scheduler.schedule(task[0], Math.max(0, delay), TimeUnit.MILLISECONDS);
+          }
+        };
+    next = scheduler.schedule(task[0], 0, TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops polling, a poll in progress still completes. */
+  public synchronized void stop() {
+    running = false;
+    ScheduledFuture<?> future = next;
+    if (future != null) {
+      future.cancel(false);
+    }
+  }
+
+  /** @return whether the service has a bulk call, as far as the polls so far tell */
+  public boolean isBulk() {
+    return bulk;
+  }
+
+  /** @return the calls of the last poll, 1 before the first one */
+  public int getCallsPerPoll() {
+    return callsPerPoll;
+  }
+
+  /**
+   * @return the shortest interval between two polls allowed by the rate limits, doubled after each
+   *     poll in a row which was throttled
+   */
+  public long getMinimumIntervalMillis() {
+    long interval = callsPerPoll * callDelayMillis;
+    int backoffs = this.backoffs;
+    if (backoffs == 0) {
+      return interval;
+    }
+    return Math.max(interval, MIN_BACKOFF_MILLIS) << Math.min(backoffs, MAX_BACKOFFS);
+  }
+
+  /** @return the calls made so far */
+  public long getCalls() {
+    return calls.get();
+  }
+
+  public List<CurrencyPair> getCurrencyPairs() {
+    return currencyPairs;
+  }
+
+  private static final class PollParams implements CurrencyPairsParam, OrderBookDepthParam {
+
+    private final Collection<CurrencyPair> currencyPairs;
+    private final Integer depth;
+
+    private PollParams(Collection<CurrencyPair> currencyPairs, Integer depth) {
+      this.currencyPairs = Collections.unmodifiableSet(new LinkedHashSet<>(currencyPairs));
+      this.depth = depth;
+    }
+
+    @Override
+    public Collection<CurrencyPair> getCurrencyPairs() {
+      return currencyPairs;
+    }
+
+    @Override
+    public Integer getDepth() {
+      return depth;
+    }
+  }
+
+  private interface BulkFetch<T> {
+    Map<CurrencyPair, T> fetch(Params params) throws IOException;
+  }
+
+  private interface Fetch<T> {
+    T fetch(CurrencyPair currencyPair) throws IOException;
+  }
+}
@@ -2,6 +2,7 @@ package org.knowm.xchange.service.marketdata;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.marketdata.Kline;
@@ -108,6 +109,27 @@ public interface MarketDataService extends BaseService {
     throw new NotYetImplementedForExchangeException("getOrderBook");
   }
 
+  /**
+   * Get the order books of several currency pairs, in one call on the exchanges which have a bulk
+   * endpoint
+   *
+   * @param params Exchange-specific, usually a {@link
+   *     org.knowm.xchange.service.marketdata.params.CurrencyPairsParam} and optionally an {@link
+   *     org.knowm.xchange.service.marketdata.params.OrderBookDepthParam}
+   * @return The OrderBooks by currency pair, null if some sort of error occurred. Implementers
+   *     should log the error.
+   * @throws ExchangeException - Indication that the exchange reported some kind of error with the
+   *     request or response
+   * @throws NotAvailableFromExchangeException - Indication that the exchange does not support the
+   *     requested function or data
+   * @throws NotYetImplementedForExchangeException - Indication that the exchange supports the
+   *     requested function or data, but it has not yet been implemented
+   * @throws IOException - Indication that a networking error occurred while fetching JSON data
+   */
+  default Map<CurrencyPair, OrderBook> getOrderBooks(Params params) throws IOException {
+    throw new NotYetImplementedForExchangeException("getOrderBooks");
+  }
+
   /**
    * Get the trades recently performed by the exchange
    *
@@ -0,0 +1,7 @@
+package org.knowm.xchange.service.marketdata.params;
+
+public interface OrderBookDepthParam extends Params {
+
+  /** @return the levels of each side of the books, null for the exchange's default */
+  Integer getDepth();
+}
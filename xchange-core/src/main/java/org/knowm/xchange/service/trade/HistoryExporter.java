@@ -0,0 +1,502 @@
+package org.knowm.xchange.service.trade;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.knowm.xchange.dto.account.FundingRecord;
+import org.knowm.xchange.dto.trade.UserTrade;
+import org.knowm.xchange.dto.trade.UserTrades;
+import org.knowm.xchange.service.account.AccountService;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamLimit;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamNextPageCursor;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamPaging;
+import org.knowm.xchange.service.trade.params.TradeHistoryParams;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamsTimeSpan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Exports the complete trade or funding history of an account, whatever paging the exchange
+ * supports through its {@link TradeHistoryParams}.
+ *
+ * <p>When the params have a {@link TradeHistoryParamsTimeSpan time span}, the range is split into
+ * windows aligned on the epoch, which are fetched a few at a time. Within a window the exchange's
+ * {@link TradeHistoryParamNextPageCursor cursor} is followed, or its {@link TradeHistoryParamPaging
+ * pages} are walked, or, with only a {@link TradeHistoryParamLimit limit}, the window is narrowed
+ * past the records of each full response. Records are de-duplicated by id and handed over to the
+ * sink as they arrive, one at a time but not in time order. Calls still pass the rate limiters of
+ * the services, the optional rate limiter of the exporter shares a budget across several exporters,
+ * e.g. of the trades and funding of one account.
+ *
+ * <p>With a checkpoint file, the windows which were completely exported are recorded, so the next
+ * export of the same range, or of a range extended up to now, skips them. The records of a window
+ * interrupted by a failure are exported again by the next run, so sinks should be idempotent by id.
+ * A window whose paging cannot reach its last record, e.g. because more records than the limit
+ * share a timestamp or the exchange repeats a page, fails rather than being recorded.
+ *
+ * <pre>
+ * HistoryExporter.forTrades(exchange.getTradeService())
+ *     .from(lastYear)
+ *     .window(7, TimeUnit.DAYS)
+ *     .checkpoint(Paths.get("kraken-trades.checkpoint"))
+ *     .build()
+ *     .export(trade -&gt; writer.write(trade));
+ * </pre>
+ */
+public final class HistoryExporter<T> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HistoryExporter.class);
+
+  public static final int DEFAULT_PARALLELISM = 4;
+  public static final int DEFAULT_PAGE_LENGTH = 100;
+  public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private final Fetch<T> fetch;
+  private final Function<T, String> id;
+  private final Function<T, Date> timestamp;
+  private final Supplier<? extends TradeHistoryParams> params;
+  private final Date from;
+  private final Date to;
+  private final long windowMillis;
+  private final int parallelism;
+  private final int pageLength;
+  private final RateLimiter rateLimiter;
+  private final Path checkpoint;
+
+  private final AtomicLong exported = new AtomicLong();
+  private final AtomicLong calls = new AtomicLong();
+  private final Set<String> seenWithoutTimestamp = Collections.synchronizedSet(new HashSet<>());
+  private final Set<Long> completed = new TreeSet<>();
+
+  private HistoryExporter(Builder<T> builder) {
+    this.fetch = builder.fetch;
+    this.id = builder.id;
+    this.timestamp = builder.timestamp;
+    this.params = builder.params;
+    this.from = builder.from;
+    this.to = builder.to;
+    this.windowMillis = builder.windowMillis;
+    this.parallelism = builder.parallelism;
+    this.pageLength = builder.pageLength;
+    this.rateLimiter = builder.rateLimiter;
+    this.checkpoint = builder.checkpoint;
+  }
+
+  /** Exports the {@link UserTrade}s of {@link TradeService#getTradeHistory}. */
+  public static Builder<UserTrade> forTrades(TradeService tradeService) {
+    return new Builder<UserTrade>(
+            params -> {
+              UserTrades trades = tradeService.getTradeHistory(params);
+              return new Page<>(trades.getUserTrades(), trades.getNextPageCursor());
+            },
+            UserTrade::getId,
+            UserTrade::getTimestamp)
+        .params(tradeService::createTradeHistoryParams);
+  }
+
+  /** Exports the {@link FundingRecord}s of {@link AccountService#getFundingHistory}. */
+  public static Builder<FundingRecord> forFunding(AccountService accountService) {
+    return new Builder<FundingRecord>(
+            params -> new Page<>(accountService.getFundingHistory(params), null),
+            record ->
+                record.getInternalId() != null
+                    ? record.getInternalId()
+                    : record.getType() + "/" + record.getBlockchainTransactionHash(),
+            FundingRecord::getDate)
+        .params(accountService::createFundingHistoryParams);
+  }
+
+  /**
+   * Exports the records of the windows not completed yet, on up to the parallelism threads, then
+   * waits for all of them. When some windows fail the others are still exported and checkpointed.
+   *
+   * @param sink receives the records, never concurrently
+   * @return the number of records exported
+   * @throws IOException the failure of the first failed window, the others suppressed in it
+   */
+  public long export(Consumer<? super T> sink) throws IOException {
+    TradeHistoryParams prototype = params.get();
+    boolean timeSpan = prototype instanceof TradeHistoryParamsTimeSpan;
+    if (timeSpan && from == null) {
+      throw new IllegalArgumentException("The start of the history is required");
+    }
+
+    List<long[]> windows = new ArrayList<>();
+    if (timeSpan) {
+      readCheckpoint();
+      long end = (to == null ? new Date() : to).getTime();
+      for (long start = from.getTime() - Math.floorMod(from.getTime(), windowMillis);
+          start < end;
+          start += windowMillis) {
+        synchronized (completed) {
+          if (completed.contains(start)) {
+            continue;
+          }
+        }
+        windows.add(new long[] {start, start + windowMillis});
+      }
+    } else {
+      windows.add(null);
+    }
+    LOG.debug("Exporting {} windows of history", windows.size());
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, Math.min(parallelism, windows.size())),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "xchange-history-export-" + THREAD_COUNT.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<?>> futures = new ArrayList<>(windows.size());
+      for (long[] window : windows) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  exportWindow(window, sink);
+                  return null;
+                }));
+      }
+      IOException failure = null;
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          futures.forEach(f -> f.cancel(true));
+          throw new InterruptedIOException("Interrupted while exporting the history");
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (failure == null) {
+            failure =
+                cause instanceof IOException
+                    ? (IOException) cause
+                    : new IOException("Could not export the history", cause);
+          } else {
+            failure.addSuppressed(cause);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return exported.get();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** @return the records exported so far */
+  public long getExported() {
+    return exported.get();
+  }
+
+  /** @return the calls to the exchange made so far */
+  public long getCalls() {
+    return calls.get();
+  }
+
+  private void exportWindow(long[] window, Consumer<? super T> sink) throws IOException {
+    // the first and last windows are clipped to the range of the history
+    long start = window == null ? 0 : Math.max(window[0], from.getTime());
+    long end = window == null ? 0 : to == null ? window[1] : Math.min(window[1], to.getTime());
+    // the records are filtered to the window, so its ids are unique across the other windows
+    Set<String> seen = new HashSet<>();
+    long queryStart = start;
+    long queryEnd = end;
+    String cursor = null;
+    Integer pageNumber = null;
+
+    while (true) {
+      TradeHistoryParams query = params.get();
+      if (window != null) {
+        ((TradeHistoryParamsTimeSpan) query).setStartTime(new Date(queryStart));
+        ((TradeHistoryParamsTimeSpan) query).setEndTime(new Date(queryEnd));
+      }
+      if (query instanceof TradeHistoryParamNextPageCursor) {
+        ((TradeHistoryParamNextPageCursor) query).setNextPageCursor(cursor);
+      }
+      if (query instanceof TradeHistoryParamPaging) {
+        TradeHistoryParamPaging paging = (TradeHistoryParamPaging) query;
+        if (pageNumber == null) {
+          pageNumber = paging.getPageNumber() == null ? 0 : paging.getPageNumber();
+        }
+        paging.setPageLength(pageLength);
+        paging.setPageNumber(pageNumber);
+      }
+      if (query instanceof TradeHistoryParamLimit) {
+        ((TradeHistoryParamLimit) query).setLimit(pageLength);
+      }
+
+      if (rateLimiter != null) {
+        RateLimiter.waitForPermission(rateLimiter);
+      }
+      Page<T> page = fetch.fetch(query);
+      calls.incrementAndGet();
+
+      int fresh = 0;
+      long oldest = Long.MAX_VALUE;
+      long newest = Long.MIN_VALUE;
+      for (T record : page.records) {
+        Date time = timestamp.apply(record);
+        String key = id.apply(record);
+        boolean isNew;
+        if (time == null) {
+          isNew = key == null || seenWithoutTimestamp.add(key);
+        } else {
+          oldest = Math.min(oldest, time.getTime());
+          newest = Math.max(newest, time.getTime());
+          if (window != null && (time.getTime() < start || time.getTime() >= end)) {
+            continue;
+          }
+          isNew = key == null || seen.add(key);
+        }
+        if (isNew) {
+          fresh++;
+          exported.incrementAndGet();
+          synchronized (this) {
+            sink.accept(record);
+          }
+        }
+      }
+
+      if (page.records.isEmpty()) {
+        break;
+      }
+      boolean full = page.records.size() >= pageLength;
+      // why the paging stopped short of the end of the records, null while it can go on
+      String incomplete = null;
+      if (page.nextPageCursor != null
+          && !page.nextPageCursor.isEmpty()
+          && !page.nextPageCursor.equals(cursor)
+          && query instanceof TradeHistoryParamNextPageCursor) {
+        cursor = page.nextPageCursor;
+      } else if (full && query instanceof TradeHistoryParamPaging) {
+        pageNumber++;
+      } else if (full && window != null && query instanceof TradeHistoryParamLimit) {
+        // the response was truncated at the limit, query the rest of the window past its records,
+        // on the side they are farther from: most exchanges return the newest records
+        long previousStart = queryStart;
+        long previousEnd = queryEnd;
+        if (newest != Long.MIN_VALUE) {
+          if (queryEnd - newest <= oldest - queryStart) {
+            queryEnd = Math.min(queryEnd, oldest + 1);
+          } else {
+            queryStart = Math.max(queryStart, newest);
+          }
+        }
+        if (queryStart == previousStart && queryEnd == previousEnd) {
+          incomplete =
+              newest == Long.MIN_VALUE
+                  ? "the records of a full page have no timestamp"
+                  : "more than "
+                      + pageLength
+                      + " records between "
+                      + new Date(oldest)
+                      + " and "
+                      + new Date(newest);
+        }
+      } else {
+        // the last page
+        break;
+      }
+      if (incomplete == null && fresh == 0) {
+        // another page is announced, but this one was a repeat: the paging is not followed
+        incomplete = "a page of " + page.records.size() + " records had no new one";
+      }
+      if (incomplete != null) {
+        if (window == null) {
+          LOG.warn("Some of the records may be missing, {}", incomplete);
+          return;
+        }
+        // not checkpointed, the window is exported again by the next run
+        throw new IOException(
+            "Could not export the window from "
+                + new Date(start)
+                + " to "
+                + new Date(end)
+                + ", "
+                + incomplete);
+      }
+    }
+
+    if (window != null
+        && start == window[0]
+        && end == window[1]
+        && end <= System.currentTimeMillis()) {
+      complete(start);
+    }
+  }
+
+  private void readCheckpoint() throws IOException {
+    if (checkpoint == null || !Files.isReadable(checkpoint)) {
+      return;
+    }
+    List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+    if (lines.isEmpty() || !lines.get(0).equals("window=" + windowMillis)) {
+      LOG.warn("Ignoring the checkpoint {} of another window size", checkpoint);
+      return;
+    }
+    synchronized (completed) {
+      for (String line : lines.subList(1, lines.size())) {
+        if (!line.isEmpty()) {
+          completed.add(Long.parseLong(line));
+        }
+      }
+    }
+  }
+
+  private void complete(long start) throws IOException {
+    synchronized (completed) {
+      completed.add(start);
+      if (checkpoint == null) {
+        return;
+      }
+      List<String> lines = new ArrayList<>(completed.size() + 1);
+      lines.add("window=" + windowMillis);
+      for (Long window : completed) {
+        lines.add(window.toString());
+      }
+      Path path = checkpoint.toAbsolutePath();
+      Path tmp = path.resolveSibling(path.getFileName() + "." + UUID.randomUUID() + ".tmp");
+      try {
+        Files.createDirectories(path.getParent());
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    }
+  }
+
+  /** One response of the exchange. */
+  public static final class Page<T> {
+    final List<T> records;
+    final String nextPageCursor;
+
+    public Page(List<T> records, String nextPageCursor) {
+      this.records = records;
+      this.nextPageCursor = nextPageCursor;
+    }
+  }
+
+  @FunctionalInterface
+  public interface Fetch<T> {
+    Page<T> fetch(TradeHistoryParams params) throws IOException;
+  }
+
+  public static final class Builder<T> {
+    private final Fetch<T> fetch;
+    private final Function<T, String> id;
+    private final Function<T, Date> timestamp;
+    private Supplier<? extends TradeHistoryParams> params;
+    private Date from;
+    private Date to;
+    private long windowMillis = DEFAULT_WINDOW_MILLIS;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private int pageLength = DEFAULT_PAGE_LENGTH;
+    private RateLimiter rateLimiter;
+    private Path checkpoint;
+
+    /**
+     * @param fetch queries one page of the history
+     * @param id the unique id of a record, e.g. the trade id
+     * @param timestamp the time of a record
+     */
+    public Builder(Fetch<T> fetch, Function<T, String> id, Function<T, Date> timestamp) {
+      this.fetch = fetch;
+      this.id = id;
+      this.timestamp = timestamp;
+    }
+
+    /**
+     * Creates the params of each query, e.g. with the currency pair set. The time span, cursor,
+     * paging and limit are then set by the exporter.
+     */
+    public Builder<T> params(Supplier<? extends TradeHistoryParams> params) {
+      this.params = params;
+      return this;
+    }
+
+    /** The start of the history, required if the params have a time span. */
+    public Builder<T> from(Date from) {
+      this.from = from;
+      return this;
+    }
+
+    /** The end of the history, now by default. */
+    public Builder<T> to(Date to) {
+      this.to = to;
+      return this;
+    }
+
+    /** The time span of each query (default one day), small enough for the exchange's limits. */
+    public Builder<T> window(long window, TimeUnit unit) {
+      this.windowMillis = unit.toMillis(window);
+      return this;
+    }
+
+    /** The number of windows fetched at the same time (default 4). */
+    public Builder<T> parallelism(int parallelism) {
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /** The page length or limit of each query (default 100). */
+    public Builder<T> pageLength(int pageLength) {
+      this.pageLength = pageLength;
+      return this;
+    }
+
+    /** Acquires a permit of the rate limiter before each query. */
+    public Builder<T> rateLimiter(RateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+      return this;
+    }
+
+    /** The file recording the completed windows, to resume from. */
+    public Builder<T> checkpoint(Path checkpoint) {
+      this.checkpoint = checkpoint;
+      return this;
+    }
+
+    public HistoryExporter<T> build() {
+      if (params == null) {
+        throw new IllegalArgumentException("The params factory is required");
+      }
+      if (windowMillis < 1 || parallelism < 1 || pageLength < 1) {
+        throw new IllegalArgumentException(
+            String.format(
+                "Invalid window %dms, parallelism %d or page length %d",
+                windowMillis, parallelism, pageLength));
+      }
+      return new HistoryExporter<>(this);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package org.knowm.xchange.service.trade;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.knowm.xchange.dto.trade.BatchOrderResult;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.exceptions.NotAvailableFromExchangeException;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.trade.params.CancelOrderByIdParams;
+import org.knowm.xchange.service.trade.params.CancelOrderParams;
+
+/**
+ * Submits the orders of a batch one request each, a few at a time, for exchanges without a batch
+ * endpoint. Requests still pass the rate limiters of the trade service, the bounded parallelism
+ * only keeps a large batch from queueing up on them all at once.
+ *
+ * <p>Each order fails on its own, except when the trade service does not support the single order
+ * call at all: the {@link NotAvailableFromExchangeException} or {@link
+ * NotYetImplementedForExchangeException} every order failed with is then thrown.
+ */
+public final class ParallelOrderSubmitter {
+
+  /** Number of requests of one batch in flight at the same time. */
+  public static final int DEFAULT_PARALLELISM = 4;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  private static final ExecutorService EXECUTOR =
+      Executors.newCachedThreadPool(
+          runnable -> {
+            Thread thread =
+                new Thread(runnable, "xchange-batch-order-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private ParallelOrderSubmitter() {}
+
+  public static List<BatchOrderResult<LimitOrder>> placeLimitOrders(
+      TradeService tradeService, List<LimitOrder> limitOrders, int parallelism) {
+    return submit(
+        limitOrders,
+        parallelism,
+        order -> BatchOrderResult.placed(order, tradeService.placeLimitOrder(order)));
+  }
+
+  public static List<BatchOrderResult<CancelOrderParams>> cancelOrders(
+      TradeService tradeService, Collection<CancelOrderParams> orderParams, int parallelism) {
+    return submit(
+        new ArrayList<>(orderParams),
+        parallelism,
+        params ->
+            BatchOrderResult.cancelled(
+                params,
+                params instanceof CancelOrderByIdParams
+                    ? ((CancelOrderByIdParams) params).getOrderId()
+                    : null,
+                tradeService.cancelOrder(params)));
+  }
+
+  private static <T> List<BatchOrderResult<T>> submit(
+      List<T> requests, int parallelism, Request<T> request) {
+    BatchOrderResult<T>[] results = newResults(requests.size());
+    AtomicInteger next = new AtomicInteger();
+    Runnable worker =
+        () -> {
+          int i;
+          while ((i = next.getAndIncrement()) < requests.size()) {
+            T item = requests.get(i);
+            try {
+              results[i] = request.submit(item);
+            } catch (IOException | RuntimeException e) {
+              results[i] = BatchOrderResult.failed(item, e);
+            }
+          }
+        };
+
+    int workers = Math.max(1, Math.min(parallelism, requests.size()));
+    List<Future<?>> futures = new ArrayList<>(workers - 1);
+    for (int i = 1; i < workers; i++) {
+      futures.add(EXECUTOR.submit(worker));
+    }
+    // The calling thread does its share instead of idling
+    worker.run();
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (Exception e) {
+      if (e instanceof InterruptedException) {
+        Thread.currentThread().interrupt();
+      }
+      futures.forEach(future -> future.cancel(true));
+      for (int i = 0; i < results.length; i++) {
+        if (results[i] == null) {
+          results[i] = BatchOrderResult.failed(requests.get(i), e);
+        }
+      }
+    }
+    throwIfUnsupported(results);
+    return Arrays.asList(results);
+  }
+
+  private static void throwIfUnsupported(BatchOrderResult<?>[] results) {
+    if (results.length == 0) {
+      return;
+    }
+    for (BatchOrderResult<?> result : results) {
+      Exception error = result.getError();
+      if (!(error instanceof NotAvailableFromExchangeException
+          || error instanceof NotYetImplementedForExchangeException)) {
+        return;
+      }
+    }
+    throw (UnsupportedOperationException) results[0].getError();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> BatchOrderResult<T>[] newResults(int size) {
+    return (BatchOrderResult<T>[]) new BatchOrderResult[size];
+  }
+
+  @FunctionalInterface
+  private interface Request<T> {
+    BatchOrderResult<T> submit(T item) throws IOException;
+  }
+}
@@ -2,6 +2,7 @@ package org.knowm.xchange.service.trade;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import org.knowm.xchange.dto.Order;
 import org.knowm.xchange.dto.account.OpenPositions;
 import org.knowm.xchange.dto.trade.*;
@@ -208,6 +209,54 @@ public interface TradeService extends BaseService {
     throw new NotYetImplementedForExchangeException("cancelOrder");
   }
 
+  /**
+   * Place several limit orders, e.g. the levels of a quote
+   *
+   * <p>Exchanges with a batch endpoint place them in as few requests as it allows. Otherwise they
+   * are placed one request each, {@link ParallelOrderSubmitter#DEFAULT_PARALLELISM} at a time.
+   * Whether a batch is placed atomically depends on the exchange.
+   *
+   * <p>The errors of single orders are reported in their results rather than thrown. The exceptions
+   * below are thrown when the batch fails as a whole, e.g. {@link
+   * NotYetImplementedForExchangeException} when neither this nor {@link
+   * #placeLimitOrder(LimitOrder)} is implemented for the exchange.
+   *
+   * @param limitOrders the orders to place
+   * @return one result per order, in the same order, with the order ID or the error it failed with
+   * @throws ExchangeException - Indication that the exchange reported some kind of error with the
+   *     request or response
+   * @throws NotAvailableFromExchangeException - Indication that the exchange does not support the
+   *     requested function or data
+   * @throws NotYetImplementedForExchangeException - Indication that the exchange supports the
+   *     requested function or data, but it has not yet been implemented
+   * @throws IOException - Indication that a networking error occurred while fetching JSON data
+   */
+  default List<BatchOrderResult<LimitOrder>> placeLimitOrders(List<LimitOrder> limitOrders)
+      throws IOException {
+    return ParallelOrderSubmitter.placeLimitOrders(
+        this, limitOrders, ParallelOrderSubmitter.DEFAULT_PARALLELISM);
+  }
+
+  /**
+   * cancels several orders, in as few requests as the exchange allows (see {@link
+   * #placeLimitOrders(List)})
+   *
+   * @param orderParams the orders to cancel
+   * @return one result per params, in iteration order, successful if the order was cancelled
+   * @throws ExchangeException - Indication that the exchange reported some kind of error with the
+   *     request or response
+   * @throws NotAvailableFromExchangeException - Indication that the exchange does not support the
+   *     requested function or data
+   * @throws NotYetImplementedForExchangeException - Indication that the exchange supports the
+   *     requested function or data, but it has not yet been implemented
+   * @throws IOException - Indication that a networking error occurred while fetching JSON data
+   */
+  default List<BatchOrderResult<CancelOrderParams>> cancelOrders(
+      Collection<CancelOrderParams> orderParams) throws IOException {
+    return ParallelOrderSubmitter.cancelOrders(
+        this, orderParams, ParallelOrderSubmitter.DEFAULT_PARALLELISM);
+  }
+
   /**
    * Fetch the history of user trades.
    *
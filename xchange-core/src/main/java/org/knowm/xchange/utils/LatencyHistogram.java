@@ -0,0 +1,149 @@
+package org.knowm.xchange.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations in nanoseconds with log-linear buckets, in the manner of HdrHistogram:
+ * values below 128 have a bucket each, larger ones share a bucket with the values of the same 7
+ * most significant bits, so any recorded value is reported within 1.6% of its real value.
+ *
+ * <p>Recording is lock-free and allocation-free, so it can be done on every call. Durations above
+ * {@link #MAX_TRACKABLE_NANOS} are counted as that maximum.
+ */
+public final class LatencyHistogram {
+
+  /** Largest duration told apart from larger ones, one hour. */
+  public static final long MAX_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+  private static final int SUB_BUCKET_BITS = 7;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+
+  private final AtomicLongArray counts = new AtomicLongArray(bucketIndex(MAX_TRACKABLE_NANOS) + 1);
+  private final LongAdder totalCount = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  public void record(long nanos) {
+    long value = Math.min(Math.max(nanos, 0), MAX_TRACKABLE_NANOS);
+    counts.incrementAndGet(bucketIndex(value));
+    totalCount.increment();
+    totalNanos.add(value);
+    maxNanos.accumulate(value);
+  }
+
+  /** @return a consistent enough copy of the recorded values, recording may go on meanwhile */
+  public Snapshot snapshot() {
+    long[] copy = new long[counts.length()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = counts.get(i);
+    }
+    return new Snapshot(copy, totalNanos.sum(), maxNanos.get());
+  }
+
+  public void reset() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.set(i, 0);
+    }
+    totalCount.reset();
+    totalNanos.reset();
+    maxNanos.reset();
+  }
+
+  public long getCount() {
+    return totalCount.sum();
+  }
+
+  static int bucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+    return (shift + 1) * HALF_SUB_BUCKET_COUNT + (int) (value >>> shift) - HALF_SUB_BUCKET_COUNT;
+  }
+
+  static long lowestValue(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+    int shift = bucketIndex / HALF_SUB_BUCKET_COUNT - 1;
+    return (long) (bucketIndex % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT) << shift;
+  }
+
+  static long highestValue(int bucketIndex) {
+    return lowestValue(bucketIndex + 1) - 1;
+  }
+
+  /** Recorded values at one point in time. */
+  public static final class Snapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    private Snapshot(long[] counts, long totalNanos, long maxNanos) {
+      long sum = 0;
+      for (long bucket : counts) {
+        sum += bucket;
+      }
+      this.counts = counts;
+      this.count = sum;
+      this.totalNanos = totalNanos;
+      this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    public long getMaxNanos() {
+      return maxNanos;
+    }
+
+    public double getMeanNanos() {
+      return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the highest value of the bucket holding the percentile, at most the maximum
+     */
+    public long getValueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(highestValue(i), maxNanos);
+        }
+      }
+      return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+      return "Snapshot [count="
+          + count
+          + ", mean="
+          + (long) getMeanNanos()
+          + "ns, p50="
+          + getValueAtPercentile(50)
+          + "ns, p99="
+          + getValueAtPercentile(99)
+          + "ns, max="
+          + maxNanos
+          + "ns]";
+    }
+  }
+}
@@ -0,0 +1,292 @@
+package org.knowm.xchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.meta.CurrencyPairMetaData;
+import org.knowm.xchange.dto.meta.ExchangeMetaData;
+
+public class BaseExchangeMetaDataCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldServeCachedMetaDataWhileRemoteInitRuns() throws Exception {
+    // given
+    File cache = new File(folder.getRoot(), "meta/exchange.json");
+    AtomicInteger remoteInits = new AtomicInteger();
+    new RemoteExchange(remoteInits, new BigDecimal("0.001"))
+        .applySpecification(specification(cache, Duration.ofHours(1)));
+
+    // when
+    RemoteExchange restarted = new RemoteExchange(remoteInits, new BigDecimal("0.002"));
+    restarted.remoteInitGate = new CountDownLatch(1);
+    restarted.applySpecification(specification(cache, Duration.ofHours(1)));
+
+    // then
+    assertThat(cache).exists();
+    assertThat(minimumAmount(restarted)).isEqualTo(new BigDecimal("0.001"));
+
+    // and remoteInit still runs right after startup
+    restarted.remoteInitGate.countDown();
+    awaitMinimumAmount(restarted, new BigDecimal("0.002"));
+    assertThat(remoteInits.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldRemoteInitOnceWithoutTtl() throws Exception {
+    // given
+    File cache = new File(folder.getRoot(), "exchange.json");
+    AtomicInteger remoteInits = new AtomicInteger();
+    new RemoteExchange(remoteInits, new BigDecimal("0.001"))
+        .applySpecification(specification(cache, null));
+
+    // when
+    RemoteExchange restarted = new RemoteExchange(remoteInits, new BigDecimal("0.002"));
+    restarted.applySpecification(specification(cache, null));
+
+    // then
+    awaitMinimumAmount(restarted, new BigDecimal("0.002"));
+    Thread.sleep(100);
+    assertThat(remoteInits.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void shouldStopRefreshing() throws Exception {
+    // given
+    File cache = new File(folder.getRoot(), "exchange.json");
+    AtomicInteger remoteInits = new AtomicInteger();
+    RemoteExchange exchange = new RemoteExchange(remoteInits, new BigDecimal("0.001"));
+    exchange.applySpecification(specification(cache, Duration.ofMillis(20)));
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (remoteInits.get() < 3 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+
+    // when
+    exchange.stopMetaDataRefresh();
+    Thread.sleep(50);
+    int stopped = remoteInits.get();
+    Thread.sleep(100);
+
+    // then
+    assertThat(stopped).isGreaterThanOrEqualTo(3);
+    assertThat(remoteInits.get()).isEqualTo(stopped);
+  }
+
+  @Test
+  public void shouldKeepMetaDataIfRefreshFails() {
+    // given
+    AtomicInteger remoteInits = new AtomicInteger();
+    RemoteExchange exchange = new RemoteExchange(remoteInits, new BigDecimal("0.001"));
+    exchange.applySpecification(specification(null, null));
+    ExchangeMetaData before = exchange.getExchangeMetaData();
+    exchange.failing = true;
+
+    // when
+    try {
+      exchange.refreshMetaData();
+    } catch (RuntimeException expected) {
+      // the failure is reported
+    }
+
+    // then
+    assertThat(exchange.getExchangeMetaData()).isSameAs(before);
+  }
+
+  @Test
+  public void shouldDeferTheRemoteLoadWhileTheCacheIsYoung() throws Exception {
+    // given
+    File cache = new File(folder.getRoot(), "exchange.json");
+    AtomicInteger remoteLoads = new AtomicInteger();
+    new AsideExchange(remoteLoads, new BigDecimal("0.001"))
+        .applySpecification(specification(cache, Duration.ofHours(1)));
+
+    // when
+    AsideExchange restarted = new AsideExchange(remoteLoads, new BigDecimal("0.002"));
+    restarted.applySpecification(specification(cache, Duration.ofHours(1)));
+    Thread.sleep(100);
+
+    // then
+    assertThat(minimumAmount(restarted)).isEqualTo(new BigDecimal("0.001"));
+    assertThat(restarted.state).isEqualTo("loaded 0.001");
+    assertThat(remoteLoads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void shouldLoadRemotelyOnceTheCacheExpires() throws Exception {
+    // given
+    File cache = new File(folder.getRoot(), "exchange.json");
+    AtomicInteger remoteLoads = new AtomicInteger();
+    AsideExchange first = new AsideExchange(remoteLoads, new BigDecimal("0.001"));
+    first.applySpecification(specification(cache, Duration.ofMillis(400)));
+    first.stopMetaDataRefresh();
+    assertThat(cache.setLastModified(System.currentTimeMillis() - 200)).isTrue();
+
+    // when
+    AsideExchange restarted = new AsideExchange(remoteLoads, new BigDecimal("0.002"));
+    restarted.applySpecification(specification(cache, Duration.ofMillis(400)));
+
+    // then
+    assertThat(remoteLoads.get()).isEqualTo(1);
+    awaitMinimumAmount(restarted, new BigDecimal("0.002"));
+    assertThat(restarted.state).isEqualTo("loaded 0.002");
+    restarted.stopMetaDataRefresh();
+  }
+
+  @Test
+  public void shouldPublishTheLoadedMetaDataInOneStep() throws Exception {
+    // given
+    AtomicInteger remoteLoads = new AtomicInteger();
+    AsideExchange exchange = new AsideExchange(remoteLoads, new BigDecimal("0.001"));
+    exchange.applySpecification(specification(null, null));
+    ExchangeMetaData before = exchange.exchangeMetaData;
+    exchange.remoteLoadGate = new CountDownLatch(1);
+
+    // when
+    Thread refresh = new Thread(exchange::refreshMetaData);
+    refresh.start();
+    Thread.sleep(100);
+
+    // then
+    assertThat(exchange.exchangeMetaData).isSameAs(before);
+    exchange.remoteLoadGate.countDown();
+    refresh.join(5_000);
+    assertThat(exchange.exchangeMetaData).isNotSameAs(before);
+    assertThat(minimumAmount(exchange)).isEqualTo(new BigDecimal("0.001"));
+  }
+
+  private static void awaitMinimumAmount(Exchange exchange, BigDecimal expected)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (minimumAmount(exchange).compareTo(expected) != 0
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(minimumAmount(exchange)).isEqualTo(expected);
+  }
+
+  private static BigDecimal minimumAmount(Exchange exchange) {
+    return exchange
+        .getExchangeMetaData()
+        .getCurrencyPairs()
+        .get(CurrencyPair.BTC_USD)
+        .getMinimumAmount();
+  }
+
+  private static ExchangeSpecification specification(File cache, Duration ttl) {
+    ExchangeSpecification specification = new ExchangeSpecification(RemoteExchange.class);
+    specification.setMetaDataCacheFile(cache == null ? null : cache.getPath());
+    specification.setMetaDataCacheTtl(ttl);
+    return specification;
+  }
+
+  static class RemoteExchange extends BaseExchange {
+
+    private final AtomicInteger remoteInits;
+    private final BigDecimal minimumAmount;
+    volatile boolean failing;
+    volatile CountDownLatch remoteInitGate;
+
+    RemoteExchange(AtomicInteger remoteInits, BigDecimal minimumAmount) {
+      this.remoteInits = remoteInits;
+      this.minimumAmount = minimumAmount;
+    }
+
+    @Override
+    protected void initServices() {}
+
+    @Override
+    public ExchangeSpecification getDefaultExchangeSpecification() {
+      return new ExchangeSpecification(getClass());
+    }
+
+    @Override
+    public void remoteInit() {
+      CountDownLatch gate = remoteInitGate;
+      if (gate != null) {
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (failing) {
+        throw new IllegalStateException("Exchange unavailable");
+      }
+      Map<CurrencyPair, CurrencyPairMetaData> pairs = new HashMap<>();
+      pairs.put(CurrencyPair.BTC_USD, new CurrencyPairMetaData(null, minimumAmount, null, 2, null));
+      exchangeMetaData = new ExchangeMetaData(pairs, new HashMap<>(), null, null, null);
+      remoteInits.incrementAndGet();
+    }
+  }
+
+  /** Loads its meta data aside and caches its other state. */
+  static class AsideExchange extends BaseExchange {
+
+    private final AtomicInteger remoteLoads;
+    private final BigDecimal minimumAmount;
+    volatile String state;
+    volatile CountDownLatch remoteLoadGate;
+
+    AsideExchange(AtomicInteger remoteLoads, BigDecimal minimumAmount) {
+      this.remoteLoads = remoteLoads;
+      this.minimumAmount = minimumAmount;
+    }
+
+    @Override
+    protected void initServices() {}
+
+    @Override
+    public ExchangeSpecification getDefaultExchangeSpecification() {
+      return new ExchangeSpecification(getClass());
+    }
+
+    @Override
+    public void remoteInit() {
+      exchangeMetaData = loadRemoteMetaData(exchangeMetaData);
+    }
+
+    @Override
+    protected ExchangeMetaData loadRemoteMetaData(ExchangeMetaData staticMetaData) {
+      CountDownLatch gate = remoteLoadGate;
+      if (gate != null) {
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      Map<CurrencyPair, CurrencyPairMetaData> pairs = new HashMap<>();
+      pairs.put(CurrencyPair.BTC_USD, new CurrencyPairMetaData(null, minimumAmount, null, 2, null));
+      state = "loaded " + minimumAmount;
+      remoteLoads.incrementAndGet();
+      return new ExchangeMetaData(pairs, new HashMap<>(), null, null, null);
+    }
+
+    @Override
+    protected Object getRemoteInitState() {
+      return state;
+    }
+
+    @Override
+    protected boolean restoreRemoteInitState(JsonNode state) {
+      if (state == null) {
+        return false;
+      }
+      this.state = state.asText();
+      return true;
+    }
+  }
+}
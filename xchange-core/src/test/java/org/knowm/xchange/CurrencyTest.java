@@ -5,6 +5,12 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Test;
 import org.knowm.xchange.currency.Currency;
@@ -25,6 +31,35 @@ public class CurrencyTest {
     assertEquals(new Currency("btc"), Currency.getInstance("BTC"));
   }
 
+  @Test
+  public void testGetInstanceOfNewCodeFromManyThreads() throws Exception {
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int round = 0; round < 50; round++) {
+        String code = "CONCURRENT" + round;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Currency>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          futures.add(
+              executor.submit(
+                  () -> {
+                    start.await();
+                    return Currency.getInstance(code);
+                  }));
+        }
+        start.countDown();
+        Currency first = futures.get(0).get();
+        for (Future<Currency> future : futures) {
+          assertThat(future.get()).isSameAs(first);
+        }
+        assertThat(Currency.getAvailableCurrencyCodes()).contains(code);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void testGetInstanceNoCreate() {
     assertEquals(Currency.CNY, Currency.getInstanceNoCreate("CNY"));
@@ -0,0 +1,126 @@
+package org.knowm.xchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.meta.ExchangeMetaData;
+import org.knowm.xchange.exceptions.ExchangeException;
+
+public class ExchangeFactoryTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void shouldCreateExchangesInOrderOfSpecifications() throws Exception {
+    // given
+    ExchangeSpecification first = specification(StaticExchange.class, "0.001");
+    ExchangeSpecification second = specification(OtherStaticExchange.class, "0.002");
+
+    // when
+    List<Exchange> exchanges =
+        ExchangeFactory.INSTANCE.createExchanges(Arrays.asList(first, second));
+
+    // then
+    assertThat(exchanges).hasSize(2);
+    assertThat(exchanges.get(0)).isInstanceOf(StaticExchange.class);
+    assertThat(exchanges.get(0).getExchangeSpecification()).isSameAs(first);
+    assertThat(exchanges.get(1)).isInstanceOf(OtherStaticExchange.class);
+    assertThat(minimumAmount(exchanges.get(1))).isEqualTo(new BigDecimal("0.002"));
+  }
+
+  @Test
+  public void shouldParseMetaDataOnFirstUse() throws Exception {
+    // given
+    StaticExchange exchange =
+        (StaticExchange)
+            ExchangeFactory.INSTANCE.createExchange(specification(StaticExchange.class, "0.001"));
+
+    // then
+    assertThat(exchange.exchangeMetaData).isNull();
+    assertThat(minimumAmount(exchange)).isEqualTo(new BigDecimal("0.001"));
+    assertThat(exchange.exchangeMetaData).isSameAs(exchange.getExchangeMetaData());
+  }
+
+  @Test
+  public void shouldReportFailedExchange() throws Exception {
+    // given
+    ExchangeSpecification failing = new ExchangeSpecification(FailingExchange.class);
+    failing.setShouldLoadRemoteMetaData(true);
+
+    // then
+    assertThatThrownBy(
+            () ->
+                ExchangeFactory.INSTANCE.createExchanges(
+                    Arrays.asList(specification(StaticExchange.class, "0.001"), failing)))
+        .isInstanceOf(ExchangeException.class)
+        .hasMessageContaining(FailingExchange.class.getName())
+        .hasRootCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void shouldReportExchangeWithoutClass() throws Exception {
+    // given
+    ExchangeSpecification missing = new ExchangeSpecification((Class<? extends Exchange>) null);
+    missing.setExchangeName("Missing");
+
+    // then
+    assertThatThrownBy(
+            () ->
+                ExchangeFactory.INSTANCE.createExchanges(
+                    Arrays.asList(specification(StaticExchange.class, "0.001"), missing)))
+        .isInstanceOf(ExchangeException.class)
+        .hasMessageContaining("Missing");
+  }
+
+  private ExchangeSpecification specification(Class<? extends Exchange> exchangeClass, String min)
+      throws Exception {
+    File json = folder.newFile();
+    Files.write(
+        json.toPath(),
+        ("{\"currency_pairs\":{\"BTC/USD\":{\"min_amount\":" + min + "}},\"currencies\":{}}")
+            .getBytes(StandardCharsets.UTF_8));
+    ExchangeSpecification specification = new ExchangeSpecification(exchangeClass);
+    specification.setMetaDataJsonFileOverride(json.getPath());
+    specification.setShouldLoadRemoteMetaData(false);
+    return specification;
+  }
+
+  private static BigDecimal minimumAmount(Exchange exchange) {
+    ExchangeMetaData metaData = exchange.getExchangeMetaData();
+    return metaData.getCurrencyPairs().get(CurrencyPair.BTC_USD).getMinimumAmount();
+  }
+
+  public static class StaticExchange extends BaseExchange {
+
+    @Override
+    protected void initServices() {}
+
+    @Override
+    public ExchangeSpecification getDefaultExchangeSpecification() {
+      ExchangeSpecification specification = new ExchangeSpecification(getClass());
+      specification.setExchangeName("Static");
+      specification.setShouldLoadRemoteMetaData(false);
+      return specification;
+    }
+  }
+
+  public static class OtherStaticExchange extends StaticExchange {}
+
+  public static class FailingExchange extends StaticExchange {
+
+    @Override
+    public void remoteInit() {
+      throw new IllegalStateException("Exchange unavailable");
+    }
+  }
+}
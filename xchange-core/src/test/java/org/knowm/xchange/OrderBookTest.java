@@ -13,6 +13,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.BookLevel;
 import org.knowm.xchange.dto.marketdata.OrderBook;
 import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
 import org.knowm.xchange.dto.trade.LimitOrder;
@@ -113,6 +114,37 @@ public class OrderBookTest {
     assertThat(orderBook.getBids().get(0).getOriginalAmount()).isEqualTo(BigDecimal.TEN);
   }
 
+  @Test
+  public void testUpdateBookLevel() {
+
+    // bid at 9.50, between the existing bid at 10 and a new one at 9
+    orderBook.update(CurrencyPair.BTC_USD, new BookLevel(OrderType.BID, 9, 0, 2, 0, 0));
+    orderBook.update(CurrencyPair.BTC_USD, new BookLevel(OrderType.BID, 950, 2, 3, 0, 0));
+    assertThat(orderBook.getBids())
+        .extracting(LimitOrder::getLimitPrice)
+        .usingElementComparator(BigDecimal::compareTo)
+        .containsExactly(BigDecimal.TEN, new BigDecimal("9.5"), new BigDecimal("9"));
+    assertThat(orderBook.getBids().get(1).getOriginalAmount()).isEqualByComparingTo("3");
+
+    // replace and remove
+    orderBook.update(CurrencyPair.BTC_USD, new BookLevel(OrderType.BID, 95, 1, 1, 0, 0));
+    orderBook.update(
+        CurrencyPair.BTC_USD, new BookLevel(OrderType.BID, 10, 0, 0, 0, BookLevel.NO_TIMESTAMP));
+    assertThat(orderBook.getBids()).hasSize(2);
+    assertThat(orderBook.getBids().get(0).getOriginalAmount()).isEqualByComparingTo("1");
+
+    long later = orderBook.getTimeStamp().getTime() + 1000;
+    orderBook.update(CurrencyPair.BTC_USD, new BookLevel(OrderType.ASK, 12, 0, 1, 0, later));
+    assertThat(orderBook.getAsks()).hasSize(2);
+    assertThat(orderBook.getAsks().get(1).getScaledLimitPrice().getUnscaledValue()).isEqualTo(12);
+    assertThat(orderBook.getTimeStamp().getTime()).isEqualTo(later);
+
+    // equal and hashed alike whatever the scale
+    assertThat(new BookLevel(OrderType.BID, 950, 2, 3, 0, 0))
+        .isEqualTo(new BookLevel(OrderType.BID, 95, 1, 30, 1, 0))
+        .hasSameHashCodeAs(new BookLevel(OrderType.BID, 95, 1, 30, 1, 0));
+  }
+
   @Test
   public void testDateSame() {
 
@@ -0,0 +1,111 @@
+package org.knowm.xchange.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.junit.Test;
+import org.knowm.xchange.dto.meta.CurrencyPairMetaData;
+
+public class ScaledDecimalTest {
+
+  @Test
+  public void testParse() {
+    assertThat(ScaledDecimal.parseUnscaled("9000.1", 0, 6, 2)).isEqualTo(900010);
+    assertThat(ScaledDecimal.parseUnscaled("-0.00012300", 0, 11, 6)).isEqualTo(-123);
+    assertThat(ScaledDecimal.parseUnscaled("42", 0, 2, 0)).isEqualTo(42);
+    assertThat(ScaledDecimal.parseUnscaled("1.5e-3", 0, 6, 4)).isEqualTo(15);
+    assertThat(ScaledDecimal.parseUnscaled("1.2345E2", 0, 8, 2)).isEqualTo(12345);
+    assertThat(ScaledDecimal.parseUnscaled("x-9223372036854775808", 1, 21, 0))
+        .isEqualTo(Long.MIN_VALUE);
+  }
+
+  @Test
+  public void testParseRejectsInexactOrInvalidNumbers() {
+    assertThatThrownBy(() -> ScaledDecimal.parse("0.123", 2))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> ScaledDecimal.parse("9223372036854775808", 0))
+        .isInstanceOf(ArithmeticException.class);
+    assertThatThrownBy(() -> ScaledDecimal.parse("1.2.3", 2))
+        .isInstanceOf(NumberFormatException.class);
+    assertThatThrownBy(() -> ScaledDecimal.parse("-", 2)).isInstanceOf(NumberFormatException.class);
+  }
+
+  @Test
+  public void testParseWithTheScaleOfTheText() {
+    assertThat(ScaledDecimal.parse("5541.30000").getScale()).isEqualTo(5);
+    assertThat(ScaledDecimal.parse("5541.30000").getUnscaledValue()).isEqualTo(554130000);
+    assertThat(ScaledDecimal.parse("42").getScale()).isZero();
+    assertThat(ScaledDecimal.parse("1.5e-3")).isEqualTo(ScaledDecimal.of(15, 4));
+    assertThat(ScaledDecimal.parse("0.1000000000000000000000").getScale()).isEqualTo(18);
+  }
+
+  @Test
+  public void testAmountsHaveTheirOwnScale() {
+    CurrencyPairMetaData metaData =
+        new CurrencyPairMetaData.Builder().priceScale(1).baseScale(8).build();
+
+    assertThat(ScaledDecimal.priceScale(metaData)).isEqualTo(1);
+    assertThat(ScaledDecimal.amountScale(metaData)).isEqualTo(8);
+    assertThat(ScaledDecimal.parse("0.00012345", ScaledDecimal.amountScale(metaData)))
+        .isEqualTo(ScaledDecimal.of(12345, 8));
+    assertThat(ScaledDecimal.amountScale(null)).isEqualTo(ScaledDecimal.DEFAULT_SCALE);
+  }
+
+  @Test
+  public void testParseJsonTokens() throws Exception {
+    JsonParser parser = new JsonFactory().createParser("[\"431.19\", 0.02, 7, null]");
+    parser.nextToken();
+
+    parser.nextToken();
+    assertThat(ScaledDecimal.parse(parser, 2)).isEqualTo(ScaledDecimal.of(43119, 2));
+    parser.nextToken();
+    assertThat(ScaledDecimal.parseUnscaled(parser, 8)).isEqualTo(2_000_000);
+    parser.nextToken();
+    assertThat(ScaledDecimal.parseUnscaled(parser, 1)).isEqualTo(70);
+    parser.nextToken();
+    assertThat(ScaledDecimal.parse(parser, 2)).isNull();
+  }
+
+  @Test
+  public void testArithmetic() {
+    ScaledDecimal price = ScaledDecimal.parse("101.25", 2);
+    ScaledDecimal amount = ScaledDecimal.parse("0.003", 3);
+
+    assertThat(price.add(amount)).isEqualTo(ScaledDecimal.parse("101.253", 3));
+    assertThat(price.subtract(amount).getScale()).isEqualTo(3);
+    assertThat(price.multiply(amount, 4, RoundingMode.HALF_EVEN))
+        .isEqualTo(ScaledDecimal.parse("0.3038", 4));
+    assertThat(ScaledDecimal.multiply(10125, 2, 3, 3, 2, RoundingMode.DOWN)).isEqualTo(30);
+    assertThat(ScaledDecimal.rescale(-125, 2, 1, RoundingMode.HALF_UP)).isEqualTo(-13);
+    assertThat(ScaledDecimal.rescale(-125, 2, 1, RoundingMode.HALF_EVEN)).isEqualTo(-12);
+    assertThat(ScaledDecimal.rescale(1, 0, 18)).isEqualTo(1_000_000_000_000_000_000L);
+    assertThatThrownBy(() -> ScaledDecimal.rescale(125, 2, 1))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  public void testCompareAndEquals() {
+    assertThat(ScaledDecimal.parse("1.50", 2)).isEqualTo(ScaledDecimal.parse("1.5", 1));
+    assertThat(ScaledDecimal.parse("1.50", 2).hashCode())
+        .isEqualTo(ScaledDecimal.parse("1.5", 1).hashCode());
+    assertThat(ScaledDecimal.compare(Long.MAX_VALUE, 0, 1, 18)).isPositive();
+    assertThat(ScaledDecimal.compare(-Long.MAX_VALUE, 0, -1, 18)).isNegative();
+    assertThat(ScaledDecimal.compare(-1, 0, 1, 18)).isNegative();
+    assertThat(ScaledDecimal.parse("0.999", 3)).isLessThan(ScaledDecimal.parse("1", 0));
+  }
+
+  @Test
+  public void testBigDecimalView() {
+    ScaledDecimal value = ScaledDecimal.valueOf(new BigDecimal("0.1"), 3);
+
+    assertThat(value.getUnscaledValue()).isEqualTo(100);
+    assertThat(value.toBigDecimal()).isEqualByComparingTo("0.1");
+    assertThat(value.toBigDecimal()).isSameAs(value.toBigDecimal());
+    assertThat(value.toString()).isEqualTo("0.100");
+    assertThat(value.doubleValue()).isEqualTo(0.1);
+  }
+}
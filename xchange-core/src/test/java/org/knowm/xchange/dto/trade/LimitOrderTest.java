@@ -12,6 +12,7 @@ import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order;
 import org.knowm.xchange.dto.Order.IOrderFlags;
 import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.ScaledDecimal;
 import org.knowm.xchange.utils.ObjectMapperHelper;
 
 public class LimitOrderTest {
@@ -188,6 +189,42 @@ public class LimitOrderTest {
     assertEquals(1, ask1.compareTo(bid2));
   }
 
+  @Test
+  public void testScaledLimitPrice() {
+    LimitOrder bid =
+        new LimitOrder.Builder(OrderType.BID, CurrencyPair.BTC_USD)
+            .originalAmount(BigDecimal.ONE)
+            .scaledLimitPrice(ScaledDecimal.parse("9000.10", 2))
+            .build();
+    LimitOrder higherBid =
+        LimitOrder.Builder.from(bid).scaledLimitPrice(ScaledDecimal.parse("9000.2", 1)).build();
+
+    assertThat(bid.getScaledLimitPrice().getUnscaledValue()).isEqualTo(900010);
+    // the BigDecimal view is created on first use only, and then kept
+    assertThat(bid.limitPrice).isNull();
+    assertThat(bid.getLimitPrice()).isEqualByComparingTo("9000.1");
+    assertThat(bid.limitPrice).isSameAs(bid.getLimitPrice());
+    assertThat(higherBid.compareTo(bid)).isNegative();
+    assertThat(LimitOrder.Builder.from(bid).build()).isEqualTo(bid);
+  }
+
+  @Test
+  public void testFlagsWithoutAnyFlagSet() {
+    LimitOrder order =
+        new LimitOrder.Builder(OrderType.ASK, CurrencyPair.BTC_USD)
+            .limitPrice(BigDecimal.ONE)
+            .build();
+
+    assertThat(order.hasFlag(TestFlags.TEST1)).isFalse();
+    assertThat(order.toString()).contains("flags=[]");
+    assertThat(order.getOrderFlags()).isEmpty();
+
+    order.getOrderFlags().add(TestFlags.TEST2);
+    assertThat(order.hasFlag(TestFlags.TEST2)).isTrue();
+    assertThat(LimitOrder.Builder.from(order).build().getOrderFlags())
+        .containsExactly(TestFlags.TEST2);
+  }
+
   private enum TestFlags implements IOrderFlags {
     TEST1,
     TEST2,
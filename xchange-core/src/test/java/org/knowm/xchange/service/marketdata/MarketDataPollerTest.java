@@ -0,0 +1,207 @@
+package org.knowm.xchange.service.marketdata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.dto.meta.RateLimit;
+import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.exceptions.RateLimitExceededException;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
+import org.knowm.xchange.service.marketdata.params.Params;
+
+public class MarketDataPollerTest {
+
+  private static final List<CurrencyPair> PAIRS =
+      Arrays.asList(CurrencyPair.BTC_USD, CurrencyPair.ETH_USD, CurrencyPair.LTC_USD);
+
+  private static Ticker ticker(CurrencyPair currencyPair) {
+    return new Ticker.Builder().instrument(currencyPair).last(BigDecimal.ONE).build();
+  }
+
+  @Test
+  public void testPollsTheMissingPairsOneByOne() throws IOException {
+    int[] calls = new int[2];
+    MarketDataService service =
+        new MarketDataService() {
+          @Override
+          public List<Ticker> getTickers(Params params) {
+            calls[0]++;
+            // the exchange has no LTC/USD ticker in bulk, and an extra one
+            return ((CurrencyPairsParam) params)
+                .getCurrencyPairs().stream()
+                    .filter(currencyPair -> !currencyPair.equals(CurrencyPair.LTC_USD))
+                    .map(MarketDataPollerTest::ticker)
+                    .collect(Collectors.toList());
+          }
+
+          @Override
+          public Ticker getTicker(CurrencyPair currencyPair, Object... args) {
+            calls[1]++;
+            return ticker(currencyPair);
+          }
+        };
+    MarketDataPoller<Ticker> poller =
+        MarketDataPoller.tickers(service, PAIRS, new RateLimit(10, 1, TimeUnit.SECONDS));
+
+    long start = System.nanoTime();
+    Map<CurrencyPair, Ticker> tickers = poller.poll();
+
+    assertThat(tickers).containsOnlyKeys(PAIRS);
+    assertThat(tickers.keySet()).containsExactlyElementsOf(PAIRS);
+    assertThat(calls).containsExactly(1, 1);
+    // the call one by one waits for the delay of the rate limit after the bulk call
+    assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+        .isGreaterThanOrEqualTo(100);
+    assertThat(poller.isBulk()).isTrue();
+    assertThat(poller.getCallsPerPoll()).isEqualTo(2);
+    assertThat(poller.getMinimumIntervalMillis()).isEqualTo(200);
+  }
+
+  @Test
+  public void testPollsOneByOneWhenTheBulkCallFails() throws IOException {
+    int[] calls = new int[2];
+    MarketDataService service =
+        new MarketDataService() {
+          @Override
+          public List<Ticker> getTickers(Params params) {
+            if (calls[0]++ == 0) {
+              throw new ExchangeException("Service unavailable");
+            }
+            return ((CurrencyPairsParam) params)
+                .getCurrencyPairs().stream()
+                    .map(MarketDataPollerTest::ticker)
+                    .collect(Collectors.toList());
+          }
+
+          @Override
+          public Ticker getTicker(CurrencyPair currencyPair, Object... args) {
+            calls[1]++;
+            return ticker(currencyPair);
+          }
+        };
+    MarketDataPoller<Ticker> poller = MarketDataPoller.tickers(service, PAIRS);
+
+    Map<CurrencyPair, Ticker> tickers = poller.poll();
+
+    assertThat(tickers.keySet()).containsExactlyElementsOf(PAIRS);
+    assertThat(tickers.values()).extracting(Ticker::getInstrument).containsExactlyElementsOf(PAIRS);
+    assertThat(calls).containsExactly(1, 3);
+    assertThat(poller.isBulk()).isTrue();
+    assertThat(poller.getCallsPerPoll()).isEqualTo(4);
+
+    // the next poll is in bulk again
+    assertThat(poller.poll().keySet()).containsExactlyElementsOf(PAIRS);
+    assertThat(calls).containsExactly(2, 3);
+    assertThat(poller.getCallsPerPoll()).isEqualTo(1);
+  }
+
+  @Test
+  public void testFallsBackToOneCallPerPair() throws IOException {
+    int[] calls = new int[1];
+    MarketDataService service =
+        new MarketDataService() {
+          @Override
+          public OrderBook getOrderBook(CurrencyPair currencyPair, Object... args) {
+            calls[0]++;
+            assertThat(args).containsExactly(20);
+            return new OrderBook(null, Arrays.asList(), Arrays.asList());
+          }
+        };
+    MarketDataPoller<OrderBook> poller =
+        MarketDataPoller.orderBooks(
+            service,
+            PAIRS,
+            20,
+            new RateLimit(200, 1, TimeUnit.SECONDS),
+            new RateLimit(6000, 1, TimeUnit.MINUTES));
+
+    assertThat(poller.poll()).containsOnlyKeys(PAIRS);
+    assertThat(poller.poll()).containsOnlyKeys(PAIRS);
+
+    assertThat(poller.isBulk()).isFalse();
+    assertThat(calls[0]).isEqualTo(6);
+    assertThat(poller.getCalls()).isEqualTo(6);
+    assertThat(poller.getMinimumIntervalMillis()).isEqualTo(30);
+  }
+
+  @Test
+  public void testSkipsThePollWhenTheBulkCallIsRateLimited() throws IOException {
+    int[] calls = new int[2];
+    MarketDataService service =
+        new MarketDataService() {
+          @Override
+          public List<Ticker> getTickers(Params params) {
+            if (calls[0]++ < 2) {
+              throw new RateLimitExceededException();
+            }
+            return ((CurrencyPairsParam) params)
+                .getCurrencyPairs().stream()
+                    .map(MarketDataPollerTest::ticker)
+                    .collect(Collectors.toList());
+          }
+
+          @Override
+          public Ticker getTicker(CurrencyPair currencyPair, Object... args) {
+            calls[1]++;
+            return ticker(currencyPair);
+          }
+        };
+    MarketDataPoller<Ticker> poller =
+        MarketDataPoller.tickers(service, PAIRS, new RateLimit(10, 1, TimeUnit.SECONDS));
+
+    assertThatThrownBy(poller::poll).isInstanceOf(RateLimitExceededException.class);
+    assertThat(poller.getMinimumIntervalMillis()).isEqualTo(2000);
+    assertThatThrownBy(poller::poll).isInstanceOf(RateLimitExceededException.class);
+    assertThat(poller.getMinimumIntervalMillis()).isEqualTo(4000);
+    // no call one by one on top of the exceeded rate limit
+    assertThat(calls).containsExactly(2, 0);
+
+    assertThat(poller.poll()).containsOnlyKeys(PAIRS);
+    assertThat(poller.getMinimumIntervalMillis()).isEqualTo(100);
+  }
+
+  @Test
+  public void testPollsTheOtherPairsWhenOneFails() throws IOException {
+    List<CurrencyPair> polled = new ArrayList<>();
+    MarketDataService service =
+        new MarketDataService() {
+          @Override
+          public Ticker getTicker(CurrencyPair currencyPair, Object... args) throws IOException {
+            polled.add(currencyPair);
+            if (currencyPair.equals(CurrencyPair.BTC_USD)) {
+              throw new IOException("Connection reset");
+            }
+            if (currencyPair.equals(CurrencyPair.ETH_USD)) {
+              throw new RateLimitExceededException();
+            }
+            return ticker(currencyPair);
+          }
+        };
+    MarketDataPoller<Ticker> poller = MarketDataPoller.tickers(service, PAIRS);
+
+    Map<CurrencyPair, Ticker> tickers = poller.poll();
+
+    // the failed pair is null, the throttled one stops the calls of the poll
+    assertThat(tickers.keySet()).containsExactlyElementsOf(PAIRS);
+    assertThat(tickers.values()).containsOnlyNulls();
+    assertThat(polled).containsExactly(CurrencyPair.BTC_USD, CurrencyPair.ETH_USD);
+    assertThat(poller.getMinimumIntervalMillis()).isEqualTo(2000);
+
+    List<CurrencyPair> others = Arrays.asList(CurrencyPair.LTC_USD, CurrencyPair.BTC_USD);
+    Map<CurrencyPair, Ticker> partial = MarketDataPoller.tickers(service, others).poll();
+    assertThat(partial.get(CurrencyPair.LTC_USD)).isNotNull();
+    assertThat(partial).containsEntry(CurrencyPair.BTC_USD, null);
+  }
+}
@@ -0,0 +1,340 @@
+package org.knowm.xchange.service.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.Trades.TradeSortType;
+import org.knowm.xchange.dto.trade.UserTrade;
+import org.knowm.xchange.dto.trade.UserTrades;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamLimit;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamNextPageCursor;
+import org.knowm.xchange.service.trade.params.TradeHistoryParams;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamsAll;
+import org.knowm.xchange.service.trade.params.TradeHistoryParamsTimeSpan;
+
+public class HistoryExporterTest {
+
+  private static final long DAY = TimeUnit.DAYS.toMillis(1);
+  private static final long START = 100 * DAY;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /** 300 trades over 3 days, one every 14.4 minutes. */
+  private final List<UserTrade> history = new ArrayList<>();
+
+  {
+    for (int i = 0; i < 300; i++) {
+      history.add(
+          new UserTrade.Builder()
+              .id(String.valueOf(i))
+              .timestamp(new Date(START + i * DAY / 100))
+              .type(OrderType.BID)
+              .instrument(CurrencyPair.BTC_USD)
+              .originalAmount(BigDecimal.ONE)
+              .price(BigDecimal.TEN)
+              .build());
+    }
+  }
+
+  /** The trades of the time span, both ends included, oldest first. */
+  private List<UserTrade> between(TradeHistoryParamsTimeSpan params) {
+    return history.stream()
+        .filter(trade -> !trade.getTimestamp().before(params.getStartTime()))
+        .filter(trade -> !trade.getTimestamp().after(params.getEndTime()))
+        .collect(Collectors.toList());
+  }
+
+  private static Set<String> ids(List<UserTrade> trades) {
+    return trades.stream().map(UserTrade::getId).collect(Collectors.toSet());
+  }
+
+  private TradeService pagingService(Predicate<TradeHistoryParamsAll> failing) {
+    return new TradeService() {
+      @Override
+      public TradeHistoryParams createTradeHistoryParams() {
+        return new TradeHistoryParamsAll();
+      }
+
+      @Override
+      public UserTrades getTradeHistory(TradeHistoryParams params) throws IOException {
+        TradeHistoryParamsAll all = (TradeHistoryParamsAll) params;
+        if (failing.test(all)) {
+          throw new IOException("failed");
+        }
+        List<UserTrade> trades = between(all);
+        int from = Math.min(trades.size(), all.getPageNumber() * all.getPageLength());
+        int to = Math.min(trades.size(), from + all.getPageLength());
+        return new UserTrades(trades.subList(from, to), TradeSortType.SortByTimestamp);
+      }
+    };
+  }
+
+  @Test
+  public void testExportsTheWindowsPageByPage() throws IOException {
+    List<UserTrade> exported = Collections.synchronizedList(new ArrayList<>());
+    HistoryExporter<UserTrade> exporter =
+        HistoryExporter.forTrades(pagingService(params -> false))
+            .from(new Date(START))
+            .to(new Date(START + 3 * DAY))
+            .pageLength(30)
+            .parallelism(3)
+            .build();
+
+    assertThat(exporter.export(exported::add)).isEqualTo(300);
+    // the trade at the end of each window is returned by both windows
+    assertThat(exported).hasSize(300);
+    assertThat(ids(exported)).hasSize(300);
+    // 4 pages of 30 for each of the 3 windows
+    assertThat(exporter.getCalls()).isEqualTo(12);
+  }
+
+  @Test
+  public void testResumesFromTheCheckpoint() throws IOException {
+    Path checkpoint = folder.getRoot().toPath().resolve("trades.checkpoint");
+    long secondDay = START + DAY;
+    List<UserTrade> exported = Collections.synchronizedList(new ArrayList<>());
+
+    HistoryExporter<UserTrade> failing =
+        HistoryExporter.forTrades(
+                pagingService(params -> params.getStartTime().getTime() == secondDay))
+            .from(new Date(START))
+            .to(new Date(START + 3 * DAY))
+            .checkpoint(checkpoint)
+            .build();
+    assertThatThrownBy(() -> failing.export(exported::add)).hasMessage("failed");
+    assertThat(exported).hasSize(200);
+    assertThat(Files.readAllLines(checkpoint))
+        .containsExactly("window=" + DAY, String.valueOf(START), String.valueOf(START + 2 * DAY));
+
+    HistoryExporter<UserTrade> resumed =
+        HistoryExporter.forTrades(pagingService(params -> false))
+            .from(new Date(START))
+            .to(new Date(START + 3 * DAY))
+            .checkpoint(checkpoint)
+            .build();
+    assertThat(resumed.export(exported::add)).isEqualTo(100);
+    assertThat(ids(exported)).hasSize(300);
+    assertThat(Files.readAllLines(checkpoint)).hasSize(4);
+  }
+
+  @Test
+  public void testNarrowsTheWindowPastTheLimit() throws IOException {
+    TradeService service =
+        new TradeService() {
+          @Override
+          public TradeHistoryParams createTradeHistoryParams() {
+            return new LimitParams();
+          }
+
+          @Override
+          public UserTrades getTradeHistory(TradeHistoryParams params) {
+            LimitParams limitParams = (LimitParams) params;
+            List<UserTrade> trades = between(limitParams);
+            // the newest trades, like most exchanges
+            Collections.reverse(trades);
+            return new UserTrades(
+                trades.subList(0, Math.min(trades.size(), limitParams.getLimit())),
+                TradeSortType.SortByTimestamp);
+          }
+        };
+    Set<UserTrade> exported = new HashSet<>();
+    HistoryExporter<UserTrade> exporter =
+        HistoryExporter.forTrades(service)
+            .from(new Date(START))
+            .to(new Date(START + DAY))
+            .pageLength(40)
+            .build();
+
+    assertThat(exporter.export(exported::add)).isEqualTo(100);
+    assertThat(ids(new ArrayList<>(exported))).hasSize(100);
+  }
+
+  @Test
+  public void testDoesNotCheckpointTheWindowPastTheLimit() throws IOException {
+    TradeService service =
+        new TradeService() {
+          @Override
+          public TradeHistoryParams createTradeHistoryParams() {
+            return new LimitParams();
+          }
+
+          @Override
+          public UserTrades getTradeHistory(TradeHistoryParams params) {
+            // more trades than the limit at the same time, they cannot be narrowed past
+            List<UserTrade> trades = new ArrayList<>();
+            for (int i = 0; i < ((LimitParams) params).getLimit(); i++) {
+              trades.add(
+                  new UserTrade.Builder()
+                      .id("same-" + i)
+                      .timestamp(new Date(START + DAY / 2))
+                      .type(OrderType.BID)
+                      .instrument(CurrencyPair.BTC_USD)
+                      .originalAmount(BigDecimal.ONE)
+                      .price(BigDecimal.TEN)
+                      .build());
+            }
+            return new UserTrades(trades, TradeSortType.SortByTimestamp);
+          }
+        };
+    Path checkpoint = folder.getRoot().toPath().resolve("trades.checkpoint");
+    HistoryExporter<UserTrade> exporter =
+        HistoryExporter.forTrades(service)
+            .from(new Date(START))
+            .to(new Date(START + DAY))
+            .pageLength(40)
+            .checkpoint(checkpoint)
+            .build();
+
+    assertThatThrownBy(() -> exporter.export(trade -> {}))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("more than 40 records");
+    assertThat(checkpoint).doesNotExist();
+  }
+
+  @Test
+  public void testDoesNotCheckpointTheWindowOfARepeatedPage() throws IOException {
+    TradeService service =
+        new TradeService() {
+          @Override
+          public TradeHistoryParams createTradeHistoryParams() {
+            return new TradeHistoryParamsAll();
+          }
+
+          @Override
+          public UserTrades getTradeHistory(TradeHistoryParams params) {
+            // the page number is ignored, the first page is returned again
+            TradeHistoryParamsAll all = (TradeHistoryParamsAll) params;
+            List<UserTrade> trades = between(all);
+            return new UserTrades(
+                trades.subList(0, Math.min(trades.size(), all.getPageLength())),
+                TradeSortType.SortByTimestamp);
+          }
+        };
+    Path checkpoint = folder.getRoot().toPath().resolve("trades.checkpoint");
+    List<UserTrade> exported = new ArrayList<>();
+    HistoryExporter<UserTrade> exporter =
+        HistoryExporter.forTrades(service)
+            .from(new Date(START))
+            .to(new Date(START + DAY))
+            .pageLength(30)
+            .checkpoint(checkpoint)
+            .build();
+
+    assertThatThrownBy(() -> exporter.export(exported::add))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("no new one");
+    assertThat(exported).hasSize(30);
+    assertThat(checkpoint).doesNotExist();
+  }
+
+  @Test
+  public void testFollowsTheCursor() throws IOException {
+    TradeService service =
+        new TradeService() {
+          @Override
+          public TradeHistoryParams createTradeHistoryParams() {
+            return new CursorParams();
+          }
+
+          @Override
+          public UserTrades getTradeHistory(TradeHistoryParams params) {
+            CursorParams cursorParams = (CursorParams) params;
+            List<UserTrade> trades = between(cursorParams);
+            int from =
+                cursorParams.getNextPageCursor() == null
+                    ? 0
+                    : Integer.parseInt(cursorParams.getNextPageCursor());
+            int to = Math.min(trades.size(), from + 25);
+            return new UserTrades(
+                trades.subList(from, to),
+                0,
+                TradeSortType.SortByTimestamp,
+                to < trades.size() ? String.valueOf(to) : null);
+          }
+        };
+    List<UserTrade> exported = new ArrayList<>();
+    HistoryExporter<UserTrade> exporter =
+        HistoryExporter.forTrades(service)
+            .from(new Date(START + DAY / 2))
+            .to(new Date(START + DAY))
+            .parallelism(1)
+            .build();
+
+    assertThat(exporter.export(exported::add)).isEqualTo(50);
+    assertThat(exported.get(0).getId()).isEqualTo("50");
+    // the last page only has the trade at the end of the window
+    assertThat(exporter.getCalls()).isEqualTo(3);
+  }
+
+  private static class TimeSpanParams implements TradeHistoryParamsTimeSpan {
+    private Date startTime;
+    private Date endTime;
+
+    @Override
+    public Date getStartTime() {
+      return startTime;
+    }
+
+    @Override
+    public void setStartTime(Date startTime) {
+      this.startTime = startTime;
+    }
+
+    @Override
+    public Date getEndTime() {
+      return endTime;
+    }
+
+    @Override
+    public void setEndTime(Date endTime) {
+      this.endTime = endTime;
+    }
+  }
+
+  private static class LimitParams extends TimeSpanParams implements TradeHistoryParamLimit {
+    private Integer limit;
+
+    @Override
+    public Integer getLimit() {
+      return limit;
+    }
+
+    @Override
+    public void setLimit(Integer limit) {
+      this.limit = limit;
+    }
+  }
+
+  private static class CursorParams extends TimeSpanParams
+      implements TradeHistoryParamNextPageCursor {
+    private String cursor;
+
+    @Override
+    public String getNextPageCursor() {
+      return cursor;
+    }
+
+    @Override
+    public void setNextPageCursor(String cursor) {
+      this.cursor = cursor;
+    }
+  }
+}
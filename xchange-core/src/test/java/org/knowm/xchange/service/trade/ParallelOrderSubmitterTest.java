@@ -0,0 +1,101 @@
+package org.knowm.xchange.service.trade;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.trade.BatchOrderResult;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+import org.knowm.xchange.service.trade.params.CancelOrderParams;
+import org.knowm.xchange.service.trade.params.DefaultCancelOrderParamId;
+
+public class ParallelOrderSubmitterTest {
+
+  private final TradeService tradeService =
+      new TradeService() {
+        @Override
+        public String placeLimitOrder(LimitOrder limitOrder) throws IOException {
+          if (limitOrder.getLimitPrice().signum() == 0) {
+            throw new IOException("Rejected");
+          }
+          return "id-" + limitOrder.getLimitPrice();
+        }
+
+        @Override
+        public boolean cancelOrder(CancelOrderParams orderParams) {
+          return !"unknown".equals(((DefaultCancelOrderParamId) orderParams).getOrderId());
+        }
+      };
+
+  @Test
+  public void shouldPlaceOrdersInOrderAndKeepFailures() {
+    // given
+    List<LimitOrder> orders = new ArrayList<>();
+    for (int i = 10; i >= 0; i--) {
+      orders.add(
+          new LimitOrder.Builder(OrderType.BID, CurrencyPair.BTC_USD)
+              .originalAmount(BigDecimal.ONE)
+              .limitPrice(BigDecimal.valueOf(i))
+              .build());
+    }
+
+    // when
+    List<BatchOrderResult<LimitOrder>> results =
+        ParallelOrderSubmitter.placeLimitOrders(tradeService, orders, 3);
+
+    // then
+    assertThat(results).hasSize(11);
+    for (int i = 0; i < 10; i++) {
+      assertThat(results.get(i).getRequest()).isSameAs(orders.get(i));
+      assertThat(results.get(i).isSuccess()).isTrue();
+      assertThat(results.get(i).getOrderId()).isEqualTo("id-" + (10 - i));
+    }
+    assertThat(results.get(10).isSuccess()).isFalse();
+    assertThat(results.get(10).getError()).hasMessage("Rejected");
+  }
+
+  @Test
+  public void shouldCancelOrders() {
+    // when
+    List<BatchOrderResult<CancelOrderParams>> results =
+        ParallelOrderSubmitter.cancelOrders(
+            tradeService,
+            Arrays.asList(
+                new DefaultCancelOrderParamId("1"), new DefaultCancelOrderParamId("unknown")),
+            ParallelOrderSubmitter.DEFAULT_PARALLELISM);
+
+    // then
+    assertThat(results.get(0).isSuccess()).isTrue();
+    assertThat(results.get(0).getOrderId()).isEqualTo("1");
+    assertThat(results.get(1).isSuccess()).isFalse();
+    assertThat(results.get(1).getError()).isNull();
+  }
+
+  @Test
+  public void shouldThrowWhenOrdersCannotBePlacedAtAll() {
+    // given
+    List<LimitOrder> orders =
+        Arrays.asList(
+            new LimitOrder.Builder(OrderType.BID, CurrencyPair.BTC_USD)
+                .originalAmount(BigDecimal.ONE)
+                .limitPrice(BigDecimal.ONE)
+                .build(),
+            new LimitOrder.Builder(OrderType.ASK, CurrencyPair.BTC_USD)
+                .originalAmount(BigDecimal.ONE)
+                .limitPrice(BigDecimal.TEN)
+                .build());
+
+    // then
+    assertThatThrownBy(
+            () -> ParallelOrderSubmitter.placeLimitOrders(new TradeService() {}, orders, 2))
+        .isInstanceOf(NotYetImplementedForExchangeException.class);
+  }
+}
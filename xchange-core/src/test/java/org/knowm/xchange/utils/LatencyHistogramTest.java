@@ -0,0 +1,38 @@
+package org.knowm.xchange.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testBucketsAreContiguous() {
+    for (int i = 0; i < LatencyHistogram.bucketIndex(LatencyHistogram.MAX_TRACKABLE_NANOS); i++) {
+      assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.lowestValue(i))).isEqualTo(i);
+      assertThat(LatencyHistogram.bucketIndex(LatencyHistogram.highestValue(i))).isEqualTo(i);
+      assertThat(LatencyHistogram.lowestValue(i + 1))
+          .isEqualTo(LatencyHistogram.highestValue(i) + 1);
+    }
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 1000; micros++) {
+      histogram.record(micros * 1000);
+    }
+
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getCount()).isEqualTo(1000);
+    assertThat(snapshot.getMaxNanos()).isEqualTo(1_000_000);
+    assertThat(snapshot.getMeanNanos()).isEqualTo(500_500, within(0.1));
+    assertThat((double) snapshot.getValueAtPercentile(50)).isEqualTo(500_000, within(8_000.0));
+    assertThat((double) snapshot.getValueAtPercentile(99)).isEqualTo(990_000, within(16_000.0));
+    assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(1_000_000);
+
+    histogram.reset();
+    assertThat(histogram.snapshot().getValueAtPercentile(99)).isZero();
+  }
+}
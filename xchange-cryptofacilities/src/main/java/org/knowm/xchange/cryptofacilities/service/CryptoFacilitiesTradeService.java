@@ -1,12 +1,27 @@
 package org.knowm.xchange.cryptofacilities.service;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.cryptofacilities.CryptoFacilitiesAdapters;
+import org.knowm.xchange.cryptofacilities.dto.trade.BatchStatus;
+import org.knowm.xchange.cryptofacilities.dto.trade.CryptoFacilitiesOrderFlags;
+import org.knowm.xchange.cryptofacilities.dto.trade.OrderCancellation;
+import org.knowm.xchange.cryptofacilities.dto.trade.OrderCommand;
+import org.knowm.xchange.cryptofacilities.dto.trade.OrderPlacement;
+import org.knowm.xchange.cryptofacilities.dto.trade.OrderSide;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.trade.BatchOrderResult;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.MarketOrder;
 import org.knowm.xchange.dto.trade.OpenOrders;
 import org.knowm.xchange.dto.trade.UserTrades;
+import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.exceptions.NotAvailableFromExchangeException;
 import org.knowm.xchange.service.trade.TradeService;
 import org.knowm.xchange.service.trade.params.CancelOrderByIdParams;
@@ -50,6 +65,110 @@ public class CryptoFacilitiesTradeService extends CryptoFacilitiesTradeServiceRa
     return CryptoFacilitiesAdapters.adaptOrderId(super.sendCryptoFacilitiesLimitOrder(limitOrder));
   }
 
+  /**
+   * Places the orders with one batch order request, each of them succeeds or fails on its own. Each
+   * order is tagged with its index in the list to map the statuses back to it.
+   */
+  @Override
+  public List<BatchOrderResult<LimitOrder>> placeLimitOrders(List<LimitOrder> limitOrders)
+      throws IOException {
+    List<OrderCommand> commands = new ArrayList<>(limitOrders.size());
+    for (int i = 0; i < limitOrders.size(); i++) {
+      LimitOrder order = limitOrders.get(i);
+      commands.add(
+          new OrderPlacement(
+              String.valueOf(i),
+              order.hasFlag(CryptoFacilitiesOrderFlags.POST_ONLY)
+                  ? org.knowm.xchange.cryptofacilities.dto.trade.OrderType.post
+                  : org.knowm.xchange.cryptofacilities.dto.trade.OrderType.lmt,
+              order.getCurrencyPair().base.toString(),
+              order.getType() == OrderType.ASK ? OrderSide.sell : OrderSide.buy,
+              order.getOriginalAmount(),
+              order.getLimitPrice(),
+              null,
+              order.getUserReference()));
+    }
+    Map<String, BatchStatus> statuses = new HashMap<>();
+    try {
+      for (BatchStatus status : sendCryptoFacilitiesBatchOrder(commands).getBatchStatus()) {
+        statuses.put(status.orderTag, status);
+      }
+    } catch (ExchangeException e) {
+      return failed(limitOrders, e);
+    }
+
+    List<BatchOrderResult<LimitOrder>> results = new ArrayList<>(limitOrders.size());
+    for (int i = 0; i < limitOrders.size(); i++) {
+      BatchStatus status = statuses.get(String.valueOf(i));
+      results.add(
+          status != null
+                  && (status.status == BatchStatus.OrderStatus.placed
+                      || status.status == BatchStatus.OrderStatus.attempted)
+              ? BatchOrderResult.placed(limitOrders.get(i), status.orderId)
+              : BatchOrderResult.failed(limitOrders.get(i), statusError(status)));
+    }
+    return results;
+  }
+
+  /**
+   * Cancels the orders given by id with one batch order request. The other params are rejected
+   * without being sent.
+   */
+  @Override
+  public List<BatchOrderResult<CancelOrderParams>> cancelOrders(
+      Collection<CancelOrderParams> orderParams) throws IOException {
+    List<CancelOrderParams> byId =
+        orderParams.stream()
+            .filter(params -> params instanceof CancelOrderByIdParams)
+            .collect(Collectors.toList());
+    Map<String, BatchStatus> statuses = new HashMap<>();
+    ExchangeException error = null;
+    if (!byId.isEmpty()) {
+      List<OrderCommand> commands = new ArrayList<>(byId.size());
+      for (CancelOrderParams params : byId) {
+        commands.add(new OrderCancellation(((CancelOrderByIdParams) params).getOrderId(), null));
+      }
+      try {
+        for (BatchStatus status : sendCryptoFacilitiesBatchOrder(commands).getBatchStatus()) {
+          statuses.put(status.orderId, status);
+        }
+      } catch (ExchangeException e) {
+        error = e;
+      }
+    }
+
+    List<BatchOrderResult<CancelOrderParams>> results = new ArrayList<>(orderParams.size());
+    for (CancelOrderParams params : orderParams) {
+      if (!(params instanceof CancelOrderByIdParams)) {
+        results.add(
+            BatchOrderResult.failed(
+                params, new IllegalArgumentException("Orders can only be cancelled by id")));
+      } else if (error != null) {
+        results.add(BatchOrderResult.failed(params, error));
+      } else {
+        String orderId = ((CancelOrderByIdParams) params).getOrderId();
+        BatchStatus status = statuses.get(orderId);
+        results.add(
+            status == null
+                ? BatchOrderResult.failed(params, statusError(null))
+                : BatchOrderResult.cancelled(
+                    params, orderId, status.status == BatchStatus.OrderStatus.cancelled));
+      }
+    }
+    return results;
+  }
+
+  private static <T> List<BatchOrderResult<T>> failed(List<T> requests, Exception error) {
+    return requests.stream()
+        .map(request -> BatchOrderResult.failed(request, error))
+        .collect(Collectors.toList());
+  }
+
+  private static ExchangeException statusError(BatchStatus status) {
+    return new ExchangeException(
+        status == null ? "Order missing from the response" : "Order " + status.status);
+  }
+
   @Override
   public boolean cancelOrder(String orderId) throws IOException {
 
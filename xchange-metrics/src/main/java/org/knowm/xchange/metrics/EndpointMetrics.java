@@ -0,0 +1,117 @@
+package org.knowm.xchange.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import org.knowm.xchange.utils.LatencyHistogram;
+
+/** Metrics of the REST calls of one exchange endpoint, e.g. {@code binance GET api/v3/depth}. */
+public final class EndpointMetrics {
+
+  private final String exchange;
+  private final String endpoint;
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final LatencyHistogram rateLimiterWait = new LatencyHistogram();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder rateLimited = new LongAdder();
+  private final LongAdder bytesIn = new LongAdder();
+  private final LongAdder bytesOut = new LongAdder();
+
+  EndpointMetrics(String exchange, String endpoint) {
+    this.exchange = exchange;
+    this.endpoint = endpoint;
+  }
+
+  /** @return the exchange, derived from the package of its REST interface, e.g. binance */
+  public String getExchange() {
+    return exchange;
+  }
+
+  /** @return the HTTP method and path of the endpoint, e.g. GET api/v3/depth */
+  public String getEndpoint() {
+    return endpoint;
+  }
+
+  /** @return the duration of the calls, failed ones included */
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  /** @return the time the calls waited for the permits of the exchange's rate limiters */
+  public LatencyHistogram getRateLimiterWait() {
+    return rateLimiterWait;
+  }
+
+  public long getCalls() {
+    return latency.getCount();
+  }
+
+  /** @return the calls that failed, for any reason */
+  public long getErrors() {
+    return errors.sum();
+  }
+
+  /** @return the calls the exchange rejected with HTTP 429 Too Many Requests */
+  public long getRateLimited() {
+    return rateLimited.sum();
+  }
+
+  /** @return response bytes, of the responses that exposed a Content-Length header */
+  public long getBytesIn() {
+    return bytesIn.sum();
+  }
+
+  /** @return request body bytes, of the calls whose result or error exposed its invocation */
+  public long getBytesOut() {
+    return bytesOut.sum();
+  }
+
+  void recordCall(long nanos, long rateLimiterWaitNanos) {
+    latency.record(nanos);
+    if (rateLimiterWaitNanos > 0) {
+      rateLimiterWait.record(rateLimiterWaitNanos);
+    }
+  }
+
+  void recordError(boolean isRateLimited) {
+    errors.increment();
+    if (isRateLimited) {
+      rateLimited.increment();
+    }
+  }
+
+  void recordTraffic(long in, long out) {
+    if (in > 0) {
+      bytesIn.add(in);
+    }
+    if (out > 0) {
+      bytesOut.add(out);
+    }
+  }
+
+  public void reset() {
+    latency.reset();
+    rateLimiterWait.reset();
+    errors.reset();
+    rateLimited.reset();
+    bytesIn.reset();
+    bytesOut.reset();
+  }
+
+  @Override
+  public String toString() {
+    return "EndpointMetrics [exchange="
+        + exchange
+        + ", endpoint="
+        + endpoint
+        + ", latency="
+        + latency.snapshot()
+        + ", errors="
+        + getErrors()
+        + ", rateLimited="
+        + getRateLimited()
+        + ", bytesIn="
+        + getBytesIn()
+        + ", bytesOut="
+        + getBytesOut()
+        + "]";
+  }
+}
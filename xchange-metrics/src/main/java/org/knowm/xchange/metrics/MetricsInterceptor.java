@@ -0,0 +1,163 @@
+package org.knowm.xchange.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import org.knowm.xchange.client.RateLimiterWaits;
+import si.mazi.rescu.HttpResponseAware;
+import si.mazi.rescu.HttpStatusException;
+import si.mazi.rescu.Interceptor;
+import si.mazi.rescu.InvocationAware;
+import si.mazi.rescu.RestInvocation;
+
+/**
+ * Records the latency, errors and traffic of every REST call into {@link RestMetrics}. It is
+ * registered as a service, so {@link org.knowm.xchange.interceptor.InterceptorProvider} adds it to
+ * all the REST proxies as soon as this module is on the classpath.
+ *
+ * <p>Calls are attributed to the exchange of the package of the REST interface and to the HTTP
+ * method and path of the interface method, resolved once per method.
+ */
+public class MetricsInterceptor implements Interceptor {
+
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final RestMetrics metrics;
+  private final Map<Method, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+  public MetricsInterceptor() {
+    this(RestMetrics.INSTANCE);
+  }
+
+  MetricsInterceptor(RestMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public Object aroundInvoke(
+      InvocationHandler invocationHandler, Object proxy, Method method, Object[] args)
+      throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      return invocationHandler.invoke(proxy, method, args);
+    }
+    EndpointMetrics endpoint = endpoints.computeIfAbsent(method, this::resolve);
+    long rateLimiterWait = RateLimiterWaits.consume();
+    long start = System.nanoTime();
+    try {
+      Object result = invocationHandler.invoke(proxy, method, args);
+      endpoint.recordCall(System.nanoTime() - start, rateLimiterWait);
+      recordTraffic(endpoint, result);
+      return result;
+    } catch (Throwable e) {
+      endpoint.recordCall(System.nanoTime() - start, rateLimiterWait);
+      Throwable cause =
+          e instanceof InvocationTargetException && e.getCause() != null ? e.getCause() : e;
+      endpoint.recordError(
+          cause instanceof HttpStatusException
+              && ((HttpStatusException) cause).getHttpStatusCode() == TOO_MANY_REQUESTS);
+      recordTraffic(endpoint, cause);
+      throw e;
+    }
+  }
+
+  private static void recordTraffic(EndpointMetrics endpoint, Object resultOrError) {
+    long in = 0;
+    long out = 0;
+    if (resultOrError instanceof HttpResponseAware) {
+      in = contentLength(((HttpResponseAware) resultOrError).getResponseHeaders());
+    }
+    if (resultOrError instanceof InvocationAware) {
+      RestInvocation invocation = ((InvocationAware) resultOrError).getInvocation();
+      if (invocation != null && invocation.getRequestBody() != null) {
+        out = invocation.getRequestBody().getBytes(StandardCharsets.UTF_8).length;
+      }
+    }
+    endpoint.recordTraffic(in, out);
+  }
+
+  private static long contentLength(Map<String, List<String>> headers) {
+    if (headers == null) {
+      return 0;
+    }
+    for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+      if ("Content-Length".equalsIgnoreCase(header.getKey())
+          && header.getValue() != null
+          && !header.getValue().isEmpty()) {
+        try {
+          return Long.parseLong(header.getValue().get(0).trim());
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 0;
+  }
+
+  private EndpointMetrics resolve(Method method) {
+    return metrics.getEndpoint(exchangeOf(method.getDeclaringClass()), endpointOf(method));
+  }
+
+  /** @return the package after org.knowm.xchange, e.g. binance, or the interface name */
+  static String exchangeOf(Class<?> restInterface) {
+    String name = restInterface.getName();
+    String prefix = "org.knowm.xchange.";
+    if (name.startsWith(prefix)) {
+      int end = name.indexOf('.', prefix.length());
+      if (end > 0) {
+        return name.substring(prefix.length(), end);
+      }
+    }
+    return restInterface.getSimpleName();
+  }
+
+  static String endpointOf(Method method) {
+    String httpMethod =
+        method.isAnnotationPresent(GET.class)
+            ? "GET"
+            : method.isAnnotationPresent(POST.class)
+                ? "POST"
+                : method.isAnnotationPresent(PUT.class)
+                    ? "PUT"
+                    : method.isAnnotationPresent(DELETE.class) ? "DELETE" : null;
+    Path classPath = method.getDeclaringClass().getAnnotation(Path.class);
+    Path methodPath = method.getAnnotation(Path.class);
+    if (httpMethod == null && methodPath == null) {
+      return method.getName();
+    }
+    StringBuilder endpoint = new StringBuilder();
+    if (httpMethod != null) {
+      endpoint.append(httpMethod).append(' ');
+    }
+    if (classPath != null) {
+      endpoint.append(trimSlashes(classPath.value()));
+    }
+    if (methodPath != null) {
+      if (classPath != null) {
+        endpoint.append('/');
+      }
+      endpoint.append(trimSlashes(methodPath.value()));
+    }
+    return endpoint.toString().trim();
+  }
+
+  private static String trimSlashes(String path) {
+    int start = 0;
+    int end = path.length();
+    while (start < end && path.charAt(start) == '/') {
+      start++;
+    }
+    while (end > start && path.charAt(end - 1) == '/') {
+      end--;
+    }
+    return path.substring(start, end);
+  }
+}
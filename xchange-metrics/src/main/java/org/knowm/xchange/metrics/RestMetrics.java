@@ -0,0 +1,44 @@
+package org.knowm.xchange.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pull API of the metrics {@link MetricsInterceptor} records for every REST call made through
+ * XChange. Exporters, e.g. to Micrometer or Prometheus, read {@link #getEndpoints()} on their own
+ * schedule.
+ */
+public enum RestMetrics {
+  INSTANCE;
+
+  private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+  /** @return the metrics of the endpoint, created on first use */
+  public EndpointMetrics getEndpoint(String exchange, String endpoint) {
+    return endpoints.computeIfAbsent(
+        exchange + ' ' + endpoint, key -> new EndpointMetrics(exchange, endpoint));
+  }
+
+  /** @return the metrics of all endpoints called so far */
+  public List<EndpointMetrics> getEndpoints() {
+    return new ArrayList<>(endpoints.values());
+  }
+
+  /** @return the metrics of the endpoints of one exchange called so far */
+  public List<EndpointMetrics> getEndpoints(String exchange) {
+    List<EndpointMetrics> result = new ArrayList<>();
+    for (EndpointMetrics metrics : endpoints.values()) {
+      if (metrics.getExchange().equals(exchange)) {
+        result.add(metrics);
+      }
+    }
+    return result;
+  }
+
+  /** Resets the metrics of all endpoints, e.g. at the start of a reporting interval. */
+  public void reset() {
+    endpoints.values().forEach(EndpointMetrics::reset);
+  }
+}
@@ -0,0 +1,112 @@
+package org.knowm.xchange.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import org.junit.Test;
+import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.client.ResilienceUtils;
+import org.knowm.xchange.utils.LatencyHistogram;
+import si.mazi.rescu.HttpStatusExceptionSupport;
+import si.mazi.rescu.Interceptor;
+
+public class MetricsInterceptorTest {
+
+  @Path("api/")
+  public interface TestRest {
+
+    @GET
+    @Path("/v3/depth/{symbol}")
+    String depth(@PathParam("symbol") String symbol);
+
+    @POST
+    @Path("v3/order")
+    String order();
+  }
+
+  @Test
+  public void testRecordsCallsPerEndpoint() {
+    TestRest rest =
+        proxy(
+            (proxy, method, args) -> {
+              if (method.getName().equals("order")) {
+                HttpStatusExceptionSupport tooManyRequests = new HttpStatusExceptionSupport();
+                tooManyRequests.setHttpStatusCode(429);
+                throw tooManyRequests;
+              }
+              return "depth";
+            });
+
+    EndpointMetrics depth =
+        RestMetrics.INSTANCE.getEndpoint("metrics", "GET api/v3/depth/{symbol}");
+    EndpointMetrics order = RestMetrics.INSTANCE.getEndpoint("metrics", "POST api/v3/order");
+    long depthCalls = depth.getCalls();
+
+    rest.depth("BTCUSDT");
+    rest.depth("ETHUSDT");
+    assertThatThrownBy(rest::order).isInstanceOf(HttpStatusExceptionSupport.class);
+
+    assertThat(depth.getCalls()).isEqualTo(depthCalls + 2);
+    assertThat(depth.getErrors()).isZero();
+    assertThat(order.getCalls()).isEqualTo(1);
+    assertThat(order.getErrors()).isEqualTo(1);
+    assertThat(order.getRateLimited()).isEqualTo(1);
+    assertThat(RestMetrics.INSTANCE.getEndpoints("metrics")).contains(depth, order);
+  }
+
+  @Test
+  public void testRecordsRateLimiterWait() throws Exception {
+    TestRest rest = proxy((proxy, method, args) -> "depth");
+    RateLimiter rateLimiter =
+        RateLimiter.of(
+            "test",
+            RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofMillis(100))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build());
+    EndpointMetrics depth =
+        RestMetrics.INSTANCE.getEndpoint("metrics", "GET api/v3/depth/{symbol}");
+    long waitsBefore = depth.getRateLimiterWait().getCount();
+
+    ExchangeSpecification.ResilienceSpecification resilience =
+        new ExchangeSpecification.ResilienceSpecification();
+    resilience.setRateLimiterEnabled(true);
+
+    for (int i = 0; i < 2; i++) {
+      ResilienceUtils.decorateApiCall(resilience, () -> rest.depth("BTCUSDT"))
+          .withRateLimiter(rateLimiter)
+          .call();
+    }
+
+    LatencyHistogram.Snapshot waits = depth.getRateLimiterWait().snapshot();
+    assertThat(waits.getCount()).isGreaterThan(waitsBefore);
+    assertThat(waits.getMaxNanos()).isGreaterThan(Duration.ofMillis(10).toNanos());
+  }
+
+  @Test
+  public void testEndpointNames() throws Exception {
+    assertThat(MetricsInterceptor.exchangeOf(ResilienceUtils.class)).isEqualTo("client");
+    assertThat(MetricsInterceptor.exchangeOf(String.class)).isEqualTo("String");
+    assertThat(MetricsInterceptor.endpointOf(TestRest.class.getMethod("order")))
+        .isEqualTo("POST api/v3/order");
+  }
+
+  private static TestRest proxy(InvocationHandler handler) {
+    Interceptor interceptor = new MetricsInterceptor();
+    return (TestRest)
+        Proxy.newProxyInstance(
+            TestRest.class.getClassLoader(),
+            new Class<?>[] {TestRest.class},
+            (proxy, method, args) -> interceptor.aroundInvoke(handler, proxy, method, args));
+  }
+}
@@ -1,7 +1,10 @@
 package org.knowm.xchange.poloniex.service;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.currency.CurrencyPair;
@@ -18,6 +21,8 @@ import org.knowm.xchange.poloniex.dto.marketdata.PoloniexDepth;
 import org.knowm.xchange.poloniex.dto.marketdata.PoloniexPublicTrade;
 import org.knowm.xchange.poloniex.dto.marketdata.PoloniexTicker;
 import org.knowm.xchange.service.marketdata.MarketDataService;
+import org.knowm.xchange.service.marketdata.params.CurrencyPairsParam;
+import org.knowm.xchange.service.marketdata.params.OrderBookDepthParam;
 import org.knowm.xchange.service.marketdata.params.Params;
 
 /** @author Zach Holmes */
@@ -51,11 +56,13 @@ public class PoloniexMarketDataService extends PoloniexMarketDataServiceRaw
   @Override
   public List<Ticker> getTickers(Params params) throws IOException {
     try {
+      Collection<CurrencyPair> pairs = currencyPairs(params);
       return getAllPoloniexTickers().entrySet().stream()
           .map(
               entry ->
                   PoloniexAdapters.adaptPoloniexTicker(
                       entry.getValue(), PoloniexUtils.toCurrencyPair(entry.getKey())))
+          .filter(ticker -> pairs == null || pairs.contains(ticker.getCurrencyPair()))
           .collect(Collectors.toList());
     } catch (PoloniexException e) {
       throw PoloniexErrorAdapter.adapt(e);
@@ -88,6 +95,37 @@ public class PoloniexMarketDataService extends PoloniexMarketDataServiceRaw
     }
   }
 
+  /**
+   * All the order books in one call, filtered to the pairs of a {@link CurrencyPairsParam} if any.
+   * The depth of an {@link OrderBookDepthParam} applies to each book, it defaults to 50 levels.
+   */
+  @Override
+  public Map<CurrencyPair, OrderBook> getOrderBooks(Params params) throws IOException {
+    try {
+      Collection<CurrencyPair> pairs = currencyPairs(params);
+      Integer depth =
+          params instanceof OrderBookDepthParam ? ((OrderBookDepthParam) params).getDepth() : null;
+      Map<CurrencyPair, OrderBook> orderBooks = new LinkedHashMap<>();
+      for (Map.Entry<String, PoloniexDepth> entry :
+          getAllPoloniexDepths(depth == null ? 50 : depth).entrySet()) {
+        CurrencyPair currencyPair = PoloniexUtils.toCurrencyPair(entry.getKey());
+        if (pairs == null || pairs.contains(currencyPair)) {
+          orderBooks.put(
+              currencyPair, PoloniexAdapters.adaptPoloniexDepth(entry.getValue(), currencyPair));
+        }
+      }
+      return orderBooks;
+    } catch (PoloniexException e) {
+      throw PoloniexErrorAdapter.adapt(e);
+    }
+  }
+
+  private static Collection<CurrencyPair> currencyPairs(Params params) {
+    return params instanceof CurrencyPairsParam
+        ? ((CurrencyPairsParam) params).getCurrencyPairs()
+        : null;
+  }
+
   @Override
   public Trades getTrades(CurrencyPair currencyPair, Object... args)
       throws ExchangeException, IOException {
@@ -19,9 +19,15 @@ public class RippleExchange extends BaseExchange implements Exchange {
   public static final String PARAMETER_TRUST_API_RIPPLE_COM = "trust.api.ripple.com";
   public static final String PARAMETER_STORE_TRADE_TRANSACTION_DETAILS =
       "store.trade.transaction.details";
+  public static final String PARAMETER_TRADE_TRANSACTION_CACHE_SIZE =
+      "trade.transaction.cache.size";
+  public static final String PARAMETER_TRADE_TRANSACTION_CONCURRENCY =
+      "trade.transaction.concurrency";
   public static final String PARAMETER_VALIDATE_ORDER_REQUESTS = "validate.order.requests";
   public static final String PARAMETER_ROUNDING_SCALE = "rounding.scale";
   public static final int DEFAULT_ROUNDING_SCALE = 50;
+  public static final int DEFAULT_TRADE_TRANSACTION_CACHE_SIZE = 10_000;
+  public static final int DEFAULT_TRADE_TRANSACTION_CONCURRENCY = 4;
   private static final String README =
       "https://github.com/timmolter/XChange/tree/develop/xchange-ripple";
 
@@ -72,9 +78,15 @@ public class RippleExchange extends BaseExchange implements Exchange {
     // i.e. do not send secret key to Ripple labs servers.
     specification.setExchangeSpecificParametersItem(PARAMETER_TRUST_API_RIPPLE_COM, false);
 
-    // Do not cache order detail queries by default to avoid running out of memory
+    // Do not cache order detail queries by default, when cached keep at most this many of them
     specification.setExchangeSpecificParametersItem(
         PARAMETER_STORE_TRADE_TRANSACTION_DETAILS, false);
+    specification.setExchangeSpecificParametersItem(
+        PARAMETER_TRADE_TRANSACTION_CACHE_SIZE, DEFAULT_TRADE_TRANSACTION_CACHE_SIZE);
+
+    // Fetch the details of this many trades of the trade history at a time
+    specification.setExchangeSpecificParametersItem(
+        PARAMETER_TRADE_TRANSACTION_CONCURRENCY, DEFAULT_TRADE_TRANSACTION_CONCURRENCY);
 
     // Wait for ledger consensus before confirming successful order entry or cancel
     specification.setExchangeSpecificParametersItem(PARAMETER_VALIDATE_ORDER_REQUESTS, true);
@@ -109,6 +121,23 @@ public class RippleExchange extends BaseExchange implements Exchange {
             .getExchangeSpecificParametersItem(PARAMETER_STORE_TRADE_TRANSACTION_DETAILS);
   }
 
+  /** @return the maximum number of trade transaction details stored */
+  public int getTradeTransactionCacheSize() {
+    return intParameter(
+        PARAMETER_TRADE_TRANSACTION_CACHE_SIZE, DEFAULT_TRADE_TRANSACTION_CACHE_SIZE);
+  }
+
+  /** @return the number of trade transaction details fetched at a time by the trade history */
+  public int getTradeTransactionConcurrency() {
+    return intParameter(
+        PARAMETER_TRADE_TRANSACTION_CONCURRENCY, DEFAULT_TRADE_TRANSACTION_CONCURRENCY);
+  }
+
+  private int intParameter(final String name, final int defaultValue) {
+    final Object value = getExchangeSpecification().getExchangeSpecificParametersItem(name);
+    return value == null ? defaultValue : Integer.parseInt(value.toString());
+  }
+
   public void clearOrderDetailsCache() {
     ((RippleTradeService) tradeService).clearOrderDetailsStore();
   }
@@ -8,8 +8,9 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order.OrderType;
@@ -46,11 +47,24 @@ public class RippleTradeServiceRaw extends RippleBaseService {
 
   private final Logger logger = LoggerFactory.getLogger(getClass());
 
-  private final Map<String, Map<String, IRippleTradeTransaction>> rawTradeStore =
-      new ConcurrentHashMap<>();
+  private final RippleTransactionCache rawTradeStore;
+
+  /** Fetches trade details for the trade history, its threads stop when idle. */
+  private final ExecutorService tradeDetailsExecutor;
 
   public RippleTradeServiceRaw(final Exchange exchange) {
     super(exchange);
+    this.rawTradeStore =
+        new RippleTransactionCache(((RippleExchange) exchange).getTradeTransactionCacheSize());
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.tradeDetailsExecutor =
+        Executors.newCachedThreadPool(
+            runnable -> {
+              final Thread thread =
+                  new Thread(runnable, "ripple-trade-details-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
   }
 
   /**
@@ -177,13 +191,9 @@ public class RippleTradeServiceRaw extends RippleBaseService {
       throws RippleException, IOException {
     final RippleExchange ripple = (RippleExchange) exchange;
     if (ripple.isStoreTradeTransactionDetails()) {
-      Map<String, IRippleTradeTransaction> cache = rawTradeStore.get(account);
-      if (cache == null) {
-        cache = new ConcurrentHashMap<>();
-        rawTradeStore.put(account, cache);
-      }
-      if (cache.containsKey(notification.getHash())) {
-        return cache.get(notification.getHash());
+      final IRippleTradeTransaction stored = rawTradeStore.get(account, notification.getHash());
+      if (stored != null) {
+        return stored;
       }
     }
 
@@ -218,11 +228,16 @@ public class RippleTradeServiceRaw extends RippleBaseService {
       }
     }
     if (ripple.isStoreTradeTransactionDetails()) {
-      rawTradeStore.get(account).put(notification.getHash(), trade);
+      rawTradeStore.put(account, notification.getHash(), trade);
     }
     return trade;
   }
 
+  /** @return the store of the trade details, with its hit and eviction counts */
+  public RippleTransactionCache getTradeDetailsStore() {
+    return rawTradeStore;
+  }
+
   public List<IRippleTradeTransaction> getTradesForAccount(
       final TradeHistoryParams params, final String account) throws RippleException, IOException {
     final Integer pageLength;
@@ -288,20 +303,11 @@ public class RippleTradeServiceRaw extends RippleBaseService {
 
     // Notifications are returned with the most recent at bottom of the result page. Therefore,
     // in order to consider the most recent first, loop through using a reverse order iterator.
+    final List<RippleNotification> tradeNotifications = new ArrayList<>();
+    boolean reachedStartTime = false;
     final ListIterator<RippleNotification> iterator =
         notifications.getNotifications().listIterator(notifications.getNotifications().size());
     while (iterator.hasPrevious()) {
-      if (rippleCount != null) {
-        if (rippleCount.getTradeCountLimit() > 0
-            && rippleCount.getTradeCount() >= rippleCount.getTradeCountLimit()) {
-          return trades; // found enough trades
-        }
-        if (rippleCount.getApiCallCountLimit() > 0
-            && rippleCount.getApiCallCount() >= rippleCount.getApiCallCountLimit()) {
-          return trades; // reached the query limit
-        }
-      }
-
       final RippleNotification notification = iterator.previous();
       if ((endTime != null) && notification.getTimestamp().after(endTime)) {
         // this trade is more recent than the end time - ignore it
@@ -309,46 +315,78 @@ public class RippleTradeServiceRaw extends RippleBaseService {
       }
       if ((startTime != null) && notification.getTimestamp().before(startTime)) {
         // this trade is older than the start time - stop searching
-        return trades;
+        reachedStartTime = true;
+        break;
       }
 
       if (notification.getType().equals("order")) {
         // standard on single order book trade
+        tradeNotifications.add(notification);
       } else if (notification.getType().equals("payment")
           && notification.getDirection().equals("passthrough")) {
         // indirect trade passing through this order book
-      } else {
-        continue; // not a trade related notification
-      }
-
-      final IRippleTradeTransaction trade = getTrade(account, notification);
-      if (rippleCount != null) {
-        rippleCount.incrementApiCallCount();
-      }
-      if (trade == null) {
-        continue;
+        tradeNotifications.add(notification);
       }
+      // otherwise not a trade related notification
+    }
 
-      final List<RippleAmount> balanceChanges = trade.getBalanceChanges();
-      if (balanceChanges.size() < 2 || balanceChanges.size() > 3) {
-        continue; // this is not a trade - a trade will change 2 or 3 (including XRP fee) currency//
-        // balances
-      }
+    // The details of the following trades are fetched while the current one is considered, in
+    // order, so that the limits below stop the search on the same trade as fetching them one by
+    // one.
+    final RippleExchange ripple = (RippleExchange) exchange;
+    try (final RippleTransactionPrefetcher<RippleNotification, IRippleTradeTransaction> details =
+        new RippleTransactionPrefetcher<>(
+            tradeNotifications,
+            notification -> getTrade(account, notification),
+            tradeDetailsExecutor,
+            ripple.getTradeTransactionConcurrency())) {
+      while (details.hasNext()) {
+        int ahead = Integer.MAX_VALUE;
+        if (rippleCount != null) {
+          if (rippleCount.getTradeCountLimit() > 0
+              && rippleCount.getTradeCount() >= rippleCount.getTradeCountLimit()) {
+            return trades; // found enough trades
+          }
+          if (rippleCount.getApiCallCountLimit() > 0) {
+            if (rippleCount.getApiCallCount() >= rippleCount.getApiCallCountLimit()) {
+              return trades; // reached the query limit
+            }
+            ahead = rippleCount.getApiCallCountLimit() - rippleCount.getApiCallCount();
+          }
+        }
 
-      if (currencyFilter.isEmpty()
-          || (currencyFilter.contains(balanceChanges.get(0).getCurrency())
-              && currencyFilter.contains(balanceChanges.get(1).getCurrency()))) {
-        // no currency filter has been applied || currency filter match
-        trades.add(trade);
+        final IRippleTradeTransaction trade = details.next(ahead);
         if (rippleCount != null) {
-          rippleCount.incrementTradeCount();
+          rippleCount.incrementApiCallCount();
+        }
+        if (trade == null) {
+          continue;
+        }
+
+        final List<RippleAmount> balanceChanges = trade.getBalanceChanges();
+        if (balanceChanges.size() < 2 || balanceChanges.size() > 3) {
+          continue; // this is not a trade - a trade will change 2 or 3 (including XRP fee) currency
+          // balances
+        }
+
+        if (currencyFilter.isEmpty()
+            || (currencyFilter.contains(balanceChanges.get(0).getCurrency())
+                && currencyFilter.contains(balanceChanges.get(1).getCurrency()))) {
+          // no currency filter has been applied || currency filter match
+          trades.add(trade);
+          if (rippleCount != null) {
+            rippleCount.incrementTradeCount();
+          }
         }
-      }
 
-      if (trade.getHash().equals(hashLimit)) {
-        return trades; // found the last required trade - stop searching
+        if (trade.getHash().equals(hashLimit)) {
+          return trades; // found the last required trade - stop searching
+        }
       }
     }
+    if (reachedStartTime) {
+      return trades;
+    }
 
     if (params instanceof TradeHistoryParamPaging && (hashLimit != null || startTime != null)) {
       // Still looking for trades, if query was complete it would have returned in the
@@ -404,9 +442,6 @@ public class RippleTradeServiceRaw extends RippleBaseService {
 
   /** Clear any stored order details to allow memory to be released. */
   public void clearOrderDetailsStore() {
-    for (final Map<String, IRippleTradeTransaction> cache : rawTradeStore.values()) {
-      cache.clear();
-    }
     rawTradeStore.clear();
   }
 }
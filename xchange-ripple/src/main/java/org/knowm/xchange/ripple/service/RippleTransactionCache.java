@@ -0,0 +1,95 @@
+package org.knowm.xchange.ripple.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.knowm.xchange.ripple.dto.trade.IRippleTradeTransaction;
+
+/**
+ * Trade transaction details by account and hash, bounded to a number of transactions. The least
+ * recently used ones are evicted when it is full.
+ */
+public class RippleTransactionCache {
+
+  private final int maxSize;
+  private final Map<String, IRippleTradeTransaction> transactions;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+
+  public RippleTransactionCache(final int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("Invalid cache size " + maxSize);
+    }
+    this.maxSize = maxSize;
+    this.transactions =
+        new LinkedHashMap<String, IRippleTradeTransaction>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(
+              final Map.Entry<String, IRippleTradeTransaction> eldest) {
+            if (size() > RippleTransactionCache.this.maxSize) {
+              evictions.incrementAndGet();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /** @return the transaction, null if it is not cached */
+  public IRippleTradeTransaction get(final String account, final String hash) {
+    final IRippleTradeTransaction transaction;
+    synchronized (transactions) {
+      transaction = transactions.get(key(account, hash));
+    }
+    (transaction == null ? misses : hits).incrementAndGet();
+    return transaction;
+  }
+
+  public void put(
+      final String account, final String hash, final IRippleTradeTransaction transaction) {
+    synchronized (transactions) {
+      transactions.put(key(account, hash), transaction);
+    }
+  }
+
+  public void clear() {
+    synchronized (transactions) {
+      transactions.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (transactions) {
+      return transactions.size();
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  private static String key(final String account, final String hash) {
+    return account + '/' + hash;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "RippleTransactionCache[size=%d, maxSize=%d, hits=%d, misses=%d, evictions=%d]",
+        size(), maxSize, getHits(), getMisses(), getEvictions());
+  }
+}
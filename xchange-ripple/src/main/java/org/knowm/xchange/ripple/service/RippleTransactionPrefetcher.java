@@ -0,0 +1,97 @@
+package org.knowm.xchange.ripple.service;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Fetches the results of a list of requests on an executor, up to a window of requests ahead of the
+ * one being consumed, and hands them over in the order of the requests. The requests still in
+ * flight when it is closed are cancelled.
+ */
+class RippleTransactionPrefetcher<T, R> implements AutoCloseable {
+
+  interface Fetch<T, R> {
+    R fetch(T request) throws IOException;
+  }
+
+  private final List<T> requests;
+  private final Fetch<T, R> fetch;
+  private final Executor executor;
+  private final int window;
+
+  private final Deque<FutureTask<R>> inFlight = new ArrayDeque<>();
+  private int submitted;
+  private int consumed;
+
+  RippleTransactionPrefetcher(
+      final List<T> requests, final Fetch<T, R> fetch, final Executor executor, final int window) {
+    if (window < 1) {
+      throw new IllegalArgumentException("Invalid window " + window);
+    }
+    this.requests = requests;
+    this.fetch = fetch;
+    this.executor = executor;
+    this.window = window;
+  }
+
+  boolean hasNext() {
+    return consumed < requests.size();
+  }
+
+  /** @return the request the next call to {@link #next} returns the result of */
+  T peek() {
+    return requests.get(consumed);
+  }
+
+  /**
+   * Waits for the result of the next request.
+   *
+   * @param ahead the number of requests from the next one which may be fetched, e.g. the remaining
+   *     number of API calls allowed
+   */
+  R next(final int ahead) throws IOException {
+    final int limit = Math.min(requests.size(), consumed + Math.max(1, Math.min(window, ahead)));
+    while (submitted < limit) {
+      final T request = requests.get(submitted++);
+      final FutureTask<R> task = new FutureTask<>(() -> fetch.fetch(request));
+      inFlight.addLast(task);
+      executor.execute(task);
+    }
+    final FutureTask<R> task = inFlight.removeFirst();
+    consumed++;
+    try {
+      return task.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while fetching " + requests.get(consumed - 1), e);
+    } catch (final CancellationException e) {
+      throw new IOException("Cancelled fetching " + requests.get(consumed - 1), e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  @Override
+  public void close() {
+    for (final FutureTask<R> task : inFlight) {
+      task.cancel(true);
+    }
+    inFlight.clear();
+  }
+}
@@ -0,0 +1,34 @@
+package org.knowm.xchange.ripple.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.knowm.xchange.ripple.dto.trade.RippleOrderTransaction;
+
+public class RippleTransactionCacheTest {
+
+  @Test
+  public void evictsTheLeastRecentlyUsedTest() {
+    final RippleTransactionCache cache = new RippleTransactionCache(2);
+    final RippleOrderTransaction first = new RippleOrderTransaction();
+    final RippleOrderTransaction second = new RippleOrderTransaction();
+    final RippleOrderTransaction third = new RippleOrderTransaction();
+
+    cache.put("account", "1", first);
+    cache.put("account", "2", second);
+    assertThat(cache.get("account", "1")).isSameAs(first); // now the most recently used
+    cache.put("account", "3", third);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getEvictions()).isEqualTo(1);
+    assertThat(cache.get("account", "2")).isNull();
+    assertThat(cache.get("account", "1")).isSameAs(first);
+    assertThat(cache.get("account", "3")).isSameAs(third);
+    assertThat(cache.get("other", "3")).isNull();
+    assertThat(cache.getHits()).isEqualTo(3);
+    assertThat(cache.getMisses()).isEqualTo(2);
+
+    cache.clear();
+    assertThat(cache.size()).isZero();
+  }
+}
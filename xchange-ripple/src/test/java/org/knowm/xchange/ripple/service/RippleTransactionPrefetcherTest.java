@@ -0,0 +1,93 @@
+package org.knowm.xchange.ripple.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class RippleTransactionPrefetcherTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @After
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void returnsTheResultsInOrderTest() throws IOException {
+    final AtomicInteger fetched = new AtomicInteger();
+    final List<Integer> results = new ArrayList<>();
+    try (final RippleTransactionPrefetcher<Integer, Integer> prefetcher =
+        new RippleTransactionPrefetcher<>(
+            Arrays.asList(5, 1, 4, 2, 3),
+            request -> {
+              fetched.incrementAndGet();
+              try {
+                Thread.sleep(request * 5);
+              } catch (final InterruptedException e) {
+                throw new IOException(e);
+              }
+              return request * 10;
+            },
+            executor,
+            3)) {
+      while (prefetcher.hasNext()) {
+        results.add(prefetcher.next(Integer.MAX_VALUE));
+      }
+    }
+    assertThat(results).containsExactly(50, 10, 40, 20, 30);
+    assertThat(fetched.get()).isEqualTo(5);
+  }
+
+  @Test
+  public void fetchesNoMoreThanAllowedAheadTest() throws IOException {
+    final AtomicInteger fetched = new AtomicInteger();
+    try (final RippleTransactionPrefetcher<Integer, Integer> prefetcher =
+        new RippleTransactionPrefetcher<>(
+            Arrays.asList(1, 2, 3, 4, 5),
+            request -> {
+              fetched.incrementAndGet();
+              return request;
+            },
+            Runnable::run,
+            4)) {
+      assertThat(prefetcher.next(2)).isEqualTo(1);
+      assertThat(fetched.get()).isEqualTo(2);
+      assertThat(prefetcher.peek()).isEqualTo(2);
+      assertThat(prefetcher.next(1)).isEqualTo(2);
+      assertThat(fetched.get()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void rethrowsTheFailureOfTheRequestTest() {
+    final RippleTransactionPrefetcher<Integer, Integer> prefetcher =
+        new RippleTransactionPrefetcher<>(
+            Arrays.asList(1, 2),
+            request -> {
+              if (request == 2) {
+                throw new IOException("failed " + request);
+              }
+              return request;
+            },
+            executor,
+            2);
+    assertThatThrownBy(
+            () -> {
+              prefetcher.next(Integer.MAX_VALUE);
+              prefetcher.next(Integer.MAX_VALUE);
+            })
+        .isInstanceOf(IOException.class)
+        .hasMessage("failed 2");
+    prefetcher.close();
+  }
+}
@@ -74,8 +74,17 @@ public class Market {
 
   public BigDecimal baseSizeLotsToNumber(final BigDecimal size, final int decimalPlaces) {
     return size.multiply(BigDecimal.valueOf(decoded.getBaseLotSize()))
-        .divide(baseSplTokenMultiplier(), RoundingMode.HALF_UP)
-        .setScale(decimalPlaces, RoundingMode.HALF_UP);
+        .divide(baseSplTokenMultiplier(), decimalPlaces, RoundingMode.HALF_UP);
+  }
+
+  public BigDecimal priceLotsToNumber(final BigDecimal price, final int decimalPlaces) {
+    return price
+        .multiply(BigDecimal.valueOf(decoded.getQuoteLotSize()))
+        .multiply(baseSplTokenMultiplier())
+        .divide(
+            BigDecimal.valueOf(decoded.getBaseLotSize()).multiply(quoteSplTokenMultiplier()),
+            decimalPlaces,
+            RoundingMode.HALF_UP);
   }
 
   public BigDecimal priceNumberToLots(final BigInteger price, final int decimalPlaces) {
@@ -0,0 +1,194 @@
+package com.knowm.xchange.serum.structures;
+
+import static com.knowm.xchange.serum.structures.EventQueueLayout.HEADER_LEN;
+import static com.knowm.xchange.serum.structures.EventQueueLayout.NODE_LEN;
+
+import com.knowm.xchange.serum.core.Base58;
+import com.knowm.xchange.serum.dto.PublicKey;
+import com.knowm.xchange.serum.structures.EventFlagsLayout.EventFlags;
+import com.knowm.xchange.serum.structures.EventQueueLayout.EventNode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Flyweight over the data of an event queue account, reading the header and the events in place
+ * from a (possibly direct) {@link ByteBuffer} rather than decoding them into {@link EventNode}s.
+ *
+ * <p>The events are a ring of {@code capacity} nodes starting at {@code head}, of which the {@code
+ * count} oldest are still to be consumed by the crank. {@code seqNum} counts all the events ever
+ * pushed, so the events pushed since a previous {@code seqNum} are the last ones of the ring.
+ *
+ * <p>A view and its {@link Event} are reused by {@link #wrap} and {@link #getEvent}: read what is
+ * needed from an event before moving to the next one.
+ */
+public final class EventQueueView {
+
+  /** Wraps the data of an event queue account into a new view. */
+  public static final StructDecoder<EventQueueView> DECODER =
+      new StructDecoder<EventQueueView>() {
+        @Override
+        public EventQueueView decode(byte[] bytes) {
+          return new EventQueueView().wrap(ByteBuffer.wrap(bytes));
+        }
+
+        @Override
+        public EventQueueView decode(ByteBuffer buffer) {
+          return new EventQueueView().wrap(buffer);
+        }
+      };
+
+  private static final int HEAD_OFFSET = 13;
+  private static final int COUNT_OFFSET = 21;
+  private static final int SEQ_NUM_OFFSET = 29;
+
+  private final Event event = new Event();
+  private ByteBuffer buffer;
+  private int capacity;
+
+  /** Points the view to the remaining bytes of the buffer, without moving its position. */
+  public EventQueueView wrap(final ByteBuffer data) {
+    if (data.remaining() < HEADER_LEN) {
+      throw new IllegalArgumentException("Not an event queue, " + data.remaining() + " bytes");
+    }
+    this.buffer = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+    this.capacity = (buffer.limit() - HEADER_LEN) / NODE_LEN;
+    return this;
+  }
+
+  public long getHead() {
+    return Integer.toUnsignedLong(buffer.getInt(HEAD_OFFSET));
+  }
+
+  public long getCount() {
+    return Integer.toUnsignedLong(buffer.getInt(COUNT_OFFSET));
+  }
+
+  public long getSeqNum() {
+    return Integer.toUnsignedLong(buffer.getInt(SEQ_NUM_OFFSET));
+  }
+
+  /** @return the number of nodes of the ring */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @param lastSeqNum the {@link #getSeqNum()} of a previous version of the queue
+   * @return the number of events pushed since, at most the {@link #getCount()} events still in the
+   *     queue, which are the last ones of the queue
+   */
+  public int getNewEventCount(final long lastSeqNum) {
+    final long pushed = (getSeqNum() - lastSeqNum) & 0xffffffffL; // seqNum is a wrapping u32
+    return (int) Math.min(pushed, Math.min(getCount(), capacity));
+  }
+
+  /**
+   * @param index from 0 for the oldest event of the queue to {@link #getCount()} - 1 for the newest
+   * @return the shared {@link Event} of this view, moved to the event
+   */
+  public Event getEvent(final long index) {
+    if (index < 0 || index >= Math.min(getCount(), capacity)) {
+      throw new IndexOutOfBoundsException("Event " + index + " of " + getCount());
+    }
+    final int node = (int) ((getHead() + index) % capacity);
+    event.offset = HEADER_LEN + node * NODE_LEN;
+    return event;
+  }
+
+  /** Flyweight over one node of the ring, see {@link EventQueueLayout.NodeLayout}. */
+  public final class Event {
+
+    private static final int FILL = 1;
+    private static final int OUT = 1 << 1;
+    private static final int BID = 1 << 2;
+    private static final int MAKER = 1 << 3;
+
+    private int offset;
+
+    private Event() {}
+
+    public boolean isFill() {
+      return (buffer.get(offset) & FILL) != 0;
+    }
+
+    public boolean isOut() {
+      return (buffer.get(offset) & OUT) != 0;
+    }
+
+    public boolean isBid() {
+      return (buffer.get(offset) & BID) != 0;
+    }
+
+    public boolean isMaker() {
+      return (buffer.get(offset) & MAKER) != 0;
+    }
+
+    public int getOpenOrdersSlot() {
+      return Byte.toUnsignedInt(buffer.get(offset + 1));
+    }
+
+    public int getFeeTier() {
+      return Byte.toUnsignedInt(buffer.get(offset + 2));
+    }
+
+    /** Amount the owner of the order received. */
+    public long getNativeQuantityReleased() {
+      return buffer.getLong(offset + 8);
+    }
+
+    /** Amount the owner of the order paid. */
+    public long getNativeQuantityPaid() {
+      return buffer.getLong(offset + 16);
+    }
+
+    public long getNativeFeeOrRebate() {
+      return buffer.getLong(offset + 24);
+    }
+
+    /** @return the upper 64 bits of the u128 order id, the price of the order in lots */
+    public long getOrderIdPrice() {
+      return buffer.getLong(offset + 40);
+    }
+
+    public byte[] getOrderIdBytes() {
+      return bytes(offset + 32, 16);
+    }
+
+    /** @return the order id encoded as in {@link EventNode#orderId} */
+    public String getOrderId() {
+      return Base58.encode(getOrderIdBytes());
+    }
+
+    public PublicKey getOpenOrders() {
+      return new PublicKey(Base58.encode(bytes(offset + 48, 32)));
+    }
+
+    public long getClientOrderId() {
+      return buffer.getLong(offset + 80);
+    }
+
+    /** Copies the event into an {@link EventNode}, e.g. to keep it past the next event. */
+    public EventNode toEventNode() {
+      final byte[] orderId = getOrderIdBytes();
+      return new EventNode(
+          new EventFlags(isFill(), isOut(), isBid(), isMaker()),
+          getOpenOrdersSlot(),
+          getFeeTier(),
+          getNativeQuantityReleased(),
+          getNativeQuantityPaid(),
+          getNativeFeeOrRebate(),
+          Base58.encode(orderId),
+          orderId,
+          getOpenOrders(),
+          getClientOrderId());
+    }
+
+    private byte[] bytes(final int index, final int length) {
+      final byte[] bytes = new byte[length];
+      for (int i = 0; i < length; i++) {
+        bytes[i] = buffer.get(index + i);
+      }
+      return bytes;
+    }
+  }
+}
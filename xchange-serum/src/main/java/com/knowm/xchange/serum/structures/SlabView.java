@@ -0,0 +1,136 @@
+package com.knowm.xchange.serum.structures;
+
+import com.knowm.xchange.serum.core.Base58;
+import com.knowm.xchange.serum.dto.PublicKey;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Flyweight over the data of the bids or asks account of a market: a slab of nodes holding the
+ * crit-bit tree of the orders of one side of the book, read in place from a (possibly direct)
+ * {@link ByteBuffer}.
+ *
+ * <p>The nodes up to {@link #getBumpIndex()} have been allocated, and each is an inner node, a leaf
+ * or a free node. Every leaf is a resting order, keyed by its price in the upper 64 bits and a
+ * sequence number in the lower 64 bits, so the book can be read by scanning the leaves rather than
+ * walking the tree.
+ *
+ * <p>Layout taken from
+ * https://github.com/project-serum/serum-ts/blob/master/packages/serum/src/slab.ts
+ */
+public final class SlabView {
+
+  /** Wraps the data of a bids or asks account into a new view. */
+  public static final StructDecoder<SlabView> DECODER =
+      new StructDecoder<SlabView>() {
+        @Override
+        public SlabView decode(byte[] bytes) {
+          return new SlabView().wrap(ByteBuffer.wrap(bytes));
+        }
+
+        @Override
+        public SlabView decode(ByteBuffer buffer) {
+          return new SlabView().wrap(buffer);
+        }
+      };
+
+  public static final int HEADER_LEN = 45;
+  public static final int NODE_LEN = 72;
+
+  private static final int PADDING_LEN = 7;
+
+  private static final int ACCOUNT_FLAGS_OFFSET = 5;
+  private static final int BUMP_INDEX_OFFSET = 13;
+  private static final int ROOT_OFFSET = 33;
+  private static final int LEAF_COUNT_OFFSET = 37;
+
+  private static final int BIDS_FLAG = 1 << 5;
+  private static final int ASKS_FLAG = 1 << 6;
+
+  private static final int LEAF_NODE = 2;
+
+  private ByteBuffer buffer;
+  private int capacity;
+
+  /** Points the view to the remaining bytes of the buffer, without moving its position. */
+  public SlabView wrap(final ByteBuffer data) {
+    if (data.remaining() < HEADER_LEN) {
+      throw new IllegalArgumentException("Not a slab, " + data.remaining() + " bytes");
+    }
+    this.buffer = data.slice().order(ByteOrder.LITTLE_ENDIAN);
+    this.capacity = Math.max(0, buffer.limit() - HEADER_LEN - PADDING_LEN) / NODE_LEN;
+    return this;
+  }
+
+  public boolean isBids() {
+    return (buffer.get(ACCOUNT_FLAGS_OFFSET) & BIDS_FLAG) != 0;
+  }
+
+  public boolean isAsks() {
+    return (buffer.get(ACCOUNT_FLAGS_OFFSET) & ASKS_FLAG) != 0;
+  }
+
+  /** @return the number of nodes allocated so far, the nodes to scan for leaves */
+  public int getBumpIndex() {
+    return (int) Math.min(Integer.toUnsignedLong(buffer.getInt(BUMP_INDEX_OFFSET)), capacity);
+  }
+
+  public long getRoot() {
+    return Integer.toUnsignedLong(buffer.getInt(ROOT_OFFSET));
+  }
+
+  /** @return the number of orders of the book */
+  public long getLeafCount() {
+    return Integer.toUnsignedLong(buffer.getInt(LEAF_COUNT_OFFSET));
+  }
+
+  /** @return the number of nodes the account can hold */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public boolean isLeaf(final int node) {
+    return buffer.getInt(offset(node)) == LEAF_NODE;
+  }
+
+  public int getLeafOwnerSlot(final int node) {
+    return Byte.toUnsignedInt(buffer.get(offset(node) + 4));
+  }
+
+  public int getLeafFeeTier(final int node) {
+    return Byte.toUnsignedInt(buffer.get(offset(node) + 5));
+  }
+
+  /** @return the lower 64 bits of the key of the leaf, the sequence number of the order */
+  public long getLeafSeqNum(final int node) {
+    return buffer.getLong(offset(node) + 8);
+  }
+
+  /** @return the upper 64 bits of the key of the leaf, the price of the order in lots */
+  public long getLeafPrice(final int node) {
+    return buffer.getLong(offset(node) + 16);
+  }
+
+  /** @return the open orders account of the owner of the order */
+  public PublicKey getLeafOwner(final int node) {
+    final byte[] owner = new byte[32];
+    final int offset = offset(node) + 24;
+    for (int i = 0; i < owner.length; i++) {
+      owner[i] = buffer.get(offset + i);
+    }
+    return new PublicKey(Base58.encode(owner));
+  }
+
+  /** @return the remaining quantity of the order in base lots */
+  public long getLeafQuantity(final int node) {
+    return buffer.getLong(offset(node) + 56);
+  }
+
+  public long getLeafClientOrderId(final int node) {
+    return buffer.getLong(offset(node) + 64);
+  }
+
+  private static int offset(final int node) {
+    return HEADER_LEN + node * NODE_LEN;
+  }
+}
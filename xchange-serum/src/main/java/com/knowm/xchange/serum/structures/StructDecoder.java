@@ -1,6 +1,7 @@
 package com.knowm.xchange.serum.structures;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Base64;
 
 public interface StructDecoder<T> {
@@ -10,4 +11,14 @@ public interface StructDecoder<T> {
   default T decode(final String data) throws IOException {
     return decode(Base64.getDecoder().decode(data));
   }
+
+  /**
+   * Decodes the remaining bytes of the buffer, without moving its position. Decoders of large
+   * accounts read the fields in place, the others decode a copy of the bytes.
+   */
+  default T decode(final ByteBuffer buffer) throws IOException {
+    final byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return decode(bytes);
+  }
 }
@@ -0,0 +1,116 @@
+package com.knowm.xchange.serum.structures;
+
+import static com.knowm.xchange.serum.structures.EventQueueLayout.HEADER_LEN;
+import static com.knowm.xchange.serum.structures.EventQueueLayout.NODE_LEN;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.knowm.xchange.serum.structures.EventQueueLayout.EventNode;
+import com.knowm.xchange.serum.structures.EventQueueView.Event;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class EventQueueViewTest {
+
+  private static final int CAPACITY = 4;
+
+  /** A queue of 3 events in a ring of 4 starting at node 2, so the newest wraps to node 0. */
+  private static ByteBuffer queue(ByteBuffer buffer, long seqNum) {
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    buffer.put(0, (byte) 's');
+    buffer.putInt(13, 2); // head
+    buffer.putInt(21, 3); // count
+    buffer.putInt(29, (int) seqNum);
+    for (int i = 0; i < 3; i++) {
+      int offset = HEADER_LEN + ((2 + i) % CAPACITY) * NODE_LEN;
+      buffer.put(offset, (byte) (i == 2 ? 0b0110 : 0b1101)); // out bid, fill bid maker
+      buffer.put(offset + 1, (byte) (200 + i));
+      buffer.put(offset + 2, (byte) 3);
+      buffer.putLong(offset + 8, 1000 + i);
+      buffer.putLong(offset + 16, 2000 + i);
+      buffer.putLong(offset + 24, -5);
+      buffer.putLong(offset + 32, i);
+      buffer.putLong(offset + 40, 42 + i);
+      buffer.put(offset + 48 + i, (byte) 7);
+      buffer.putLong(offset + 80, 9000 + i);
+    }
+    return buffer;
+  }
+
+  private static ByteBuffer heapQueue(long seqNum) {
+    // accounts are padded with 7 bytes after the nodes
+    return queue(ByteBuffer.allocate(HEADER_LEN + CAPACITY * NODE_LEN + 7), seqNum);
+  }
+
+  @Test
+  public void testReadsEventsInRingOrder() throws Exception {
+    EventQueueView view = EventQueueView.DECODER.decode(heapQueue(10));
+
+    assertThat(view.getHead()).isEqualTo(2);
+    assertThat(view.getCount()).isEqualTo(3);
+    assertThat(view.getSeqNum()).isEqualTo(10);
+    assertThat(view.getCapacity()).isEqualTo(CAPACITY);
+
+    Event oldest = view.getEvent(0);
+    assertThat(oldest.isFill()).isTrue();
+    assertThat(oldest.isBid()).isTrue();
+    assertThat(oldest.isMaker()).isTrue();
+    assertThat(oldest.isOut()).isFalse();
+    assertThat(oldest.getOpenOrdersSlot()).isEqualTo(200);
+    assertThat(oldest.getFeeTier()).isEqualTo(3);
+    assertThat(oldest.getNativeQuantityReleased()).isEqualTo(1000);
+    assertThat(oldest.getNativeQuantityPaid()).isEqualTo(2000);
+    assertThat(oldest.getNativeFeeOrRebate()).isEqualTo(-5);
+    assertThat(oldest.getOrderIdPrice()).isEqualTo(42);
+    assertThat(oldest.getClientOrderId()).isEqualTo(9000);
+
+    Event newest = view.getEvent(2);
+    assertThat(newest.isFill()).isFalse();
+    assertThat(newest.isOut()).isTrue();
+    assertThat(newest.getNativeQuantityPaid()).isEqualTo(2002);
+    assertThat(newest.getOrderIdPrice()).isEqualTo(44);
+  }
+
+  @Test
+  public void testMatchesNodeLayout() throws Exception {
+    ByteBuffer data = heapQueue(10);
+    EventQueueView view = EventQueueView.DECODER.decode(data);
+    for (int i = 0; i < 3; i++) {
+      int offset = HEADER_LEN + ((2 + i) % CAPACITY) * NODE_LEN;
+      EventNode decoded =
+          EventQueueLayout.NodeLayout.DECODER.decode(
+              Arrays.copyOfRange(data.array(), offset, offset + NODE_LEN));
+      EventNode read = view.getEvent(i).toEventNode();
+
+      assertThat(read)
+          .usingRecursiveComparison()
+          .ignoringFields("clientOrderId")
+          .isEqualTo(decoded);
+    }
+  }
+
+  @Test
+  public void testNewEventsSinceSeqNum() {
+    EventQueueView view = new EventQueueView().wrap(heapQueue(10));
+    assertThat(view.getNewEventCount(10)).isEqualTo(0);
+    assertThat(view.getNewEventCount(9)).isEqualTo(1);
+    assertThat(view.getNewEventCount(8)).isEqualTo(2);
+    // events consumed by the crank before being seen are gone
+    assertThat(view.getNewEventCount(0)).isEqualTo(3);
+
+    view.wrap(heapQueue(1));
+    assertThat(view.getNewEventCount(0xffffffffL)).isEqualTo(2);
+  }
+
+  @Test
+  public void testReadsDirectBuffersInPlace() {
+    ByteBuffer direct = ByteBuffer.allocateDirect(HEADER_LEN + CAPACITY * NODE_LEN + 7);
+    EventQueueView view = new EventQueueView().wrap(queue(direct, 10));
+    assertThat(view.getEvent(1).getNativeQuantityReleased()).isEqualTo(1001);
+
+    direct.putLong(HEADER_LEN + 3 * NODE_LEN + 8, 77);
+    assertThat(view.getEvent(1).getNativeQuantityReleased()).isEqualTo(77);
+    assertThat(direct.position()).isEqualTo(0);
+  }
+}
@@ -0,0 +1,177 @@
+package info.bitrich.xchangestream.binance;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Central queue for the REST order book snapshots needed to (re)synchronize Binance diff depth
+ * streams.
+ *
+ * <p>Snapshots are fetched on a few worker threads instead of the thread delivering the depth
+ * events, at most one pending request per pair. The pair with the most subscribers goes first, and
+ * no request is started before the request weight budget has room for it, so a reconnect of
+ * hundreds of books drains at the fastest rate the IP limit allows instead of tripping it.
+ */
+public class BinanceOrderBookResyncScheduler {
+  private static final Logger LOG = LoggerFactory.getLogger(BinanceOrderBookResyncScheduler.class);
+
+  private static final long BUDGET_POLL_MILLIS = 50;
+
+  private final RateLimiter rateLimiter;
+  private final boolean consumePermits;
+  private final int permitsPerSnapshot;
+  private final int workerCount;
+
+  private final Object lock = new Object();
+  private final Map<CurrencyPair, Request> pending = new LinkedHashMap<>();
+  private final List<Thread> workers = new ArrayList<>();
+  private volatile boolean shutdown;
+
+  /**
+   * @param rateLimiter the request weight rate limiter shared with the REST calls, or null for no
+   *     budget
+   * @param consumePermits true to take the permits here, false if the REST call takes them itself
+   *     and requests only have to wait until the budget has room
+   * @param permitsPerSnapshot request weight of one snapshot call
+   * @param workerCount number of snapshots fetched in parallel
+   */
+  public BinanceOrderBookResyncScheduler(
+      RateLimiter rateLimiter, boolean consumePermits, int permitsPerSnapshot, int workerCount) {
+    if (workerCount < 1) {
+      throw new IllegalArgumentException("At least one worker is required");
+    }
+    this.rateLimiter = rateLimiter;
+    this.consumePermits = consumePermits;
+    this.permitsPerSnapshot = permitsPerSnapshot;
+    this.workerCount = workerCount;
+  }
+
+  /**
+   * Queues a snapshot fetch for a pair. Does nothing if one is already queued for the pair.
+   *
+   * @param demand current number of subscribers of the pair, read again every time the next request
+   *     is picked
+   * @param fetch fetches the snapshot and hands it over; handles its own errors
+   */
+  public void schedule(CurrencyPair currencyPair, IntSupplier demand, Runnable fetch) {
+    synchronized (lock) {
+      if (shutdown) {
+        return;
+      }
+      if (pending.putIfAbsent(currencyPair, new Request(currencyPair, demand, fetch)) == null) {
+        startWorkers();
+        lock.notifyAll();
+      }
+    }
+  }
+
+  /** @return the number of snapshot requests waiting for a worker. */
+  public int getPendingCount() {
+    synchronized (lock) {
+      return pending.size();
+    }
+  }
+
+  /** Drops the pending requests and stops the workers once their current fetch is done. */
+  public void shutdown() {
+    synchronized (lock) {
+      shutdown = true;
+      pending.clear();
+      lock.notifyAll();
+    }
+    workers.forEach(Thread::interrupt);
+  }
+
+  private void startWorkers() {
+    while (workers.size() < workerCount) {
+      Thread worker = new Thread(this::work, "binance-orderbook-resync-" + workers.size());
+      worker.setDaemon(true);
+      worker.start();
+      workers.add(worker);
+    }
+  }
+
+  private void work() {
+    try {
+      while (!shutdown) {
+        Request request = next();
+        if (request == null) {
+          return;
+        }
+        awaitBudget();
+        try {
+          request.fetch.run();
+        } catch (RuntimeException e) {
+          LOG.error("Order book snapshot for {} failed", request.currencyPair, e);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** Takes the request with the highest demand, the oldest one among equals. */
+  private Request next() throws InterruptedException {
+    synchronized (lock) {
+      while (pending.isEmpty()) {
+        if (shutdown) {
+          return null;
+        }
+        lock.wait();
+      }
+      Request best = null;
+      int bestDemand = Integer.MIN_VALUE;
+      for (Request request : pending.values()) {
+        int demand = request.demand.getAsInt();
+        if (demand > bestDemand) {
+          best = request;
+          bestDemand = demand;
+        }
+      }
+      pending.remove(best.currencyPair);
+      return best;
+    }
+  }
+
+  private void awaitBudget() throws InterruptedException {
+    if (rateLimiter == null) {
+      return;
+    }
+    if (consumePermits) {
+      long waitNanos;
+      while ((waitNanos = rateLimiter.reservePermission(permitsPerSnapshot)) < 0) {
+        // the timeout of the limiter is shorter than the wait, try again once it has refreshed
+        LOG.debug("Waiting for request weight to fetch an order book snapshot");
+        Thread.sleep(
+            Math.max(1, rateLimiter.getRateLimiterConfig().getLimitRefreshPeriod().toMillis()));
+      }
+      if (waitNanos > 0) {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      }
+      return;
+    }
+    while (rateLimiter.getMetrics().getAvailablePermissions() < permitsPerSnapshot) {
+      Thread.sleep(BUDGET_POLL_MILLIS);
+    }
+  }
+
+  private static final class Request {
+    final CurrencyPair currencyPair;
+    final IntSupplier demand;
+    final Runnable fetch;
+
+    Request(CurrencyPair currencyPair, IntSupplier demand, Runnable fetch) {
+      this.currencyPair = currencyPair;
+      this.demand = demand;
+      this.fetch = fetch;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package info.bitrich.xchangestream.binance;
+
+import info.bitrich.xchangestream.core.ProductSubscription;
+import info.bitrich.xchangestream.core.ProductSubscription.ProductSubscriptionBuilder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.knowm.xchange.currency.CurrencyPair;
+
+/**
+ * Spreads the streams of a {@link ProductSubscription} over several combined stream connections so
+ * that each connection, and the thread that handles its messages, carries a similar message rate.
+ *
+ * <p>Streams are weighted by an estimate of their message rate and assigned heaviest first to the
+ * least loaded connection.
+ */
+public final class BinanceStreamSharding {
+
+  /** Ticker streams push once a second. */
+  static final double TICKER_WEIGHT = 1;
+
+  /** Diff depth streams push once a second, or every 100ms with the higher update frequency. */
+  static final double DEPTH_WEIGHT = 1;
+
+  static final double DEPTH_HIGHER_FREQUENCY_WEIGHT = 10;
+
+  /** Trade streams push every trade; a liquid pair easily averages several per second. */
+  static final double TRADE_WEIGHT = 5;
+
+  private BinanceStreamSharding() {}
+
+  /**
+   * @param subscription all the market data streams to subscribe to
+   * @param shards maximum number of connections
+   * @param higherUpdateFrequency whether depth streams use the 100ms update speed
+   * @param pairWeights optional relative activity of each pair (1 if absent), e.g. 20 for BTC/USDT
+   * @return one subscription per connection, never more than the number of streams
+   */
+  public static List<ProductSubscription> shard(
+      ProductSubscription subscription,
+      int shards,
+      boolean higherUpdateFrequency,
+      Map<CurrencyPair, ? extends Number> pairWeights) {
+    if (shards < 1) {
+      throw new IllegalArgumentException("At least one shard is required");
+    }
+    if (shards == 1) {
+      return Collections.singletonList(subscription);
+    }
+
+    List<Stream> streams = new ArrayList<>();
+    double depthWeight = higherUpdateFrequency ? DEPTH_HIGHER_FREQUENCY_WEIGHT : DEPTH_WEIGHT;
+    for (CurrencyPair pair : subscription.getTicker()) {
+      streams.add(
+          new Stream(
+              pair, BinanceSubscriptionType.TICKER, TICKER_WEIGHT * weight(pair, pairWeights)));
+    }
+    for (CurrencyPair pair : subscription.getOrderBook()) {
+      streams.add(
+          new Stream(pair, BinanceSubscriptionType.DEPTH, depthWeight * weight(pair, pairWeights)));
+    }
+    for (CurrencyPair pair : subscription.getTrades()) {
+      streams.add(
+          new Stream(
+              pair, BinanceSubscriptionType.TRADE, TRADE_WEIGHT * weight(pair, pairWeights)));
+    }
+    if (streams.isEmpty()) {
+      return Collections.singletonList(subscription);
+    }
+    streams.sort(
+        Comparator.comparingDouble((Stream s) -> -s.weight)
+            .thenComparing(s -> s.pair.toString())
+            .thenComparing(s -> s.type));
+
+    int count = Math.min(shards, streams.size());
+    List<ProductSubscriptionBuilder> builders = new ArrayList<>(count);
+    double[] loads = new double[count];
+    for (int i = 0; i < count; i++) {
+      builders.add(ProductSubscription.create());
+    }
+    for (Stream stream : streams) {
+      int lightest = 0;
+      for (int i = 1; i < count; i++) {
+        if (loads[i] < loads[lightest]) {
+          lightest = i;
+        }
+      }
+      loads[lightest] += stream.weight;
+      stream.addTo(builders.get(lightest));
+    }
+
+    List<ProductSubscription> result = new ArrayList<>(count);
+    for (ProductSubscriptionBuilder builder : builders) {
+      result.add(builder.build());
+    }
+    return result;
+  }
+
+  private static double weight(CurrencyPair pair, Map<CurrencyPair, ? extends Number> pairWeights) {
+    if (pairWeights == null) {
+      return 1;
+    }
+    Number weight = pairWeights.get(pair);
+    return weight == null ? 1 : weight.doubleValue();
+  }
+
+  private static final class Stream {
+    final CurrencyPair pair;
+    final BinanceSubscriptionType type;
+    final double weight;
+
+    Stream(CurrencyPair pair, BinanceSubscriptionType type, double weight) {
+      this.pair = pair;
+      this.type = type;
+      this.weight = weight;
+    }
+
+    void addTo(ProductSubscriptionBuilder builder) {
+      switch (type) {
+        case TICKER:
+          builder.addTicker(pair);
+          break;
+        case DEPTH:
+          builder.addOrderbook(pair);
+          break;
+        case TRADE:
+          builder.addTrades(pair);
+          break;
+        default:
+          throw new IllegalStateException("Unexpected subscription type " + type);
+      }
+    }
+  }
+}
@@ -1,15 +1,23 @@
 package info.bitrich.xchangestream.binance;
 
+import static org.knowm.xchange.binance.BinanceResilience.REQUEST_WEIGHT_RATE_LIMITER;
+
 import com.google.common.base.MoreObjects;
 import info.bitrich.xchangestream.binance.BinanceUserDataChannel.NoActiveChannelException;
 import info.bitrich.xchangestream.core.ProductSubscription;
 import info.bitrich.xchangestream.core.StreamingExchange;
+import info.bitrich.xchangestream.service.netty.ChannelMetrics;
 import info.bitrich.xchangestream.service.netty.ConnectionStateModel.State;
 import info.bitrich.xchangestream.util.Events;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.knowm.xchange.binance.BinanceAuthenticated;
@@ -26,11 +34,34 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
   private static final String API_BASE_URI = "wss://stream.binance.com:9443/";
   protected static final String USE_HIGHER_UPDATE_FREQUENCY =
       "Binance_Orderbook_Use_Higher_Frequency";
+  /** Number of combined stream connections the market data streams are spread over (default 1). */
+  public static final String CONNECTION_SHARDS = "Binance_Connection_Shards";
+  /**
+   * Optional {@code Map<CurrencyPair, Number>} of relative pair activity used to balance the
+   * streams over the connections, e.g. 20 for BTC/USDT. Pairs that are absent weigh 1.
+   */
+  public static final String SHARD_PAIR_WEIGHTS = "Binance_Shard_Pair_Weights";
+  /**
+   * Delay in milliseconds between opening consecutive connections (default 1000), so their initial
+   * order book snapshots are not all requested at once.
+   */
+  public static final String SHARD_CONNECT_STAGGER_MILLIS = "Binance_Shard_Connect_Stagger_Millis";
+
+  /**
+   * Number of order book snapshots fetched in parallel when the diff depth streams need to be
+   * (re)synchronized (default 2). The snapshots never exceed the request weight rate limit.
+   */
+  public static final String ORDERBOOK_RESYNC_WORKERS = "Binance_Orderbook_Resync_Workers";
+
+  private static final long DEFAULT_SHARD_CONNECT_STAGGER_MILLIS = 1000;
+  private static final int DEFAULT_ORDERBOOK_RESYNC_WORKERS = 2;
 
   private BinanceStreamingService streamingService;
+  private List<BinanceStreamingService> streamingServices;
   private BinanceUserDataStreamingService userDataStreamingService;
 
   private BinanceStreamingMarketDataService streamingMarketDataService;
+  private BinanceOrderBookResyncScheduler resyncScheduler;
   private BinanceStreamingAccountService streamingAccountService;
   private BinanceStreamingTradeService streamingTradeService;
 
@@ -74,12 +105,22 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
     }
 
     ProductSubscription subscriptions = args[0];
-    streamingService = createStreamingService(subscriptions);
+    streamingServices = new ArrayList<>();
+    for (ProductSubscription shard : shardSubscriptions(subscriptions)) {
+      streamingServices.add(createStreamingService(shard));
+    }
+    streamingService = streamingServices.get(0);
 
     List<Completable> completables = new ArrayList<>();
 
     if (subscriptions.hasUnauthenticated()) {
-      completables.add(streamingService.connect());
+      long stagger = shardConnectStaggerMillis();
+      for (BinanceStreamingService service : streamingServices) {
+        completables.add(
+            completables.isEmpty()
+                ? service.connect()
+                : service.connect().delaySubscription(stagger, TimeUnit.MILLISECONDS));
+      }
     }
 
     if (subscriptions.hasAuthenticated()) {
@@ -101,12 +142,15 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
       }
     }
 
+    resyncScheduler = createResyncScheduler();
     streamingMarketDataService =
         new BinanceStreamingMarketDataService(
-            streamingService,
+            streamingServices,
+            subscriptions,
             (BinanceMarketDataService) marketDataService,
             onApiCall,
-            orderBookUpdateFrequencyParameter);
+            orderBookUpdateFrequencyParameter,
+            resyncScheduler);
     streamingAccountService = new BinanceStreamingAccountService(userDataStreamingService);
     streamingTradeService = new BinanceStreamingTradeService(userDataStreamingService);
 
@@ -116,8 +160,49 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
         .doOnComplete(() -> streamingTradeService.openSubscriptions());
   }
 
+  private List<ProductSubscription> shardSubscriptions(ProductSubscription subscriptions) {
+    Object shards = exchangeSpecification.getExchangeSpecificParametersItem(CONNECTION_SHARDS);
+    if (shards == null) {
+      return Collections.singletonList(subscriptions);
+    }
+    @SuppressWarnings("unchecked")
+    Map<CurrencyPair, ? extends Number> pairWeights =
+        (Map<CurrencyPair, ? extends Number>)
+            exchangeSpecification.getExchangeSpecificParametersItem(SHARD_PAIR_WEIGHTS);
+    List<ProductSubscription> result =
+        BinanceStreamSharding.shard(
+            subscriptions,
+            ((Number) shards).intValue(),
+            !orderBookUpdateFrequencyParameter.isEmpty(),
+            pairWeights);
+    LOG.info("Spreading market data streams over {} connections", result.size());
+    return result;
+  }
+
+  private long shardConnectStaggerMillis() {
+    Object stagger =
+        exchangeSpecification.getExchangeSpecificParametersItem(SHARD_CONNECT_STAGGER_MILLIS);
+    return stagger == null ? DEFAULT_SHARD_CONNECT_STAGGER_MILLIS : ((Number) stagger).longValue();
+  }
+
+  /**
+   * The snapshots wait for the request weight budget of the REST API. When the rate limiter is
+   * enabled the REST call takes the permits itself, otherwise the scheduler takes them.
+   */
+  private BinanceOrderBookResyncScheduler createResyncScheduler() {
+    Object workers =
+        exchangeSpecification.getExchangeSpecificParametersItem(ORDERBOOK_RESYNC_WORKERS);
+    return new BinanceOrderBookResyncScheduler(
+        getResilienceRegistries().rateLimiters().rateLimiter(REQUEST_WEIGHT_RATE_LIMITER),
+        !exchangeSpecification.getResilience().isRateLimiterEnabled(),
+        ((BinanceMarketDataService) marketDataService)
+            .depthPermits(BinanceStreamingMarketDataService.SNAPSHOT_DEPTH),
+        workers == null ? DEFAULT_ORDERBOOK_RESYNC_WORKERS : ((Number) workers).intValue());
+  }
+
   private Completable createAndConnectUserDataService(String listenKey) {
     userDataStreamingService = BinanceUserDataStreamingService.create(listenKey);
+    applyStreamingSpecification(exchangeSpecification, userDataStreamingService);
     return userDataStreamingService
         .connect()
         .doOnComplete(
@@ -145,8 +230,15 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
   @Override
   public Completable disconnect() {
     List<Completable> completables = new ArrayList<>();
-    completables.add(streamingService.disconnect());
+    for (BinanceStreamingService service : streamingServices) {
+      completables.add(service.disconnect());
+    }
     streamingService = null;
+    streamingServices = null;
+    if (resyncScheduler != null) {
+      resyncScheduler.shutdown();
+      resyncScheduler = null;
+    }
     if (userDataStreamingService != null) {
       completables.add(userDataStreamingService.disconnect());
       userDataStreamingService = null;
@@ -161,22 +253,60 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
 
   @Override
   public boolean isAlive() {
-    return streamingService != null && streamingService.isSocketOpen();
+    return streamingServices != null
+        && streamingServices.stream().allMatch(BinanceStreamingService::isSocketOpen);
+  }
+
+  @Override
+  public Map<String, ChannelMetrics> getChannelMetrics() {
+    Map<String, ChannelMetrics> metrics = new HashMap<>();
+    for (BinanceStreamingService service : streamingServices) {
+      metrics.putAll(service.getChannelMetrics());
+    }
+    return metrics;
   }
 
   @Override
   public Observable<Throwable> reconnectFailure() {
-    return streamingService.subscribeReconnectFailure();
+    return Observable.merge(
+        streamingServices.stream()
+            .map(BinanceStreamingService::subscribeReconnectFailure)
+            .collect(Collectors.toList()));
   }
 
   @Override
   public Observable<Object> connectionSuccess() {
-    return streamingService.subscribeConnectionSuccess();
+    return Observable.merge(
+        streamingServices.stream()
+            .map(BinanceStreamingService::subscribeConnectionSuccess)
+            .collect(Collectors.toList()));
   }
 
+  /**
+   * Reports {@link State#OPEN} only while every connection is open, otherwise the state of the
+   * connection furthest from being open.
+   */
   @Override
   public Observable<State> connectionStateObservable() {
-    return streamingService.subscribeConnectionState();
+    if (streamingServices.size() == 1) {
+      return streamingService.subscribeConnectionState();
+    }
+    List<State> severity =
+        Arrays.asList(State.SUSPENDED, State.CLOSED, State.RECONNECTING, State.OPEN);
+    return Observable.combineLatest(
+            streamingServices.stream()
+                .map(BinanceStreamingService::subscribeConnectionState)
+                .collect(Collectors.toList()),
+            states -> {
+              State worst = State.OPEN;
+              for (Object state : states) {
+                if (severity.indexOf(state) < severity.indexOf(worst)) {
+                  worst = (State) state;
+                }
+              }
+              return worst;
+            })
+        .distinctUntilChanged();
   }
 
   @Override
@@ -194,9 +324,23 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
     return streamingTradeService;
   }
 
+  /**
+   * Creates the connection for a subscription, with {@link #REDUNDANT_CONNECTIONS} - 1 standby
+   * connections to the same streams.
+   */
   private BinanceStreamingService createStreamingService(ProductSubscription subscription) {
     String path = API_BASE_URI + "stream?streams=" + buildSubscriptionStreams(subscription);
-    return new BinanceStreamingService(path, subscription);
+    BinanceStreamingService service = new BinanceStreamingService(path, subscription);
+    applyStreamingSpecification(exchangeSpecification, service);
+    Object redundant =
+        exchangeSpecification.getExchangeSpecificParametersItem(REDUNDANT_CONNECTIONS);
+    int connections = redundant == null ? 1 : ((Number) redundant).intValue();
+    for (int i = 1; i < connections; i++) {
+      BinanceStreamingService standby = new BinanceStreamingService(path, subscription);
+      applyStreamingSpecification(exchangeSpecification, standby);
+      service.addStandbyConnection(standby);
+    }
+    return service;
   }
 
   public String buildSubscriptionStreams(ProductSubscription subscription) {
@@ -231,18 +375,25 @@ public class BinanceStreamingExchange extends BinanceExchange implements Streami
 
   @Override
   public void useCompressedMessages(boolean compressedMessages) {
-    streamingService.useCompressedMessages(compressedMessages);
+    streamingServices.forEach(
+        service -> {
+          service.useCompressedMessages(compressedMessages);
+          service
+              .getStandbyConnections()
+              .forEach(standby -> standby.useCompressedMessages(compressedMessages));
+        });
   }
 
   public void enableLiveSubscription() {
-    if (this.streamingService == null) {
+    if (this.streamingServices == null) {
       throw new UnsupportedOperationException(
           "You must connect to streams before enabling live subscription.");
     }
-    this.streamingService.enableLiveSubscription();
+    this.streamingServices.forEach(BinanceStreamingService::enableLiveSubscription);
   }
 
   public void disableLiveSubscription() {
-    if (this.streamingService != null) this.streamingService.disableLiveSubscription();
+    if (this.streamingServices != null)
+      this.streamingServices.forEach(BinanceStreamingService::disableLiveSubscription);
   }
 }
@@ -11,15 +11,23 @@ import info.bitrich.xchangestream.binance.dto.*;
 import info.bitrich.xchangestream.binance.exceptions.UpFrontSubscriptionRequiredException;
 import info.bitrich.xchangestream.core.ProductSubscription;
 import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import info.bitrich.xchangestream.core.orderbook.BookUpdater;
+import info.bitrich.xchangestream.core.orderbook.OrderBookSynchronizer;
+import info.bitrich.xchangestream.core.orderbook.SequenceStrategy;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
 import io.reactivex.Observable;
 import io.reactivex.functions.Consumer;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import org.knowm.xchange.binance.BinanceAdapters;
@@ -43,11 +51,23 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
   private static final JavaType TICKER_TYPE = getTickerType();
   private static final JavaType TRADE_TYPE = getTradeType();
   private static final JavaType DEPTH_TYPE = getDepthType();
+  private static final JavaType BOOK_TICKER_TYPE = getBookTickerType();
+
+  /** Depth of the REST snapshots the order books are synchronized from. */
+  static final int SNAPSHOT_DEPTH = 1000;
+
+  private static final int MAX_BUFFERED_DEPTH_UPDATES = 1000;
 
   private final BinanceStreamingService service;
+  private final List<BinanceStreamingService> shards;
+  // live subscriptions by stream, to the shard they were sent to
+  private final Map<String, BinanceStreamingService> streamShards = new HashMap<>();
+  private final ProductSubscription productSubscription;
   private final String orderBookUpdateFrequencyParameter;
 
   private final Map<CurrencyPair, Observable<BinanceTicker24h>> tickerSubscriptions;
+  private final Map<CurrencyPair, Observable<BookTickerBinanceWebSocketTransaction>>
+      bookTickerSubscriptions;
   private final Map<CurrencyPair, Observable<OrderBook>> orderbookSubscriptions;
   private final Map<CurrencyPair, Observable<BinanceRawTrade>> tradeSubscriptions;
   private final Map<CurrencyPair, Observable<OrderBookUpdate>> orderBookUpdatesSubscriptions;
@@ -57,6 +77,7 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
   private final ObjectMapper mapper = StreamingObjectMapperHelper.getObjectMapper();
   private final BinanceMarketDataService marketDataService;
   private final Runnable onApiCall;
+  private final BinanceOrderBookResyncScheduler resyncScheduler;
 
   private final AtomicBoolean fallenBack = new AtomicBoolean();
   private final AtomicReference<Runnable> fallbackOnApiCall = new AtomicReference<>(() -> {});
@@ -66,11 +87,50 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
       BinanceMarketDataService marketDataService,
       Runnable onApiCall,
       final String orderBookUpdateFrequencyParameter) {
-    this.service = service;
+    this(
+        Collections.singletonList(service),
+        service.getProductSubscription(),
+        marketDataService,
+        onApiCall,
+        orderBookUpdateFrequencyParameter);
+  }
+
+  /**
+   * @param shards the combined stream connections, each carrying a part of the product subscription
+   * @param productSubscription the product subscription of all the connections together
+   */
+  public BinanceStreamingMarketDataService(
+      List<BinanceStreamingService> shards,
+      ProductSubscription productSubscription,
+      BinanceMarketDataService marketDataService,
+      Runnable onApiCall,
+      final String orderBookUpdateFrequencyParameter) {
+    this(
+        shards,
+        productSubscription,
+        marketDataService,
+        onApiCall,
+        orderBookUpdateFrequencyParameter,
+        new BinanceOrderBookResyncScheduler(null, false, 0, 1));
+  }
+
+  /** @param resyncScheduler fetches the order book snapshots, shared by all the pairs */
+  public BinanceStreamingMarketDataService(
+      List<BinanceStreamingService> shards,
+      ProductSubscription productSubscription,
+      BinanceMarketDataService marketDataService,
+      Runnable onApiCall,
+      final String orderBookUpdateFrequencyParameter,
+      BinanceOrderBookResyncScheduler resyncScheduler) {
+    this.service = shards.get(0);
+    this.shards = shards;
+    this.productSubscription = productSubscription;
     this.orderBookUpdateFrequencyParameter = orderBookUpdateFrequencyParameter;
     this.marketDataService = marketDataService;
     this.onApiCall = onApiCall;
+    this.resyncScheduler = resyncScheduler;
     this.tickerSubscriptions = new ConcurrentHashMap<>();
+    this.bookTickerSubscriptions = new ConcurrentHashMap<>();
     this.orderbookSubscriptions = new ConcurrentHashMap<>();
     this.tradeSubscriptions = new ConcurrentHashMap<>();
     this.orderBookUpdatesSubscriptions = new ConcurrentHashMap<>();
@@ -80,7 +140,7 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
   @Override
   public Observable<OrderBook> getOrderBook(CurrencyPair currencyPair, Object... args) {
     if (!service.isLiveSubscriptionEnabled()
-        && !service.getProductSubscription().getOrderBook().contains(currencyPair)) {
+        && !productSubscription.getOrderBook().contains(currencyPair)) {
       throw new UpFrontSubscriptionRequiredException();
     }
     return orderbookSubscriptions.computeIfAbsent(currencyPair, this::initOrderBookIfAbsent);
@@ -94,16 +154,29 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
 
   public Observable<BinanceTicker24h> getRawTicker(CurrencyPair currencyPair, Object... args) {
     if (!service.isLiveSubscriptionEnabled()
-        && !service.getProductSubscription().getTicker().contains(currencyPair)) {
+        && !productSubscription.getTicker().contains(currencyPair)) {
       throw new UpFrontSubscriptionRequiredException();
     }
     return tickerSubscriptions.computeIfAbsent(
         currencyPair, s -> triggerObservableBody(rawTickerStream(currencyPair)).share());
   }
 
+  /**
+   * Api to get the best bid and ask of the {@code bookTicker} stream, pushed on each change of
+   * either. There is no up front subscription for it, so it requires the live subscription.
+   */
+  public Observable<BookTickerBinanceWebSocketTransaction> getRawBookTicker(
+      CurrencyPair currencyPair) {
+    if (!service.isLiveSubscriptionEnabled()) {
+      throw new UpFrontSubscriptionRequiredException();
+    }
+    return bookTickerSubscriptions.computeIfAbsent(
+        currencyPair, s -> triggerObservableBody(rawBookTickerStream(currencyPair)).share());
+  }
+
   public Observable<BinanceRawTrade> getRawTrades(CurrencyPair currencyPair, Object... args) {
     if (!service.isLiveSubscriptionEnabled()
-        && !service.getProductSubscription().getTrades().contains(currencyPair)) {
+        && !productSubscription.getTrades().contains(currencyPair)) {
       throw new UpFrontSubscriptionRequiredException();
     }
     return tradeSubscriptions.computeIfAbsent(
@@ -120,7 +193,7 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
   public Observable<OrderBookUpdate> getOrderBookUpdates(
       CurrencyPair currencyPair, Object... args) {
     if (!service.isLiveSubscriptionEnabled()
-        && !service.getProductSubscription().getOrderBook().contains(currencyPair)) {
+        && !productSubscription.getOrderBook().contains(currencyPair)) {
       throw new UpFrontSubscriptionRequiredException();
     }
     return orderBookUpdatesSubscriptions.computeIfAbsent(
@@ -133,6 +206,20 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
     return createOrderBookUpdatesObservable(currencyPair);
   }
 
+  /**
+   * Uses the {@code bookTicker} stream for a depth of 1 when the live subscription is enabled,
+   * otherwise reads the top levels of the order book, which must then be subscribed up front.
+   */
+  @Override
+  public Observable<OrderBook> getTopOfBook(CurrencyPair currencyPair, int depth, Object... args) {
+    if (depth == 1 && service.isLiveSubscriptionEnabled()) {
+      return getRawBookTicker(currencyPair)
+          .map(BookTickerBinanceWebSocketTransaction::toOrderBook)
+          .compose(TopOfBook.topOfBook(depth));
+    }
+    return StreamingMarketDataService.super.getTopOfBook(currencyPair, depth, args);
+  }
+
   @Override
   public Observable<Ticker> getTicker(CurrencyPair currencyPair, Object... args) {
     return getRawTicker(currencyPair).map(BinanceTicker24h::toTicker);
@@ -206,7 +293,10 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
         String.join("", currencyPair.toString().split("/")).toLowerCase()
             + "@"
             + subscriptionType.getType();
-    this.service.unsubscribeChannel(channelId);
+    serviceForStream(channelId).unsubscribeChannel(channelId);
+    synchronized (streamShards) {
+      streamShards.remove(channelId);
+    }
 
     switch (subscriptionType) {
       case DEPTH:
@@ -220,6 +310,9 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
       case TICKER:
         tickerSubscriptions.remove(currencyPair);
         break;
+      case BOOK_TICKER:
+        bookTickerSubscriptions.remove(currencyPair);
+        break;
       default:
         throw new RuntimeException("Subscription type not supported to unsubscribe from stream");
     }
@@ -241,9 +334,9 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
   }
 
   private Observable<BinanceTicker24h> rawTickerStream(CurrencyPair currencyPair) {
-    return service
-        .subscribeChannel(
-            channelFromCurrency(currencyPair, BinanceSubscriptionType.TICKER.getType()))
+    String channel = channelFromCurrency(currencyPair, BinanceSubscriptionType.TICKER.getType());
+    return serviceForStream(channel)
+        .subscribeChannel(channel)
         .map(
             it ->
                 this.<TickerBinanceWebsocketTransaction>readTransaction(it, TICKER_TYPE, "ticker"))
@@ -251,71 +344,163 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
         .map(transaction -> transaction.getData().getTicker());
   }
 
-  private final class OrderbookSubscription {
+  private Observable<BookTickerBinanceWebSocketTransaction> rawBookTickerStream(
+      CurrencyPair currencyPair) {
+    String channel =
+        channelFromCurrency(currencyPair, BinanceSubscriptionType.BOOK_TICKER.getType());
+    return serviceForStream(channel)
+        .subscribeChannel(channel)
+        .map(
+            it ->
+                this.<BookTickerBinanceWebSocketTransaction>readTransaction(
+                    it, BOOK_TICKER_TYPE, "book ticker"))
+        .map(BinanceWebsocketTransaction::getData)
+        .filter(data -> data.getCurrencyPair().equals(currencyPair));
+  }
+
+  /**
+   * The connection carrying a stream. Streams that are not on any connection yet (live
+   * subscriptions) go to the connection with the fewest streams, counting the ones assigned to it
+   * but not subscribed yet, and stay there.
+   */
+  private BinanceStreamingService serviceForStream(String streamName) {
+    if (shards.size() == 1) {
+      return service;
+    }
+    synchronized (streamShards) {
+      BinanceStreamingService assigned = streamShards.get(streamName);
+      if (assigned != null) {
+        return assigned;
+      }
+      for (BinanceStreamingService shard : shards) {
+        if (shard.hasStream(streamName)) {
+          return shard;
+        }
+      }
+      BinanceStreamingService shard =
+          shards.stream().min(Comparator.comparingInt(this::streamCount)).orElse(service);
+      streamShards.put(streamName, shard);
+      return shard;
+    }
+  }
+
+  private int streamCount(BinanceStreamingService shard) {
+    int count = shard.getStreamCount();
+    for (Map.Entry<String, BinanceStreamingService> entry : streamShards.entrySet()) {
+      if (entry.getValue() == shard && !shard.hasStream(entry.getKey())) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Order book of one pair, synchronized from the diff depth stream and a REST snapshot by an
+   * {@link OrderBookSynchronizer}.
+   *
+   * <p>Depth events arrive on the connection thread. While the book is not synchronized they are
+   * buffered and a snapshot is requested from the {@link BinanceOrderBookResyncScheduler}, which
+   * fetches it on one of its own threads and hands it over to the synchronizer. The next depth
+   * event installs it and replays the buffered events on top.
+   */
+  private final class OrderbookSubscription
+      implements BookUpdater<BinanceOrderbook, DepthBinanceWebSocketTransaction> {
+    final CurrencyPair currencyPair;
     final Observable<DepthBinanceWebSocketTransaction> stream;
-    final AtomicLong lastUpdateId = new AtomicLong();
-    final AtomicLong snapshotLastUpdateId = new AtomicLong();
+    final AtomicInteger subscribers = new AtomicInteger();
+    // 4. Drop any event where u is <= lastUpdateId in the snapshot
+    // 5. The first processed should have U <= lastUpdateId+1 AND u >= lastUpdateId+1, and
+    // subsequent events would normally have U == lastUpdateId + 1 which is a stricter version of
+    // the above - let's be more relaxed. Each update has absolute numbers so even if there's an
+    // overlap it does no harm
+    final OrderBookSynchronizer<BinanceOrderbook, DepthBinanceWebSocketTransaction> synchronizer;
     OrderBook orderBook;
 
-    private OrderbookSubscription(Observable<DepthBinanceWebSocketTransaction> stream) {
+    private OrderbookSubscription(
+        CurrencyPair currencyPair, Observable<DepthBinanceWebSocketTransaction> stream) {
+      this.currencyPair = currencyPair;
       this.stream = stream;
+      this.synchronizer =
+          new OrderBookSynchronizer<>(
+              currencyPair.toString(),
+              SequenceStrategy.ranges(
+                  snapshot -> snapshot.lastUpdateId,
+                  DepthBinanceWebSocketTransaction::getFirstUpdateId,
+                  DepthBinanceWebSocketTransaction::getLastUpdateId),
+              this,
+              () -> resyncScheduler.schedule(currencyPair, subscribers::get, this::fetchSnapshot),
+              MAX_BUFFERED_DEPTH_UPDATES);
     }
 
-    void invalidateSnapshot() {
-      snapshotLastUpdateId.set(0);
+    @Override
+    public void reset(BinanceOrderbook snapshot) {
+      orderBook = BinanceMarketDataService.convertOrderBook(snapshot, currencyPair);
     }
 
-    void initSnapshotIfInvalid(CurrencyPair currencyPair) {
-      if (snapshotLastUpdateId.get() != 0) return;
+    @Override
+    public boolean apply(DepthBinanceWebSocketTransaction depth) {
+      // 7. The data in each event is the absolute quantity for a price level
+      // 8. If the quantity is 0, remove the price level
+      // 9. Receiving an event that removes a price level that is not in your local order book can
+      // happen and is normal.
+      extractOrderBookUpdates(currencyPair, depth).forEach(it -> orderBook.update(it));
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      orderBook = null;
+    }
+
+    private void fetchSnapshot() {
       try {
-        LOG.info("Fetching initial orderbook snapshot for {} ", currencyPair);
+        LOG.info("Fetching orderbook snapshot for {} ", currencyPair);
         onApiCall.run();
         fallbackOnApiCall.get().run();
-        BinanceOrderbook book = fetchBinanceOrderBook(currencyPair);
-        snapshotLastUpdateId.set(book.lastUpdateId);
-        lastUpdateId.set(book.lastUpdateId);
-        orderBook = BinanceMarketDataService.convertOrderBook(book, currencyPair);
+        synchronizer.offerSnapshot(fetchBinanceOrderBook(currencyPair));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        synchronizer.snapshotFailed();
       } catch (Exception e) {
-        LOG.error("Failed to fetch initial order book for " + currencyPair, e);
-        snapshotLastUpdateId.set(0);
-        lastUpdateId.set(0);
-        orderBook = null;
+        LOG.error("Failed to fetch order book snapshot for " + currencyPair, e);
+        // Lets the next depth event ask again
+        synchronizer.snapshotFailed();
       }
     }
+  }
 
-    private BinanceOrderbook fetchBinanceOrderBook(CurrencyPair currencyPair)
-        throws IOException, InterruptedException {
-      try {
-        return marketDataService.getBinanceOrderbook(currencyPair, 1000);
-      } catch (BinanceException e) {
-        if (BinanceErrorAdapter.adapt(e) instanceof RateLimitExceededException) {
-          if (fallenBack.compareAndSet(false, true)) {
-            LOG.error(
-                "API Rate limit was hit when fetching Binance order book snapshot. Provide a \n"
-                    + "rate limiter. Apache Commons and Google Guava provide the TimedSemaphore\n"
-                    + "and RateLimiter classes which are effective for this purpose. Example:\n"
-                    + "\n"
-                    + "  exchangeSpecification.setExchangeSpecificParametersItem(\n"
-                    + "      info.bitrich.xchangestream.util.Events.BEFORE_API_CALL_HANDLER,\n"
-                    + "      () -> rateLimiter.acquire())\n"
-                    + "\n"
-                    + "Pausing for 15sec and falling back to one call per three seconds, but you\n"
-                    + "will get more optimal performance by handling your own rate limiting.");
-            RateLimiter rateLimiter = RateLimiter.create(0.333);
-            fallbackOnApiCall.set(rateLimiter::acquire);
-            Thread.sleep(15000);
-          }
+  private BinanceOrderbook fetchBinanceOrderBook(CurrencyPair currencyPair)
+      throws IOException, InterruptedException {
+    try {
+      return marketDataService.getBinanceOrderbook(currencyPair, SNAPSHOT_DEPTH);
+    } catch (BinanceException e) {
+      if (BinanceErrorAdapter.adapt(e) instanceof RateLimitExceededException) {
+        if (fallenBack.compareAndSet(false, true)) {
+          LOG.error(
+              "API Rate limit was hit when fetching Binance order book snapshot. Provide a \n"
+                  + "rate limiter. Apache Commons and Google Guava provide the TimedSemaphore\n"
+                  + "and RateLimiter classes which are effective for this purpose. Example:\n"
+                  + "\n"
+                  + "  exchangeSpecification.setExchangeSpecificParametersItem(\n"
+                  + "      info.bitrich.xchangestream.util.Events.BEFORE_API_CALL_HANDLER,\n"
+                  + "      () -> rateLimiter.acquire())\n"
+                  + "\n"
+                  + "Pausing for 15sec and falling back to one call per three seconds, but you\n"
+                  + "will get more optimal performance by handling your own rate limiting.");
+          RateLimiter rateLimiter = RateLimiter.create(0.333);
+          fallbackOnApiCall.set(rateLimiter::acquire);
+          Thread.sleep(15000);
         }
-        throw e;
       }
+      throw e;
     }
   }
 
   private Observable<DepthBinanceWebSocketTransaction> rawOrderBookUpdates(
       CurrencyPair currencyPair) {
-    return service
-        .subscribeChannel(
-            channelFromCurrency(currencyPair, BinanceSubscriptionType.DEPTH.getType()))
+    String channel = channelFromCurrency(currencyPair, BinanceSubscriptionType.DEPTH.getType());
+    return serviceForStream(channel)
+        .subscribeChannel(channel)
         .map(
             it ->
                 this.<DepthBinanceWebSocketTransaction>readTransaction(
@@ -327,76 +512,25 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
   private Observable<OrderBook> createOrderBookObservable(CurrencyPair currencyPair) {
     // 1. Open a stream to wss://stream.binance.com:9443/ws/bnbbtc@depth
     // 2. Buffer the events you receive from the stream.
+    // 3. Get a depth snapshot from
+    // https://www.binance.com/api/v1/depth?symbol=BNBBTC&limit=1000
+    // (we do this if we don't already have one or we've invalidated a previous one)
     OrderbookSubscription subscription =
-        new OrderbookSubscription(orderBookRawUpdatesSubscriptions.get(currencyPair));
+        new OrderbookSubscription(currencyPair, orderBookRawUpdatesSubscriptions.get(currencyPair));
 
     return subscription
         .stream
-
-        // 3. Get a depth snapshot from
-        // https://www.binance.com/api/v1/depth?symbol=BNBBTC&limit=1000
-        // (we do this if we don't already have one or we've invalidated a previous one)
-        .doOnNext(transaction -> subscription.initSnapshotIfInvalid(currencyPair))
-
-        // If we failed, don't return anything. Just keep trying until it works
-        .filter(transaction -> subscription.snapshotLastUpdateId.get() > 0L)
-
-        // 4. Drop any event where u is <= lastUpdateId in the snapshot
-        .filter(depth -> depth.getLastUpdateId() > subscription.snapshotLastUpdateId.get())
-
-        // 5. The first processed should have U <= lastUpdateId+1 AND u >= lastUpdateId+1, and
-        // subsequent events would
-        // normally have u == lastUpdateId + 1 which is stricter version of the above - let's be
-        // more relaxed
-        // each update has absolute numbers so even if there's an overlap it does no harm
-        .filter(
-            depth -> {
-              long lastUpdateId = subscription.lastUpdateId.get();
-              boolean result;
-              if (lastUpdateId == 0L) {
-                result = true;
-              } else {
-                result =
-                    depth.getFirstUpdateId() <= lastUpdateId + 1
-                        && depth.getLastUpdateId() >= lastUpdateId + 1;
-              }
-              if (result) {
-                subscription.lastUpdateId.set(depth.getLastUpdateId());
-              } else {
-                // If not, we re-sync.  This will commonly occur a few times when starting up, since
-                // given update ids 1,2,3,4,5,6,7,8,9, Binance may sometimes return a snapshot
-                // as of 5, but update events covering 1-3, 4-6 and 7-9.  We can't apply the 4-6
-                // update event without double-counting 5, and we can't apply the 7-9 update without
-                // missing 6.  The only thing we can do is to keep requesting a fresh snapshot until
-                // we get to a situation where the snapshot and an update event precisely line up.
-                LOG.info(
-                    "Orderbook snapshot for {} out of date (last={}, U={}, u={}). This is normal. Re-syncing.",
-                    currencyPair,
-                    lastUpdateId,
-                    depth.getFirstUpdateId(),
-                    depth.getLastUpdateId());
-                subscription.invalidateSnapshot();
-              }
-              return result;
-            })
-
-        // 7. The data in each event is the absolute quantity for a price level
-        // 8. If the quantity is 0, remove the price level
-        // 9. Receiving an event that removes a price level that is not in your local order book can
-        // happen and is normal.
-        .map(
-            depth -> {
-              extractOrderBookUpdates(currencyPair, depth)
-                  .forEach(it -> subscription.orderBook.update(it));
-              return subscription.orderBook;
-            })
-        .share();
+        .filter(subscription.synchronizer::onDelta)
+        .map(depth -> subscription.orderBook)
+        .share()
+        .doOnSubscribe(disposable -> subscription.subscribers.incrementAndGet())
+        .doOnDispose(subscription.subscribers::decrementAndGet);
   }
 
   private Observable<BinanceRawTrade> rawTradeStream(CurrencyPair currencyPair) {
-    return service
-        .subscribeChannel(
-            channelFromCurrency(currencyPair, BinanceSubscriptionType.TRADE.getType()))
+    String channel = channelFromCurrency(currencyPair, BinanceSubscriptionType.TRADE.getType());
+    return serviceForStream(channel)
+        .subscribeChannel(channel)
         .map(it -> this.<TradeBinanceWebsocketTransaction>readTransaction(it, TRADE_TYPE, "trade"))
         .filter(transaction -> transaction.getData().getCurrencyPair().equals(currencyPair))
         .map(transaction -> transaction.getData().getRawTrade());
@@ -468,6 +602,14 @@ public class BinanceStreamingMarketDataService implements StreamingMarketDataSer
             new TypeReference<BinanceWebsocketTransaction<TickerBinanceWebsocketTransaction>>() {});
   }
 
+  private static JavaType getBookTickerType() {
+    return getObjectMapper()
+        .getTypeFactory()
+        .constructType(
+            new TypeReference<
+                BinanceWebsocketTransaction<BookTickerBinanceWebSocketTransaction>>() {});
+  }
+
   private static JavaType getTradeType() {
     return getObjectMapper()
         .getTypeFactory()
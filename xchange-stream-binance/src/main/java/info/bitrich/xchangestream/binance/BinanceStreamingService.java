@@ -27,6 +27,9 @@ public class BinanceStreamingService extends JsonNettyStreamingService {
   private static final String RESULT = "result";
   private static final String IDENTIFIER = "id";
 
+  /** Depth updates carry their last update id, trades their trade id and snapshots their id. */
+  private static final String[] SEQUENCE_FIELDS = {"u", "t", "lastUpdateId"};
+
   private final ProductSubscription productSubscription;
 
   private boolean isLiveSubscriptionEnabled = false;
@@ -54,6 +57,28 @@ public class BinanceStreamingService extends JsonNettyStreamingService {
     return message.get("stream").asText();
   }
 
+  @Override
+  protected long getMessageSequence(String channel, JsonNode message) {
+    JsonNode data = message.get("data");
+    if (data == null) {
+      return NO_SEQUENCE;
+    }
+    for (String field : SEQUENCE_FIELDS) {
+      JsonNode sequence = data.get(field);
+      if (sequence != null && sequence.canConvertToLong()) {
+        return sequence.asLong();
+      }
+    }
+    return NO_SEQUENCE;
+  }
+
+  @Override
+  protected long getMessageTimestamp(String channel, JsonNode message) {
+    JsonNode data = message.get("data");
+    JsonNode eventTime = data == null ? null : data.get("E");
+    return eventTime != null && eventTime.canConvertToLong() ? eventTime.asLong() : NO_TIMESTAMP;
+  }
+
   @Override
   protected void handleMessage(JsonNode message) {
 
@@ -193,12 +218,49 @@ public class BinanceStreamingService extends JsonNettyStreamingService {
     return productSubscription;
   }
 
+  /**
+   * Whether this connection carries the given stream, either from the connection url or through a
+   * live subscription.
+   *
+   * @param streamName e.g. btcusdt@depth, btcusdt@trade
+   */
+  public boolean hasStream(String streamName) {
+    if (channels.containsKey(streamName)) {
+      return true;
+    }
+    for (String stream : getStreams()) {
+      if (stream.equals(streamName) || stream.startsWith(streamName + "@")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** @return the streams of the connection url and the live subscriptions of this connection. */
+  public int getStreamCount() {
+    Set<String> streams = getStreams();
+    streams.addAll(channels.keySet());
+    return streams.size();
+  }
+
+  /** @return the streams on the combined stream url of this connection. */
+  public Set<String> getStreams() {
+    final String subscribedChannels = uri.toString().substring(uri.toString().indexOf("=") + 1);
+    return subscribedChannels.isEmpty()
+        ? new HashSet<>()
+        : Sets.newHashSet(subscribedChannels.split("/"));
+  }
+
   public void enableLiveSubscription() {
     isLiveSubscriptionEnabled = true;
+    getStandbyConnections()
+        .forEach(standby -> ((BinanceStreamingService) standby).enableLiveSubscription());
   }
 
   public void disableLiveSubscription() {
     isLiveSubscriptionEnabled = false;
+    getStandbyConnections()
+        .forEach(standby -> ((BinanceStreamingService) standby).disableLiveSubscription());
   }
 
   public boolean isLiveSubscriptionEnabled() {
@@ -226,5 +288,7 @@ public class BinanceStreamingService extends JsonNettyStreamingService {
         LOGGER.warn("Failed to unsubscribe channel: {}", channelId, e);
       }
     }
+    getStandbyConnections()
+        .forEach(standby -> ((BinanceStreamingService) standby).unsubscribeChannel(channelId));
   }
 }
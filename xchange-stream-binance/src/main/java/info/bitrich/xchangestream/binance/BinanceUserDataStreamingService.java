@@ -28,6 +28,12 @@ public class BinanceUserDataStreamingService extends JsonNettyStreamingService {
     return super.subscribeChannel(eventType.getSerializedValue());
   }
 
+  @Override
+  public String getFrameOrigin() {
+    // the path of the URI is the listen key, which changes from one session to the next
+    return "binance-user-data";
+  }
+
   @Override
   public void messageHandler(String message) {
     LOG.debug("Received message: {}", message);
@@ -0,0 +1,62 @@
+package info.bitrich.xchangestream.binance.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
+import java.math.BigDecimal;
+import org.knowm.xchange.binance.BinanceAdapters;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+
+/** Best bid and ask of a symbol, pushed by the {@code bookTicker} stream on each change. */
+public class BookTickerBinanceWebSocketTransaction {
+
+  private final long updateId;
+  private final CurrencyPair currencyPair;
+  private final BigDecimal bidPrice;
+  private final BigDecimal bidQty;
+  private final BigDecimal askPrice;
+  private final BigDecimal askQty;
+
+  public BookTickerBinanceWebSocketTransaction(
+      @JsonProperty("u") long updateId,
+      @JsonProperty("s") String symbol,
+      @JsonProperty("b") BigDecimal bidPrice,
+      @JsonProperty("B") BigDecimal bidQty,
+      @JsonProperty("a") BigDecimal askPrice,
+      @JsonProperty("A") BigDecimal askQty) {
+    this.updateId = updateId;
+    this.currencyPair = BinanceAdapters.adaptSymbol(symbol);
+    this.bidPrice = bidPrice;
+    this.bidQty = bidQty;
+    this.askPrice = askPrice;
+    this.askQty = askQty;
+  }
+
+  public long getUpdateId() {
+    return updateId;
+  }
+
+  public CurrencyPair getCurrencyPair() {
+    return currencyPair;
+  }
+
+  public BigDecimal getBidPrice() {
+    return bidPrice;
+  }
+
+  public BigDecimal getBidQty() {
+    return bidQty;
+  }
+
+  public BigDecimal getAskPrice() {
+    return askPrice;
+  }
+
+  public BigDecimal getAskQty() {
+    return askQty;
+  }
+
+  public OrderBook toOrderBook() {
+    return TopOfBook.of(null, currencyPair, bidPrice, bidQty, askPrice, askQty);
+  }
+}
@@ -0,0 +1,106 @@
+package info.bitrich.xchangestream.binance;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+
+public class BinanceOrderBookResyncSchedulerTest {
+
+  @Test
+  public void testHighestDemandFirstAndDeduplicated() throws InterruptedException {
+    BinanceOrderBookResyncScheduler scheduler =
+        new BinanceOrderBookResyncScheduler(null, false, 0, 1);
+    CountDownLatch blocker = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(3);
+    List<CurrencyPair> fetched = new CopyOnWriteArrayList<>();
+    AtomicInteger duplicateFetches = new AtomicInteger();
+
+    // Occupies the only worker while the others queue up
+    scheduler.schedule(CurrencyPair.LTC_BTC, () -> 0, () -> await(blocker));
+    while (scheduler.getPendingCount() > 0) {
+      Thread.sleep(1);
+    }
+    scheduler.schedule(CurrencyPair.ETH_BTC, () -> 1, () -> record(fetched, done, "ETH/BTC"));
+    scheduler.schedule(CurrencyPair.BTC_USDT, () -> 5, () -> record(fetched, done, "BTC/USDT"));
+    scheduler.schedule(CurrencyPair.BTC_USDT, () -> 5, duplicateFetches::incrementAndGet);
+    scheduler.schedule(CurrencyPair.XRP_BTC, () -> 1, () -> record(fetched, done, "XRP/BTC"));
+    Assert.assertEquals(3, scheduler.getPendingCount());
+
+    blocker.countDown();
+    Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(CurrencyPair.BTC_USDT, fetched.get(0));
+    Assert.assertEquals(CurrencyPair.ETH_BTC, fetched.get(1));
+    Assert.assertEquals(CurrencyPair.XRP_BTC, fetched.get(2));
+    Assert.assertEquals(0, duplicateFetches.get());
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void testWaitsForRequestWeight() throws InterruptedException {
+    RateLimiter rateLimiter =
+        RateLimiter.of(
+            "test",
+            RateLimiterConfig.custom()
+                .limitForPeriod(10)
+                .limitRefreshPeriod(Duration.ofMillis(300))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+    BinanceOrderBookResyncScheduler scheduler =
+        new BinanceOrderBookResyncScheduler(rateLimiter, true, 10, 2);
+    CountDownLatch done = new CountDownLatch(2);
+
+    long start = System.nanoTime();
+    scheduler.schedule(CurrencyPair.BTC_USDT, () -> 1, done::countDown);
+    scheduler.schedule(CurrencyPair.ETH_BTC, () -> 1, done::countDown);
+    Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+    // The second snapshot has to wait for the next refresh period
+    Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    scheduler.shutdown();
+  }
+
+  @Test
+  public void testWaitsForReservedRequestWeight() throws InterruptedException {
+    RateLimiter rateLimiter =
+        RateLimiter.of(
+            "test",
+            RateLimiterConfig.custom()
+                .limitForPeriod(10)
+                .limitRefreshPeriod(Duration.ofMillis(300))
+                .timeoutDuration(Duration.ofSeconds(5))
+                .build());
+    BinanceOrderBookResyncScheduler scheduler =
+        new BinanceOrderBookResyncScheduler(rateLimiter, true, 10, 2);
+    CountDownLatch done = new CountDownLatch(2);
+
+    long start = System.nanoTime();
+    scheduler.schedule(CurrencyPair.BTC_USDT, () -> 1, done::countDown);
+    scheduler.schedule(CurrencyPair.ETH_BTC, () -> 1, done::countDown);
+    Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+    // The second snapshot reserved the permits of the next refresh period and waited for it
+    Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    scheduler.shutdown();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void record(List<CurrencyPair> fetched, CountDownLatch done, String pair) {
+    fetched.add(new CurrencyPair(pair));
+    done.countDown();
+  }
+}
@@ -0,0 +1,119 @@
+package info.bitrich.xchangestream.binance;
+
+import info.bitrich.xchangestream.core.ProductSubscription;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+
+public class BinanceStreamShardingTest {
+
+  @Test
+  public void testSingleShardKeepsSubscription() {
+    ProductSubscription subscription =
+        ProductSubscription.create().addAll(CurrencyPair.BTC_USDT).build();
+    List<ProductSubscription> shards = BinanceStreamSharding.shard(subscription, 1, false, null);
+    Assert.assertEquals(1, shards.size());
+    Assert.assertSame(subscription, shards.get(0));
+  }
+
+  @Test
+  public void testNeverMoreShardsThanStreams() {
+    ProductSubscription subscription =
+        ProductSubscription.create().addTicker(CurrencyPair.BTC_USDT).build();
+    List<ProductSubscription> shards = BinanceStreamSharding.shard(subscription, 4, false, null);
+    Assert.assertEquals(1, shards.size());
+    Assert.assertEquals(
+        Collections.singletonList(CurrencyPair.BTC_USDT), shards.get(0).getTicker());
+  }
+
+  @Test
+  public void testStreamsAreBalancedByWeight() {
+    ProductSubscription.ProductSubscriptionBuilder builder = ProductSubscription.create();
+    CurrencyPair[] pairs = {
+      CurrencyPair.BTC_USDT,
+      CurrencyPair.ETH_USDT,
+      CurrencyPair.ETH_BTC,
+      CurrencyPair.LTC_BTC,
+      CurrencyPair.XRP_BTC,
+      CurrencyPair.ADA_BTC
+    };
+    for (CurrencyPair pair : pairs) {
+      builder.addOrderbook(pair).addTrades(pair).addTicker(pair);
+    }
+    List<ProductSubscription> shards = BinanceStreamSharding.shard(builder.build(), 3, true, null);
+
+    Assert.assertEquals(3, shards.size());
+    Set<CurrencyPair> books = new HashSet<>();
+    int streams = 0;
+    for (ProductSubscription shard : shards) {
+      // 6 books at 10, 6 trade streams at 5 and 6 tickers at 1 spread evenly
+      double load =
+          shard.getOrderBook().size() * BinanceStreamSharding.DEPTH_HIGHER_FREQUENCY_WEIGHT
+              + shard.getTrades().size() * BinanceStreamSharding.TRADE_WEIGHT
+              + shard.getTicker().size() * BinanceStreamSharding.TICKER_WEIGHT;
+      Assert.assertEquals(32, load, 0.0);
+      books.addAll(shard.getOrderBook());
+      streams += shard.getOrderBook().size() + shard.getTrades().size() + shard.getTicker().size();
+    }
+    Assert.assertEquals(6, books.size());
+    Assert.assertEquals(18, streams);
+  }
+
+  @Test
+  public void testPairWeights() {
+    ProductSubscription subscription =
+        ProductSubscription.create()
+            .addOrderbook(CurrencyPair.BTC_USDT)
+            .addOrderbook(CurrencyPair.ETH_BTC)
+            .addOrderbook(CurrencyPair.LTC_BTC)
+            .addOrderbook(CurrencyPair.XRP_BTC)
+            .build();
+    List<ProductSubscription> shards =
+        BinanceStreamSharding.shard(
+            subscription, 2, false, Collections.singletonMap(CurrencyPair.BTC_USDT, 10));
+
+    Assert.assertEquals(2, shards.size());
+    Assert.assertEquals(
+        Collections.singletonList(CurrencyPair.BTC_USDT), shards.get(0).getOrderBook());
+    Assert.assertEquals(3, shards.get(1).getOrderBook().size());
+  }
+
+  @Test
+  public void testRuntimeSubscriptionsAreSpreadOverTheShards() {
+    CurrencyPair[] pairs = {
+      CurrencyPair.BTC_USDT, CurrencyPair.ETH_USDT, CurrencyPair.ETH_BTC, CurrencyPair.LTC_BTC
+    };
+    ProductSubscription.ProductSubscriptionBuilder builder = ProductSubscription.create();
+    for (CurrencyPair pair : pairs) {
+      builder.addTicker(pair);
+    }
+    ProductSubscription subscription = builder.build();
+    List<BinanceStreamingService> shards =
+        Arrays.asList(
+            new BinanceStreamingService(
+                "wss://stream.binance.com:9443/stream?streams=",
+                ProductSubscription.create().build()),
+            new BinanceStreamingService(
+                "wss://stream.binance.com:9443/stream?streams=",
+                ProductSubscription.create().build()));
+    BinanceStreamingMarketDataService marketDataService =
+        new BinanceStreamingMarketDataService(shards, subscription, null, null, null);
+
+    // not connected, but the channels are registered on the shard they were routed to
+    for (CurrencyPair pair : pairs) {
+      marketDataService.getRawTicker(pair).test();
+    }
+
+    for (BinanceStreamingService shard : shards) {
+      Assert.assertEquals(2, shard.getStreamCount());
+    }
+    Assert.assertTrue(shards.get(0).hasStream("btcusdt@ticker"));
+    Assert.assertTrue(shards.get(1).hasStream("ethusdt@ticker"));
+    Assert.assertFalse(shards.get(1).hasStream("btcusdt@ticker"));
+  }
+}
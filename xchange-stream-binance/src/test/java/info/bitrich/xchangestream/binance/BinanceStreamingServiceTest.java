@@ -0,0 +1,84 @@
+package info.bitrich.xchangestream.binance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import info.bitrich.xchangestream.core.ProductSubscription;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinanceStreamingServiceTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final BinanceStreamingService service =
+      new BinanceStreamingService(
+          "wss://stream.binance.com:9443/stream?streams=btcusdt@depth/btcusdt@trade",
+          ProductSubscription.create().build());
+
+  @Test
+  public void testDepthSequenceIsLastUpdateId() throws IOException {
+    JsonNode message =
+        mapper.readTree(
+            "{\"stream\":\"btcusdt@depth\",\"data\":{\"e\":\"depthUpdate\",\"E\":1,"
+                + "\"s\":\"BTCUSDT\",\"U\":157,\"u\":160,\"b\":[],\"a\":[]}}");
+    Assert.assertEquals(160, service.getMessageSequence("btcusdt@depth", message));
+  }
+
+  @Test
+  public void testTradeSequenceIsTradeId() throws IOException {
+    JsonNode message =
+        mapper.readTree(
+            "{\"stream\":\"btcusdt@trade\",\"data\":{\"e\":\"trade\",\"E\":1,"
+                + "\"s\":\"BTCUSDT\",\"t\":12345,\"p\":\"0.001\",\"q\":\"100\"}}");
+    Assert.assertEquals(12345, service.getMessageSequence("btcusdt@trade", message));
+  }
+
+  @Test
+  public void testTickerHasNoSequence() throws IOException {
+    // Several events can share an event time, so tickers are compared by content instead
+    JsonNode message =
+        mapper.readTree(
+            "{\"stream\":\"btcusdt@ticker\",\"data\":{\"e\":\"24hrTicker\",\"E\":1,"
+                + "\"s\":\"BTCUSDT\",\"c\":\"0.0025\"}}");
+    Assert.assertEquals(Long.MIN_VALUE, service.getMessageSequence("btcusdt@ticker", message));
+  }
+
+  @Test
+  public void testStandbyCopiesOfDepthUpdatesArePassedOnOnce() {
+    String path = "wss://stream.binance.com:9443/stream?streams=btcusdt@depth";
+    BinanceStreamingService primary =
+        new BinanceStreamingService(path, ProductSubscription.create().build());
+    BinanceStreamingService standby =
+        new BinanceStreamingService(path, ProductSubscription.create().build());
+    primary.setReplayMode(true);
+    standby.setReplayMode(true);
+    primary.addStandbyConnection(standby);
+    List<Long> updates = new CopyOnWriteArrayList<>();
+    primary
+        .subscribeChannel("btcusdt@depth")
+        .subscribe(message -> updates.add(message.get("data").get("u").asLong()));
+
+    primary.messageHandler(depthUpdate(157, 160));
+    standby.messageHandler(depthUpdate(157, 160));
+    standby.messageHandler(depthUpdate(161, 165));
+    // late on the primary, already passed on from the standby
+    primary.messageHandler(depthUpdate(161, 165));
+    standby.messageHandler(depthUpdate(166, 170));
+    primary.messageHandler(depthUpdate(161, 165));
+    primary.messageHandler(depthUpdate(171, 171));
+
+    Assert.assertEquals(Arrays.asList(160L, 165L, 170L, 171L), updates);
+  }
+
+  private static String depthUpdate(long firstUpdateId, long lastUpdateId) {
+    return "{\"stream\":\"btcusdt@depth\",\"data\":{\"e\":\"depthUpdate\",\"E\":1,"
+        + "\"s\":\"BTCUSDT\",\"U\":"
+        + firstUpdateId
+        + ",\"u\":"
+        + lastUpdateId
+        + ",\"b\":[],\"a\":[]}}";
+  }
+}
@@ -0,0 +1,40 @@
+package info.bitrich.xchangestream.binance.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+
+public class BookTickerBinanceWebSocketTransactionTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void test_deserialization_of_transaction_message() throws IOException {
+    InputStream stream =
+        BookTickerBinanceWebSocketTransactionTest.class.getResourceAsStream(
+            "testBookTickerEvent.json");
+    BinanceWebsocketTransaction<BookTickerBinanceWebSocketTransaction> transaction =
+        mapper.readValue(
+            stream,
+            new TypeReference<
+                BinanceWebsocketTransaction<BookTickerBinanceWebSocketTransaction>>() {});
+
+    BookTickerBinanceWebSocketTransaction bookTicker = transaction.getData();
+    assertThat(bookTicker.getUpdateId()).isEqualTo(400900217L);
+    assertThat(bookTicker.getCurrencyPair()).isEqualTo(CurrencyPair.ETH_BTC);
+
+    OrderBook orderBook = bookTicker.toOrderBook();
+    assertThat(orderBook.getBids()).hasSize(1);
+    assertThat(orderBook.getBids().get(0).getLimitPrice()).isEqualByComparingTo("0.091553");
+    assertThat(orderBook.getBids().get(0).getOriginalAmount()).isEqualByComparingTo("1.753");
+    assertThat(orderBook.getAsks()).hasSize(1);
+    assertThat(orderBook.getAsks().get(0).getLimitPrice()).isEqualByComparingTo("0.091772");
+    assertThat(orderBook.getAsks().get(0).getOriginalAmount()).isEqualByComparingTo("1.839");
+  }
+}
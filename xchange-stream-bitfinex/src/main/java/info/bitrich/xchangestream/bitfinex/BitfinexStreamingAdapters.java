@@ -9,6 +9,7 @@ import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthBalance;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthOrder;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthPreTrade;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthTrade;
+import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketOrderNotification;
 import io.reactivex.annotations.Nullable;
 import java.math.BigDecimal;
 import java.util.stream.Stream;
@@ -105,6 +106,28 @@ class BitfinexStreamingAdapters {
     return orderObject;
   }
 
+  /**
+   * @param notification [MTS, TYPE, MESSAGE_ID, null, ORDER, CODE, STATUS, TEXT], with the order id
+   *     and the client order id at the start of the order array
+   */
+  @Nullable
+  static BitfinexWebSocketOrderNotification adaptOrderNotification(JsonNode notification) {
+    if (notification.size() < 8) {
+      LOG.error(
+          "adaptOrderNotification unexpected record size={}, record={}",
+          notification.size(),
+          notification.toString());
+      return null;
+    }
+    JsonNode order = notification.get(4);
+    return new BitfinexWebSocketOrderNotification(
+        notification.get(1).textValue(),
+        order.isArray() ? order.path(0).longValue() : 0,
+        order.isArray() ? order.path(2).longValue() : 0,
+        notification.get(6).textValue(),
+        notification.get(7).textValue());
+  }
+
   @Nullable
   static BitfinexWebSocketAuthBalance adaptBalance(JsonNode balance) {
     BitfinexWebSocketAuthBalance balanceObject = createBalanceObject(balance);
@@ -14,10 +14,12 @@ import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketTradesTransactio
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketUpdateOrderbook;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebsocketUpdateTrade;
 import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
 import io.reactivex.Observable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.marketdata.*;
 
@@ -34,28 +36,67 @@ public class BitfinexStreamingMarketDataService implements StreamingMarketDataSe
 
   @Override
   public Observable<OrderBook> getOrderBook(CurrencyPair currencyPair, Object... args) {
+    return getRawOrderBook(currencyPair, args)
+        .map(
+            s -> {
+              BitfinexOrderbook bitfinexOrderbook =
+                  s.toBitfinexOrderBook(orderbooks.getOrDefault(currencyPair, null));
+              orderbooks.put(currencyPair, bitfinexOrderbook);
+              return adaptOrderBook(bitfinexOrderbook.toBitfinexDepth(), currencyPair);
+            });
+  }
+
+  private Observable<BitfinexWebSocketOrderbookTransaction> getRawOrderBook(
+      CurrencyPair currencyPair, Object... args) {
     String channelName = "book";
     final String depth = args.length > 0 ? args[0].toString() : "100";
     String pair = currencyPair.base.toString() + currencyPair.counter.toString();
     final ObjectMapper mapper = StreamingObjectMapperHelper.getObjectMapper();
 
-    Observable<BitfinexWebSocketOrderbookTransaction> subscribedChannel =
-        service
-            .subscribeChannel(channelName, new Object[] {pair, "P0", depth})
-            .map(
-                s -> {
-                  if (s.get(1).get(0).isArray())
-                    return mapper.treeToValue(s, BitfinexWebSocketSnapshotOrderbook.class);
-                  else return mapper.treeToValue(s, BitfinexWebSocketUpdateOrderbook.class);
-                });
+    return service
+        .subscribeChannel(channelName, new Object[] {pair, "P0", depth})
+        .map(
+            s -> {
+              if (s.get(1).get(0).isArray())
+                return mapper.treeToValue(s, BitfinexWebSocketSnapshotOrderbook.class);
+              else return mapper.treeToValue(s, BitfinexWebSocketUpdateOrderbook.class);
+            });
+  }
 
-    return subscribedChannel.map(
-        s -> {
-          BitfinexOrderbook bitfinexOrderbook =
-              s.toBitfinexOrderBook(orderbooks.getOrDefault(currencyPair, null));
-          orderbooks.put(currencyPair, bitfinexOrderbook);
-          return adaptOrderBook(bitfinexOrderbook.toBitfinexDepth(), currencyPair);
-        });
+  /**
+   * Uses the best bid and ask of the ticker channel for a depth of 1. Otherwise reads the top
+   * levels of a book of its own, subscribed with the arguments of {@link #getOrderBook}, in place,
+   * copying them only when they change.
+   */
+  @Override
+  public Observable<OrderBook> getTopOfBook(CurrencyPair currencyPair, int depth, Object... args) {
+    if (depth != 1) {
+      return Observable.defer(
+          () -> {
+            AtomicReference<BitfinexOrderbook> orderbook = new AtomicReference<>();
+            TopOfBook topOfBook = new TopOfBook(depth);
+            return getRawOrderBook(currencyPair, args)
+                .filter(
+                    s -> {
+                      if (orderbook.get() == null
+                          && s instanceof BitfinexWebSocketUpdateOrderbook) {
+                        // an update before the snapshot
+                        return false;
+                      }
+                      orderbook.set(s.toBitfinexOrderBook(orderbook.get()));
+                      return orderbook.get().updateTopOfBook(topOfBook, currencyPair);
+                    })
+                .map(s -> topOfBook.get());
+          });
+    }
+    String pair = currencyPair.base.toString() + currencyPair.counter.toString();
+    final ObjectMapper mapper = StreamingObjectMapperHelper.getObjectMapper();
+
+    return service
+        .subscribeChannel("ticker", new Object[] {pair})
+        .map(s -> mapper.treeToValue(s, BitfinexWebSocketTickerTransaction.class))
+        .map(s -> s.toTopOfBook(currencyPair))
+        .compose(TopOfBook.topOfBook(depth));
   }
 
   @Override
@@ -7,12 +7,18 @@ import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthBalance;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthOrder;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthPreTrade;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthTrade;
+import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketCancelOrder;
+import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketNewOrder;
+import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketOrderNotification;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketSubscriptionMessage;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketUnSubscriptionMessage;
+import info.bitrich.xchangestream.service.exception.NotConnectedException;
 import info.bitrich.xchangestream.service.netty.JsonNettyStreamingService;
+import info.bitrich.xchangestream.service.netty.PendingRequests;
 import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandler;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.subjects.PublishSubject;
 import java.io.IOException;
@@ -27,11 +33,14 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
 import javax.crypto.Mac;
 import org.apache.commons.lang3.StringUtils;
 import org.knowm.xchange.bitfinex.service.BitfinexAdapters;
 import org.knowm.xchange.bitfinex.v1.BitfinexDigest;
 import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.exceptions.ExchangeSecurityException;
 import org.knowm.xchange.utils.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,9 +93,15 @@ public class BitfinexStreamingService extends JsonNettyStreamingService {
   private final BlockingQueue<String> calculationQueue = new LinkedBlockingQueue<>();
   private Disposable calculator;
 
+  private final PendingRequests<String, BitfinexWebSocketOrderNotification> orderRequests =
+      new PendingRequests<>();
+  // Client order ids only have to be unique per day, start from the time like the web client does
+  private final AtomicLong nextClientOrderId = new AtomicLong(System.currentTimeMillis());
+
   public BitfinexStreamingService(String apiUrl, SynchronizedValueFactory<Long> nonceFactory) {
     super(apiUrl, Integer.MAX_VALUE, DEFAULT_CONNECTION_TIMEOUT, DEFAULT_RETRY_DURATION, 30);
     this.nonceFactory = nonceFactory;
+    failOrderRequestsOnDisconnect();
   }
 
   public BitfinexStreamingService(
@@ -98,6 +113,11 @@ public class BitfinexStreamingService extends JsonNettyStreamingService {
       int idleTimeoutSeconds) {
     super(apiUrl, maxFramePayloadLength, connectionTimeout, retryDuration, idleTimeoutSeconds);
     this.nonceFactory = nonceFactory;
+    failOrderRequestsOnDisconnect();
+  }
+
+  private void failOrderRequestsOnDisconnect() {
+    subscribeDisconnect().subscribe(o -> orderRequests.failAll(new NotConnectedException()));
   }
 
   @Override
@@ -230,6 +250,13 @@ public class BitfinexStreamingService extends JsonNettyStreamingService {
         BitfinexWebSocketAuthBalance balance = BitfinexStreamingAdapters.adaptBalance(object);
         if (balance != null) subjectBalance.onNext(balance);
         break;
+      case "n":
+        BitfinexWebSocketOrderNotification notification =
+            BitfinexStreamingAdapters.adaptOrderNotification(object);
+        if (notification != null && !completeOrderRequest(notification)) {
+          LOG.debug("Notification: {}", notification);
+        }
+        break;
       case "bu":
         break;
       default:
@@ -317,6 +344,61 @@ public class BitfinexStreamingService extends JsonNettyStreamingService {
         new BitfinexWebSocketAuth(apiKey, payload, String.valueOf(nonce), signature.toLowerCase()));
   }
 
+  private boolean completeOrderRequest(BitfinexWebSocketOrderNotification notification) {
+    switch (notification.getType()) {
+      case BitfinexWebSocketOrderNotification.NEW_ORDER_REQUEST:
+        return orderRequests.complete(notification.getType() + notification.getCid(), notification);
+      case BitfinexWebSocketOrderNotification.CANCEL_ORDER_REQUEST:
+        return orderRequests.complete(
+            notification.getType() + notification.getOrderId(), notification);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Places an order on the authenticated connection, on subscription.
+   *
+   * @param order builds the order from the client order id it is correlated by
+   * @return emits the notification answering the request, whether it succeeded or not
+   */
+  Single<BitfinexWebSocketOrderNotification> placeOrder(
+      LongFunction<BitfinexWebSocketNewOrder> order) {
+    return Single.defer(
+        () -> {
+          long cid = nextClientOrderId.incrementAndGet();
+          return sendOrderRequest(
+              BitfinexWebSocketOrderNotification.NEW_ORDER_REQUEST + cid, "on", order.apply(cid));
+        });
+  }
+
+  /** @return emits the notification answering the request, whether it succeeded or not */
+  Single<BitfinexWebSocketOrderNotification> cancelOrder(long orderId) {
+    return sendOrderRequest(
+        BitfinexWebSocketOrderNotification.CANCEL_ORDER_REQUEST + orderId,
+        "oc",
+        new BitfinexWebSocketCancelOrder(orderId));
+  }
+
+  private Single<BitfinexWebSocketOrderNotification> sendOrderRequest(
+      String key, String type, Object payload) {
+    return Single.defer(
+        () -> {
+          if (!isAuthenticated()) {
+            return Single.error(new ExchangeSecurityException("Not authenticated"));
+          }
+          return orderRequests.send(
+              key,
+              () -> {
+                // sendMessage would drop the request, which would then never be answered
+                if (!isSocketOpen()) {
+                  throw new NotConnectedException();
+                }
+                sendObjectMessage(new Object[] {0, type, null, payload});
+              });
+        });
+  }
+
   Observable<BitfinexWebSocketAuthOrder> getAuthenticatedOrders() {
     return subjectOrder.share();
   }
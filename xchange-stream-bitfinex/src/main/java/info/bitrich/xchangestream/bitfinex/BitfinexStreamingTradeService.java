@@ -3,12 +3,20 @@ package info.bitrich.xchangestream.bitfinex;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthOrder;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthPreTrade;
 import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketAuthTrade;
+import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketNewOrder;
+import info.bitrich.xchangestream.bitfinex.dto.BitfinexWebSocketOrderNotification;
 import info.bitrich.xchangestream.core.StreamingTradeService;
 import io.reactivex.Observable;
+import io.reactivex.Single;
+import java.math.BigDecimal;
 import java.util.function.Function;
+import org.knowm.xchange.bitfinex.service.BitfinexAdapters;
+import org.knowm.xchange.bitfinex.v1.dto.trade.BitfinexOrderFlags;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.UserTrade;
+import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.exceptions.ExchangeSecurityException;
 
 public class BitfinexStreamingTradeService implements StreamingTradeService {
@@ -56,6 +64,52 @@ public class BitfinexStreamingTradeService implements StreamingTradeService {
     return getUserTrades().filter(t -> currencyPair.equals(t.getCurrencyPair()));
   }
 
+  /**
+   * Places an exchange limit order, or a margin limit order with {@link BitfinexOrderFlags#MARGIN}.
+   * {@link BitfinexOrderFlags#HIDDEN} and {@link BitfinexOrderFlags#POST_ONLY} are supported.
+   */
+  @Override
+  public Single<String> placeLimitOrder(LimitOrder limitOrder) {
+    int flags = 0;
+    if (limitOrder.hasFlag(BitfinexOrderFlags.HIDDEN)) {
+      flags |= BitfinexWebSocketNewOrder.FLAG_HIDDEN;
+    }
+    if (limitOrder.hasFlag(BitfinexOrderFlags.POST_ONLY)) {
+      flags |= BitfinexWebSocketNewOrder.FLAG_POST_ONLY;
+    }
+    int orderFlags = flags;
+    BigDecimal amount =
+        limitOrder.getType() == Order.OrderType.ASK
+            ? limitOrder.getOriginalAmount().negate()
+            : limitOrder.getOriginalAmount();
+    return service
+        .placeOrder(
+            cid ->
+                new BitfinexWebSocketNewOrder(
+                    cid,
+                    limitOrder.hasFlag(BitfinexOrderFlags.MARGIN) ? "LIMIT" : "EXCHANGE LIMIT",
+                    BitfinexAdapters.adaptCurrencyPair(limitOrder.getCurrencyPair()),
+                    amount,
+                    limitOrder.getLimitPrice(),
+                    orderFlags))
+        .map(notification -> String.valueOf(checkNotification(notification).getOrderId()));
+  }
+
+  @Override
+  public Single<Boolean> cancelOrder(String orderId) {
+    // a malformed id fails the single rather than the caller
+    return Single.defer(() -> service.cancelOrder(Long.parseLong(orderId)))
+        .map(notification -> checkNotification(notification).isSuccess());
+  }
+
+  private static BitfinexWebSocketOrderNotification checkNotification(
+      BitfinexWebSocketOrderNotification notification) {
+    if (!notification.isSuccess()) {
+      throw new ExchangeException(notification.getText());
+    }
+    return notification;
+  }
+
   public Observable<BitfinexWebSocketAuthOrder> getRawAuthenticatedOrders() {
     return withAuthenticatedService(BitfinexStreamingService::getAuthenticatedOrders);
   }
@@ -2,23 +2,27 @@ package info.bitrich.xchangestream.bitfinex.dto;
 
 import static java.math.BigDecimal.ZERO;
 
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import java.math.BigDecimal;
 import java.util.*;
 import org.knowm.xchange.bitfinex.v1.dto.marketdata.BitfinexDepth;
 import org.knowm.xchange.bitfinex.v1.dto.marketdata.BitfinexLevel;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
 
 /** Created by Lukas Zaoralek on 8.11.17. */
 public class BitfinexOrderbook {
-  private Map<BigDecimal, BitfinexOrderbookLevel> asks;
-  private Map<BigDecimal, BitfinexOrderbookLevel> bids;
+  // sorted best first, so the top levels are read without sorting the book
+  private SortedMap<BigDecimal, BitfinexOrderbookLevel> asks;
+  private SortedMap<BigDecimal, BitfinexOrderbookLevel> bids;
 
   public BitfinexOrderbook(BitfinexOrderbookLevel[] levels) {
     createFromLevels(levels);
   }
 
   private void createFromLevels(BitfinexOrderbookLevel[] levels) {
-    this.asks = new HashMap<>(levels.length / 2);
-    this.bids = new HashMap<>(levels.length / 2);
+    this.asks = new TreeMap<>();
+    this.bids = new TreeMap<>(java.util.Collections.reverseOrder());
 
     for (BitfinexOrderbookLevel level : levels) {
 
@@ -34,25 +38,13 @@ public class BitfinexOrderbook {
   }
 
   public synchronized BitfinexDepth toBitfinexDepth() {
-    SortedMap<BigDecimal, BitfinexOrderbookLevel> bitfinexLevelAsks = new TreeMap<>();
-    SortedMap<BigDecimal, BitfinexOrderbookLevel> bitfinexLevelBids =
-        new TreeMap<>(java.util.Collections.reverseOrder());
-
-    for (Map.Entry<BigDecimal, BitfinexOrderbookLevel> level : asks.entrySet()) {
-      bitfinexLevelAsks.put(level.getValue().getPrice(), level.getValue());
-    }
-
-    for (Map.Entry<BigDecimal, BitfinexOrderbookLevel> level : bids.entrySet()) {
-      bitfinexLevelBids.put(level.getValue().getPrice(), level.getValue());
-    }
-
     List<BitfinexLevel> askLevels = new ArrayList<>(asks.size());
     List<BitfinexLevel> bidLevels = new ArrayList<>(bids.size());
-    for (Map.Entry<BigDecimal, BitfinexOrderbookLevel> level : bitfinexLevelAsks.entrySet()) {
-      askLevels.add(level.getValue().toBitfinexLevel());
+    for (BitfinexOrderbookLevel level : asks.values()) {
+      askLevels.add(level.toBitfinexLevel());
     }
-    for (Map.Entry<BigDecimal, BitfinexOrderbookLevel> level : bitfinexLevelBids.entrySet()) {
-      bidLevels.add(level.getValue().toBitfinexLevel());
+    for (BitfinexOrderbookLevel level : bids.values()) {
+      bidLevels.add(level.toBitfinexLevel());
     }
 
     return new BitfinexDepth(
@@ -60,6 +52,21 @@ public class BitfinexOrderbook {
         bidLevels.toArray(new BitfinexLevel[bidLevels.size()]));
   }
 
+  /**
+   * Reads the top levels of the book in place.
+   *
+   * @return whether they changed, see {@link TopOfBook#update(OrderBook)}
+   */
+  public synchronized boolean updateTopOfBook(TopOfBook topOfBook, CurrencyPair currencyPair) {
+    return topOfBook.update(
+        currencyPair,
+        null,
+        bids.values(),
+        asks.values(),
+        BitfinexOrderbookLevel::getPrice,
+        BitfinexOrderbookLevel::getAmount);
+  }
+
   public synchronized void updateLevel(BitfinexOrderbookLevel level) {
 
     Map<BigDecimal, BitfinexOrderbookLevel> side;
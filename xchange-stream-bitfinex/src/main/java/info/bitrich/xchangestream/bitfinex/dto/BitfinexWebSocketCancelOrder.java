@@ -0,0 +1,23 @@
+package info.bitrich.xchangestream.bitfinex.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Payload of the "oc" input message cancelling an order. */
+public class BitfinexWebSocketCancelOrder {
+
+  @JsonProperty("id")
+  private final long id;
+
+  public BitfinexWebSocketCancelOrder(long id) {
+    this.id = id;
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  @Override
+  public String toString() {
+    return "BitfinexWebSocketCancelOrder{" + "id=" + id + '}';
+  }
+}
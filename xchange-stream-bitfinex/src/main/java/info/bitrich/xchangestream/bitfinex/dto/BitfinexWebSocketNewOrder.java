@@ -0,0 +1,94 @@
+package info.bitrich.xchangestream.bitfinex.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.math.BigDecimal;
+
+/**
+ * Payload of the "on" input message placing an order, see
+ * https://docs.bitfinex.com/reference#ws-auth-input-order-new
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BitfinexWebSocketNewOrder {
+
+  /** Hidden order. */
+  public static final int FLAG_HIDDEN = 64;
+
+  /** Post only order. */
+  public static final int FLAG_POST_ONLY = 4096;
+
+  @JsonProperty("cid")
+  private final long cid;
+
+  @JsonProperty("type")
+  private final String type;
+
+  @JsonProperty("symbol")
+  private final String symbol;
+
+  /** Positive to buy, negative to sell. */
+  @JsonProperty("amount")
+  private final String amount;
+
+  @JsonProperty("price")
+  private final String price;
+
+  @JsonProperty("flags")
+  private final Integer flags;
+
+  public BitfinexWebSocketNewOrder(
+      long cid, String type, String symbol, BigDecimal amount, BigDecimal price, int flags) {
+    this.cid = cid;
+    this.type = type;
+    this.symbol = symbol;
+    this.amount = amount.toPlainString();
+    this.price = price.toPlainString();
+    this.flags = flags == 0 ? null : flags;
+  }
+
+  public long getCid() {
+    return cid;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getSymbol() {
+    return symbol;
+  }
+
+  public String getAmount() {
+    return amount;
+  }
+
+  public String getPrice() {
+    return price;
+  }
+
+  public Integer getFlags() {
+    return flags;
+  }
+
+  @Override
+  public String toString() {
+    return "BitfinexWebSocketNewOrder{"
+        + "cid="
+        + cid
+        + ", type='"
+        + type
+        + '\''
+        + ", symbol='"
+        + symbol
+        + '\''
+        + ", amount='"
+        + amount
+        + '\''
+        + ", price='"
+        + price
+        + '\''
+        + ", flags="
+        + flags
+        + '}';
+  }
+}
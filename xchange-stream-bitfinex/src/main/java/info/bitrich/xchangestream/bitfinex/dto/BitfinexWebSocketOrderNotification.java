@@ -0,0 +1,91 @@
+package info.bitrich.xchangestream.bitfinex.dto;
+
+import java.util.Objects;
+
+/**
+ * Notification answering an order input message, e.g. "on-req" for a new order or "oc-req" for a
+ * cancellation.
+ */
+public class BitfinexWebSocketOrderNotification {
+
+  public static final String NEW_ORDER_REQUEST = "on-req";
+  public static final String CANCEL_ORDER_REQUEST = "oc-req";
+  public static final String SUCCESS = "SUCCESS";
+
+  private final String type;
+  private final long orderId;
+  private final long cid;
+  private final String status;
+  private final String text;
+
+  public BitfinexWebSocketOrderNotification(
+      String type, long orderId, long cid, String status, String text) {
+    this.type = type;
+    this.orderId = orderId;
+    this.cid = cid;
+    this.status = status;
+    this.text = text;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  /** @return the id of the order, 0 if a new order was rejected */
+  public long getOrderId() {
+    return orderId;
+  }
+
+  public long getCid() {
+    return cid;
+  }
+
+  /** @return SUCCESS, ERROR or FAILURE */
+  public String getStatus() {
+    return status;
+  }
+
+  public boolean isSuccess() {
+    return SUCCESS.equals(status);
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof BitfinexWebSocketOrderNotification)) return false;
+    BitfinexWebSocketOrderNotification that = (BitfinexWebSocketOrderNotification) o;
+    return orderId == that.orderId
+        && cid == that.cid
+        && Objects.equals(type, that.type)
+        && Objects.equals(status, that.status)
+        && Objects.equals(text, that.text);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(type, orderId, cid, status, text);
+  }
+
+  @Override
+  public String toString() {
+    return "BitfinexWebSocketOrderNotification{"
+        + "type='"
+        + type
+        + '\''
+        + ", orderId="
+        + orderId
+        + ", cid="
+        + cid
+        + ", status='"
+        + status
+        + '\''
+        + ", text='"
+        + text
+        + '\''
+        + '}';
+  }
+}
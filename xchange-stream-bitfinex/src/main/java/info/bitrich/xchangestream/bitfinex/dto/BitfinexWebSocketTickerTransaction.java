@@ -1,8 +1,11 @@
 package info.bitrich.xchangestream.bitfinex.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import java.math.BigDecimal;
 import org.knowm.xchange.bitfinex.v1.dto.marketdata.BitfinexTicker;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
 
 /** Created by Lukas Zaoralek on 8.11.17. */
 @JsonFormat(shape = JsonFormat.Shape.ARRAY)
@@ -37,4 +40,15 @@ public class BitfinexWebSocketTickerTransaction {
 
     return new BitfinexTicker(mid, bid, bidSize, ask, askSize, low, high, last, timestamp, volume);
   }
+
+  /** @return the best bid and ask of the ticker, without parsing its other fields */
+  public OrderBook toTopOfBook(CurrencyPair currencyPair) {
+    return TopOfBook.of(
+        null,
+        currencyPair,
+        new BigDecimal(tickerArr[0]),
+        new BigDecimal(tickerArr[1]),
+        new BigDecimal(tickerArr[2]),
+        new BigDecimal(tickerArr[3]));
+  }
 }
@@ -0,0 +1,112 @@
+package info.bitrich.xchangestream.bitfinex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import info.bitrich.xchangestream.service.exception.NotConnectedException;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowm.xchange.bitfinex.v1.dto.trade.BitfinexOrderFlags;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.exceptions.ExchangeException;
+
+public class BitfinexStreamingTradeServiceTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<JsonNode> sent = new ArrayList<>();
+  private boolean open = true;
+
+  private BitfinexStreamingService service;
+  private BitfinexStreamingTradeService tradeService;
+
+  @Before
+  public void setUp() {
+    service =
+        new BitfinexStreamingService(BitfinexStreamingExchange.API_URI, () -> 1L) {
+          @Override
+          public boolean isSocketOpen() {
+            return open;
+          }
+
+          @Override
+          public void sendObjectMessage(Object message) {
+            sent.add(objectMapper.valueToTree(message));
+          }
+        };
+    service.setApiKey("key");
+    tradeService = new BitfinexStreamingTradeService(service);
+  }
+
+  @Test
+  public void testPlaceLimitOrderCompletesOnMatchingNotification() throws Exception {
+    TestObserver<String> placed =
+        tradeService
+            .placeLimitOrder(
+                new LimitOrder.Builder(Order.OrderType.ASK, CurrencyPair.ETH_USD)
+                    .originalAmount(new BigDecimal("0.02"))
+                    .limitPrice(new BigDecimal("431.19"))
+                    .flag(BitfinexOrderFlags.POST_ONLY)
+                    .build())
+            .test();
+
+    assertThat(sent).hasSize(1);
+    JsonNode request = sent.get(0);
+    assertThat(request.get(1).asText()).isEqualTo("on");
+    JsonNode order = request.get(3);
+    assertThat(order.get("type").asText()).isEqualTo("EXCHANGE LIMIT");
+    assertThat(order.get("symbol").asText()).isEqualTo("tETHUSD");
+    assertThat(order.get("amount").asText()).isEqualTo("-0.02");
+    assertThat(order.get("price").asText()).isEqualTo("431.19");
+    assertThat(order.get("flags").asInt()).isEqualTo(4096);
+    long cid = order.get("cid").asLong();
+
+    service.handleMessage(
+        objectMapper.readTree(
+            "[0,\"n\",[1530108599707,\"on-req\",null,null,[13759731408,null,"
+                + cid
+                + ",\"tETHUSD\"],null,\"SUCCESS\",\"Submitting exchange limit sell order\"]]"));
+    placed.assertValue("13759731408");
+  }
+
+  @Test
+  public void testCancelOrderFailsOnErrorNotification() throws Exception {
+    TestObserver<Boolean> cancelled = tradeService.cancelOrder("13759731408").test();
+
+    JsonNode request = sent.get(0);
+    assertThat(request.get(1).asText()).isEqualTo("oc");
+    assertThat(request.get(3).get("id").asLong()).isEqualTo(13759731408L);
+
+    service.handleMessage(
+        objectMapper.readTree(
+            "[0,\"n\",[1530108599707,\"oc-req\",null,null,[13759731408,null,null,null],null,"
+                + "\"ERROR\",\"Order not found.\"]]"));
+    cancelled.assertError(ExchangeException.class);
+  }
+
+  @Test
+  public void testSocketIsCheckedOnSubscription() {
+    open = false;
+    Single<Boolean> cancel = tradeService.cancelOrder("123");
+    open = true;
+    cancel.test().assertNotComplete();
+    assertThat(sent).hasSize(1);
+
+    open = false;
+    tradeService.cancelOrder("124").test().assertError(NotConnectedException.class);
+    assertThat(sent).hasSize(1);
+  }
+
+  @Test
+  public void testCancelOrderFailsOnMalformedId() {
+    tradeService.cancelOrder("not-a-number").test().assertError(NumberFormatException.class);
+    assertThat(sent).isEmpty();
+  }
+}
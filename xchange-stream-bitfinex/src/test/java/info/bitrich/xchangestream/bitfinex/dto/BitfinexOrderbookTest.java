@@ -2,8 +2,13 @@ package info.bitrich.xchangestream.bitfinex.dto;
 
 import static java.math.BigDecimal.ONE;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.knowm.xchange.currency.CurrencyPair.BTC_USD;
 
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
+import java.math.BigDecimal;
 import java.util.Date;
 import org.junit.Test;
 import org.knowm.xchange.bitfinex.service.BitfinexAdapters;
@@ -29,4 +34,36 @@ public class BitfinexOrderbookTest {
         "The timestamp should be a value less than now, but was: " + orderBook.getTimeStamp(),
         !orderBook.getTimeStamp().after(new Date()));
   }
+
+  @Test
+  public void testReadsTheTopOfBookInPlace() {
+    BitfinexOrderbook orderbook =
+        new BitfinexOrderbook(
+            new BitfinexOrderbookLevel[] {
+              level("99", "1", "2"),
+              level("98", "1", "3"),
+              level("97", "1", "1"),
+              level("101", "1", "-1"),
+              level("102", "2", "-4")
+            });
+    TopOfBook topOfBook = new TopOfBook(2);
+
+    assertTrue(orderbook.updateTopOfBook(topOfBook, BTC_USD));
+    assertEquals(new BigDecimal("99"), topOfBook.get().getBids().get(0).getLimitPrice());
+    assertEquals(new BigDecimal("98"), topOfBook.get().getBids().get(1).getLimitPrice());
+    assertEquals(new BigDecimal("4"), topOfBook.get().getAsks().get(1).getOriginalAmount());
+
+    // beyond the depth
+    orderbook.updateLevel(level("97", "0", "1"));
+    assertFalse(orderbook.updateTopOfBook(topOfBook, BTC_USD));
+
+    orderbook.updateLevel(level("101", "0", "-1"));
+    assertTrue(orderbook.updateTopOfBook(topOfBook, BTC_USD));
+    assertEquals(1, topOfBook.get().getAsks().size());
+  }
+
+  private static BitfinexOrderbookLevel level(String price, String count, String amount) {
+    return new BitfinexOrderbookLevel(
+        new BigDecimal(price), new BigDecimal(count), new BigDecimal(amount));
+  }
 }
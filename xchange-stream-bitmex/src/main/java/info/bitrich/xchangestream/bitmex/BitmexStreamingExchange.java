@@ -3,9 +3,11 @@ package info.bitrich.xchangestream.bitmex;
 import info.bitrich.xchangestream.core.ProductSubscription;
 import info.bitrich.xchangestream.core.StreamingExchange;
 import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import info.bitrich.xchangestream.service.netty.ChannelMetrics;
 import info.bitrich.xchangestream.service.netty.ConnectionStateModel.State;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
+import java.util.Map;
 import org.knowm.xchange.ExchangeSpecification;
 import org.knowm.xchange.bitmex.BitmexExchange;
 
@@ -73,6 +75,11 @@ public class BitmexStreamingExchange extends BitmexExchange implements Streaming
     return streamingService.subscribeConnectionState();
   }
 
+  @Override
+  public Map<String, ChannelMetrics> getChannelMetrics() {
+    return streamingService.getChannelMetrics();
+  }
+
   @Override
   public boolean isAlive() {
     return streamingService.isSocketOpen();
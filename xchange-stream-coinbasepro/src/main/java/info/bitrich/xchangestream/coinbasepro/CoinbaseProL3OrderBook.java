@@ -0,0 +1,489 @@
+package info.bitrich.xchangestream.coinbasepro;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+/**
+ * Level-3 (order by order) book for a single CoinbasePro product, maintained from the {@code full}
+ * channel.
+ *
+ * <p>Orders are indexed by order id and queued FIFO per price level, so queue positions are exact.
+ * Prices and sizes are held as longs scaled by {@link #SCALE} decimal places; order and level nodes
+ * are recycled, so applying {@code open}/{@code match}/{@code change}/{@code done} events does not
+ * allocate in the steady state.
+ *
+ * <p>This class is not thread safe. It is meant to be owned by the thread that delivers messages
+ * for the product.
+ */
+public class CoinbaseProL3OrderBook {
+
+  /** Number of decimal places used for the scaled long prices and sizes. */
+  public static final int SCALE = 8;
+
+  private static final long[] POWERS_OF_TEN = new long[SCALE + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i <= SCALE; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private final Map<String, L3Order> orders = new HashMap<>();
+  private final BookSide bids = new BookSide(true);
+  private final BookSide asks = new BookSide(false);
+  private L3Order freeOrders;
+  private PriceLevel freeLevels;
+  private long sequence;
+  private int changedDepth = Integer.MAX_VALUE;
+
+  /** Removes all orders and resets the sequence. */
+  public void clear() {
+    orders.clear();
+    bids.clear();
+    asks.clear();
+    sequence = 0;
+    changedDepth = 0;
+  }
+
+  /**
+   * The best depth changed since {@link #markUnchanged()}, so a view of the top levels only needs
+   * to be rebuilt when a change is within it.
+   *
+   * @return the depth (0 is best) of the best level changed on either side, {@link
+   *     Integer#MAX_VALUE} if none
+   */
+  public int getChangedDepth() {
+    return changedDepth;
+  }
+
+  /** Forgets the changes so far, see {@link #getChangedDepth()}. */
+  public void markUnchanged() {
+    changedDepth = Integer.MAX_VALUE;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public void setSequence(long sequence) {
+    this.sequence = sequence;
+  }
+
+  /**
+   * Adds an order to the back of the queue at its price. If the order id is already known, it is
+   * removed first.
+   *
+   * @param price the price, scaled by {@link #SCALE}
+   * @param size the remaining size, scaled by {@link #SCALE}
+   */
+  public void open(String orderId, boolean bid, long price, long size) {
+    if (size <= 0) {
+      done(orderId);
+      return;
+    }
+    L3Order existing = orders.get(orderId);
+    if (existing != null) {
+      unlink(existing);
+    }
+    BookSide side = bid ? bids : asks;
+    PriceLevel level = side.getOrCreate(price);
+    changed(side, level);
+    L3Order order = newOrder(orderId, bid, size, level);
+    level.append(order);
+    orders.put(orderId, order);
+  }
+
+  /**
+   * Removes an order from the book.
+   *
+   * @return true if the order was resting on the book.
+   */
+  public boolean done(String orderId) {
+    L3Order order = orders.remove(orderId);
+    if (order == null) {
+      return false;
+    }
+    unlink(order);
+    return true;
+  }
+
+  /**
+   * Reduces the size of a resting maker order after a trade, removing it if nothing remains.
+   *
+   * @param size the traded size, scaled by {@link #SCALE}
+   * @return true if the maker order was resting on the book.
+   */
+  public boolean match(String makerOrderId, long size) {
+    L3Order order = orders.get(makerOrderId);
+    if (order == null) {
+      return false;
+    }
+    if (size >= order.size) {
+      orders.remove(makerOrderId);
+      unlink(order);
+    } else {
+      changed(order);
+      order.size -= size;
+      order.level.totalSize -= size;
+    }
+    return true;
+  }
+
+  /**
+   * Applies a {@code change} message. CoinbasePro keeps the queue position of an order whose size
+   * is reduced, so the order stays where it is.
+   *
+   * @param newSize the new remaining size, scaled by {@link #SCALE}
+   * @return true if the order was resting on the book.
+   */
+  public boolean change(String orderId, long newSize) {
+    L3Order order = orders.get(orderId);
+    if (order == null) {
+      return false;
+    }
+    if (newSize <= 0) {
+      orders.remove(orderId);
+      unlink(order);
+    } else {
+      changed(order);
+      order.level.totalSize += newSize - order.size;
+      order.size = newSize;
+    }
+    return true;
+  }
+
+  public boolean containsOrder(String orderId) {
+    return orders.containsKey(orderId);
+  }
+
+  public int getOrderCount() {
+    return orders.size();
+  }
+
+  /** @return the remaining size of the order scaled by {@link #SCALE}, or -1 if it is unknown. */
+  public long getOrderSize(String orderId) {
+    L3Order order = orders.get(orderId);
+    return order == null ? -1 : order.size;
+  }
+
+  /**
+   * Total size queued in front of an order at its price level, the usual input to queue position
+   * models.
+   *
+   * @return the size ahead scaled by {@link #SCALE}, or -1 if the order is unknown.
+   */
+  public long getSizeAhead(String orderId) {
+    L3Order order = orders.get(orderId);
+    if (order == null) {
+      return -1;
+    }
+    long ahead = 0;
+    for (L3Order o = order.level.head; o != order; o = o.next) {
+      ahead += o.size;
+    }
+    return ahead;
+  }
+
+  public int getDepth(OrderType type) {
+    return side(type).count;
+  }
+
+  /** @return the price at the given depth (0 is best) scaled by {@link #SCALE}. */
+  public long getPrice(OrderType type, int depth) {
+    return side(type).levelAt(depth).price;
+  }
+
+  /** @return the aggregated size at the given depth (0 is best) scaled by {@link #SCALE}. */
+  public long getSize(OrderType type, int depth) {
+    return side(type).levelAt(depth).totalSize;
+  }
+
+  /** @return the number of orders at the given depth (0 is best). */
+  public int getOrderCount(OrderType type, int depth) {
+    return side(type).levelAt(depth).orderCount;
+  }
+
+  /**
+   * Converts the book to an XChange {@link OrderBook}.
+   *
+   * @param maxDepth maximum number of price levels per side, 0 for all of them
+   * @param aggregate true to return one order per price level (L2), false to return every resting
+   *     order in queue order with its exchange order id (L3)
+   */
+  public OrderBook toOrderBook(
+      CurrencyPair currencyPair, int maxDepth, boolean aggregate, Date timestamp) {
+    return new OrderBook(
+        timestamp,
+        asks.toLimitOrders(OrderType.ASK, currencyPair, maxDepth, aggregate, timestamp),
+        bids.toLimitOrders(OrderType.BID, currencyPair, maxDepth, aggregate, timestamp),
+        false);
+  }
+
+  /**
+   * Parses a plain decimal string such as {@code "9876.54321"} to a long scaled by {@link #SCALE}
+   * without going through {@link BigDecimal}.
+   *
+   * @throws NumberFormatException if the value is not a plain decimal or has non-zero digits beyond
+   *     {@link #SCALE} decimal places
+   */
+  public static long parseScaled(CharSequence value) {
+    int length = value.length();
+    if (length == 0) {
+      throw new NumberFormatException("Empty decimal");
+    }
+    int i = 0;
+    boolean negative = false;
+    char first = value.charAt(0);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      i++;
+    }
+    long result = 0;
+    int decimals = -1;
+    boolean digits = false;
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == '.') {
+        if (decimals >= 0) {
+          throw new NumberFormatException("Invalid decimal " + value);
+        }
+        decimals = 0;
+      } else if (c >= '0' && c <= '9') {
+        digits = true;
+        if (decimals >= SCALE) {
+          if (c != '0') {
+            throw new NumberFormatException("Too many decimal places in " + value);
+          }
+          continue;
+        }
+        result = Math.addExact(Math.multiplyExact(result, 10), c - '0');
+        if (decimals >= 0) {
+          decimals++;
+        }
+      } else {
+        throw new NumberFormatException("Invalid decimal " + value);
+      }
+    }
+    if (!digits) {
+      throw new NumberFormatException("Invalid decimal " + value);
+    }
+    result = Math.multiplyExact(result, POWERS_OF_TEN[SCALE - Math.max(decimals, 0)]);
+    return negative ? -result : result;
+  }
+
+  public static long toScaled(BigDecimal value) {
+    return value.movePointRight(SCALE).longValueExact();
+  }
+
+  public static BigDecimal toBigDecimal(long scaled) {
+    return BigDecimal.valueOf(scaled, SCALE);
+  }
+
+  private BookSide side(OrderType type) {
+    return type == OrderType.BID ? bids : asks;
+  }
+
+  private void changed(L3Order order) {
+    changed(order.bid ? bids : asks, order.level);
+  }
+
+  private void changed(BookSide side, PriceLevel level) {
+    changedDepth = Math.min(changedDepth, side.depthOf(level.price));
+  }
+
+  private void unlink(L3Order order) {
+    changed(order);
+    PriceLevel level = order.level;
+    level.remove(order);
+    if (level.orderCount == 0) {
+      (order.bid ? bids : asks).remove(level);
+    }
+    recycle(order);
+  }
+
+  private L3Order newOrder(String orderId, boolean bid, long size, PriceLevel level) {
+    L3Order order = freeOrders;
+    if (order == null) {
+      order = new L3Order();
+    } else {
+      freeOrders = order.next;
+    }
+    order.id = orderId;
+    order.bid = bid;
+    order.size = size;
+    order.level = level;
+    order.prev = null;
+    order.next = null;
+    return order;
+  }
+
+  private void recycle(L3Order order) {
+    order.id = null;
+    order.level = null;
+    order.prev = null;
+    order.next = freeOrders;
+    freeOrders = order;
+  }
+
+  private static final class L3Order {
+    String id;
+    boolean bid;
+    long size;
+    PriceLevel level;
+    L3Order prev;
+    L3Order next;
+  }
+
+  private static final class PriceLevel {
+    long price;
+    long totalSize;
+    int orderCount;
+    L3Order head;
+    L3Order tail;
+    PriceLevel nextFree;
+
+    void append(L3Order order) {
+      order.prev = tail;
+      if (tail == null) {
+        head = order;
+      } else {
+        tail.next = order;
+      }
+      tail = order;
+      totalSize += order.size;
+      orderCount++;
+    }
+
+    void remove(L3Order order) {
+      if (order.prev == null) {
+        head = order.next;
+      } else {
+        order.prev.next = order.next;
+      }
+      if (order.next == null) {
+        tail = order.prev;
+      } else {
+        order.next.prev = order.prev;
+      }
+      totalSize -= order.size;
+      orderCount--;
+    }
+  }
+
+  /**
+   * Price levels of one side in a sorted array with the best price last, so that the frequent
+   * changes close to the top of the book only shift a few entries.
+   */
+  private final class BookSide {
+    private final boolean bid;
+    private long[] keys = new long[256];
+    private PriceLevel[] levels = new PriceLevel[256];
+    private int count;
+
+    BookSide(boolean bid) {
+      this.bid = bid;
+    }
+
+    /** Bids ascend by price and asks by negated price, so the best level is always last. */
+    private long key(long price) {
+      return bid ? price : -price;
+    }
+
+    /** @return the depth of the level of the price, or of where it would be inserted */
+    int depthOf(long price) {
+      int index = Arrays.binarySearch(keys, 0, count, key(price));
+      return index >= 0 ? count - 1 - index : count + index + 1;
+    }
+
+    PriceLevel levelAt(int depth) {
+      if (depth < 0 || depth >= count) {
+        throw new IndexOutOfBoundsException("Depth " + depth + " of " + count);
+      }
+      return levels[count - 1 - depth];
+    }
+
+    PriceLevel getOrCreate(long price) {
+      long key = key(price);
+      int index = Arrays.binarySearch(keys, 0, count, key);
+      if (index >= 0) {
+        return levels[index];
+      }
+      index = -index - 1;
+      if (count == keys.length) {
+        keys = Arrays.copyOf(keys, count * 2);
+        levels = Arrays.copyOf(levels, count * 2);
+      }
+      System.arraycopy(keys, index, keys, index + 1, count - index);
+      System.arraycopy(levels, index, levels, index + 1, count - index);
+      PriceLevel level = freeLevels;
+      if (level == null) {
+        level = new PriceLevel();
+      } else {
+        freeLevels = level.nextFree;
+      }
+      level.price = price;
+      level.totalSize = 0;
+      level.orderCount = 0;
+      level.head = null;
+      level.tail = null;
+      keys[index] = key;
+      levels[index] = level;
+      count++;
+      return level;
+    }
+
+    void remove(PriceLevel level) {
+      int index = Arrays.binarySearch(keys, 0, count, key(level.price));
+      if (index < 0) {
+        return;
+      }
+      System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+      System.arraycopy(levels, index + 1, levels, index, count - index - 1);
+      count--;
+      levels[count] = null;
+      level.nextFree = freeLevels;
+      freeLevels = level;
+    }
+
+    void clear() {
+      Arrays.fill(levels, 0, count, null);
+      count = 0;
+    }
+
+    List<LimitOrder> toLimitOrders(
+        OrderType type,
+        CurrencyPair currencyPair,
+        int maxDepth,
+        boolean aggregate,
+        Date timestamp) {
+      int depth = maxDepth > 0 ? Math.min(maxDepth, count) : count;
+      List<LimitOrder> result = new ArrayList<>(depth);
+      for (int i = count - 1; i >= count - depth; i--) {
+        PriceLevel level = levels[i];
+        BigDecimal price = toBigDecimal(level.price);
+        if (aggregate) {
+          result.add(
+              new LimitOrder(
+                  type, toBigDecimal(level.totalSize), currencyPair, "0", timestamp, price));
+        } else {
+          for (L3Order order = level.head; order != null; order = order.next) {
+            result.add(
+                new LimitOrder(
+                    type, toBigDecimal(order.size), currencyPair, order.id, timestamp, price));
+          }
+        }
+      }
+      return result;
+    }
+  }
+}
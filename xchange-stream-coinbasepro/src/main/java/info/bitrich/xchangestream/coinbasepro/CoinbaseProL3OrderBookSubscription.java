@@ -0,0 +1,159 @@
+package info.bitrich.xchangestream.coinbasepro;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import info.bitrich.xchangestream.core.orderbook.BookUpdater;
+import info.bitrich.xchangestream.core.orderbook.OrderBookSynchronizer;
+import info.bitrich.xchangestream.core.orderbook.SequenceStrategy;
+import io.reactivex.Scheduler;
+import io.reactivex.Single;
+import java.util.concurrent.Callable;
+import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProProductBook;
+import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProProductBookEntry;
+import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProProductBookEntryLevel3;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one {@link CoinbaseProL3OrderBook} in sync with the {@code full} channel through an {@link
+ * OrderBookSynchronizer}. Only touched from the message thread, apart from the snapshot handed over
+ * by the REST call.
+ */
+final class CoinbaseProL3OrderBookSubscription
+    implements BookUpdater<CoinbaseProProductBook, JsonNode> {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(CoinbaseProL3OrderBookSubscription.class);
+
+  private static final String RECEIVED = "received";
+  private static final String OPEN = "open";
+  private static final String DONE = "done";
+  private static final String MATCH = "match";
+  private static final String CHANGE = "change";
+  private static final String ACTIVATE = "activate";
+
+  private final CurrencyPair currencyPair;
+  private final Callable<CoinbaseProProductBook> snapshotFetch;
+  private final Scheduler scheduler;
+  private final CoinbaseProL3OrderBook book = new CoinbaseProL3OrderBook();
+  // Messages older than the book are already in the snapshot, or duplicate matches from the
+  // matches channel
+  private final OrderBookSynchronizer<CoinbaseProProductBook, JsonNode> synchronizer;
+
+  /**
+   * @param snapshotFetch fetches a {@code level=3} snapshot
+   * @param scheduler the scheduler of the snapshot fetches
+   * @param maxBuffered the messages held back while a snapshot is fetched
+   */
+  CoinbaseProL3OrderBookSubscription(
+      CurrencyPair currencyPair,
+      Callable<CoinbaseProProductBook> snapshotFetch,
+      Scheduler scheduler,
+      int maxBuffered) {
+    this.currencyPair = currencyPair;
+    this.snapshotFetch = snapshotFetch;
+    this.scheduler = scheduler;
+    this.synchronizer =
+        new OrderBookSynchronizer<>(
+            currencyPair.toString(),
+            SequenceStrategy.consecutive(
+                CoinbaseProProductBook::getSequence, message -> message.path("sequence").asLong()),
+            this,
+            this::requestSnapshot,
+            maxBuffered);
+  }
+
+  /** @return true if the message changed the book and the book is in sync. */
+  boolean onMessage(JsonNode message) {
+    if (!isFullChannelMessage(message)) {
+      return false;
+    }
+    book.markUnchanged();
+    return synchronizer.onDelta(message);
+  }
+
+  CoinbaseProL3OrderBook getBook() {
+    return book;
+  }
+
+  OrderBookSynchronizer<CoinbaseProProductBook, JsonNode> getSynchronizer() {
+    return synchronizer;
+  }
+
+  private static boolean isFullChannelMessage(JsonNode message) {
+    String type = message.path("type").asText();
+    return RECEIVED.equals(type)
+        || OPEN.equals(type)
+        || DONE.equals(type)
+        || MATCH.equals(type)
+        || CHANGE.equals(type)
+        || ACTIVATE.equals(type);
+  }
+
+  @Override
+  public boolean apply(JsonNode message) {
+    book.setSequence(message.path("sequence").asLong());
+    switch (message.path("type").asText()) {
+      case OPEN:
+        book.open(
+            message.path("order_id").asText(),
+            "buy".equals(message.path("side").asText()),
+            CoinbaseProL3OrderBook.parseScaled(message.path("price").asText()),
+            CoinbaseProL3OrderBook.parseScaled(message.path("remaining_size").asText()));
+        return true;
+      case DONE:
+        return book.done(message.path("order_id").asText());
+      case MATCH:
+        return book.match(
+            message.path("maker_order_id").asText(),
+            CoinbaseProL3OrderBook.parseScaled(message.path("size").asText()));
+      case CHANGE:
+        JsonNode newSize = message.get("new_size");
+        // Market orders change their funds, not a resting size
+        return newSize != null
+            && book.change(
+                message.path("order_id").asText(),
+                CoinbaseProL3OrderBook.parseScaled(newSize.asText()));
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public void reset(CoinbaseProProductBook productBook) {
+    book.clear();
+    addSnapshotEntries(productBook.getBids(), true);
+    addSnapshotEntries(productBook.getAsks(), false);
+    book.setSequence(productBook.getSequence());
+  }
+
+  @Override
+  public void clear() {
+    book.clear();
+  }
+
+  private void addSnapshotEntries(CoinbaseProProductBookEntry[] entries, boolean bid) {
+    if (entries == null) {
+      return;
+    }
+    for (CoinbaseProProductBookEntry entry : entries) {
+      book.open(
+          ((CoinbaseProProductBookEntryLevel3) entry).getOrderId(),
+          bid,
+          CoinbaseProL3OrderBook.toScaled(entry.getPrice()),
+          CoinbaseProL3OrderBook.toScaled(entry.getVolume()));
+    }
+  }
+
+  private void requestSnapshot() {
+    LOG.info("Fetching level 3 order book snapshot for {}", currencyPair);
+    Single.fromCallable(snapshotFetch)
+        .subscribeOn(scheduler)
+        .subscribe(
+            synchronizer::offerSnapshot,
+            e -> {
+              LOG.error("Failed to fetch level 3 order book for " + currencyPair, e);
+              synchronizer.snapshotFailed();
+            });
+  }
+}
@@ -3,14 +3,17 @@ package info.bitrich.xchangestream.coinbasepro;
 import info.bitrich.xchangestream.core.ProductSubscription;
 import info.bitrich.xchangestream.core.StreamingAccountService;
 import info.bitrich.xchangestream.core.StreamingExchange;
+import info.bitrich.xchangestream.service.netty.ChannelMetrics;
 import info.bitrich.xchangestream.service.netty.ConnectionStateModel.State;
 import info.bitrich.xchangestream.service.netty.WebSocketClientHandler;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
+import java.util.Map;
 import org.knowm.xchange.ExchangeSpecification;
 import org.knowm.xchange.coinbasepro.CoinbaseProExchange;
 import org.knowm.xchange.coinbasepro.dto.account.CoinbaseProWebsocketAuthData;
 import org.knowm.xchange.coinbasepro.service.CoinbaseProAccountServiceRaw;
+import org.knowm.xchange.coinbasepro.service.CoinbaseProMarketDataServiceRaw;
 import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
 
 /** CoinbasePro Streaming Exchange. Connects to live WebSocket feed. */
@@ -58,8 +61,20 @@ public class CoinbaseProStreamingExchange extends CoinbaseProExchange implements
         new CoinbaseProStreamingService(
             apiUri, () -> authData(exchangeSpec), subscribeToL3Orderbook);
     applyStreamingSpecification(exchangeSpecification, this.streamingService);
+    Object redundant =
+        exchangeSpecification.getExchangeSpecificParametersItem(REDUNDANT_CONNECTIONS);
+    int connections = redundant == null ? 1 : ((Number) redundant).intValue();
+    for (int i = 1; i < connections; i++) {
+      CoinbaseProStreamingService standby =
+          new CoinbaseProStreamingService(
+              apiUri, () -> authData(exchangeSpec), subscribeToL3Orderbook);
+      applyStreamingSpecification(exchangeSpecification, standby);
+      streamingService.addStandbyConnection(standby);
+    }
 
-    this.streamingMarketDataService = new CoinbaseProStreamingMarketDataService(streamingService);
+    this.streamingMarketDataService =
+        new CoinbaseProStreamingMarketDataService(
+            streamingService, (CoinbaseProMarketDataServiceRaw) getMarketDataService());
     this.streamingTradeService = new CoinbaseProStreamingTradeService(streamingService);
     streamingService.subscribeMultipleCurrencyPairs(args);
     return streamingService.connect();
@@ -105,6 +120,11 @@ public class CoinbaseProStreamingExchange extends CoinbaseProExchange implements
     return streamingService.subscribeConnectionState();
   }
 
+  @Override
+  public Map<String, ChannelMetrics> getChannelMetrics() {
+    return streamingService.getChannelMetrics();
+  }
+
   @Override
   public ExchangeSpecification getDefaultExchangeSpecification() {
     ExchangeSpecification spec = super.getDefaultExchangeSpecification();
@@ -5,8 +5,11 @@ import static org.knowm.xchange.coinbasepro.CoinbaseProAdapters.adaptTrades;
 
 import info.bitrich.xchangestream.coinbasepro.dto.CoinbaseProWebSocketTransaction;
 import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
@@ -14,26 +17,34 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProProductTicker;
 import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProTrade;
+import org.knowm.xchange.coinbasepro.service.CoinbaseProMarketDataServiceRaw;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.marketdata.*;
 
 /** Created by luca on 4/3/17. */
 public class CoinbaseProStreamingMarketDataService implements StreamingMarketDataService {
-
   private static final String SNAPSHOT = "snapshot";
   private static final String L2UPDATE = "l2update";
   private static final String TICKER = "ticker";
   private static final String MATCH = "match";
 
+  /** Upper bound on the full channel messages held back while a level 3 snapshot is fetched. */
+  private static final int MAX_BUFFERED_L3_MESSAGES = 100_000;
+
   private final CoinbaseProStreamingService service;
+  private final CoinbaseProMarketDataServiceRaw marketDataService;
 
   private final Map<CurrencyPair, SortedMap<BigDecimal, BigDecimal>> bids =
       new ConcurrentHashMap<>();
   private final Map<CurrencyPair, SortedMap<BigDecimal, BigDecimal>> asks =
       new ConcurrentHashMap<>();
+  private final Map<CurrencyPair, Observable<CoinbaseProL3OrderBook>> l3OrderBooks =
+      new ConcurrentHashMap<>();
 
-  CoinbaseProStreamingMarketDataService(CoinbaseProStreamingService service) {
+  CoinbaseProStreamingMarketDataService(
+      CoinbaseProStreamingService service, CoinbaseProMarketDataServiceRaw marketDataService) {
     this.service = service;
+    this.marketDataService = marketDataService;
   }
 
   private boolean containsPair(List<CurrencyPair> pairs, CurrencyPair pair) {
@@ -53,6 +64,12 @@ public class CoinbaseProStreamingMarketDataService implements StreamingMarketDat
           String.format("The currency pair %s is not subscribed for orderbook", currencyPair));
     final int maxDepth =
         (args.length > 0 && args[0] instanceof Number) ? ((Number) args[0]).intValue() : 100;
+    if (service.isSubscribeL3Orderbook()) {
+      // only the changes within the levels of the view rebuild it
+      return getL3OrderBook(currencyPair)
+          .filter(book -> maxDepth <= 0 || book.getChangedDepth() < maxDepth)
+          .map(book -> book.toOrderBook(currencyPair, maxDepth, true, null));
+    }
     return getRawWebSocketTransactions(currencyPair, false)
         .filter(
             message -> (SNAPSHOT).equals(message.getType()) || (L2UPDATE).equals(message.getType()))
@@ -71,6 +88,91 @@ public class CoinbaseProStreamingMarketDataService implements StreamingMarketDat
             });
   }
 
+  /**
+   * Reads the top levels of a book of its own, updated in place from the level 2 messages, or of
+   * the live level 3 book, and copies them only when they change.
+   */
+  @Override
+  public Observable<OrderBook> getTopOfBook(CurrencyPair currencyPair, int depth, Object... args) {
+    if (!containsPair(service.getProduct().getOrderBook(), currencyPair))
+      throw new UnsupportedOperationException(
+          String.format("The currency pair %s is not subscribed for orderbook", currencyPair));
+    if (service.isSubscribeL3Orderbook()) {
+      return getL3OrderBook(currencyPair)
+          .filter(book -> book.getChangedDepth() < depth)
+          .map(book -> book.toOrderBook(currencyPair, depth, true, null))
+          .compose(TopOfBook.topOfBook(depth));
+    }
+    return Observable.defer(
+        () -> {
+          SortedMap<BigDecimal, BigDecimal> bookBids = new TreeMap<>(Collections.reverseOrder());
+          SortedMap<BigDecimal, BigDecimal> bookAsks = new TreeMap<>();
+          TopOfBook topOfBook = new TopOfBook(depth);
+          return getRawWebSocketTransactions(currencyPair, false)
+              .filter(
+                  message ->
+                      (SNAPSHOT).equals(message.getType()) || (L2UPDATE).equals(message.getType()))
+              .filter(
+                  message -> {
+                    if (SNAPSHOT.equals(message.getType())) {
+                      bookBids.clear();
+                      bookAsks.clear();
+                    }
+                    message.updateOrderBook(bookBids, bookAsks);
+                    return topOfBook.update(
+                        currencyPair,
+                        message.getTimestamp(),
+                        bookBids.entrySet(),
+                        bookAsks.entrySet(),
+                        Map.Entry::getKey,
+                        Map.Entry::getValue);
+                  })
+              .map(message -> topOfBook.get());
+        });
+  }
+
+  /**
+   * Level 3 order book built from the {@code full} channel on top of a REST {@code level=3}
+   * snapshot. Requires {@link info.bitrich.xchangestream.core.StreamingExchange#L3_ORDERBOOK}.
+   *
+   * <p>Messages received while the snapshot is in flight are buffered and replayed by sequence. A
+   * gap in the sequence discards the book and triggers a new snapshot; nothing is emitted until the
+   * book is back in sync.
+   *
+   * <p>The same live {@link CoinbaseProL3OrderBook} instance is emitted after every message that
+   * changed it. It must only be read inside {@code onNext}, on the emitting thread; use {@link
+   * CoinbaseProL3OrderBook#toOrderBook} to take a copy.
+   *
+   * @param currencyPair the currency pair.
+   * @return an Observable of the live level 3 book.
+   */
+  public Observable<CoinbaseProL3OrderBook> getL3OrderBook(CurrencyPair currencyPair) {
+    if (!containsPair(service.getProduct().getOrderBook(), currencyPair))
+      throw new UnsupportedOperationException(
+          String.format("The currency pair %s is not subscribed for orderbook", currencyPair));
+    if (!service.isSubscribeL3Orderbook())
+      throw new UnsupportedOperationException(
+          "The level 3 order book requires the L3_Orderbook exchange specific parameter");
+    return l3OrderBooks.computeIfAbsent(currencyPair, this::createL3OrderBookObservable);
+  }
+
+  private Observable<CoinbaseProL3OrderBook> createL3OrderBookObservable(
+      CurrencyPair currencyPair) {
+    String productId = currencyPair.base.toString() + "-" + currencyPair.counter.toString();
+    CoinbaseProL3OrderBookSubscription subscription =
+        new CoinbaseProL3OrderBookSubscription(
+            currencyPair,
+            () -> marketDataService.getCoinbaseProProductOrderBook(currencyPair, 3),
+            Schedulers.io(),
+            MAX_BUFFERED_L3_MESSAGES);
+    return service
+        .subscribeChannel(productId)
+        .filter(message -> productId.equals(message.path("product_id").asText()))
+        .filter(subscription::onMessage)
+        .map(message -> subscription.getBook())
+        .share();
+  }
+
   /**
    * Returns an Observable of {@link CoinbaseProProductTicker}, not converted to {@link Ticker}
    *
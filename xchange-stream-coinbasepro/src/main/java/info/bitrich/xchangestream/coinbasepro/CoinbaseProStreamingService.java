@@ -17,7 +17,10 @@ import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensio
 import io.reactivex.Observable;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 import org.knowm.xchange.coinbasepro.dto.account.CoinbaseProWebsocketAuthData;
@@ -30,6 +33,10 @@ public class CoinbaseProStreamingService extends JsonNettyStreamingService {
   private static final String SUBSCRIBE = "subscribe";
   private static final String UNSUBSCRIBE = "unsubscribe";
   private static final String SHARE_CHANNEL_NAME = "ALL";
+  /** Full channel messages share one sequence per product, other types reuse its numbers. */
+  private static final Set<String> FULL_CHANNEL_TYPES =
+      new HashSet<>(Arrays.asList("received", "open", "done", "match", "change", "activate"));
+
   private final Map<String, Observable<JsonNode>> subscriptions = new ConcurrentHashMap<>();
   private ProductSubscription product = null;
   private final Supplier<CoinbaseProWebsocketAuthData> authData;
@@ -63,6 +70,10 @@ public class CoinbaseProStreamingService extends JsonNettyStreamingService {
     return product;
   }
 
+  public boolean isSubscribeL3Orderbook() {
+    return subscribeL3Orderbook;
+  }
+
   @Override
   public String getSubscriptionUniqueId(String channelName, Object... args) {
     return SHARE_CHANNEL_NAME;
@@ -111,6 +122,22 @@ public class CoinbaseProStreamingService extends JsonNettyStreamingService {
     return SHARE_CHANNEL_NAME;
   }
 
+  @Override
+  protected String getSequenceKey(String channel, JsonNode message) {
+    JsonNode productId = message.get("product_id");
+    if (productId == null) {
+      return channel;
+    }
+    String type = message.path("type").asText();
+    return productId.asText() + ":" + (FULL_CHANNEL_TYPES.contains(type) ? "full" : type);
+  }
+
+  @Override
+  protected long getMessageSequence(String channel, JsonNode message) {
+    JsonNode sequence = message.get("sequence");
+    return sequence != null && sequence.canConvertToLong() ? sequence.asLong() : NO_SEQUENCE;
+  }
+
   @Override
   public String getSubscribeMessage(String channelName, Object... args) throws IOException {
     CoinbaseProWebSocketSubscriptionMessage subscribeMessage =
@@ -147,6 +174,10 @@ public class CoinbaseProStreamingService extends JsonNettyStreamingService {
 
   public void subscribeMultipleCurrencyPairs(ProductSubscription... products) {
     this.product = products[0];
+    getStandbyConnections()
+        .forEach(
+            standby ->
+                ((CoinbaseProStreamingService) standby).subscribeMultipleCurrencyPairs(products));
   }
 
   @Override
@@ -155,6 +155,40 @@ public class CoinbaseProWebSocketTransaction {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Applies the levels of a snapshot or the changes of an update to a book kept as sorted maps of
+   * price to amount, removing the levels whose amount drops to zero.
+   */
+  public void updateOrderBook(
+      SortedMap<BigDecimal, BigDecimal> bids, SortedMap<BigDecimal, BigDecimal> asks) {
+    updateOrderBookSide("buy", changes != null ? changes : this.bids, bids);
+    updateOrderBookSide("sell", changes != null ? changes : this.asks, asks);
+  }
+
+  private static void updateOrderBookSide(
+      String side, String[][] changes, SortedMap<BigDecimal, BigDecimal> sideEntries) {
+    if (changes == null) {
+      return;
+    }
+    for (String[] level : changes) {
+      if (level.length == 3 && !level[0].equals(side)) {
+        continue;
+      }
+      BigDecimal price = new BigDecimal(level[level.length - 2]);
+      BigDecimal volume = new BigDecimal(level[level.length - 1]);
+      if (volume.signum() == 0) {
+        sideEntries.remove(price);
+      } else {
+        sideEntries.put(price, volume);
+      }
+    }
+  }
+
+  /** @return the time of the message, null if it has none */
+  public Date getTimestamp() {
+    return time == null ? null : CoinbaseProStreamingAdapters.parseDate(time);
+  }
+
   public OrderBook toOrderBook(
       SortedMap<BigDecimal, BigDecimal> bids,
       SortedMap<BigDecimal, BigDecimal> asks,
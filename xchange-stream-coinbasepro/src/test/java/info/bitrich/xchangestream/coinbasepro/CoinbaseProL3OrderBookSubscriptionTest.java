@@ -0,0 +1,103 @@
+package info.bitrich.xchangestream.coinbasepro;
+
+import static info.bitrich.xchangestream.coinbasepro.CoinbaseProL3OrderBook.parseScaled;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.schedulers.TestScheduler;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.junit.Test;
+import org.knowm.xchange.coinbasepro.dto.marketdata.CoinbaseProProductBook;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+
+public class CoinbaseProL3OrderBookSubscriptionTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final TestScheduler scheduler = new TestScheduler();
+  private final Deque<CoinbaseProProductBook> snapshots = new ArrayDeque<>();
+  private int fetches;
+
+  private CoinbaseProL3OrderBookSubscription subscription(int maxBuffered) {
+    return new CoinbaseProL3OrderBookSubscription(
+        CurrencyPair.BTC_USD,
+        () -> {
+          fetches++;
+          return snapshots.removeFirst();
+        },
+        scheduler,
+        maxBuffered);
+  }
+
+  private static CoinbaseProProductBook snapshot(long sequence) {
+    return new CoinbaseProProductBook(
+        sequence, new Object[][] {{"100.00", "1", "b1"}}, new Object[][] {{"101.00", "2", "a1"}});
+  }
+
+  private JsonNode open(long sequence, String orderId, String side, String price)
+      throws IOException {
+    return mapper.readTree(
+        "{\"type\":\"open\",\"sequence\":"
+            + sequence
+            + ",\"order_id\":\""
+            + orderId
+            + "\",\"side\":\""
+            + side
+            + "\",\"price\":\""
+            + price
+            + "\",\"remaining_size\":\"1\",\"product_id\":\"BTC-USD\"}");
+  }
+
+  @Test
+  public void testReplaysOnTheSnapshotAndResyncsOnGap() throws IOException {
+    CoinbaseProL3OrderBookSubscription subscription = subscription(100);
+    snapshots.add(snapshot(10));
+
+    assertThat(subscription.onMessage(open(10, "b0", "buy", "98"))).isFalse();
+    assertThat(subscription.onMessage(open(11, "b2", "buy", "99.5"))).isFalse();
+    scheduler.triggerActions();
+    // 10 is in the snapshot, 11 and 12 are replayed on top of it
+    assertThat(subscription.onMessage(open(12, "a2", "sell", "102"))).isTrue();
+    CoinbaseProL3OrderBook book = subscription.getBook();
+    assertThat(book.getSequence()).isEqualTo(12);
+    assertThat(book.containsOrder("b0")).isFalse();
+    assertThat(book.getOrderCount()).isEqualTo(4);
+
+    // a duplicate is dropped, a gap clears the book until the next snapshot
+    assertThat(subscription.onMessage(open(12, "a2", "sell", "102"))).isFalse();
+    assertThat(subscription.onMessage(open(14, "a3", "sell", "103"))).isFalse();
+    assertThat(subscription.getSynchronizer().getResyncCount()).isEqualTo(1);
+    assertThat(book.getOrderCount()).isZero();
+
+    snapshots.add(snapshot(13));
+    scheduler.triggerActions();
+    assertThat(subscription.onMessage(open(15, "a4", "sell", "104"))).isTrue();
+    assertThat(book.getOrderCount()).isEqualTo(4);
+    assertThat(book.getDepth(OrderType.ASK)).isEqualTo(3);
+    assertThat(fetches).isEqualTo(2);
+  }
+
+  @Test
+  public void testRequestsANewerSnapshotWhenTheBufferOverflows() throws IOException {
+    CoinbaseProL3OrderBookSubscription subscription = subscription(2);
+    snapshots.add(snapshot(0));
+    snapshots.add(snapshot(2));
+
+    subscription.onMessage(open(1, "b2", "buy", "99"));
+    subscription.onMessage(open(2, "b3", "buy", "98"));
+    // 1 is dropped, so the snapshot in flight is useless
+    subscription.onMessage(open(3, "b4", "buy", "97"));
+    scheduler.triggerActions();
+    assertThat(fetches).isEqualTo(2);
+
+    assertThat(subscription.onMessage(open(4, "b5", "buy", "96"))).isTrue();
+    CoinbaseProL3OrderBook book = subscription.getBook();
+    assertThat(book.getSequence()).isEqualTo(4);
+    assertThat(book.containsOrder("b3")).isFalse();
+    assertThat(book.getPrice(OrderType.BID, 2)).isEqualTo(parseScaled("96"));
+    assertThat(subscription.getSynchronizer().getResyncCount()).isZero();
+  }
+}
@@ -0,0 +1,134 @@
+package info.bitrich.xchangestream.coinbasepro;
+
+import static info.bitrich.xchangestream.coinbasepro.CoinbaseProL3OrderBook.parseScaled;
+
+import java.math.BigDecimal;
+import org.junit.Assert;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+public class CoinbaseProL3OrderBookTest {
+
+  @Test
+  public void testParseScaled() {
+    Assert.assertEquals(1_000_000_000_000L, parseScaled("10000"));
+    Assert.assertEquals(987_654_321_000L, parseScaled("9876.54321"));
+    Assert.assertEquals(1L, parseScaled("0.00000001"));
+    Assert.assertEquals(10_000_000L, parseScaled("0.100000000000"));
+    Assert.assertEquals(-50_000_000L, parseScaled("-.5"));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testParseScaledRejectsExcessPrecision() {
+    parseScaled("0.000000001");
+  }
+
+  @Test
+  public void testPriceTimePriority() {
+    CoinbaseProL3OrderBook book = new CoinbaseProL3OrderBook();
+    book.open("b1", true, parseScaled("100.00"), parseScaled("1"));
+    book.open("b2", true, parseScaled("101.00"), parseScaled("2"));
+    book.open("b3", true, parseScaled("101.00"), parseScaled("3"));
+    book.open("a1", false, parseScaled("103.00"), parseScaled("4"));
+    book.open("a2", false, parseScaled("102.00"), parseScaled("5"));
+
+    Assert.assertEquals(2, book.getDepth(OrderType.BID));
+    Assert.assertEquals(parseScaled("101"), book.getPrice(OrderType.BID, 0));
+    Assert.assertEquals(parseScaled("5"), book.getSize(OrderType.BID, 0));
+    Assert.assertEquals(2, book.getOrderCount(OrderType.BID, 0));
+    Assert.assertEquals(parseScaled("102"), book.getPrice(OrderType.ASK, 0));
+    Assert.assertEquals(parseScaled("103"), book.getPrice(OrderType.ASK, 1));
+
+    Assert.assertEquals(0L, book.getSizeAhead("b2"));
+    Assert.assertEquals(parseScaled("2"), book.getSizeAhead("b3"));
+  }
+
+  @Test
+  public void testMatchChangeAndDone() {
+    CoinbaseProL3OrderBook book = new CoinbaseProL3OrderBook();
+    book.open("b1", true, parseScaled("101"), parseScaled("2"));
+    book.open("b2", true, parseScaled("101"), parseScaled("3"));
+
+    Assert.assertTrue(book.match("b1", parseScaled("0.5")));
+    Assert.assertEquals(parseScaled("1.5"), book.getOrderSize("b1"));
+    Assert.assertEquals(parseScaled("4.5"), book.getSize(OrderType.BID, 0));
+
+    // A reduced order keeps its place in the queue
+    Assert.assertTrue(book.change("b1", parseScaled("1")));
+    Assert.assertEquals(parseScaled("1"), book.getSizeAhead("b2"));
+
+    Assert.assertTrue(book.match("b1", parseScaled("1")));
+    Assert.assertFalse(book.containsOrder("b1"));
+    Assert.assertEquals(0L, book.getSizeAhead("b2"));
+
+    Assert.assertTrue(book.done("b2"));
+    Assert.assertFalse(book.done("b2"));
+    Assert.assertEquals(0, book.getDepth(OrderType.BID));
+    Assert.assertEquals(0, book.getOrderCount());
+  }
+
+  @Test
+  public void testToOrderBook() {
+    CoinbaseProL3OrderBook book = new CoinbaseProL3OrderBook();
+    book.open("b1", true, parseScaled("101"), parseScaled("2"));
+    book.open("b2", true, parseScaled("101"), parseScaled("3"));
+    book.open("b3", true, parseScaled("99"), parseScaled("1"));
+    book.open("a1", false, parseScaled("102"), parseScaled("4"));
+
+    OrderBook aggregated = book.toOrderBook(CurrencyPair.BTC_USD, 1, true, null);
+    Assert.assertEquals(1, aggregated.getBids().size());
+    LimitOrder bestBid = aggregated.getBids().get(0);
+    Assert.assertEquals(0, new BigDecimal("101").compareTo(bestBid.getLimitPrice()));
+    Assert.assertEquals(0, new BigDecimal("5").compareTo(bestBid.getOriginalAmount()));
+
+    OrderBook full = book.toOrderBook(CurrencyPair.BTC_USD, 0, false, null);
+    Assert.assertEquals(3, full.getBids().size());
+    Assert.assertEquals("b1", full.getBids().get(0).getId());
+    Assert.assertEquals("b2", full.getBids().get(1).getId());
+    Assert.assertEquals("b3", full.getBids().get(2).getId());
+    Assert.assertEquals("a1", full.getAsks().get(0).getId());
+  }
+
+  @Test
+  public void testManyLevels() {
+    CoinbaseProL3OrderBook book = new CoinbaseProL3OrderBook();
+    for (int i = 0; i < 1000; i++) {
+      book.open("a" + i, false, 100_000L + i, 1L);
+      book.open("b" + i, true, 99_999L - i, 1L);
+    }
+    Assert.assertEquals(1000, book.getDepth(OrderType.ASK));
+    Assert.assertEquals(100_000L, book.getPrice(OrderType.ASK, 0));
+    Assert.assertEquals(99_999L, book.getPrice(OrderType.BID, 0));
+    for (int i = 0; i < 1000; i += 2) {
+      book.done("a" + i);
+    }
+    Assert.assertEquals(500, book.getDepth(OrderType.ASK));
+    Assert.assertEquals(100_001L, book.getPrice(OrderType.ASK, 0));
+  }
+
+  @Test
+  public void testChangedDepth() {
+    CoinbaseProL3OrderBook book = new CoinbaseProL3OrderBook();
+    for (int i = 0; i < 10; i++) {
+      book.open("b" + i, true, parseScaled(String.valueOf(100 - i)), parseScaled("1"));
+    }
+    book.markUnchanged();
+    Assert.assertEquals(Integer.MAX_VALUE, book.getChangedDepth());
+
+    book.match("b7", parseScaled("0.5"));
+    Assert.assertEquals(7, book.getChangedDepth());
+    book.open("b10", true, parseScaled("95.5"), parseScaled("1"));
+    Assert.assertEquals(5, book.getChangedDepth());
+
+    book.markUnchanged();
+    book.done("b0");
+    Assert.assertEquals(0, book.getChangedDepth());
+
+    book.markUnchanged();
+    book.done("b9");
+    Assert.assertEquals(9, book.getChangedDepth());
+  }
+}
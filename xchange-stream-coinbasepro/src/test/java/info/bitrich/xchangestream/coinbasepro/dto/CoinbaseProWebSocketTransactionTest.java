@@ -0,0 +1,41 @@
+package info.bitrich.xchangestream.coinbasepro.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.Test;
+
+public class CoinbaseProWebSocketTransactionTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testUpdatesBookInPlace() throws Exception {
+    SortedMap<BigDecimal, BigDecimal> bids = new TreeMap<>(Collections.reverseOrder());
+    SortedMap<BigDecimal, BigDecimal> asks = new TreeMap<>();
+
+    mapper
+        .readValue(
+            "{\"type\":\"snapshot\",\"product_id\":\"BTC-USD\","
+                + "\"bids\":[[\"10101.10\",\"0.45054140\"],[\"10101.00\",\"1\"]],"
+                + "\"asks\":[[\"10102.55\",\"0.57753524\"]]}",
+            CoinbaseProWebSocketTransaction.class)
+        .updateOrderBook(bids, asks);
+    mapper
+        .readValue(
+            "{\"type\":\"l2update\",\"product_id\":\"BTC-USD\","
+                + "\"time\":\"2019-08-14T20:42:27.265Z\","
+                + "\"changes\":[[\"buy\",\"10101.10\",\"0.00000000\"],[\"sell\",\"10102.50\",\"2\"]]}",
+            CoinbaseProWebSocketTransaction.class)
+        .updateOrderBook(bids, asks);
+
+    // the emptied level is removed rather than kept with a zero amount
+    assertThat(bids.keySet()).containsExactly(new BigDecimal("10101.00"));
+    assertThat(asks.keySet())
+        .containsExactly(new BigDecimal("10102.50"), new BigDecimal("10102.55"));
+  }
+}
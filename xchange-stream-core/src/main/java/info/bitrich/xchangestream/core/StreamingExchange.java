@@ -1,11 +1,16 @@
 package info.bitrich.xchangestream.core;
 
 import info.bitrich.xchangestream.service.ConnectableService;
+import info.bitrich.xchangestream.service.netty.ChannelMetrics;
 import info.bitrich.xchangestream.service.netty.ConnectionStateModel.State;
+import info.bitrich.xchangestream.service.netty.FrameJournal;
+import info.bitrich.xchangestream.service.netty.FrameReplay;
 import info.bitrich.xchangestream.service.netty.NettyStreamingService;
+import info.bitrich.xchangestream.service.netty.ReconnectPolicy;
 import io.netty.channel.ChannelHandlerContext;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
+import java.util.Map;
 import org.knowm.xchange.Exchange;
 import org.knowm.xchange.ExchangeSpecification;
 import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
@@ -18,6 +23,22 @@ public interface StreamingExchange extends Exchange {
   String SOCKS_PROXY_PORT = "SOCKS_Proxy_Port";
   String AUTO_RECONNECT = "Auto_Reconnect";
   String L3_ORDERBOOK = "L3_Orderbook";
+  /**
+   * Number of parallel connections carrying the same subscriptions, deduplicated into one stream of
+   * messages (default 1). Supported by the exchanges which document it.
+   */
+  String REDUNDANT_CONNECTIONS = "Redundant_Connections";
+  /**
+   * Number of recent message ids of each stream kept to drop the copies of the redundant
+   * connections (default {@link NettyStreamingService#DEFAULT_REDUNDANT_MESSAGE_WINDOW}).
+   */
+  String REDUNDANT_MESSAGE_WINDOW = "Redundant_Message_Window";
+  /** A {@link ReconnectPolicy} replacing the default backoff of the connections. */
+  String RECONNECT_POLICY = "Reconnect_Policy";
+  /** A {@link FrameJournal} recording the raw frames received by the connections. */
+  String FRAME_JOURNAL = "Frame_Journal";
+  /** A {@link FrameReplay} feeding the connections with recorded frames instead of the sockets. */
+  String FRAME_REPLAY = "Frame_Replay";
 
   /**
    * Connects to the WebSocket API of the exchange.
@@ -91,6 +112,16 @@ public interface StreamingExchange extends Exchange {
     throw new NotYetImplementedForExchangeException("messageDelay");
   }
 
+  /**
+   * Metrics of the subscribed channels: message count and rate, the time spent parsing and in the
+   * subscribers, and the lag behind the exchange timestamp where the messages have one.
+   *
+   * @return the metrics by unique channel id, a channel is dropped when it is unsubscribed
+   */
+  default Map<String, ChannelMetrics> getChannelMetrics() {
+    throw new NotYetImplementedForExchangeException("getChannelMetrics");
+  }
+
   default void resubscribeChannels() {
     throw new NotYetImplementedForExchangeException("resubscribeChannels");
   }
@@ -144,5 +175,22 @@ public interface StreamingExchange extends Exchange {
     Boolean autoReconnect =
         (Boolean) exchangeSpec.getExchangeSpecificParametersItem(AUTO_RECONNECT);
     if (autoReconnect != null) streamingService.setAutoReconnect(autoReconnect);
+    streamingService.setReconnectPolicy(
+        (ReconnectPolicy) exchangeSpec.getExchangeSpecificParametersItem(RECONNECT_POLICY));
+    Integer redundantMessageWindow =
+        (Integer) exchangeSpec.getExchangeSpecificParametersItem(REDUNDANT_MESSAGE_WINDOW);
+    if (redundantMessageWindow != null) {
+      streamingService.setRedundantMessageWindow(redundantMessageWindow);
+    }
+    FrameJournal frameJournal =
+        (FrameJournal) exchangeSpec.getExchangeSpecificParametersItem(FRAME_JOURNAL);
+    if (frameJournal != null) {
+      streamingService.setFrameJournal(frameJournal);
+    }
+    FrameReplay frameReplay =
+        (FrameReplay) exchangeSpec.getExchangeSpecificParametersItem(FRAME_REPLAY);
+    if (frameReplay != null) {
+      frameReplay.addService(streamingService);
+    }
   }
 }
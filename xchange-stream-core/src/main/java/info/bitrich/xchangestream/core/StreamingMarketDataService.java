@@ -1,5 +1,6 @@
 package info.bitrich.xchangestream.core;
 
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import io.reactivex.Observable;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.marketdata.Kline;
@@ -22,6 +23,33 @@ public interface StreamingMarketDataService {
    */
   Observable<OrderBook> getOrderBook(CurrencyPair currencyPair, Object... args);
 
+  /**
+   * Get the top levels of the order book, emitted only when the price or the amount of one of them
+   * changes.
+   *
+   * <p>Exchanges with a best bid and ask channel use it for a depth of 1. Otherwise the levels are
+   * read from the books of {@link #getOrderBook(CurrencyPair, Object...)}, or from the book kept by
+   * the exchange when it can be read before being copied.
+   *
+   * @param currencyPair Currency pair of the order book
+   * @param depth the levels of each side
+   * @param args the arguments of {@link #getOrderBook(CurrencyPair, Object...)}, if any
+   * @return {@link Observable} that emits an {@link OrderBook} of at most {@code depth} levels on
+   *     each side when one of them changes.
+   */
+  default Observable<OrderBook> getTopOfBook(CurrencyPair currencyPair, int depth, Object... args) {
+    return getOrderBook(currencyPair, args).compose(TopOfBook.topOfBook(depth));
+  }
+
+  /**
+   * Get the best bid and ask, emitted only when one of them changes.
+   *
+   * @see #getTopOfBook(CurrencyPair, int, Object...)
+   */
+  default Observable<OrderBook> getBestBidAsk(CurrencyPair currencyPair, Object... args) {
+    return getTopOfBook(currencyPair, 1, args);
+  }
+
   /**
    * Get a ticker representing the current exchange rate. Emits {@link
    * info.bitrich.xchangestream.service.exception.NotConnectedException} When not connected to the
@@ -35,6 +63,11 @@ public interface StreamingMarketDataService {
    */
   Observable<Ticker> getTicker(CurrencyPair currencyPair, Object... args);
 
+  /**
+   * Get the klines of the exchange. Most exchanges do not implement it and return null, their bars
+   * can be aggregated from {@link #getTrades(CurrencyPair, Object...)} with {@link
+   * info.bitrich.xchangestream.core.analytics.TradeBars}.
+   */
   Observable<Kline> getKline(CurrencyPair currencyPair, Object... args);
 
   /**
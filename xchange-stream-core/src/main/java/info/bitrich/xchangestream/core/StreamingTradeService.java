@@ -1,8 +1,10 @@
 package info.bitrich.xchangestream.core;
 
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.UserTrade;
 import org.knowm.xchange.exceptions.ExchangeSecurityException;
 import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
@@ -57,4 +59,36 @@ public interface StreamingTradeService {
   default Observable<UserTrade> getUserTrades(CurrencyPair currencyPair, Object... args) {
     throw new NotYetImplementedForExchangeException("getUserTrades");
   }
+
+  /**
+   * Places a limit order over the authenticated WebSocket connection instead of the REST API. The
+   * request is sent on subscription and correlated with the exchange's acknowledgement by a client
+   * request id.
+   *
+   * <p><strong>Emits</strong> {@link
+   * info.bitrich.xchangestream.service.exception.NotConnectedException} When not connected to the
+   * WebSocket API, or if the connection is lost before the acknowledgement arrives. There is no
+   * timeout of its own; apply {@link Single#timeout} as needed, keeping in mind that the order may
+   * still have been placed.
+   *
+   * <p><strong>Emits</strong> {@link org.knowm.xchange.exceptions.ExchangeException} if the
+   * exchange rejects the order.
+   *
+   * @param limitOrder the order to place
+   * @return {@link Single} that emits the id of the placed order.
+   */
+  default Single<String> placeLimitOrder(LimitOrder limitOrder) {
+    throw new NotYetImplementedForExchangeException("placeLimitOrder");
+  }
+
+  /**
+   * Cancels an order over the authenticated WebSocket connection, see {@link
+   * #placeLimitOrder(LimitOrder)}.
+   *
+   * @param orderId the id of the order to cancel
+   * @return {@link Single} that emits true once the exchange acknowledged the cancellation.
+   */
+  default Single<Boolean> cancelOrder(String orderId) {
+    throw new NotYetImplementedForExchangeException("cancelOrder");
+  }
 }
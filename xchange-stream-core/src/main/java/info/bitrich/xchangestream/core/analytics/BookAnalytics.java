@@ -0,0 +1,98 @@
+package info.bitrich.xchangestream.core.analytics;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+/**
+ * Metrics of the top levels of order books, computed in doubles from the levels in place. They are
+ * meant for the books of {@link
+ * info.bitrich.xchangestream.core.StreamingMarketDataService#getTopOfBook}, which are only emitted
+ * when their top levels change.
+ *
+ * <pre>
+ * service.getBestBidAsk(pair).compose(BookAnalytics.microprice()).subscribe(...);
+ * </pre>
+ */
+public final class BookAnalytics {
+
+  private BookAnalytics() {}
+
+  /**
+   * The mid price weighted by the amount on the opposite side: {@code (bid * askAmount + ask *
+   * bidAmount) / (bidAmount + askAmount)}. It leans towards the side with less liquidity, the one
+   * more likely to move.
+   *
+   * @return NaN if a side is empty or both top levels have no amount
+   */
+  public static double microprice(OrderBook orderBook) {
+    List<LimitOrder> bids = orderBook.getBids();
+    List<LimitOrder> asks = orderBook.getAsks();
+    if (bids.isEmpty() || asks.isEmpty()) {
+      return Double.NaN;
+    }
+    LimitOrder bid = bids.get(0);
+    LimitOrder ask = asks.get(0);
+    double bidAmount = bid.getOriginalAmount().doubleValue();
+    double askAmount = ask.getOriginalAmount().doubleValue();
+    if (!(bidAmount + askAmount > 0)) {
+      return Double.NaN;
+    }
+    return (bid.getLimitPrice().doubleValue() * askAmount
+            + ask.getLimitPrice().doubleValue() * bidAmount)
+        / (bidAmount + askAmount);
+  }
+
+  /**
+   * The imbalance of the amounts of the top levels: {@code (bids - asks) / (bids + asks)}, from -1
+   * when there are only asks to 1 when there are only bids.
+   *
+   * @param depth the levels of each side
+   * @return NaN if the top levels have no amount, e.g. both sides are empty
+   */
+  public static double imbalance(OrderBook orderBook, int depth) {
+    double bids = amount(orderBook.getBids(), depth);
+    double asks = amount(orderBook.getAsks(), depth);
+    return bids + asks > 0 ? (bids - asks) / (bids + asks) : Double.NaN;
+  }
+
+  /** Emits the microprice of the books of a stream, skipping those for which it is undefined. */
+  public static ObservableTransformer<OrderBook, BigDecimal> microprice() {
+    return books -> finite(books, BookAnalytics::microprice);
+  }
+
+  /**
+   * Emits the imbalance of the top levels of the books of a stream, skipping those for which it is
+   * undefined.
+   */
+  public static ObservableTransformer<OrderBook, BigDecimal> imbalance(int depth) {
+    return books -> finite(books, orderBook -> imbalance(orderBook, depth));
+  }
+
+  /**
+   * Emits the finite values of a metric of the books of a stream. The metric is tested as a double
+   * held per subscription, only the emitted values are boxed.
+   */
+  private static Observable<BigDecimal> finite(
+      Observable<OrderBook> books, ToDoubleFunction<OrderBook> metric) {
+    return Observable.defer(
+        () -> {
+          double[] value = new double[1];
+          return books
+              .filter(orderBook -> Double.isFinite(value[0] = metric.applyAsDouble(orderBook)))
+              .map(orderBook -> BigDecimal.valueOf(value[0]));
+        });
+  }
+
+  private static double amount(List<LimitOrder> levels, int depth) {
+    double amount = 0;
+    for (int i = 0, n = Math.min(depth, levels.size()); i < n; i++) {
+      amount += levels.get(i).getOriginalAmount().doubleValue();
+    }
+    return amount;
+  }
+}
@@ -0,0 +1,178 @@
+package info.bitrich.xchangestream.core.analytics;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.dto.marketdata.Trade;
+
+/**
+ * Volume weighted average price of the trades of a sliding time window.
+ *
+ * <p>The trades of the window are kept in a ring of primitive arrays, which grows with the number
+ * of trades in a window and is then reused. Adding a trade and evicting those which left the window
+ * are O(1) amortized. The sums are recomputed from the ring whenever it has been cycled through, so
+ * the rounding errors of the subtractions do not accumulate.
+ *
+ * <p>The trades without timestamp are timed by a {@link Clock}, the system clock unless another one
+ * is given, e.g. the clock of a replay so that the replay is deterministic.
+ *
+ * <pre>
+ * service.getTrades(pair).compose(RollingVwap.vwap(5, TimeUnit.MINUTES)).subscribe(...);
+ * </pre>
+ */
+public final class RollingVwap {
+
+  private static final int INITIAL_CAPACITY = 64;
+
+  private final long windowMillis;
+  private final Clock clock;
+
+  private long[] times = new long[INITIAL_CAPACITY];
+  private double[] amounts = new double[INITIAL_CAPACITY];
+  private double[] notionals = new double[INITIAL_CAPACITY];
+  private int head;
+  private int size;
+  private int evicted;
+
+  private double amount;
+  private double notional;
+
+  public RollingVwap(long window, TimeUnit unit) {
+    this(window, unit, Clock.systemUTC());
+  }
+
+  /** @param clock the clock which times the trades without timestamp */
+  public RollingVwap(long window, TimeUnit unit, Clock clock) {
+    this(windowMillis(window, unit), clock);
+  }
+
+  private RollingVwap(long windowMillis, Clock clock) {
+    this.windowMillis = windowMillis;
+    this.clock = clock;
+  }
+
+  /**
+   * Emits the VWAP of the window after each trade of a stream, skipping the trades after which it
+   * is undefined, e.g. when the window only holds trades without amount.
+   */
+  public static ObservableTransformer<Trade, BigDecimal> vwap(long window, TimeUnit unit) {
+    return vwap(window, unit, Clock.systemUTC());
+  }
+
+  /**
+   * Emits the VWAP of the window after each trade of a stream, like {@link #vwap(long, TimeUnit)},
+   * timing the trades without timestamp by the given clock.
+   */
+  public static ObservableTransformer<Trade, BigDecimal> vwap(
+      long window, TimeUnit unit, Clock clock) {
+    long windowMillis = windowMillis(window, unit);
+    return trades ->
+        Observable.defer(
+            () -> {
+              RollingVwap vwap = new RollingVwap(windowMillis, clock);
+              // the VWAP is tested as a double, only the emitted ones are boxed
+              return trades
+                  .filter(
+                      trade -> {
+                        vwap.add(trade);
+                        return Double.isFinite(vwap.get());
+                      })
+                  .map(trade -> BigDecimal.valueOf(vwap.get()));
+            });
+  }
+
+  /** Adds a trade, timed by the clock if it has no timestamp. */
+  public void add(Trade trade) {
+    Date timestamp = trade.getTimestamp();
+    add(
+        timestamp == null ? clock.millis() : timestamp.getTime(),
+        trade.getPrice().doubleValue(),
+        trade.getOriginalAmount().doubleValue());
+  }
+
+  /** Adds a trade and evicts those older than the window before it. */
+  public void add(long timeMillis, double price, double amount) {
+    evict(timeMillis - windowMillis);
+    if (size == times.length) {
+      grow();
+    }
+    int index = (head + size) % times.length;
+    times[index] = timeMillis;
+    amounts[index] = amount;
+    notionals[index] = amount * price;
+    size++;
+    this.amount += amount;
+    this.notional += amount * price;
+  }
+
+  /** @return the VWAP of the trades of the window, NaN if none */
+  public double get() {
+    return amount > 0 ? notional / amount : Double.NaN;
+  }
+
+  /** @return the amount traded in the window */
+  public double getVolume() {
+    return amount;
+  }
+
+  /** @return the trades in the window */
+  public int getCount() {
+    return size;
+  }
+
+  private static long windowMillis(long window, TimeUnit unit) {
+    long windowMillis = unit.toMillis(window);
+    if (windowMillis < 1) {
+      throw new IllegalArgumentException("Invalid window " + window + " " + unit);
+    }
+    return windowMillis;
+  }
+
+  private void evict(long before) {
+    while (size > 0 && times[head] <= before) {
+      amount -= amounts[head];
+      notional -= notionals[head];
+      head = (head + 1) % times.length;
+      size--;
+      evicted++;
+    }
+    if (size == 0) {
+      amount = 0;
+      notional = 0;
+      evicted = 0;
+    } else if (evicted >= times.length) {
+      resum();
+    }
+  }
+
+  private void resum() {
+    amount = 0;
+    notional = 0;
+    for (int i = 0; i < size; i++) {
+      int index = (head + i) % times.length;
+      amount += amounts[index];
+      notional += notionals[index];
+    }
+    evicted = 0;
+  }
+
+  private void grow() {
+    int capacity = times.length * 2;
+    long[] newTimes = new long[capacity];
+    double[] newAmounts = new double[capacity];
+    double[] newNotionals = new double[capacity];
+    for (int i = 0; i < size; i++) {
+      int index = (head + i) % times.length;
+      newTimes[i] = times[index];
+      newAmounts[i] = amounts[index];
+      newNotionals[i] = notionals[index];
+    }
+    times = newTimes;
+    amounts = newAmounts;
+    notionals = newNotionals;
+    head = 0;
+  }
+}
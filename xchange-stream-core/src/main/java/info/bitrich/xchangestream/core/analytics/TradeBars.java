@@ -0,0 +1,231 @@
+package info.bitrich.xchangestream.core.analytics;
+
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.instrument.Instrument;
+
+/**
+ * Aggregates the trades of a stream into bars, for the exchanges whose {@code getKline} is not
+ * implemented.
+ *
+ * <p>Time bars are aligned on the epoch, like the klines of the exchanges, and are completed by the
+ * first trade of a later period, so periods without trades have no bar. Volume bars are completed
+ * by the trade which brings their volume to the threshold, which is not split across bars. The bar
+ * in progress is emitted when the stream completes.
+ *
+ * <p>Each trade is added in O(1) without allocating: the open, high, low and close are the prices
+ * of the trades and the volumes are summed as doubles, so they are as precise as a double.
+ *
+ * <p>The trades without timestamp are timed by a {@link Clock}, the system clock unless another one
+ * is given, e.g. the clock of a replay so that the replay is deterministic.
+ *
+ * <pre>
+ * service.getTrades(pair).compose(TradeBars.timeBars(1, TimeUnit.MINUTES)).subscribe(...);
+ * </pre>
+ */
+public final class TradeBars {
+
+  private final long periodMillis;
+  private final double volumeThreshold;
+  private final Clock clock;
+
+  private long bars;
+  private Instrument instrument;
+  private long openTime;
+  private BigDecimal open;
+  private BigDecimal high;
+  private BigDecimal low;
+  private BigDecimal close;
+  private double volume;
+  private double quoteVolume;
+  private long count;
+
+  private Kline completed;
+
+  private TradeBars(long periodMillis, double volumeThreshold, Clock clock) {
+    this.periodMillis = periodMillis;
+    this.volumeThreshold = volumeThreshold;
+    this.clock = clock;
+  }
+
+  /** @return bars of the given period */
+  public static TradeBars forPeriod(long period, TimeUnit unit) {
+    return forPeriod(period, unit, Clock.systemUTC());
+  }
+
+  /**
+   * @param clock the clock which times the trades without timestamp
+   * @return bars of the given period
+   */
+  public static TradeBars forPeriod(long period, TimeUnit unit, Clock clock) {
+    long periodMillis = unit.toMillis(period);
+    if (periodMillis < 1) {
+      throw new IllegalArgumentException("Invalid period " + period + " " + unit);
+    }
+    return new TradeBars(periodMillis, 0, clock);
+  }
+
+  /** @return bars of the given volume in the base currency */
+  public static TradeBars forVolume(BigDecimal volume) {
+    return forVolume(volume, Clock.systemUTC());
+  }
+
+  /**
+   * @param clock the clock which times the trades without timestamp
+   * @return bars of the given volume in the base currency
+   */
+  public static TradeBars forVolume(BigDecimal volume, Clock clock) {
+    if (volume.signum() <= 0) {
+      throw new IllegalArgumentException("Invalid volume " + volume);
+    }
+    return new TradeBars(0, volume.doubleValue(), clock);
+  }
+
+  /** Emits the bars of the given period of the trades of a stream. */
+  public static ObservableTransformer<Trade, Kline> timeBars(long period, TimeUnit unit) {
+    return timeBars(period, unit, Clock.systemUTC());
+  }
+
+  /**
+   * Emits the bars of the given period of the trades of a stream, timing the trades without
+   * timestamp by the given clock.
+   */
+  public static ObservableTransformer<Trade, Kline> timeBars(
+      long period, TimeUnit unit, Clock clock) {
+    TradeBars.forPeriod(period, unit, clock); // fails fast on an invalid period
+    return trades -> bars(trades, () -> forPeriod(period, unit, clock));
+  }
+
+  /** Emits the bars of the given volume of the trades of a stream. */
+  public static ObservableTransformer<Trade, Kline> volumeBars(BigDecimal volume) {
+    return volumeBars(volume, Clock.systemUTC());
+  }
+
+  /**
+   * Emits the bars of the given volume of the trades of a stream, timing the trades without
+   * timestamp by the given clock.
+   */
+  public static ObservableTransformer<Trade, Kline> volumeBars(BigDecimal volume, Clock clock) {
+    TradeBars.forVolume(volume, clock); // fails fast on an invalid volume
+    return trades -> bars(trades, () -> forVolume(volume, clock));
+  }
+
+  private static Observable<Kline> bars(Observable<Trade> trades, Callable<TradeBars> factory) {
+    return Observable.defer(
+        () -> {
+          TradeBars bars = factory.call();
+          return trades
+              .filter(bars::add)
+              .map(trade -> bars.take())
+              .concatWith(Maybe.fromCallable(bars::flush));
+        });
+  }
+
+  /**
+   * Adds a trade to the bar in progress, timed by the clock if it has no timestamp.
+   *
+   * @return whether a bar was completed, see {@link #take()}
+   */
+  public boolean add(Trade trade) {
+    Date timestamp = trade.getTimestamp();
+    return add(
+        trade.getInstrument(),
+        timestamp == null ? clock.millis() : timestamp.getTime(),
+        trade.getPrice(),
+        trade.getOriginalAmount());
+  }
+
+  /**
+   * Adds a trade to the bar in progress.
+   *
+   * @return whether a bar was completed, see {@link #take()}
+   */
+  public boolean add(Instrument instrument, long timeMillis, BigDecimal price, BigDecimal amount) {
+    boolean completes = false;
+    if (periodMillis > 0) {
+      long barTime = timeMillis - Math.floorMod(timeMillis, periodMillis);
+      if (count > 0 && barTime > openTime) {
+        completed = toKline();
+        completes = true;
+      }
+      if (count == 0 || completes) {
+        start(instrument, barTime, price);
+      }
+    } else if (count == 0) {
+      start(instrument, timeMillis, price);
+    }
+
+    if (price.compareTo(high) > 0) {
+      high = price;
+    }
+    if (price.compareTo(low) < 0) {
+      low = price;
+    }
+    close = price;
+    double quantity = amount.doubleValue();
+    volume += quantity;
+    quoteVolume += quantity * price.doubleValue();
+    count++;
+
+    if (volumeThreshold > 0 && volume >= volumeThreshold) {
+      completed = toKline();
+      count = 0;
+      completes = true;
+    }
+    return completes;
+  }
+
+  /** @return the bar completed by the last trade added, null if none */
+  public Kline take() {
+    Kline kline = completed;
+    completed = null;
+    return kline;
+  }
+
+  /** @return the bar in progress, null if it has no trades, and starts a new one */
+  public Kline flush() {
+    if (count == 0) {
+      return null;
+    }
+    Kline kline = toKline();
+    count = 0;
+    return kline;
+  }
+
+  private void start(Instrument instrument, long openTime, BigDecimal price) {
+    this.instrument = instrument;
+    this.openTime = openTime;
+    open = price;
+    high = price;
+    low = price;
+    volume = 0;
+    quoteVolume = 0;
+    count = 0;
+  }
+
+  private Kline toKline() {
+    Kline.Builder builder =
+        new Kline.Builder()
+            .id(bars++)
+            .open(open)
+            .high(high)
+            .low(low)
+            .close(close)
+            .volume(BigDecimal.valueOf(volume))
+            .quoteVolume(BigDecimal.valueOf(quoteVolume))
+            .count(count)
+            .timestamp(new Date(openTime));
+    if (instrument != null) {
+      builder.instrument(instrument);
+    }
+    return builder.build();
+  }
+}
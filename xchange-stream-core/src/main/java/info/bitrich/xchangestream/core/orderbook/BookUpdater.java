@@ -0,0 +1,24 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+/**
+ * The venue specific part of an {@link OrderBookSynchronizer}: loads snapshots into the book and
+ * applies deltas to it. Only called from the thread feeding the synchronizer.
+ *
+ * @param <S> the snapshot type
+ * @param <D> the delta type
+ */
+public interface BookUpdater<S, D> {
+
+  /** Replaces the content of the book with the snapshot. */
+  void reset(S snapshot);
+
+  /**
+   * Applies a delta which follows on from the book.
+   *
+   * @return true if the delta changed the book
+   */
+  boolean apply(D delta);
+
+  /** Drops the content of the book, which is out of sync until the next {@link #reset}. */
+  default void clear() {}
+}
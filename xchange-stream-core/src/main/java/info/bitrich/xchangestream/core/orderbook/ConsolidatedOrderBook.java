@@ -0,0 +1,399 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import io.reactivex.Observable;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Order book of one pair consolidated across several venues, e.g. for smart order routing.
+ *
+ * <p>Each price level keeps the amount contributed by each venue. When a venue emits a new book,
+ * its sorted levels are walked along those the venue contributed before and only the levels which
+ * changed are updated in the consolidated book, each in O(log n) of its depth, without copying the
+ * levels which did not. Venues emitting level updates, like Binance {@code getOrderBookUpdates},
+ * are applied directly.
+ *
+ * <p>The pairs of the venues are normalized with {@link
+ * org.knowm.xchange.currency.Currency#getCommonlyUsedCurrency()}, so e.g. the XBT/USD book of one
+ * venue and the BTC/USD book of another are consolidated together.
+ *
+ * <pre>
+ * ConsolidatedOrderBook book = new ConsolidatedOrderBook(CurrencyPair.BTC_USD);
+ * book.connect("kraken", kraken.getStreamingMarketDataService(), new CurrencyPair("XBT/USD"));
+ * book.connect("coinbasepro", coinbasePro.getStreamingMarketDataService(), CurrencyPair.BTC_USD);
+ * book.getChanges().subscribe(b -&gt; route(b.getBest(OrderType.ASK, 5)));
+ * </pre>
+ */
+public final class ConsolidatedOrderBook {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ConsolidatedOrderBook.class);
+
+  private static final Comparator<BigDecimal> BID_ORDER = Comparator.reverseOrder();
+  private static final Comparator<BigDecimal> ASK_ORDER = Comparator.naturalOrder();
+
+  private final CurrencyPair currencyPair;
+  private final NavigableMap<BigDecimal, MutableLevel> bids = new TreeMap<>(BID_ORDER);
+  private final NavigableMap<BigDecimal, MutableLevel> asks = new TreeMap<>(ASK_ORDER);
+  private final Map<String, Venue> venues = new HashMap<>();
+  private final Subject<ConsolidatedOrderBook> changes =
+      PublishSubject.<ConsolidatedOrderBook>create().toSerialized();
+  // the levels a venue changed in its new book, reused under the lock
+  private final List<BigDecimal> changedPrices = new ArrayList<>();
+  private final List<BigDecimal> changedAmounts = new ArrayList<>();
+
+  public ConsolidatedOrderBook(CurrencyPair currencyPair) {
+    this.currencyPair = normalize(currencyPair);
+  }
+
+  /** @return the pair with the commonly used codes of its currencies, e.g. BTC/USD for XBT/USD */
+  public static CurrencyPair normalize(CurrencyPair currencyPair) {
+    return new CurrencyPair(
+        currencyPair.base.getCommonlyUsedCurrency(),
+        currencyPair.counter.getCommonlyUsedCurrency());
+  }
+
+  /** @return the normalized pair of the book */
+  public CurrencyPair getCurrencyPair() {
+    return currencyPair;
+  }
+
+  /**
+   * Consolidates the order books of a venue, until the returned subscription is disposed or the
+   * stream ends, which removes the levels of the venue.
+   *
+   * @param venue the name of the venue, e.g. its exchange name
+   * @param currencyPair the pair as known by the venue, e.g. XBT/USD
+   */
+  public Disposable connect(
+      String venue, StreamingMarketDataService service, CurrencyPair currencyPair) {
+    checkPair(currencyPair);
+    return connect(venue, service.getOrderBook(currencyPair));
+  }
+
+  /** Consolidates the order books emitted by a venue, each replacing the previous one. */
+  public Disposable connect(String venue, Observable<OrderBook> orderBooks) {
+    register(venue);
+    return orderBooks
+        .doFinally(() -> removeVenue(venue))
+        .subscribe(
+            orderBook -> update(venue, orderBook),
+            e -> LOG.warn("Order book of {} failed, removed from {}", venue, currencyPair, e));
+  }
+
+  /**
+   * Consolidates the level updates emitted by a venue, the total volume of each replacing the
+   * amount the venue had at its price. The stream must start with all the levels of the book.
+   */
+  public Disposable connectUpdates(String venue, Observable<OrderBookUpdate> updates) {
+    register(venue);
+    return updates
+        .doFinally(() -> removeVenue(venue))
+        .subscribe(
+            orderBookUpdate -> update(venue, orderBookUpdate),
+            e -> LOG.warn("Order book of {} failed, removed from {}", venue, currencyPair, e));
+  }
+
+  /** Replaces the levels of a venue with those of its new order book. */
+  public synchronized void update(String venue, OrderBook orderBook) {
+    Venue state = venues.computeIfAbsent(venue, Venue::new);
+    boolean changed = replace(state, state.bids, bids, BID_ORDER, orderBook.getBids());
+    changed |= replace(state, state.asks, asks, ASK_ORDER, orderBook.getAsks());
+    if (changed) {
+      changes.onNext(this);
+    }
+  }
+
+  /** Sets the amount a venue has at the price of the update. */
+  public synchronized void update(String venue, OrderBookUpdate orderBookUpdate) {
+    LimitOrder limitOrder = orderBookUpdate.getLimitOrder();
+    Venue state = venues.computeIfAbsent(venue, Venue::new);
+    boolean bid = limitOrder.getType() == OrderType.BID;
+    if (set(
+        state,
+        bid ? state.bids : state.asks,
+        bid ? bids : asks,
+        key(limitOrder.getLimitPrice()),
+        orderBookUpdate.getTotalVolume())) {
+      changes.onNext(this);
+    }
+  }
+
+  /** Removes the levels of a venue, e.g. when its connection is lost. */
+  public synchronized void removeVenue(String venue) {
+    Venue state = venues.remove(venue);
+    if (state == null || (state.bids.isEmpty() && state.asks.isEmpty())) {
+      return;
+    }
+    clear(state, state.bids, bids);
+    clear(state, state.asks, asks);
+    changes.onNext(this);
+  }
+
+  /**
+   * Emits the book after each update which changed it, on the thread of the update and under the
+   * lock of the book: the getters called inside {@code onNext} see exactly that update, while the
+   * updates of the other venues wait. Keep {@code onNext} short, e.g. copy the levels needed with
+   * {@link #getBest(OrderType, int)} and hand them over to another thread.
+   */
+  public Observable<ConsolidatedOrderBook> getChanges() {
+    return changes;
+  }
+
+  /** @return the best levels of one side, best first, at most depth of them */
+  public synchronized List<Level> getBest(OrderType type, int depth) {
+    NavigableMap<BigDecimal, MutableLevel> side = type == OrderType.BID ? bids : asks;
+    List<Level> levels = new ArrayList<>(Math.min(depth, side.size()));
+    Iterator<MutableLevel> iterator = side.values().iterator();
+    while (levels.size() < depth && iterator.hasNext()) {
+      MutableLevel level = iterator.next();
+      levels.add(new Level(level.price, level.amount, new LinkedHashMap<>(level.venues)));
+    }
+    return levels;
+  }
+
+  /** @return the best level of one side, null if the side is empty */
+  public synchronized Level getBest(OrderType type) {
+    List<Level> best = getBest(type, 1);
+    return best.isEmpty() ? null : best.get(0);
+  }
+
+  /** @return the number of levels of one side */
+  public synchronized int getDepth(OrderType type) {
+    return (type == OrderType.BID ? bids : asks).size();
+  }
+
+  /** @return the best levels of the consolidated book as an {@link OrderBook} */
+  public synchronized OrderBook toOrderBook(int depth) {
+    return new OrderBook(
+        null, toLimitOrders(OrderType.ASK, depth), toLimitOrders(OrderType.BID, depth));
+  }
+
+  private List<LimitOrder> toLimitOrders(OrderType type, int depth) {
+    List<LimitOrder> limitOrders = new ArrayList<>();
+    for (Level level : getBest(type, depth)) {
+      limitOrders.add(
+          new LimitOrder(type, level.getAmount(), currencyPair, null, null, level.getPrice()));
+    }
+    return limitOrders;
+  }
+
+  private void register(String venue) {
+    synchronized (this) {
+      venues.computeIfAbsent(venue, Venue::new);
+    }
+  }
+
+  private void checkPair(CurrencyPair venuePair) {
+    if (!normalize(venuePair).equals(currencyPair)) {
+      throw new IllegalArgumentException(
+          "The pair " + venuePair + " is not consolidated into " + currencyPair);
+    }
+  }
+
+  /**
+   * Walks the sorted levels of the new book of a venue along those it had, collecting the levels
+   * which changed before applying them, so the levels which did not change cost a comparison.
+   */
+  private boolean replace(
+      Venue venue,
+      NavigableMap<BigDecimal, BigDecimal> venueSide,
+      NavigableMap<BigDecimal, MutableLevel> side,
+      Comparator<BigDecimal> order,
+      List<LimitOrder> limitOrders) {
+    changedPrices.clear();
+    changedAmounts.clear();
+    Iterator<Map.Entry<BigDecimal, BigDecimal>> previousLevels = venueSide.entrySet().iterator();
+    Map.Entry<BigDecimal, BigDecimal> previous = next(previousLevels);
+    BigDecimal lastPrice = null;
+    int size = limitOrders.size();
+    for (int i = 0; i < size; ) {
+      LimitOrder limitOrder = limitOrders.get(i);
+      BigDecimal price = limitOrder.getLimitPrice();
+      BigDecimal amount = limitOrder.getOriginalAmount();
+      // several orders at the same price for order books of level 3
+      while (++i < size && limitOrders.get(i).getLimitPrice().compareTo(price) == 0) {
+        amount = amount.add(limitOrders.get(i).getOriginalAmount());
+      }
+      if (lastPrice != null && order.compare(lastPrice, price) > 0) {
+        return replaceUnsorted(venue, venueSide, side, limitOrders);
+      }
+      lastPrice = price;
+      while (previous != null && order.compare(previous.getKey(), price) < 0) {
+        addChange(previous.getKey(), BigDecimal.ZERO);
+        previous = next(previousLevels);
+      }
+      if (previous != null && previous.getKey().compareTo(price) == 0) {
+        if (previous.getValue().compareTo(amount) != 0) {
+          addChange(previous.getKey(), amount);
+        }
+        previous = next(previousLevels);
+      } else if (amount.signum() != 0) {
+        addChange(key(price), amount);
+      }
+    }
+    for (; previous != null; previous = next(previousLevels)) {
+      addChange(previous.getKey(), BigDecimal.ZERO);
+    }
+    for (int i = 0; i < changedPrices.size(); i++) {
+      set(venue, venueSide, side, changedPrices.get(i), changedAmounts.get(i));
+    }
+    return !changedPrices.isEmpty();
+  }
+
+  private void addChange(BigDecimal price, BigDecimal amount) {
+    changedPrices.add(price);
+    changedAmounts.add(amount);
+  }
+
+  private static <T> T next(Iterator<T> iterator) {
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  /** Diffs a book whose levels are not sorted, through a map of all its levels. */
+  private boolean replaceUnsorted(
+      Venue venue,
+      Map<BigDecimal, BigDecimal> venueSide,
+      NavigableMap<BigDecimal, MutableLevel> side,
+      List<LimitOrder> limitOrders) {
+    Map<BigDecimal, BigDecimal> levels = new HashMap<>(limitOrders.size() * 2);
+    for (LimitOrder limitOrder : limitOrders) {
+      // several orders at the same price for order books of level 3
+      levels.merge(
+          key(limitOrder.getLimitPrice()), limitOrder.getOriginalAmount(), BigDecimal::add);
+    }
+    boolean changed = false;
+    for (BigDecimal price : new ArrayList<>(venueSide.keySet())) {
+      if (!levels.containsKey(price)) {
+        changed |= set(venue, venueSide, side, price, BigDecimal.ZERO);
+      }
+    }
+    for (Map.Entry<BigDecimal, BigDecimal> level : levels.entrySet()) {
+      changed |= set(venue, venueSide, side, level.getKey(), level.getValue());
+    }
+    return changed;
+  }
+
+  private void clear(
+      Venue venue,
+      Map<BigDecimal, BigDecimal> venueSide,
+      NavigableMap<BigDecimal, MutableLevel> side) {
+    for (BigDecimal price : new ArrayList<>(venueSide.keySet())) {
+      set(venue, venueSide, side, price, BigDecimal.ZERO);
+    }
+  }
+
+  /** @return true if the amount of the venue at the price changed */
+  private static boolean set(
+      Venue venue,
+      Map<BigDecimal, BigDecimal> venueSide,
+      NavigableMap<BigDecimal, MutableLevel> side,
+      BigDecimal price,
+      BigDecimal amount) {
+    boolean removal = amount.signum() == 0;
+    BigDecimal previous = removal ? venueSide.remove(price) : venueSide.put(price, amount);
+    if (previous == null ? removal : previous.compareTo(amount) == 0) {
+      return false;
+    }
+    MutableLevel level = side.get(price);
+    if (level == null) {
+      level = new MutableLevel(price);
+      side.put(price, level);
+    }
+    level.set(venue.name, previous, removal ? null : amount);
+    if (level.venues.isEmpty()) {
+      side.remove(price);
+    }
+    return true;
+  }
+
+  /** Prices as keys of the venue maps, equal whatever their scale. */
+  private static BigDecimal key(BigDecimal price) {
+    BigDecimal key = price.stripTrailingZeros();
+    return key.scale() < 0 ? key.setScale(0) : key;
+  }
+
+  private static final class Venue {
+    final String name;
+    // sorted as the sides of the books, for the walk of their new levels
+    final NavigableMap<BigDecimal, BigDecimal> bids = new TreeMap<>(BID_ORDER);
+    final NavigableMap<BigDecimal, BigDecimal> asks = new TreeMap<>(ASK_ORDER);
+
+    Venue(String name) {
+      this.name = name;
+    }
+  }
+
+  private static final class MutableLevel {
+    final BigDecimal price;
+    final Map<String, BigDecimal> venues = new LinkedHashMap<>(4);
+    BigDecimal amount = BigDecimal.ZERO;
+
+    MutableLevel(BigDecimal price) {
+      this.price = price;
+    }
+
+    void set(String venue, BigDecimal previous, BigDecimal amount) {
+      if (previous != null) {
+        this.amount = this.amount.subtract(previous);
+      }
+      if (amount == null) {
+        venues.remove(venue);
+      } else {
+        venues.put(venue, amount);
+        this.amount = this.amount.add(amount);
+      }
+    }
+  }
+
+  /** A price level of the consolidated book, with the amount each venue contributes. */
+  public static final class Level {
+    private final BigDecimal price;
+    private final BigDecimal amount;
+    private final Map<String, BigDecimal> venues;
+
+    Level(BigDecimal price, BigDecimal amount, Map<String, BigDecimal> venues) {
+      this.price = price;
+      this.amount = amount;
+      this.venues = Collections.unmodifiableMap(venues);
+    }
+
+    public BigDecimal getPrice() {
+      return price;
+    }
+
+    /** @return the total amount of all the venues at the price */
+    public BigDecimal getAmount() {
+      return amount;
+    }
+
+    /** @return the amount of each venue at the price, in the order they joined the level */
+    public Map<String, BigDecimal> getVenues() {
+      return venues;
+    }
+
+    @Override
+    public String toString() {
+      return "Level [price=" + price + ", amount=" + amount + ", venues=" + venues + "]";
+    }
+  }
+}
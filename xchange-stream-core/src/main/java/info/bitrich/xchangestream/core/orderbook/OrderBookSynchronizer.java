@@ -0,0 +1,188 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import info.bitrich.xchangestream.core.orderbook.SequenceStrategy.Continuity;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps an order book in sync from a stream of deltas and snapshots fetched separately, e.g. from
+ * the REST API, the same way for every venue.
+ *
+ * <p>Deltas are fed to {@link #onDelta} from the stream thread. While the book is not in sync they
+ * are buffered, and a snapshot is requested. The snapshot is handed over from any thread with
+ * {@link #offerSnapshot} and installed by the next delta, which then replays the buffered deltas on
+ * top of it. The {@link SequenceStrategy} of the venue drops the stale deltas and detects the gaps,
+ * which clear the book and request a new snapshot. Nothing is reported as changed until the book is
+ * back in sync.
+ *
+ * <pre>
+ * OrderBookSynchronizer&lt;Snapshot, Delta&gt; synchronizer =
+ *     new OrderBookSynchronizer&lt;&gt;(
+ *         pair.toString(),
+ *         SequenceStrategy.ranges(Snapshot::getLastUpdateId, Delta::getFirstId, Delta::getLastId),
+ *         book,
+ *         () -&gt; fetchSnapshot(pair, synchronizer::offerSnapshot),
+ *         1000);
+ * deltas.filter(synchronizer::onDelta).map(delta -&gt; book.getOrderBook());
+ * </pre>
+ *
+ * @param <S> the snapshot type
+ * @param <D> the delta type
+ */
+public final class OrderBookSynchronizer<S, D> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(OrderBookSynchronizer.class);
+
+  private final String name;
+  private final SequenceStrategy<S, D> sequences;
+  private final BookUpdater<S, D> book;
+  private final Runnable snapshotRequest;
+  private final int maxBuffered;
+
+  private final ArrayDeque<D> buffer = new ArrayDeque<>();
+  private final AtomicReference<S> pendingSnapshot = new AtomicReference<>();
+  private final AtomicBoolean snapshotRequested = new AtomicBoolean();
+  private final AtomicLong resyncs = new AtomicLong();
+  private final AtomicBoolean overflowSnapshotRequested = new AtomicBoolean();
+
+  // accessed by the stream thread only
+  private long sequence;
+  private boolean synced;
+
+  /**
+   * @param name the name of the book in the logs, e.g. its pair
+   * @param snapshotRequest requests a snapshot, which must then be handed over with {@link
+   *     #offerSnapshot}, or {@link #snapshotFailed} called. Not called again in between.
+   * @param maxBuffered deltas buffered while out of sync. Past it the oldest are dropped and a
+   *     snapshot newer than them is requested, as the one in flight may predate them.
+   */
+  public OrderBookSynchronizer(
+      String name,
+      SequenceStrategy<S, D> sequences,
+      BookUpdater<S, D> book,
+      Runnable snapshotRequest,
+      int maxBuffered) {
+    this.name = name;
+    this.sequences = sequences;
+    this.book = book;
+    this.snapshotRequest = snapshotRequest;
+    this.maxBuffered = maxBuffered;
+  }
+
+  /**
+   * Applies or buffers a delta. Must be called from one thread at a time.
+   *
+   * @return true if the book is in sync and was changed, by this delta or by a snapshot installed
+   */
+  public boolean onDelta(D delta) {
+    if (synced) {
+      Continuity continuity = sequences.check(sequence, delta);
+      if (continuity == Continuity.STALE) {
+        return false;
+      }
+      if (continuity == Continuity.NEXT) {
+        sequence = sequences.getDeltaSequence(delta);
+        return book.apply(delta);
+      }
+      LOG.info(
+          "Sequence gap in the order book of {} (at={}, got={}). Re-syncing.",
+          name,
+          sequence,
+          sequences.getDeltaSequence(delta));
+      synced = false;
+      resyncs.incrementAndGet();
+      book.clear();
+    }
+    buffer.addLast(delta);
+    if (buffer.size() > maxBuffered) {
+      buffer.removeFirst();
+      if (pendingSnapshot.get() == null && overflowSnapshotRequested.compareAndSet(false, true)) {
+        // a snapshot requested before the dropped delta could not be replayed past the gap
+        LOG.warn(
+            "More than {} deltas buffered for the order book of {}. Requesting a newer snapshot.",
+            maxBuffered,
+            name);
+        snapshotRequested.set(false);
+        requestSnapshot();
+      }
+    }
+    S snapshot = pendingSnapshot.getAndSet(null);
+    if (snapshot == null) {
+      requestSnapshot();
+      return false;
+    }
+    book.reset(snapshot);
+    sequence = sequences.getSnapshotSequence(snapshot);
+    while (!buffer.isEmpty()) {
+      D buffered = buffer.peekFirst();
+      Continuity continuity = sequences.check(sequence, buffered);
+      if (continuity == Continuity.GAP) {
+        // This is normal when starting up: the snapshot may be newer than the first delta
+        // buffered but older than the next one. Keep asking until they line up.
+        LOG.info(
+            "Order book snapshot of {} out of date (at={}, next={}). Re-syncing.",
+            name,
+            sequence,
+            sequences.getDeltaSequence(buffered));
+        book.clear();
+        requestSnapshot();
+        return false;
+      }
+      buffer.removeFirst();
+      if (continuity == Continuity.NEXT) {
+        sequence = sequences.getDeltaSequence(buffered);
+        book.apply(buffered);
+      }
+    }
+    synced = true;
+    LOG.debug("Order book of {} in sync at {}", name, sequence);
+    return true;
+  }
+
+  /**
+   * Hands over a requested snapshot, from any thread. It is installed by the next delta, unless a
+   * newer one is handed over first.
+   */
+  public void offerSnapshot(S snapshot) {
+    pendingSnapshot.accumulateAndGet(
+        snapshot,
+        (pending, offered) ->
+            pending != null
+                    && sequences.getSnapshotSequence(pending)
+                        > sequences.getSnapshotSequence(offered)
+                ? pending
+                : offered);
+    snapshotRequested.set(false);
+    overflowSnapshotRequested.set(false);
+  }
+
+  /** Lets the next delta request a snapshot again, after the request failed. */
+  public void snapshotFailed() {
+    snapshotRequested.set(false);
+  }
+
+  /** @return true if the book is in sync, as seen from the stream thread */
+  public boolean isSynced() {
+    return synced;
+  }
+
+  /** @return the sequence number the book is at, as seen from the stream thread */
+  public long getSequence() {
+    return sequence;
+  }
+
+  /** @return the number of times the book fell out of sync after being in sync */
+  public long getResyncCount() {
+    return resyncs.get();
+  }
+
+  private void requestSnapshot() {
+    if (snapshotRequested.compareAndSet(false, true)) {
+      snapshotRequest.run();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * How a venue numbers its order book snapshots and deltas, so an {@link OrderBookSynchronizer} can
+ * tell whether a delta follows on from the book.
+ *
+ * @param <S> the snapshot type
+ * @param <D> the delta type
+ */
+public interface SequenceStrategy<S, D> {
+
+  enum Continuity {
+    /** Already part of the book, e.g. older than the snapshot: dropped. */
+    STALE,
+    /** Follows on from the book: applied. */
+    NEXT,
+    /** Some deltas were missed: the book needs a new snapshot. */
+    GAP
+  }
+
+  /** @return the sequence number the snapshot is at */
+  long getSnapshotSequence(S snapshot);
+
+  /** @return the sequence number the book is at once the delta is applied */
+  long getDeltaSequence(D delta);
+
+  /** @return whether the delta follows on from a book at the given sequence number */
+  Continuity check(long sequence, D delta);
+
+  /**
+   * Deltas covering a range of sequence numbers, like the {@code U} and {@code u} update ids of the
+   * Binance diff depth stream. A delta ending at or before the book is stale, one starting after
+   * the next sequence number leaves a gap. Overlapping deltas are applied since their levels are
+   * absolute.
+   */
+  static <S, D> SequenceStrategy<S, D> ranges(
+      ToLongFunction<S> snapshotSequence,
+      ToLongFunction<D> firstSequence,
+      ToLongFunction<D> lastSequence) {
+    return new SequenceStrategy<S, D>() {
+      @Override
+      public long getSnapshotSequence(S snapshot) {
+        return snapshotSequence.applyAsLong(snapshot);
+      }
+
+      @Override
+      public long getDeltaSequence(D delta) {
+        return lastSequence.applyAsLong(delta);
+      }
+
+      @Override
+      public Continuity check(long sequence, D delta) {
+        if (lastSequence.applyAsLong(delta) <= sequence) {
+          return Continuity.STALE;
+        }
+        return firstSequence.applyAsLong(delta) > sequence + 1 ? Continuity.GAP : Continuity.NEXT;
+      }
+    };
+  }
+
+  /** Deltas numbered one by one, like the {@code sequence} of the Coinbase Pro channels. */
+  static <S, D> SequenceStrategy<S, D> consecutive(
+      ToLongFunction<S> snapshotSequence, ToLongFunction<D> sequence) {
+    return ranges(snapshotSequence, sequence, sequence);
+  }
+}
@@ -0,0 +1,197 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import io.reactivex.Observable;
+import io.reactivex.ObservableTransformer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.instrument.Instrument;
+
+/**
+ * The top levels of an order book, e.g. the best bid and ask, updated from the books of a stream.
+ *
+ * <p>Only the top levels of each book are read, so a venue keeping its book in place can pass it
+ * after each message without copying it: {@link #update} compares the top levels with those of the
+ * last change and copies them only when a price or an amount differs.
+ *
+ * <pre>
+ * service.getOrderBook(pair).compose(TopOfBook.topOfBook(5)).subscribe(...);
+ * </pre>
+ *
+ * @see info.bitrich.xchangestream.core.StreamingMarketDataService#getTopOfBook
+ */
+public final class TopOfBook {
+
+  private final int depth;
+  private OrderBook top;
+
+  public TopOfBook(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Invalid depth " + depth);
+    }
+    this.depth = depth;
+  }
+
+  /**
+   * Emits the top levels of the books of a stream, only when they change.
+   *
+   * @param depth the levels of each side
+   */
+  public static ObservableTransformer<OrderBook, OrderBook> topOfBook(int depth) {
+    return books ->
+        Observable.defer(
+            () -> {
+              TopOfBook top = new TopOfBook(depth);
+              return books.filter(top::update).map(book -> top.get());
+            });
+  }
+
+  /** @return a book of one level on each side, e.g. from a best bid and ask channel */
+  public static OrderBook of(
+      Date timestamp,
+      Instrument instrument,
+      BigDecimal bid,
+      BigDecimal bidSize,
+      BigDecimal ask,
+      BigDecimal askSize) {
+    return new OrderBook(
+        timestamp,
+        level(OrderType.ASK, instrument, timestamp, ask, askSize),
+        level(OrderType.BID, instrument, timestamp, bid, bidSize));
+  }
+
+  private static List<LimitOrder> level(
+      OrderType type, Instrument instrument, Date timestamp, BigDecimal price, BigDecimal size) {
+    if (price == null || size == null || size.signum() == 0) {
+      return new ArrayList<>(0);
+    }
+    return new ArrayList<>(
+        Collections.singletonList(new LimitOrder(type, size, instrument, null, timestamp, price)));
+  }
+
+  /**
+   * Reads the top levels of the book.
+   *
+   * @return whether they differ from those of the last change, in which case they are copied
+   */
+  public boolean update(OrderBook book) {
+    if (top != null
+        && sameLevels(top.getAsks(), book.getAsks())
+        && sameLevels(top.getBids(), book.getBids())) {
+      return false;
+    }
+    top = new OrderBook(book.getTimeStamp(), copy(book.getAsks()), copy(book.getBids()));
+    return true;
+  }
+
+  /**
+   * Reads the top levels of a book kept by the exchange in another form, e.g. sorted maps of price
+   * to amount, without copying it. Levels with a zero amount are skipped.
+   *
+   * @param bids the bid levels, best first
+   * @param asks the ask levels, best first
+   * @param price the price of a level
+   * @param amount the amount of a level
+   * @return whether they differ from those of the last change, in which case they are copied
+   */
+  public <L> boolean update(
+      Instrument instrument,
+      Date timestamp,
+      Iterable<L> bids,
+      Iterable<L> asks,
+      Function<? super L, BigDecimal> price,
+      Function<? super L, BigDecimal> amount) {
+    if (top != null
+        && sameLevels(top.getAsks(), asks, price, amount)
+        && sameLevels(top.getBids(), bids, price, amount)) {
+      return false;
+    }
+    top =
+        new OrderBook(
+            timestamp,
+            copy(OrderType.ASK, instrument, timestamp, asks, price, amount),
+            copy(OrderType.BID, instrument, timestamp, bids, price, amount));
+    return true;
+  }
+
+  /** @return the top levels of the last change, null before the first book */
+  public OrderBook get() {
+    return top;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  private boolean sameLevels(List<LimitOrder> top, List<LimitOrder> levels) {
+    if (top.size() != Math.min(depth, levels.size())) {
+      return false;
+    }
+    for (int i = 0; i < top.size(); i++) {
+      LimitOrder previous = top.get(i);
+      LimitOrder level = levels.get(i);
+      if (previous.getLimitPrice().compareTo(level.getLimitPrice()) != 0
+          || previous.getOriginalAmount().compareTo(level.getOriginalAmount()) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private <L> boolean sameLevels(
+      List<LimitOrder> top,
+      Iterable<L> levels,
+      Function<? super L, BigDecimal> price,
+      Function<? super L, BigDecimal> amount) {
+    int i = 0;
+    for (L level : levels) {
+      if (i == depth) {
+        break;
+      }
+      BigDecimal levelAmount = amount.apply(level);
+      if (levelAmount.signum() == 0) {
+        continue;
+      }
+      if (i == top.size()) {
+        return false;
+      }
+      LimitOrder previous = top.get(i++);
+      if (previous.getLimitPrice().compareTo(price.apply(level)) != 0
+          || previous.getOriginalAmount().compareTo(levelAmount) != 0) {
+        return false;
+      }
+    }
+    return i == top.size();
+  }
+
+  private <L> List<LimitOrder> copy(
+      OrderType type,
+      Instrument instrument,
+      Date timestamp,
+      Iterable<L> levels,
+      Function<? super L, BigDecimal> price,
+      Function<? super L, BigDecimal> amount) {
+    List<LimitOrder> copy = new ArrayList<>(depth);
+    for (L level : levels) {
+      if (copy.size() == depth) {
+        break;
+      }
+      BigDecimal levelAmount = amount.apply(level);
+      if (levelAmount.signum() != 0) {
+        copy.add(
+            new LimitOrder(type, levelAmount, instrument, null, timestamp, price.apply(level)));
+      }
+    }
+    return copy;
+  }
+
+  private List<LimitOrder> copy(List<LimitOrder> levels) {
+    return new ArrayList<>(levels.subList(0, Math.min(depth, levels.size())));
+  }
+}
@@ -0,0 +1,84 @@
+package info.bitrich.xchangestream.core.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
+import io.reactivex.Observable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+public class BookAnalyticsTest {
+
+  private static LimitOrder order(OrderType type, String price, String amount) {
+    return new LimitOrder(
+        type, new BigDecimal(amount), CurrencyPair.BTC_USD, null, null, new BigDecimal(price));
+  }
+
+  @Test
+  public void testMicroprice() {
+    OrderBook best =
+        TopOfBook.of(
+            null,
+            CurrencyPair.BTC_USD,
+            new BigDecimal("100"),
+            new BigDecimal("3"),
+            new BigDecimal("102"),
+            new BigDecimal("1"));
+
+    // leans towards the ask, which has less liquidity
+    assertThat(BookAnalytics.microprice(best)).isCloseTo(101.5, within(1e-9));
+    assertThat(
+            Observable.just(best, new OrderBook(null, new ArrayList<>(), best.getBids()))
+                .compose(BookAnalytics.microprice())
+                .toList()
+                .blockingGet())
+        .hasSize(1);
+  }
+
+  @Test
+  public void testImbalance() {
+    OrderBook book =
+        new OrderBook(
+            null,
+            Arrays.asList(order(OrderType.ASK, "101", "1"), order(OrderType.ASK, "102", "5")),
+            Arrays.asList(order(OrderType.BID, "99", "2"), order(OrderType.BID, "98", "2")));
+
+    assertThat(BookAnalytics.imbalance(book, 1)).isCloseTo(1.0 / 3, within(1e-9));
+    assertThat(BookAnalytics.imbalance(book, 10)).isCloseTo(-0.2, within(1e-9));
+    assertThat(
+            BookAnalytics.imbalance(new OrderBook(null, new ArrayList<>(), new ArrayList<>()), 5))
+        .isNaN();
+  }
+
+  @Test
+  public void testSkipsTheBooksWithoutAmount() {
+    OrderBook empty =
+        new OrderBook(
+            null,
+            Arrays.asList(order(OrderType.ASK, "101", "0")),
+            Arrays.asList(order(OrderType.BID, "99", "0")));
+    OrderBook book =
+        new OrderBook(
+            null,
+            Arrays.asList(order(OrderType.ASK, "101", "1")),
+            Arrays.asList(order(OrderType.BID, "99", "1")));
+
+    assertThat(BookAnalytics.microprice(empty)).isNaN();
+    assertThat(BookAnalytics.imbalance(empty, 1)).isNaN();
+    assertThat(
+            Observable.just(empty, book).compose(BookAnalytics.microprice()).toList().blockingGet())
+        .extracting(BigDecimal::doubleValue)
+        .containsExactly(100.0);
+    assertThat(
+            Observable.just(empty, book).compose(BookAnalytics.imbalance(1)).toList().blockingGet())
+        .extracting(BigDecimal::doubleValue)
+        .containsExactly(0.0);
+  }
+}
@@ -0,0 +1,90 @@
+package info.bitrich.xchangestream.core.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import io.reactivex.Observable;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Trade;
+
+public class RollingVwapTest {
+
+  @Test
+  public void testEvictsTheTradesOutOfTheWindow() {
+    RollingVwap vwap = new RollingVwap(10, TimeUnit.SECONDS);
+    assertThat(vwap.get()).isNaN();
+
+    vwap.add(1_000, 100, 1);
+    vwap.add(5_000, 110, 3);
+    assertThat(vwap.get()).isCloseTo(107.5, within(1e-9));
+
+    vwap.add(11_000, 120, 1);
+    assertThat(vwap.getCount()).isEqualTo(2);
+    assertThat(vwap.get()).isCloseTo(112.5, within(1e-9));
+
+    vwap.add(30_000, 90, 2);
+    assertThat(vwap.getCount()).isEqualTo(1);
+    assertThat(vwap.getVolume()).isEqualTo(2);
+    assertThat(vwap.get()).isEqualTo(90);
+  }
+
+  @Test
+  public void testSkipsTheTradesAfterWhichItIsUndefined() {
+    assertThat(
+            Observable.just(trade(1_000, "100", "0"), trade(2_000, "110", "2"))
+                .compose(RollingVwap.vwap(10, TimeUnit.SECONDS))
+                .toList()
+                .blockingGet())
+        .extracting(BigDecimal::doubleValue)
+        .containsExactly(110.0);
+  }
+
+  @Test
+  public void testGrowsAndWrapsTheRing() {
+    RollingVwap vwap = new RollingVwap(100, TimeUnit.MILLISECONDS);
+    for (int i = 0; i < 1000; i++) {
+      vwap.add(i, i % 2 == 0 ? 100 : 200, 1);
+    }
+    // the trades from 900 to 999
+    assertThat(vwap.getCount()).isEqualTo(100);
+    assertThat(vwap.getVolume()).isCloseTo(100, within(1e-9));
+    assertThat(vwap.get()).isCloseTo(150, within(1e-9));
+  }
+
+  @Test
+  public void testTimesTheTradesWithoutTimestampByTheClock() {
+    RollingVwap vwap =
+        new RollingVwap(
+            10, TimeUnit.SECONDS, Clock.fixed(Instant.ofEpochMilli(30_000), ZoneOffset.UTC));
+    vwap.add(1_000, 100, 1);
+    vwap.add(untimed("90", "2"));
+
+    // the trade at 1s left the window of the one timed at 30s
+    assertThat(vwap.getCount()).isEqualTo(1);
+    assertThat(vwap.get()).isEqualTo(90);
+  }
+
+  private static Trade untimed(String price, String amount) {
+    return new Trade.Builder()
+        .instrument(CurrencyPair.BTC_USD)
+        .price(new BigDecimal(price))
+        .originalAmount(new BigDecimal(amount))
+        .build();
+  }
+
+  private static Trade trade(long timeMillis, String price, String amount) {
+    return new Trade.Builder()
+        .instrument(CurrencyPair.BTC_USD)
+        .timestamp(new Date(timeMillis))
+        .price(new BigDecimal(price))
+        .originalAmount(new BigDecimal(amount))
+        .build();
+  }
+}
@@ -0,0 +1,99 @@
+package info.bitrich.xchangestream.core.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.reactivex.Observable;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.dto.marketdata.Trade;
+
+public class TradeBarsTest {
+
+  private static Trade trade(long timeMillis, String price, String amount) {
+    return new Trade.Builder()
+        .instrument(CurrencyPair.BTC_USD)
+        .timestamp(new Date(timeMillis))
+        .price(new BigDecimal(price))
+        .originalAmount(new BigDecimal(amount))
+        .build();
+  }
+
+  @Test
+  public void testTimeBars() {
+    List<Kline> bars =
+        Observable.just(
+                trade(60_000, "100", "1"),
+                trade(70_000, "102", "2"),
+                trade(110_000, "99", "1"),
+                trade(200_000, "101", "0.5"),
+                trade(230_000, "103", "0.5"))
+            .compose(TradeBars.timeBars(1, TimeUnit.MINUTES))
+            .toList()
+            .blockingGet();
+
+    assertThat(bars).hasSize(2);
+    Kline first = bars.get(0);
+    assertThat(first.getInstrument()).isEqualTo(CurrencyPair.BTC_USD);
+    assertThat(first.getTimestamp().getTime()).isEqualTo(60_000);
+    assertThat(first.getOpen()).isEqualByComparingTo("100");
+    assertThat(first.getHigh()).isEqualByComparingTo("102");
+    assertThat(first.getLow()).isEqualByComparingTo("99");
+    assertThat(first.getClose()).isEqualByComparingTo("99");
+    assertThat(first.getVolume()).isEqualByComparingTo("4");
+    assertThat(first.getQuoteVolume()).isEqualByComparingTo("403");
+    assertThat(first.getCount()).isEqualTo(3);
+
+    // the period without trades has no bar, the last one is emitted on completion
+    Kline last = bars.get(1);
+    assertThat(last.getTimestamp().getTime()).isEqualTo(180_000);
+    assertThat(last.getOpen()).isEqualByComparingTo("101");
+    assertThat(last.getClose()).isEqualByComparingTo("103");
+    assertThat(last.getCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testVolumeBars() {
+    TradeBars bars = TradeBars.forVolume(new BigDecimal("2"));
+
+    assertThat(bars.add(trade(1, "100", "1.5"))).isFalse();
+    assertThat(bars.add(trade(2, "101", "1"))).isTrue();
+    Kline bar = bars.take();
+    assertThat(bar.getVolume()).isEqualByComparingTo("2.5");
+    assertThat(bar.getClose()).isEqualByComparingTo("101");
+    assertThat(bar.getTimestamp().getTime()).isEqualTo(1);
+    assertThat(bars.take()).isNull();
+
+    assertThat(bars.add(trade(3, "98", "0.5"))).isFalse();
+    Kline partial = bars.flush();
+    assertThat(partial.getOpen()).isEqualByComparingTo("98");
+    assertThat(partial.getId()).isEqualTo(bar.getId() + 1);
+    assertThat(bars.flush()).isNull();
+  }
+
+  @Test
+  public void testTimesTheTradesWithoutTimestampByTheClock() {
+    TradeBars bars =
+        TradeBars.forPeriod(
+            1, TimeUnit.MINUTES, Clock.fixed(Instant.ofEpochMilli(150_000), ZoneOffset.UTC));
+
+    assertThat(bars.add(trade(60_000, "100", "1"))).isFalse();
+    assertThat(
+            bars.add(
+                new Trade.Builder()
+                    .instrument(CurrencyPair.BTC_USD)
+                    .price(new BigDecimal("101"))
+                    .originalAmount(BigDecimal.ONE)
+                    .build()))
+        .isTrue();
+    assertThat(bars.take().getClose()).isEqualByComparingTo("100");
+    assertThat(bars.flush().getTimestamp().getTime()).isEqualTo(120_000);
+  }
+}
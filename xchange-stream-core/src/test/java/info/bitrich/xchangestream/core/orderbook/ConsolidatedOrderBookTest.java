@@ -0,0 +1,175 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import info.bitrich.xchangestream.core.orderbook.ConsolidatedOrderBook.Level;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+public class ConsolidatedOrderBookTest {
+
+  private static final CurrencyPair XBT_USD = new CurrencyPair("XBT/USD");
+
+  private final ConsolidatedOrderBook book = new ConsolidatedOrderBook(CurrencyPair.BTC_USD);
+
+  private static LimitOrder order(OrderType type, String price, String amount) {
+    return new LimitOrder(type, new BigDecimal(amount), XBT_USD, null, null, new BigDecimal(price));
+  }
+
+  private static OrderBook orderBook(List<LimitOrder> asks, List<LimitOrder> bids) {
+    return new OrderBook(null, asks, bids);
+  }
+
+  @Test
+  public void testMergesLevelsOfTheVenues() {
+    book.update(
+        "kraken",
+        orderBook(
+            Arrays.asList(order(OrderType.ASK, "101.0", "1"), order(OrderType.ASK, "102", "2")),
+            Collections.singletonList(order(OrderType.BID, "99", "3"))));
+    book.update(
+        "bitstamp",
+        orderBook(
+            Collections.singletonList(order(OrderType.ASK, "101.00", "0.5")),
+            Collections.singletonList(order(OrderType.BID, "100", "1"))));
+
+    Level bestAsk = book.getBest(OrderType.ASK);
+    assertThat(bestAsk.getPrice()).isEqualByComparingTo("101");
+    assertThat(bestAsk.getAmount()).isEqualByComparingTo("1.5");
+    assertThat(bestAsk.getVenues()).containsOnlyKeys("kraken", "bitstamp");
+    assertThat(book.getBest(OrderType.BID, 5))
+        .extracting(Level::getPrice)
+        .containsExactly(new BigDecimal("100"), new BigDecimal("99"));
+    assertThat(book.toOrderBook(1).getAsks()).hasSize(1);
+  }
+
+  @Test
+  public void testDiffsTheNewBookOfAVenue() {
+    book.update(
+        "kraken",
+        orderBook(
+            Arrays.asList(order(OrderType.ASK, "101", "1"), order(OrderType.ASK, "102", "2")),
+            Collections.emptyList()));
+    book.update(
+        "bitstamp",
+        orderBook(
+            Collections.singletonList(order(OrderType.ASK, "102", "1")), Collections.emptyList()));
+    TestObserver<ConsolidatedOrderBook> changes = book.getChanges().test();
+
+    book.update(
+        "kraken",
+        orderBook(
+            Collections.singletonList(order(OrderType.ASK, "102", "3")), Collections.emptyList()));
+    // the same book again changes nothing
+    book.update(
+        "kraken",
+        orderBook(
+            Collections.singletonList(order(OrderType.ASK, "102", "3")), Collections.emptyList()));
+
+    changes.assertValueCount(1);
+    List<Level> asks = book.getBest(OrderType.ASK, 5);
+    assertThat(asks).hasSize(1);
+    assertThat(asks.get(0).getAmount()).isEqualByComparingTo("4");
+    assertThat(asks.get(0).getVenues().get("kraken")).isEqualByComparingTo("3");
+  }
+
+  @Test
+  public void testMergesTheOrdersOfALevelAndDiffsUnsortedBooks() {
+    book.update(
+        "coinbasepro",
+        orderBook(
+            Arrays.asList(
+                order(OrderType.ASK, "101", "1"),
+                order(OrderType.ASK, "101.0", "2"),
+                order(OrderType.ASK, "103", "1")),
+            Collections.emptyList()));
+    assertThat(book.getBest(OrderType.ASK).getAmount()).isEqualByComparingTo("3");
+
+    book.update(
+        "coinbasepro",
+        new OrderBook(
+            null,
+            Arrays.asList(
+                order(OrderType.ASK, "102", "1"),
+                order(OrderType.ASK, "101", "1"),
+                order(OrderType.ASK, "102", "1")),
+            Collections.emptyList(),
+            false));
+
+    assertThat(book.getBest(OrderType.ASK, 5))
+        .extracting(Level::getPrice, Level::getAmount)
+        .containsExactly(
+            tuple(new BigDecimal("101"), new BigDecimal("1")),
+            tuple(new BigDecimal("102"), new BigDecimal("2")));
+  }
+
+  @Test
+  public void testEmitsUnderTheLockOfTheBook() {
+    List<Boolean> locked = new ArrayList<>();
+    book.getChanges().subscribe(changed -> locked.add(Thread.holdsLock(changed)));
+
+    book.update(
+        "kraken",
+        orderBook(
+            Collections.singletonList(order(OrderType.ASK, "101", "1")), Collections.emptyList()));
+    book.update("kraken", update(OrderType.BID, "99", "1"));
+    book.removeVenue("kraken");
+
+    assertThat(locked).containsExactly(true, true, true);
+  }
+
+  @Test
+  public void testAppliesLevelUpdatesAndRemovesVenues() {
+    PublishSubject<OrderBookUpdate> binance = PublishSubject.create();
+    Disposable subscription = book.connectUpdates("binance", binance);
+    book.update(
+        "kraken",
+        orderBook(
+            Collections.emptyList(), Collections.singletonList(order(OrderType.BID, "99", "1"))));
+
+    binance.onNext(update(OrderType.BID, "99", "2"));
+    binance.onNext(update(OrderType.BID, "100", "1"));
+    assertThat(book.getBest(OrderType.BID).getPrice()).isEqualByComparingTo("100");
+    assertThat(book.getBest(OrderType.BID, 2).get(1).getAmount()).isEqualByComparingTo("3");
+
+    binance.onNext(update(OrderType.BID, "100", "0"));
+    assertThat(book.getDepth(OrderType.BID)).isEqualTo(1);
+
+    subscription.dispose();
+    assertThat(book.getBest(OrderType.BID).getAmount()).isEqualByComparingTo("1");
+    assertThat(book.getBest(OrderType.BID).getVenues()).containsOnlyKeys("kraken");
+  }
+
+  @Test
+  public void testNormalizesPairs() {
+    assertThat(book.getCurrencyPair()).isEqualTo(CurrencyPair.BTC_USD);
+    assertThat(ConsolidatedOrderBook.normalize(XBT_USD)).isEqualTo(CurrencyPair.BTC_USD);
+    assertThatThrownBy(() -> book.connect("kraken", null, CurrencyPair.ETH_USD))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static OrderBookUpdate update(OrderType type, String price, String volume) {
+    return new OrderBookUpdate(
+        type,
+        new BigDecimal(volume),
+        XBT_USD,
+        new BigDecimal(price),
+        new Date(),
+        new BigDecimal(volume));
+  }
+}
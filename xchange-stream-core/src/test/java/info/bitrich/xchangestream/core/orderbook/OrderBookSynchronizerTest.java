@@ -0,0 +1,149 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderBookSynchronizerTest {
+
+  /** A delta covering the update ids first to last, like a Binance depth event. */
+  private static final class Delta {
+    final long first;
+    final long last;
+
+    Delta(long first, long last) {
+      this.first = first;
+      this.last = last;
+    }
+  }
+
+  /** Records what was applied, the snapshot being a plain update id. */
+  private final class Book implements BookUpdater<Long, Delta> {
+    final List<Long> applied = new ArrayList<>();
+    Long snapshot;
+
+    @Override
+    public void reset(Long snapshot) {
+      this.snapshot = snapshot;
+      applied.clear();
+    }
+
+    @Override
+    public boolean apply(Delta delta) {
+      applied.add(delta.last);
+      return true;
+    }
+
+    @Override
+    public void clear() {
+      snapshot = null;
+      applied.clear();
+    }
+  }
+
+  private Book book;
+  private int snapshotRequests;
+  private OrderBookSynchronizer<Long, Delta> synchronizer;
+
+  @Before
+  public void setUp() {
+    book = new Book();
+    synchronizer =
+        new OrderBookSynchronizer<>(
+            "BTC/USDT",
+            SequenceStrategy.ranges(
+                snapshot -> snapshot, delta -> delta.first, delta -> delta.last),
+            book,
+            () -> snapshotRequests++,
+            3);
+  }
+
+  @Test
+  public void testBuffersUntilTheSnapshotThenReplays() {
+    assertThat(synchronizer.onDelta(new Delta(1, 3))).isFalse();
+    assertThat(synchronizer.onDelta(new Delta(4, 6))).isFalse();
+    assertThat(snapshotRequests).isEqualTo(1);
+
+    synchronizer.offerSnapshot(5L);
+    assertThat(synchronizer.onDelta(new Delta(7, 9))).isTrue();
+
+    // 1-3 is stale, 4-6 overlaps the snapshot
+    assertThat(book.snapshot).isEqualTo(5);
+    assertThat(book.applied).containsExactly(6L, 9L);
+    assertThat(synchronizer.isSynced()).isTrue();
+    assertThat(synchronizer.getSequence()).isEqualTo(9);
+
+    assertThat(synchronizer.onDelta(new Delta(5, 8))).isFalse();
+    assertThat(synchronizer.onDelta(new Delta(10, 10))).isTrue();
+    assertThat(book.applied).containsExactly(6L, 9L, 10L);
+  }
+
+  @Test
+  public void testRequestsAnotherSnapshotWhenOutOfDate() {
+    synchronizer.onDelta(new Delta(4, 6));
+    synchronizer.offerSnapshot(2L);
+
+    assertThat(synchronizer.onDelta(new Delta(7, 9))).isFalse();
+    assertThat(snapshotRequests).isEqualTo(2);
+    assertThat(book.snapshot).isNull();
+
+    synchronizer.offerSnapshot(6L);
+    assertThat(synchronizer.onDelta(new Delta(10, 12))).isTrue();
+    assertThat(book.applied).containsExactly(9L, 12L);
+  }
+
+  @Test
+  public void testResyncsOnGap() {
+    synchronizer.onDelta(new Delta(1, 1));
+    synchronizer.offerSnapshot(1L);
+    assertThat(synchronizer.onDelta(new Delta(2, 2))).isTrue();
+
+    assertThat(synchronizer.onDelta(new Delta(4, 4))).isFalse();
+    assertThat(synchronizer.isSynced()).isFalse();
+    assertThat(synchronizer.getResyncCount()).isEqualTo(1);
+    assertThat(book.snapshot).isNull();
+    assertThat(snapshotRequests).isEqualTo(2);
+
+    synchronizer.offerSnapshot(3L);
+    assertThat(synchronizer.onDelta(new Delta(5, 5))).isTrue();
+    assertThat(book.applied).containsExactly(4L, 5L);
+  }
+
+  @Test
+  public void testRequestsOneSnapshotAtATimeAndBoundsTheBuffer() {
+    for (int i = 1; i <= 10; i++) {
+      synchronizer.onDelta(new Delta(i, i));
+    }
+    // the first request, and a newer one once delta 1 was dropped from the buffer
+    assertThat(snapshotRequests).isEqualTo(2);
+
+    synchronizer.snapshotFailed();
+    synchronizer.onDelta(new Delta(11, 11));
+    assertThat(snapshotRequests).isEqualTo(3);
+
+    // only the last 3 deltas are still buffered, 10 to 12 once 12 is received
+    synchronizer.offerSnapshot(9L);
+    assertThat(synchronizer.onDelta(new Delta(12, 12))).isTrue();
+    assertThat(book.applied).containsExactly(10L, 11L, 12L);
+  }
+
+  @Test
+  public void testKeepsTheNewestSnapshotOffered() {
+    synchronizer.onDelta(new Delta(1, 1));
+    for (int i = 2; i <= 5; i++) {
+      synchronizer.onDelta(new Delta(i, i));
+    }
+    assertThat(snapshotRequests).isEqualTo(2);
+
+    // the answer of the second request comes first
+    synchronizer.offerSnapshot(3L);
+    synchronizer.offerSnapshot(0L);
+    assertThat(synchronizer.onDelta(new Delta(6, 6))).isTrue();
+    assertThat(book.snapshot).isEqualTo(3);
+    assertThat(book.applied).containsExactly(4L, 5L, 6L);
+    assertThat(snapshotRequests).isEqualTo(2);
+  }
+}
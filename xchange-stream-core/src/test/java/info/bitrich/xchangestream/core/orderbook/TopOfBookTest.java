@@ -0,0 +1,132 @@
+package info.bitrich.xchangestream.core.orderbook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.reactivex.observers.TestObserver;
+import io.reactivex.subjects.PublishSubject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.trade.LimitOrder;
+
+public class TopOfBookTest {
+
+  private static LimitOrder order(OrderType type, String price, String amount) {
+    return new LimitOrder(
+        type, new BigDecimal(amount), CurrencyPair.BTC_USD, null, null, new BigDecimal(price));
+  }
+
+  private static OrderBook book() {
+    return new OrderBook(
+        null,
+        new ArrayList<>(
+            Arrays.asList(
+                order(OrderType.ASK, "101", "1"),
+                order(OrderType.ASK, "102", "2"),
+                order(OrderType.ASK, "103", "3"))),
+        new ArrayList<>(
+            Arrays.asList(order(OrderType.BID, "99", "1"), order(OrderType.BID, "98", "2"))));
+  }
+
+  @Test
+  public void testEmitsOnlyWhenTheTopLevelsChange() {
+    PublishSubject<OrderBook> books = PublishSubject.create();
+    TestObserver<OrderBook> top = books.compose(TopOfBook.topOfBook(2)).test();
+
+    OrderBook book = book();
+    books.onNext(book);
+    // beyond the depth
+    book.update(order(OrderType.ASK, "103", "5"));
+    books.onNext(book);
+    // same levels, other scale
+    book.update(order(OrderType.BID, "99.0", "1.00"));
+    books.onNext(book);
+    top.assertValueCount(1);
+    assertThat(top.values().get(0).getAsks()).hasSize(2);
+    assertThat(top.values().get(0).getBids()).hasSize(2);
+
+    book.update(order(OrderType.ASK, "102", "0.5"));
+    books.onNext(book);
+    book.update(order(OrderType.BID, "99", "0"));
+    books.onNext(book);
+    top.assertValueCount(3);
+    assertThat(top.values().get(1).getAsks().get(1).getOriginalAmount())
+        .isEqualByComparingTo("0.5");
+    assertThat(top.values().get(2).getBids())
+        .extracting(LimitOrder::getLimitPrice)
+        .containsExactly(new BigDecimal("98"));
+    // the emitted levels are copies, not views of the book
+    assertThat(top.values().get(0).getBids()).hasSize(2);
+  }
+
+  @Test
+  public void testReadsTheTopOfSortedMaps() {
+    SortedMap<BigDecimal, BigDecimal> bids = new TreeMap<>(Collections.reverseOrder());
+    SortedMap<BigDecimal, BigDecimal> asks = new TreeMap<>();
+    bids.put(new BigDecimal("99"), BigDecimal.ONE);
+    bids.put(new BigDecimal("98"), new BigDecimal("2"));
+    asks.put(new BigDecimal("101"), BigDecimal.ZERO);
+    asks.put(new BigDecimal("102"), new BigDecimal("2"));
+    asks.put(new BigDecimal("103"), new BigDecimal("3"));
+    TopOfBook topOfBook = new TopOfBook(1);
+
+    assertThat(update(topOfBook, bids, asks)).isTrue();
+    // the level without amount is skipped
+    assertThat(topOfBook.get().getAsks())
+        .extracting(LimitOrder::getLimitPrice)
+        .containsExactly(new BigDecimal("102"));
+    assertThat(topOfBook.get().getBids().get(0).getType()).isEqualTo(OrderType.BID);
+
+    asks.put(new BigDecimal("103"), BigDecimal.ONE);
+    assertThat(update(topOfBook, bids, asks)).isFalse();
+    bids.remove(new BigDecimal("99"));
+    assertThat(update(topOfBook, bids, asks)).isTrue();
+    assertThat(topOfBook.get().getBids().get(0).getLimitPrice()).isEqualByComparingTo("98");
+    bids.clear();
+    assertThat(update(topOfBook, bids, asks)).isTrue();
+    assertThat(topOfBook.get().getBids()).isEmpty();
+  }
+
+  private static boolean update(
+      TopOfBook topOfBook,
+      SortedMap<BigDecimal, BigDecimal> bids,
+      SortedMap<BigDecimal, BigDecimal> asks) {
+    return topOfBook.update(
+        CurrencyPair.BTC_USD,
+        null,
+        bids.entrySet(),
+        asks.entrySet(),
+        Map.Entry::getKey,
+        Map.Entry::getValue);
+  }
+
+  @Test
+  public void testBestBidAndAsk() {
+    OrderBook best =
+        TopOfBook.of(
+            null,
+            CurrencyPair.BTC_USD,
+            new BigDecimal("99"),
+            BigDecimal.ONE,
+            new BigDecimal("101"),
+            BigDecimal.ZERO);
+
+    assertThat(best.getBids()).hasSize(1);
+    assertThat(best.getBids().get(0).getType()).isEqualTo(OrderType.BID);
+    assertThat(best.getAsks()).isEmpty();
+
+    TopOfBook topOfBook = new TopOfBook(1);
+    assertThat(topOfBook.update(best)).isTrue();
+    assertThat(topOfBook.update(book())).isTrue();
+    assertThat(topOfBook.get().getAsks()).hasSize(1);
+    assertThat(topOfBook.update(book())).isFalse();
+  }
+}
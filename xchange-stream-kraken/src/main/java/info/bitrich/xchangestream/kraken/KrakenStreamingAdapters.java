@@ -4,16 +4,22 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Streams;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.ScaledDecimal;
+import org.knowm.xchange.dto.marketdata.BookLevel;
 import org.knowm.xchange.dto.marketdata.OrderBook;
 import org.knowm.xchange.dto.marketdata.Ticker;
 import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.dto.marketdata.TradeTick;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.instrument.Instrument;
 import org.knowm.xchange.kraken.KrakenAdapters;
@@ -34,28 +40,83 @@ public class KrakenStreamingAdapters {
 
   public static OrderBook adaptOrderbookMessage(
       OrderBook orderBook, Instrument instrument, ArrayNode arrayNode) {
+    updateOrderbook(orderBook, instrument, arrayNode);
+    return new OrderBook(
+        orderBook.getTimeStamp(),
+        Lists.newArrayList(orderBook.getAsks()),
+        Lists.newArrayList(orderBook.getBids()),
+        true);
+  }
+
+  /** Apply the levels of an order book message to the order book, in place */
+  public static void updateOrderbook(
+      OrderBook orderBook, Instrument instrument, ArrayNode arrayNode) {
     Streams.stream(arrayNode.elements())
         .filter(JsonNode::isObject)
         .forEach(
             currentNode -> {
               for (String key : BID_KEYS) {
-                if (currentNode.has(key)) {
-                  adaptLimitOrders(instrument, Order.OrderType.BID, currentNode.get(key))
-                      .forEach(orderBook::update);
-                }
+                updateOrderbook(orderBook, instrument, Order.OrderType.BID, currentNode.get(key));
               }
               for (String key : ASK_KEYS) {
-                if (currentNode.has(key)) {
-                  adaptLimitOrders(instrument, Order.OrderType.ASK, currentNode.get(key))
-                      .forEach(orderBook::update);
-                }
+                updateOrderbook(orderBook, instrument, Order.OrderType.ASK, currentNode.get(key));
               }
             });
-    return new OrderBook(
-        orderBook.getTimeStamp(),
-        Lists.newArrayList(orderBook.getAsks()),
-        Lists.newArrayList(orderBook.getBids()),
-        true);
+  }
+
+  private static void updateOrderbook(
+      OrderBook orderBook, Instrument instrument, Order.OrderType orderType, JsonNode node) {
+    if (node == null || !node.isArray()) {
+      return;
+    }
+    for (JsonNode level : node) {
+      if (level.isArray()) {
+        orderBook.update(instrument, adaptBookLevel(orderType, level));
+      }
+    }
+  }
+
+  /**
+   * Adapt a JsonNode containing the price, volume and timestamp of a book level into a BookLevel,
+   * the price and volume with the decimals Kraken sent
+   */
+  public static BookLevel adaptBookLevel(Order.OrderType orderType, JsonNode node) {
+    ScaledDecimal price = ScaledDecimal.parse(node.get(0).textValue());
+    ScaledDecimal volume = ScaledDecimal.parse(node.get(1).textValue());
+    return new BookLevel(
+        orderType,
+        price.getUnscaledValue(),
+        price.getScale(),
+        volume.getUnscaledValue(),
+        volume.getScale(),
+        nodeAsMillis(node.get(2), BookLevel.NO_TIMESTAMP));
+  }
+
+  /**
+   * Adapt an ArrayNode containing a spread message, the best bid and ask, into an OrderBook of one
+   * level on each side
+   */
+  public static OrderBook adaptSpreadMessage(Instrument instrument, ArrayNode arrayNode) {
+    return Streams.stream(arrayNode.elements())
+        .filter(JsonNode::isArray)
+        .map(
+            spreadNode -> {
+              Iterator<JsonNode> iterator = spreadNode.elements();
+              BigDecimal bid = nextNodeAsDecimal(iterator);
+              BigDecimal ask = nextNodeAsDecimal(iterator);
+              BigDecimal timestamp = nextNodeAsDecimal(iterator);
+              BigDecimal bidVolume = nextNodeAsDecimal(iterator);
+              BigDecimal askVolume = nextNodeAsDecimal(iterator);
+              return TopOfBook.of(
+                  timestamp == null ? null : new Date(timestamp.movePointRight(3).longValue()),
+                  instrument,
+                  bid,
+                  bidVolume,
+                  ask,
+                  askVolume);
+            })
+        .findFirst()
+        .orElse(null);
   }
 
   /**
@@ -72,16 +133,20 @@ public class KrakenStreamingAdapters {
         .map(jsonNode -> adaptLimitOrder(instrument, orderType, jsonNode));
   }
 
-  /** Adapt a JsonNode containing two decimals into a LimitOrder */
+  /**
+   * Adapt a JsonNode containing two decimals into a LimitOrder, with a scaled limit price so that
+   * the order book compares the levels as longs
+   */
   public static LimitOrder adaptLimitOrder(
       Instrument instrument, Order.OrderType orderType, JsonNode node) {
     if (node == null || !node.isArray()) {
       return null;
     }
     Iterator<JsonNode> iterator = node.elements();
-    BigDecimal price = nextNodeAsDecimal(iterator);
+    ScaledDecimal price = nextNodeAsScaledDecimal(iterator);
     BigDecimal volume = nextNodeAsDecimal(iterator);
-    return new LimitOrder(orderType, volume, instrument, null, null, price);
+    return new LimitOrder(
+        orderType, volume, instrument, null, null, null, null, null, null, null, price);
   }
 
   /** Adapt an ArrayNode containing a ticker message into a Ticker */
@@ -131,6 +196,33 @@ public class KrakenStreamingAdapters {
         .collect(Collectors.toList());
   }
 
+  /** Adapt an JsonNode into a list of TradeTick */
+  public static List<TradeTick> adaptTradeTicks(JsonNode arrayNode) {
+    List<TradeTick> ticks = new ArrayList<>();
+    for (JsonNode innerNode : arrayNode) {
+      if (innerNode.isArray()) {
+        for (JsonNode tradeNode : innerNode) {
+          ticks.add(adaptTradeTick(tradeNode));
+        }
+      }
+    }
+    return ticks;
+  }
+
+  /** Adapt an JsonNode into a single TradeTick, with the decimals Kraken sent */
+  public static TradeTick adaptTradeTick(JsonNode arrayNode) {
+    ScaledDecimal price = ScaledDecimal.parse(arrayNode.get(0).textValue());
+    ScaledDecimal volume = ScaledDecimal.parse(arrayNode.get(1).textValue());
+    return new TradeTick(
+        KrakenAdapters.adaptOrderType(KrakenType.fromString(arrayNode.get(3).textValue())),
+        price.getUnscaledValue(),
+        price.getScale(),
+        volume.getUnscaledValue(),
+        volume.getScale(),
+        nodeAsMillis(arrayNode.get(2), TradeTick.NO_TIMESTAMP),
+        null);
+  }
+
   /** Adapt an JsonNode into a single Trade */
   public static Trade adaptTrade(Instrument instrument, JsonNode arrayNode) {
     if (arrayNode == null || !arrayNode.isArray()) {
@@ -138,7 +230,7 @@ public class KrakenStreamingAdapters {
     }
     Iterator<JsonNode> iterator = arrayNode.iterator();
     return new Trade.Builder()
-        .price(nextNodeAsDecimal(iterator))
+        .scaledPrice(nextNodeAsScaledDecimal(iterator))
         .originalAmount(nextNodeAsDecimal(iterator))
         .timestamp(nextNodeAsDate(iterator))
         .type(nextNodeAsOrderType(iterator))
@@ -157,6 +249,31 @@ public class KrakenStreamingAdapters {
     return new BigDecimal(iterator.next().textValue()).stripTrailingZeros();
   }
 
+  /**
+   * Checks if a iterator has next node and returns the value as a ScaledDecimal with the decimal
+   * places Kraken sent, a fixed number per pair. Returns null if the iterator has no next value or
+   * the given iterator is null.
+   */
+  private static ScaledDecimal nextNodeAsScaledDecimal(Iterator<JsonNode> iterator) {
+    if (iterator == null || !iterator.hasNext()) {
+      return null;
+    }
+    return ScaledDecimal.parse(iterator.next().textValue());
+  }
+
+  /**
+   * Returns the value of a node holding seconds with a fraction, e.g. "1534614057.321597", as epoch
+   * millis. Returns the given default if the node is missing.
+   */
+  private static long nodeAsMillis(JsonNode node, long defaultValue) {
+    if (node == null || node.isNull()) {
+      return defaultValue;
+    }
+    ScaledDecimal seconds = ScaledDecimal.parse(node.asText());
+    return ScaledDecimal.rescale(
+        seconds.getUnscaledValue(), seconds.getScale(), 3, RoundingMode.DOWN);
+  }
+
   /**
    * Checks if a iterator has next node and returns the value as a Date using the long value as
    * timestamp. Returns null if the iterator has no next value or the given iterator is null.
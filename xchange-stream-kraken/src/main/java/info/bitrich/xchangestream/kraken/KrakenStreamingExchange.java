@@ -5,10 +5,13 @@ import info.bitrich.xchangestream.core.ProductSubscription;
 import info.bitrich.xchangestream.core.StreamingExchange;
 import info.bitrich.xchangestream.core.StreamingMarketDataService;
 import info.bitrich.xchangestream.core.StreamingTradeService;
+import info.bitrich.xchangestream.service.netty.ChannelMetrics;
 import info.bitrich.xchangestream.service.netty.ConnectionStateModel.State;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import org.apache.commons.lang3.StringUtils;
 import org.knowm.xchange.ExchangeSpecification;
 import org.knowm.xchange.kraken.KrakenExchange;
@@ -48,11 +51,13 @@ public class KrakenStreamingExchange extends KrakenExchange implements Streaming
 
     this.streamingService =
         new KrakenStreamingService(false, pickUri(false, useBeta), () -> authData(accountService));
+    applyStreamingSpecification(exchangeSpecification, streamingService);
     this.streamingMarketDataService = new KrakenStreamingMarketDataService(streamingService);
 
     if (StringUtils.isNotEmpty(exchangeSpecification.getApiKey())) {
       this.privateStreamingService =
           new KrakenStreamingService(true, pickUri(true, useBeta), () -> authData(accountService));
+      applyStreamingSpecification(exchangeSpecification, privateStreamingService);
     }
 
     streamingTradeService = new KrakenStreamingTradeService(privateStreamingService);
@@ -93,6 +98,15 @@ public class KrakenStreamingExchange extends KrakenExchange implements Streaming
     return streamingService.subscribeConnectionState();
   }
 
+  @Override
+  public Map<String, ChannelMetrics> getChannelMetrics() {
+    Map<String, ChannelMetrics> metrics = new HashMap<>(streamingService.getChannelMetrics());
+    if (privateStreamingService != null) {
+      metrics.putAll(privateStreamingService.getChannelMetrics());
+    }
+    return metrics;
+  }
+
   @Override
   public ExchangeSpecification getDefaultExchangeSpecification() {
     ExchangeSpecification spec = super.getDefaultExchangeSpecification();
@@ -3,14 +3,17 @@ package info.bitrich.xchangestream.kraken;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.collect.Lists;
 import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import info.bitrich.xchangestream.core.orderbook.TopOfBook;
 import info.bitrich.xchangestream.kraken.dto.enums.KrakenSubscriptionName;
 import io.reactivex.Observable;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.ArrayUtils;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.marketdata.Kline;
 import org.knowm.xchange.dto.marketdata.OrderBook;
 import org.knowm.xchange.dto.marketdata.Ticker;
 import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.dto.marketdata.TradeTick;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +45,38 @@ public class KrakenStreamingMarketDataService implements StreamingMarketDataServ
                 KrakenStreamingAdapters.adaptOrderbookMessage(orderBook, currencyPair, arrayNode));
   }
 
+  /**
+   * Uses the spread channel for a depth of 1. Otherwise reads the top levels of a book of the
+   * smallest size holding them, in place, copying them only when they change.
+   */
+  @Override
+  public Observable<OrderBook> getTopOfBook(CurrencyPair currencyPair, int depth, Object... args) {
+    if (depth == 1) {
+      String channelName = getChannelName(KrakenSubscriptionName.spread, currencyPair);
+      return subscribe(channelName, MIN_DATA_ARRAY_SIZE, null)
+          .map(arrayNode -> KrakenStreamingAdapters.adaptSpreadMessage(currencyPair, arrayNode))
+          .compose(TopOfBook.topOfBook(depth));
+    }
+    String channelName = getChannelName(KrakenSubscriptionName.book, currencyPair);
+    int size =
+        IntStream.of(KRAKEN_VALID_ORDER_BOOK_SIZES)
+            .filter(valid -> valid >= depth)
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("Invalid depth " + depth));
+    return Observable.defer(
+        () -> {
+          OrderBook orderBook = new OrderBook(null, Lists.newArrayList(), Lists.newArrayList());
+          TopOfBook topOfBook = new TopOfBook(depth);
+          return subscribe(channelName, MIN_DATA_ARRAY_SIZE, size)
+              .filter(
+                  arrayNode -> {
+                    KrakenStreamingAdapters.updateOrderbook(orderBook, currencyPair, arrayNode);
+                    return topOfBook.update(orderBook);
+                  })
+              .map(arrayNode -> topOfBook.get());
+        });
+  }
+
   @Override
   public Observable<Ticker> getTicker(CurrencyPair currencyPair, Object... args) {
     String channelName = getChannelName(KrakenSubscriptionName.ticker, currencyPair);
@@ -64,6 +99,16 @@ public class KrakenStreamingMarketDataService implements StreamingMarketDataServ
                     KrakenStreamingAdapters.adaptTrades(currencyPair, arrayNode)));
   }
 
+  /**
+   * The trades of the pair as {@link TradeTick}s, which keep the price and amount as unscaled longs
+   * and need no BigDecimal or Date per trade.
+   */
+  public Observable<TradeTick> getTradeTicks(CurrencyPair currencyPair) {
+    String channelName = getChannelName(KrakenSubscriptionName.trade, currencyPair);
+    return subscribe(channelName, MIN_DATA_ARRAY_SIZE, null)
+        .flatMapIterable(KrakenStreamingAdapters::adaptTradeTicks);
+  }
+
   public Observable<ArrayNode> subscribe(String channelName, int maxItems, Integer depth) {
     return service
         .subscribeChannel(channelName, depth)
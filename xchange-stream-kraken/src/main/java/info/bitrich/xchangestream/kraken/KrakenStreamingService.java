@@ -5,25 +5,33 @@ import static info.bitrich.xchangestream.kraken.dto.enums.KrakenEventType.subscr
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import info.bitrich.xchangestream.kraken.dto.KrakenEvent;
+import info.bitrich.xchangestream.kraken.dto.KrakenOrderStatusMessage;
 import info.bitrich.xchangestream.kraken.dto.KrakenSubscriptionConfig;
 import info.bitrich.xchangestream.kraken.dto.KrakenSubscriptionMessage;
 import info.bitrich.xchangestream.kraken.dto.KrakenSubscriptionStatusMessage;
 import info.bitrich.xchangestream.kraken.dto.KrakenSystemStatus;
 import info.bitrich.xchangestream.kraken.dto.enums.KrakenEventType;
 import info.bitrich.xchangestream.kraken.dto.enums.KrakenSubscriptionName;
+import info.bitrich.xchangestream.service.exception.NotConnectedException;
 import info.bitrich.xchangestream.service.netty.JsonNettyStreamingService;
+import info.bitrich.xchangestream.service.netty.PendingRequests;
 import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
 import info.bitrich.xchangestream.service.netty.WebSocketClientCompressionAllowClientNoContextHandler;
 import info.bitrich.xchangestream.service.netty.WebSocketClientHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.websocketx.WebSocketClientHandshaker;
 import io.netty.handler.codec.http.websocketx.extensions.WebSocketClientExtensionHandler;
+import io.reactivex.Completable;
+import io.reactivex.Single;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
 import org.knowm.xchange.exceptions.ExchangeException;
@@ -40,12 +48,17 @@ public class KrakenStreamingService extends JsonNettyStreamingService {
   private final boolean isPrivate;
   private final Supplier<KrakenWebsocketToken> authData;
   private final Map<Integer, String> subscriptionRequestMap = new ConcurrentHashMap<>();
+  private final PendingRequests<Integer, KrakenOrderStatusMessage> orderRequests =
+      new PendingRequests<>();
+  private final AtomicInteger nextOrderRequestId = new AtomicInteger();
+  private volatile String token;
 
   public KrakenStreamingService(
       boolean isPrivate, String uri, final Supplier<KrakenWebsocketToken> authData) {
     super(uri, Integer.MAX_VALUE);
     this.isPrivate = isPrivate;
     this.authData = authData;
+    failOrderRequestsOnDisconnect();
   }
 
   public KrakenStreamingService(
@@ -59,6 +72,59 @@ public class KrakenStreamingService extends JsonNettyStreamingService {
     super(uri, maxFramePayloadLength, connectionTimeout, retryDuration, idleTimeoutSeconds);
     this.isPrivate = isPrivate;
     this.authData = authData;
+    failOrderRequestsOnDisconnect();
+  }
+
+  private void failOrderRequestsOnDisconnect() {
+    subscribeDisconnect().subscribe(o -> orderRequests.failAll(new NotConnectedException()));
+  }
+
+  @Override
+  public Completable connect() {
+    // A token stays valid as long as the connection it was used on, a new connection gets a new one
+    token = null;
+    return super.connect();
+  }
+
+  /** The token is fetched over REST once per connection, not for every private request. */
+  private String getToken() {
+    String current = token;
+    if (current == null) {
+      synchronized (this) {
+        current = token;
+        if (current == null) {
+          current = authData.get().getToken();
+          token = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Sends an addOrder or cancelOrder request over the private connection, on subscription.
+   *
+   * @param request builds the request from the request id and the token
+   * @return emits the status message answering the request, whether it succeeded or not
+   */
+  Single<KrakenOrderStatusMessage> sendOrderRequest(
+      BiFunction<Integer, String, KrakenEvent> request) {
+    if (!isPrivate) {
+      return Single.error(new IllegalStateException("Orders are sent on the private connection"));
+    }
+    return Single.defer(
+        () -> {
+          int reqid = nextOrderRequestId.incrementAndGet();
+          return orderRequests.send(
+              reqid,
+              () -> {
+                // sendMessage would drop the request, which would then never be answered
+                if (!isSocketOpen()) {
+                  throw new NotConnectedException();
+                }
+                sendMessage(objectMapper.writeValueAsString(request.apply(reqid, getToken())));
+              });
+        });
   }
 
   @Override
@@ -97,13 +163,18 @@ public class KrakenStreamingService extends JsonNettyStreamingService {
             KrakenSubscriptionStatusMessage statusMessage =
                 mapper.treeToValue(message, KrakenSubscriptionStatusMessage.class);
             Integer reqid = statusMessage.getReqid();
-            if (!isPrivate && reqid != null) channelName = subscriptionRequestMap.remove(reqid);
+            if (!isPrivate) {
+              String requested = reqid == null ? null : subscriptionRequestMap.remove(reqid);
+              // not asked on this connection, e.g. replayed: named from the subscription instead
+              String subscribed = requested != null ? requested : getChannelName(statusMessage);
+              if (subscribed != null) channelName = subscribed;
+            }
 
             switch (statusMessage.getStatus()) {
               case subscribed:
                 LOG.info("Channel {} has been subscribed", channelName);
 
-                if (statusMessage.getChannelID() != null)
+                if (statusMessage.getChannelID() != null && channelName != null)
                   channels.put(statusMessage.getChannelID(), channelName);
 
                 break;
@@ -119,6 +190,14 @@ public class KrakenStreamingService extends JsonNettyStreamingService {
                 }
             }
             break;
+          case addOrderStatus:
+          case cancelOrderStatus:
+            KrakenOrderStatusMessage orderStatus =
+                mapper.treeToValue(message, KrakenOrderStatusMessage.class);
+            if (!orderRequests.complete(orderStatus.getReqid(), orderStatus)) {
+              LOG.warn("Unexpected order status: {}", orderStatus);
+            }
+            break;
           case error:
             LOG.error(
                 "Error received: {}",
@@ -143,6 +222,16 @@ public class KrakenStreamingService extends JsonNettyStreamingService {
     super.handleMessage(message);
   }
 
+  private static String getChannelName(KrakenSubscriptionStatusMessage statusMessage) {
+    KrakenSubscriptionConfig subscription = statusMessage.getKrakenSubscriptionConfig();
+    if (subscription == null || subscription.getName() == null || statusMessage.getPair() == null) {
+      return null;
+    }
+    return subscription.getName()
+        + KrakenStreamingMarketDataService.KRAKEN_CHANNEL_DELIMITER
+        + statusMessage.getPair();
+  }
+
   @Override
   protected String getChannelNameFromMessage(JsonNode message) throws IOException {
     String channelName = null;
@@ -176,7 +265,8 @@ public class KrakenStreamingService extends JsonNettyStreamingService {
     KrakenSubscriptionName subscriptionName = KrakenSubscriptionName.valueOf(channelData[0]);
 
     if (isPrivate) {
-      final String token = authData.get().getToken();
+      // a replayed connection sends nothing, so it needs no token
+      final String token = isReplayMode() ? null : getToken();
 
       KrakenSubscriptionMessage subscriptionMessage =
           new KrakenSubscriptionMessage(
@@ -2,18 +2,24 @@ package info.bitrich.xchangestream.kraken;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import info.bitrich.xchangestream.core.StreamingTradeService;
+import info.bitrich.xchangestream.kraken.dto.KrakenAddOrderMessage;
+import info.bitrich.xchangestream.kraken.dto.KrakenCancelOrderMessage;
 import info.bitrich.xchangestream.kraken.dto.KrakenOpenOrder;
+import info.bitrich.xchangestream.kraken.dto.KrakenOrderStatusMessage;
 import info.bitrich.xchangestream.kraken.dto.KrakenOwnTrade;
 import info.bitrich.xchangestream.kraken.dto.enums.KrakenSubscriptionName;
 import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import java.util.*;
+import java.util.stream.Collectors;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order;
 import org.knowm.xchange.dto.trade.LimitOrder;
 import org.knowm.xchange.dto.trade.MarketOrder;
 import org.knowm.xchange.dto.trade.StopOrder;
 import org.knowm.xchange.dto.trade.UserTrade;
+import org.knowm.xchange.exceptions.ExchangeException;
 import org.knowm.xchange.kraken.KrakenAdapters;
 import org.knowm.xchange.kraken.dto.trade.KrakenOrderFlags;
 import org.knowm.xchange.kraken.dto.trade.KrakenOrderStatus;
@@ -179,6 +185,46 @@ public class KrakenStreamingTradeService implements StreamingTradeService {
     }
   }
 
+  @Override
+  public Single<String> placeLimitOrder(LimitOrder limitOrder) {
+    CurrencyPair pair = limitOrder.getCurrencyPair();
+    String oflags =
+        limitOrder.getOrderFlags().stream()
+            .filter(KrakenOrderFlags.class::isInstance)
+            .map(Object::toString)
+            .collect(Collectors.joining(","));
+    return streamingService
+        .sendOrderRequest(
+            (reqid, token) ->
+                new KrakenAddOrderMessage(
+                    token,
+                    reqid,
+                    "limit",
+                    KrakenType.fromOrderType(limitOrder.getType()).toString(),
+                    pair.base + "/" + pair.counter,
+                    limitOrder.getLimitPrice().toPlainString(),
+                    limitOrder.getOriginalAmount().toPlainString(),
+                    oflags.isEmpty() ? null : oflags,
+                    limitOrder.getUserReference()))
+        .map(status -> checkStatus(status).getTxid());
+  }
+
+  @Override
+  public Single<Boolean> cancelOrder(String orderId) {
+    return streamingService
+        .sendOrderRequest(
+            (reqid, token) ->
+                new KrakenCancelOrderMessage(token, reqid, Collections.singletonList(orderId)))
+        .map(status -> checkStatus(status).isOk());
+  }
+
+  private static KrakenOrderStatusMessage checkStatus(KrakenOrderStatusMessage status) {
+    if (!status.isOk()) {
+      throw new ExchangeException(status.getErrorMessage());
+    }
+    return status;
+  }
+
   private List<UserTrade> adaptKrakenUserTrade(KrakenDtoUserTradeHolder[] ownTrades) {
     List<UserTrade> result = new ArrayList<>();
 
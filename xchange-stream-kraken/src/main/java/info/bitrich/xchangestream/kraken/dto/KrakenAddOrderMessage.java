@@ -0,0 +1,78 @@
+package info.bitrich.xchangestream.kraken.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import info.bitrich.xchangestream.kraken.dto.enums.KrakenEventType;
+
+/**
+ * Places an order over the private WebSocket API, answered by a {@link KrakenOrderStatusMessage}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KrakenAddOrderMessage extends KrakenEvent {
+
+  @JsonProperty private final String token;
+
+  /** Client originated ID reflected in the status message. */
+  @JsonProperty private final Integer reqid;
+
+  /** Order type, e.g. limit. */
+  @JsonProperty private final String ordertype;
+
+  /** buy or sell. */
+  @JsonProperty private final String type;
+
+  /** Currency pair in the "A/B" format of the WebSocket API. */
+  @JsonProperty private final String pair;
+
+  @JsonProperty private final String price;
+
+  @JsonProperty private final String volume;
+
+  /** Optional, comma delimited list of order flags, e.g. post. */
+  @JsonProperty private final String oflags;
+
+  /** Optional, user reference id (32-bit signed number). */
+  @JsonProperty private final String userref;
+
+  public KrakenAddOrderMessage(
+      String token,
+      Integer reqid,
+      String ordertype,
+      String type,
+      String pair,
+      String price,
+      String volume,
+      String oflags,
+      String userref) {
+    super(KrakenEventType.addOrder);
+    this.token = token;
+    this.reqid = reqid;
+    this.ordertype = ordertype;
+    this.type = type;
+    this.pair = pair;
+    this.price = price;
+    this.volume = volume;
+    this.oflags = oflags;
+    this.userref = userref;
+  }
+
+  public Integer getReqid() {
+    return reqid;
+  }
+
+  public String getPair() {
+    return pair;
+  }
+
+  public String getPrice() {
+    return price;
+  }
+
+  public String getVolume() {
+    return volume;
+  }
+
+  public String getOflags() {
+    return oflags;
+  }
+}
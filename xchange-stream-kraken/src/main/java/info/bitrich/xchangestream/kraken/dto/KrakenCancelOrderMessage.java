@@ -0,0 +1,36 @@
+package info.bitrich.xchangestream.kraken.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import info.bitrich.xchangestream.kraken.dto.enums.KrakenEventType;
+import java.util.List;
+
+/**
+ * Cancels orders over the private WebSocket API, answered by a {@link KrakenOrderStatusMessage}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KrakenCancelOrderMessage extends KrakenEvent {
+
+  @JsonProperty private final String token;
+
+  /** Client originated ID reflected in the status message. */
+  @JsonProperty private final Integer reqid;
+
+  /** Ids of the orders to cancel. */
+  @JsonProperty private final List<String> txid;
+
+  public KrakenCancelOrderMessage(String token, Integer reqid, List<String> txid) {
+    super(KrakenEventType.cancelOrder);
+    this.token = token;
+    this.reqid = reqid;
+    this.txid = txid;
+  }
+
+  public Integer getReqid() {
+    return reqid;
+  }
+
+  public List<String> getTxid() {
+    return txid;
+  }
+}
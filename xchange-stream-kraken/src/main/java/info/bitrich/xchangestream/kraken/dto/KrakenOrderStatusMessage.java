@@ -0,0 +1,82 @@
+package info.bitrich.xchangestream.kraken.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import info.bitrich.xchangestream.kraken.dto.enums.KrakenEventType;
+
+/** Answer to a {@link KrakenAddOrderMessage} or a {@link KrakenCancelOrderMessage}. */
+public class KrakenOrderStatusMessage extends KrakenEvent {
+
+  public static final String STATUS_OK = "ok";
+
+  private final Integer reqid;
+  private final String status;
+  private final String txid;
+  private final String descr;
+  private final String errorMessage;
+
+  @JsonCreator
+  public KrakenOrderStatusMessage(
+      @JsonProperty("event") KrakenEventType event,
+      @JsonProperty("reqid") Integer reqid,
+      @JsonProperty("status") String status,
+      @JsonProperty("txid") String txid,
+      @JsonProperty("descr") String descr,
+      @JsonProperty("errorMessage") String errorMessage) {
+    super(event);
+    this.reqid = reqid;
+    this.status = status;
+    this.txid = txid;
+    this.descr = descr;
+    this.errorMessage = errorMessage;
+  }
+
+  public Integer getReqid() {
+    return reqid;
+  }
+
+  /** @return ok or error */
+  public String getStatus() {
+    return status;
+  }
+
+  public boolean isOk() {
+    return STATUS_OK.equals(status);
+  }
+
+  /** @return the id of the placed order */
+  public String getTxid() {
+    return txid;
+  }
+
+  /** @return the description of the placed order */
+  public String getDescr() {
+    return descr;
+  }
+
+  public String getErrorMessage() {
+    return errorMessage;
+  }
+
+  @Override
+  public String toString() {
+    return "KrakenOrderStatusMessage{"
+        + "event="
+        + getEvent()
+        + ", reqid="
+        + reqid
+        + ", status='"
+        + status
+        + '\''
+        + ", txid='"
+        + txid
+        + '\''
+        + ", descr='"
+        + descr
+        + '\''
+        + ", errorMessage='"
+        + errorMessage
+        + '\''
+        + '}';
+  }
+}
@@ -12,6 +12,10 @@ public enum KrakenEventType {
   pingStatus,
   ping,
   pong,
+  addOrder,
+  addOrderStatus,
+  cancelOrder,
+  cancelOrderStatus,
   error;
 
   public static KrakenEventType getEvent(String event) {
@@ -0,0 +1,65 @@
+package info.bitrich.xchangestream.kraken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import info.bitrich.xchangestream.core.StreamingExchange;
+import info.bitrich.xchangestream.core.StreamingExchangeFactory;
+import info.bitrich.xchangestream.service.netty.FrameJournal;
+import info.bitrich.xchangestream.service.netty.FrameReplay;
+import io.reactivex.observers.TestObserver;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Scanner;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knowm.xchange.ExchangeSpecification;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+
+public class KrakenFrameReplayTest {
+
+  private static final CurrencyPair XBT_EUR = new CurrencyPair(Currency.XBT, Currency.EUR);
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testReplaysRecordedFramesIntoTheExchange() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("kraken").build();
+    FrameJournal.Appender publicFrames = journal.newAppender("ws.kraken.com");
+    FrameJournal.Appender privateFrames = journal.newAppender("ws-auth.kraken.com");
+    long now = System.nanoTime();
+    // answers a subscription request of the recording, whose id the replay does not know
+    publicFrames.append(now, null, read("/subscriptionConfirmation.json"));
+    publicFrames.append(now + 1, "book-XBT/EUR", read("/orderBookMessageSnapshot.json"));
+    privateFrames.append(now + 2, "book-XBT/EUR", read("/orderBookMessageUpdate.json"));
+    journal.close();
+
+    FrameReplay replay = new FrameReplay(directory, "kraken");
+    ExchangeSpecification specification = new ExchangeSpecification(KrakenStreamingExchange.class);
+    specification.setShouldLoadRemoteMetaData(false);
+    specification.setExchangeSpecificParametersItem(StreamingExchange.FRAME_REPLAY, replay);
+    StreamingExchange exchange = StreamingExchangeFactory.INSTANCE.createExchange(specification);
+    exchange.connect().blockingAwait();
+    TestObserver<OrderBook> books =
+        exchange.getStreamingMarketDataService().getOrderBook(XBT_EUR, 25).test();
+
+    assertThat(replay.replay()).isEqualTo(3);
+
+    // the frame recorded by the private connection does not reach the public one
+    books.assertValueCount(1);
+    assertThat(books.values().get(0).getAsks()).isNotEmpty();
+    assertThat(books.values().get(0).getBids()).isNotEmpty();
+  }
+
+  private static String read(String resource) throws IOException {
+    try (InputStream stream = KrakenFrameReplayTest.class.getResourceAsStream(resource);
+        Scanner scanner = new Scanner(stream, StandardCharsets.UTF_8.name())) {
+      return scanner.useDelimiter("\\A").next();
+    }
+  }
+}
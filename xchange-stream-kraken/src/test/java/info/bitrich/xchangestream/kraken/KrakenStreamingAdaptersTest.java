@@ -7,15 +7,18 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 import org.knowm.xchange.currency.Currency;
 import org.knowm.xchange.currency.CurrencyPair;
 import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.ScaledDecimal;
 import org.knowm.xchange.dto.marketdata.OrderBook;
 import org.knowm.xchange.dto.marketdata.Ticker;
 import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.dto.marketdata.TradeTick;
 import org.knowm.xchange.dto.trade.LimitOrder;
 
 public class KrakenStreamingAdaptersTest {
@@ -46,6 +49,9 @@ public class KrakenStreamingAdaptersTest {
     LimitOrder firstBid = afterUpdate.getBids().get(0);
     assertThat(firstBid.getLimitPrice()).isEqualByComparingTo("8691.9");
     assertThat(firstBid.getOriginalAmount()).isEqualByComparingTo("1.45612927");
+    // prices keep the decimals Kraken sent, amounts are not bound to the price scale
+    assertThat(firstBid.getScaledLimitPrice()).isEqualTo(ScaledDecimal.of(869190000, 5));
+    assertThat(firstBid.getTimestamp()).isEqualTo(new Date(1561120266647L));
   }
 
   @Test
@@ -100,6 +106,7 @@ public class KrakenStreamingAdaptersTest {
     assertThat(trades).hasSize(2);
 
     Trade trade = trades.get(0);
+    assertThat(trade.getScaledPrice()).isEqualTo(ScaledDecimal.of(554120000, 5));
     assertThat(trade.getPrice()).isEqualByComparingTo("5541.20000");
     assertThat(trade.getOriginalAmount()).isEqualByComparingTo("0.15850568");
     assertThat(trade.getTimestamp().getTime()).isEqualTo(1534614057000L);
@@ -111,4 +118,43 @@ public class KrakenStreamingAdaptersTest {
     assertThat(trade.getTimestamp().getTime()).isEqualTo(1534614057000L);
     assertThat(trade.getType()).isEqualTo(Order.OrderType.BID);
   }
+
+  @Test
+  public void testAdaptTradeTicks() throws IOException {
+    JsonNode jsonNode =
+        StreamingObjectMapperHelper.getObjectMapper()
+            .readTree(this.getClass().getResource("/trades.json").openStream());
+    List<TradeTick> ticks = KrakenStreamingAdapters.adaptTradeTicks(jsonNode);
+
+    assertThat(ticks).hasSize(2);
+
+    TradeTick tick = ticks.get(0);
+    assertThat(tick.getUnscaledPrice()).isEqualTo(554120000);
+    assertThat(tick.getPriceScale()).isEqualTo(5);
+    assertThat(tick.getAmount()).isEqualByComparingTo("0.15850568");
+    assertThat(tick.getTimestamp()).isEqualTo(1534614057321L);
+    assertThat(tick.getType()).isEqualTo(Order.OrderType.ASK);
+    assertThat(ticks.get(1).getType()).isEqualTo(Order.OrderType.BID);
+
+    Trade trade = tick.toTrade(XBT_EUR);
+    assertThat(trade.getPrice()).isEqualByComparingTo("5541.2");
+    assertThat(trade.getInstrument()).isEqualTo(XBT_EUR);
+  }
+
+  @Test
+  public void testAdaptSpreadMessage() throws IOException {
+    JsonNode jsonNode =
+        StreamingObjectMapperHelper.getObjectMapper()
+            .readTree(this.getClass().getResource("/spread.json").openStream());
+    OrderBook spread = KrakenStreamingAdapters.adaptSpreadMessage(XBT_EUR, (ArrayNode) jsonNode);
+
+    assertThat(spread.getTimeStamp().getTime()).isEqualTo(1542057299545L);
+    assertThat(spread.getBids()).hasSize(1);
+    assertThat(spread.getBids().get(0).getLimitPrice()).isEqualByComparingTo("5698.4");
+    assertThat(spread.getBids().get(0).getOriginalAmount()).isEqualByComparingTo("1.01234567");
+    assertThat(spread.getAsks()).hasSize(1);
+    assertThat(spread.getAsks().get(0).getLimitPrice()).isEqualByComparingTo("5700");
+    assertThat(spread.getAsks().get(0).getOriginalAmount()).isEqualByComparingTo("0.98765432");
+    assertThat(spread.getAsks().get(0).getInstrument()).isEqualTo(XBT_EUR);
+  }
 }
@@ -0,0 +1,115 @@
+package info.bitrich.xchangestream.kraken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import info.bitrich.xchangestream.service.exception.NotConnectedException;
+import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
+import io.reactivex.Single;
+import io.reactivex.observers.TestObserver;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.knowm.xchange.currency.Currency;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order;
+import org.knowm.xchange.dto.trade.LimitOrder;
+import org.knowm.xchange.exceptions.ExchangeException;
+import org.knowm.xchange.kraken.dto.account.KrakenWebsocketToken;
+import org.knowm.xchange.kraken.dto.trade.KrakenOrderFlags;
+
+public class KrakenStreamingTradeServiceTest {
+
+  private final ObjectMapper mapper = StreamingObjectMapperHelper.getObjectMapper();
+  private final List<JsonNode> sent = new ArrayList<>();
+  private boolean open = true;
+
+  private final KrakenStreamingService service =
+      new KrakenStreamingService(
+          true, "wss://ws-auth.kraken.com", () -> new KrakenWebsocketToken("token", 900)) {
+        @Override
+        public boolean isSocketOpen() {
+          return open;
+        }
+
+        @Override
+        public void sendMessage(String message) {
+          try {
+            sent.add(mapper.readTree(message));
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        }
+      };
+
+  private final KrakenStreamingTradeService tradeService = new KrakenStreamingTradeService(service);
+
+  @Test
+  public void testPlaceLimitOrderCompletesOnMatchingStatus() throws Exception {
+    TestObserver<String> placed =
+        tradeService
+            .placeLimitOrder(
+                new LimitOrder.Builder(
+                        Order.OrderType.BID, new CurrencyPair(Currency.XBT, Currency.USD))
+                    .originalAmount(new BigDecimal("0.5"))
+                    .limitPrice(new BigDecimal("9000.1"))
+                    .flag(KrakenOrderFlags.POST)
+                    .build())
+            .test();
+
+    assertThat(sent).hasSize(1);
+    JsonNode request = sent.get(0);
+    assertThat(request.get("event").asText()).isEqualTo("addOrder");
+    assertThat(request.get("token").asText()).isEqualTo("token");
+    assertThat(request.get("type").asText()).isEqualTo("buy");
+    assertThat(request.get("pair").asText()).isEqualTo("XBT/USD");
+    assertThat(request.get("price").asText()).isEqualTo("9000.1");
+    assertThat(request.get("oflags").asText()).isEqualTo("post");
+    int reqid = request.get("reqid").asInt();
+
+    service.handleMessage(
+        mapper.readTree(
+            "{\"event\":\"addOrderStatus\",\"reqid\":"
+                + (reqid + 1)
+                + ",\"status\":\"ok\",\"txid\":\"OTHER\"}"));
+    placed.assertNotComplete();
+
+    service.handleMessage(
+        mapper.readTree(
+            "{\"event\":\"addOrderStatus\",\"reqid\":"
+                + reqid
+                + ",\"status\":\"ok\",\"txid\":\"ONPNXH-KMKMU-F4MR5V\"}"));
+    placed.assertValue("ONPNXH-KMKMU-F4MR5V");
+  }
+
+  @Test
+  public void testCancelOrderFailsOnErrorStatus() throws Exception {
+    TestObserver<Boolean> cancelled = tradeService.cancelOrder("ONPNXH-KMKMU-F4MR5V").test();
+
+    JsonNode request = sent.get(0);
+    assertThat(request.get("event").asText()).isEqualTo("cancelOrder");
+    assertThat(request.get("txid").get(0).asText()).isEqualTo("ONPNXH-KMKMU-F4MR5V");
+
+    service.handleMessage(
+        mapper.readTree(
+            "{\"event\":\"cancelOrderStatus\",\"reqid\":"
+                + request.get("reqid").asInt()
+                + ",\"status\":\"error\",\"errorMessage\":\"EOrder:Unknown order\"}"));
+    cancelled.assertError(ExchangeException.class);
+  }
+
+  @Test
+  public void testSocketIsCheckedOnSubscription() {
+    open = false;
+    Single<Boolean> cancel = tradeService.cancelOrder("ONPNXH-KMKMU-F4MR5V");
+    open = true;
+    cancel.test().assertNotComplete();
+    assertThat(sent).hasSize(1);
+
+    open = false;
+    tradeService.cancelOrder("ONPNXH-KMKMU-F4MR5V").test().assertError(NotConnectedException.class);
+    assertThat(sent).hasSize(1);
+  }
+}
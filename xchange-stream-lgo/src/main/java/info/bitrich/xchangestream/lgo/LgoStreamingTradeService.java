@@ -7,6 +7,7 @@ import info.bitrich.xchangestream.lgo.domain.*;
 import info.bitrich.xchangestream.lgo.dto.*;
 import info.bitrich.xchangestream.service.netty.StreamingObjectMapperHelper;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -149,26 +150,38 @@ public class LgoStreamingTradeService implements StreamingTradeService {
   }
 
   /**
-   * Place a limit order
+   * Place a limit order. LGO does not acknowledge orders directly, so the order is sent right away
+   * rather than on subscription. Its outcome is received by {@link
+   * #getRawAllOrderEvents(Collection)} under the reference.
    *
-   * @return the order reference
+   * @return emits the order reference, or the error sending the order failed with
    */
-  public String placeLimitOrder(LimitOrder limitOrder) throws IOException {
-    Long ref = nonceFactory.createValue();
-    LgoPlaceOrder lgoOrder = LgoAdapters.adaptLimitOrder(limitOrder);
-    return placeOrder(ref, lgoOrder);
+  @Override
+  public Single<String> placeLimitOrder(LimitOrder limitOrder) {
+    try {
+      Long ref = nonceFactory.createValue();
+      LgoPlaceOrder lgoOrder = LgoAdapters.adaptLimitOrder(limitOrder);
+      return Single.just(placeOrder(ref, lgoOrder));
+    } catch (IOException e) {
+      return Single.error(e);
+    }
   }
 
   /**
-   * Place a cancel order
+   * Place a cancel order, sent right away like {@link #placeLimitOrder(LimitOrder)}.
    *
-   * @return true
+   * @return emits true, or the error sending the cancel order failed with
    */
-  public boolean cancelOrder(String orderId) throws IOException {
-    Long ref = nonceFactory.createValue();
-    LgoPlaceCancelOrder lgoOrder = new LgoPlaceCancelOrder(ref, orderId, new Date().toInstant());
-    placeOrder(ref, lgoOrder);
-    return true;
+  @Override
+  public Single<Boolean> cancelOrder(String orderId) {
+    try {
+      Long ref = nonceFactory.createValue();
+      LgoPlaceCancelOrder lgoOrder = new LgoPlaceCancelOrder(ref, orderId, new Date().toInstant());
+      placeOrder(ref, lgoOrder);
+      return Single.just(true);
+    } catch (IOException e) {
+      return Single.error(e);
+    }
   }
 
   private String placeOrder(Long ref, LgoPlaceOrder lgoOrder) throws JsonProcessingException {
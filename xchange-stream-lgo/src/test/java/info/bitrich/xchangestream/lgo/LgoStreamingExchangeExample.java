@@ -125,7 +125,8 @@ public class LgoStreamingExchangeExample {
                     CurrencyPair.BTC_USD,
                     null,
                     new Date(),
-                    new BigDecimal("12000")));
+                    new BigDecimal("12000")))
+            .blockingGet();
     System.out.println("Order was placed with reference: " + ref);
   }
 
@@ -146,6 +147,6 @@ public class LgoStreamingExchangeExample {
 
   @Test
   public void cancelOrder() throws IOException {
-    exchange.getStreamingTradeService().cancelOrder("156406068135700001");
+    exchange.getStreamingTradeService().cancelOrder("156406068135700001").blockingGet();
   }
 }
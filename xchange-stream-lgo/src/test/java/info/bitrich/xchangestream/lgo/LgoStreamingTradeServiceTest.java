@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import info.bitrich.xchangestream.lgo.domain.*;
 import io.reactivex.Observable;
+import io.reactivex.Single;
 import java.io.*;
 import java.math.BigDecimal;
 import java.net.URISyntaxException;
@@ -387,8 +388,9 @@ public class LgoStreamingTradeServiceTest {
     when(signatureService.signOrder(anyString())).thenReturn(new LgoOrderSignature("signed"));
     doNothing().when(streamingService).sendMessage(anyString());
 
-    String ref = service.placeLimitOrder(limitOrder);
+    Single<String> placed = service.placeLimitOrder(limitOrder);
 
+    // sent without waiting for a subscription
     verify(nonceFactory).createValue();
     verify(keyService).selectKey();
     ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
@@ -399,7 +401,7 @@ public class LgoStreamingTradeServiceTest {
             .getValue()
             .contains(
                 "\"signature\":{\"value\":\"signed\",\"source\":\"RSA\"},\"key_id\":\"abcdefg\"},\"type\":\"placeorder\""));
-    assertThat(ref).isEqualTo("22");
+    assertThat(placed.blockingGet()).isEqualTo("22");
   }
 
   private static String parsePublicKey(String key) {
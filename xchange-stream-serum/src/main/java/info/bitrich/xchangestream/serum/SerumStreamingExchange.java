@@ -13,6 +13,7 @@ import org.knowm.xchange.ExchangeSpecification;
 public class SerumStreamingExchange extends SerumExchange implements StreamingExchange {
 
   private SerumStreamingService streamingService;
+  private SerumStreamingMarketDataService streamingMarketDataService;
 
   @Override
   public Completable connect(ProductSubscription... args) {
@@ -22,6 +23,7 @@ public class SerumStreamingExchange extends SerumExchange implements StreamingEx
                 String.valueOf(getExchangeSpecification().getExchangeSpecificParametersItem("Env")))
             .wsUrl();
     this.streamingService = new SerumStreamingService(url);
+    this.streamingMarketDataService = new SerumStreamingMarketDataService(streamingService);
     return this.streamingService.connect();
   }
 
@@ -54,7 +56,7 @@ public class SerumStreamingExchange extends SerumExchange implements StreamingEx
 
   @Override
   public StreamingMarketDataService getStreamingMarketDataService() {
-    return null;
+    return streamingMarketDataService;
   }
 
   @Override
@@ -0,0 +1,61 @@
+package info.bitrich.xchangestream.serum;
+
+import info.bitrich.xchangestream.core.StreamingMarketDataService;
+import io.reactivex.Observable;
+import java.util.ArrayList;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.Kline;
+import org.knowm.xchange.dto.marketdata.OrderBook;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
+import org.knowm.xchange.dto.marketdata.Ticker;
+import org.knowm.xchange.dto.marketdata.Trade;
+import org.knowm.xchange.exceptions.NotYetImplementedForExchangeException;
+
+public class SerumStreamingMarketDataService implements StreamingMarketDataService {
+
+  private final SerumStreamingService service;
+
+  public SerumStreamingMarketDataService(SerumStreamingService service) {
+    this.service = service;
+  }
+
+  /**
+   * The book of the pair, built from the bids and asks accounts of its market and emitted after
+   * each update which changed it.
+   */
+  @Override
+  public Observable<OrderBook> getOrderBook(CurrencyPair currencyPair, Object... args) {
+    return Observable.defer(
+        () -> {
+          final OrderBook orderBook = new OrderBook(null, new ArrayList<>(), new ArrayList<>());
+          return service
+              .subscribeOrderBookChanges(currencyPair)
+              .filter(updates -> !updates.isEmpty())
+              .map(
+                  updates -> {
+                    updates.forEach(orderBook::update);
+                    return orderBook;
+                  });
+        });
+  }
+
+  /** The levels of the book of the pair changed by each update, see {@link #getOrderBook}. */
+  public Observable<OrderBookUpdate> getOrderBookUpdates(CurrencyPair currencyPair) {
+    return service.subscribeOrderBookChanges(currencyPair).flatMapIterable(updates -> updates);
+  }
+
+  @Override
+  public Observable<Ticker> getTicker(CurrencyPair currencyPair, Object... args) {
+    throw new NotYetImplementedForExchangeException();
+  }
+
+  @Override
+  public Observable<Kline> getKline(CurrencyPair currencyPair, Object... args) {
+    throw new NotYetImplementedForExchangeException();
+  }
+
+  @Override
+  public Observable<Trade> getTrades(CurrencyPair currencyPair, Object... args) {
+    throw new NotYetImplementedForExchangeException();
+  }
+}
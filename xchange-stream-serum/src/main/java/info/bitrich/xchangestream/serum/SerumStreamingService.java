@@ -8,11 +8,19 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.knowm.xchange.serum.SerumAdapters;
 import com.knowm.xchange.serum.SerumConfigs.Commitment;
 import com.knowm.xchange.serum.SerumConfigs.SubscriptionType;
+import com.knowm.xchange.serum.core.Market;
+import info.bitrich.xchangestream.serum.datamapper.OrderBookDataMapper;
 import info.bitrich.xchangestream.serum.dto.SerumWsSubscriptionMessage;
 import info.bitrich.xchangestream.service.netty.JsonNettyStreamingService;
+import io.reactivex.Observable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
 import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,6 +34,10 @@ public class SerumStreamingService extends JsonNettyStreamingService {
   private final String SUBSCRIPTION = "subscription";
   private final String PARAMS = "params";
   private final String ID = "id";
+  private final String RESULT_VALUE = "value";
+  private final String DATA = "data";
+  private final String CONTEXT = "context";
+  private final String SLOT = "slot";
 
   public SerumStreamingService(String apiUrl) {
     super(apiUrl);
@@ -137,6 +149,46 @@ public class SerumStreamingService extends JsonNettyStreamingService {
     return null;
   }
 
+  /**
+   * Subscribes to the bids and asks accounts of the market of the pair.
+   *
+   * @return for each update of either account, the levels of the book it changed, see {@link
+   *     OrderBookDataMapper}. The first update of each side holds all its levels.
+   */
+  public Observable<List<OrderBookUpdate>> subscribeOrderBookChanges(final CurrencyPair pair) {
+    return Observable.merge(subscribeSlab(pair, "bids"), subscribeSlab(pair, "asks"));
+  }
+
+  private Observable<List<OrderBookUpdate>> subscribeSlab(
+      final CurrencyPair pair, final String marketDataType) {
+    final String channelName =
+        buildChannelName(pair, SubscriptionType.accountSubscribe, marketDataType);
+    return Observable.defer(
+        () -> {
+          final Market market = SerumAdapters.getMarket(pair);
+          final OrderBookDataMapper mapper =
+              new OrderBookDataMapper(
+                  pair.toString(), market, market.quoteMintDecimals, market.baseMintDecimals);
+          return subscribeChannel(
+                  channelName, pair, SubscriptionType.accountSubscribe, marketDataType)
+              .map(
+                  message -> {
+                    final JsonNode result = message.get(PARAMS).get(RESULT);
+                    final ByteBuffer data =
+                        ByteBuffer.wrap(
+                            Base64.getDecoder()
+                                .decode(result.get(RESULT_VALUE).get(DATA).get(0).asText()));
+                    final List<OrderBookUpdate> updates = new ArrayList<>();
+                    mapper.map(
+                        data,
+                        result.get(CONTEXT).get(SLOT).asLong(),
+                        System.currentTimeMillis(),
+                        updates::add);
+                    return updates;
+                  });
+        });
+  }
+
   public String buildChannelName(
       final CurrencyPair pair, final SubscriptionType subscriptionType, final Object... args) {
     switch (subscriptionType) {
@@ -1,11 +1,11 @@
 package info.bitrich.xchangestream.serum.datamapper;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.knowm.xchange.serum.core.Market;
 import java.io.IOException;
-import java.util.stream.Stream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
 
-public abstract class DataMapper {
+public abstract class DataMapper<T> {
 
   protected final String symbol;
   protected final Market market;
@@ -20,6 +20,13 @@ public abstract class DataMapper {
     this.sizeDecimalPlaces = sizeDecimalPlaces;
   }
 
-  abstract Stream<JsonNode> map(final byte[] bytes, final long slot, final long timestamp)
+  /**
+   * Maps an account update to the events it carries.
+   *
+   * @param data the remaining bytes of the account data, read in place
+   * @param events receives the events, in order, before this returns
+   */
+  abstract void map(
+      final ByteBuffer data, final long slot, final long timestamp, final Consumer<T> events)
       throws IOException;
 }
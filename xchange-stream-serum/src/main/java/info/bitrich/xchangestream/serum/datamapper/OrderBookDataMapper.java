@@ -0,0 +1,107 @@
+package info.bitrich.xchangestream.serum.datamapper;
+
+import com.knowm.xchange.serum.core.Market;
+import com.knowm.xchange.serum.structures.SlabView;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
+
+/**
+ * Maps the updates of the bids or asks account of a market to the levels of the book they changed.
+ *
+ * <p>Each update holds the whole slab, so it is diffed against the previous one leaf by leaf: nodes
+ * whose order has the same price and quantity are skipped, the others move the quantity of their
+ * level, and only the levels whose total quantity changed are emitted, with a zero volume for the
+ * levels removed. The first update emits every level.
+ */
+public class OrderBookDataMapper extends DataMapper<OrderBookUpdate> {
+
+  private final CurrencyPair pair;
+  private final SlabView view = new SlabView();
+  private final SlabView previousView = new SlabView();
+  /** Total quantity in base lots by price in lots. */
+  private final Map<Long, Long> levels = new HashMap<>();
+  /** Total quantity before the update by price, of the levels touched by the update. */
+  private final Map<Long, Long> touched = new LinkedHashMap<>();
+
+  private byte[] previous;
+
+  public OrderBookDataMapper(
+      final String symbol, final Market market, int priceDecimalPlaces, int sizeDecimalPlaces) {
+    super(symbol, market, priceDecimalPlaces, sizeDecimalPlaces);
+    this.pair = new CurrencyPair(symbol);
+  }
+
+  @Override
+  public void map(
+      final ByteBuffer data, long slot, long timestamp, final Consumer<OrderBookUpdate> events) {
+    view.wrap(data);
+    final int nodes = view.getBumpIndex();
+    final int previousNodes;
+    if (previous == null) {
+      previousNodes = 0;
+    } else {
+      previousView.wrap(ByteBuffer.wrap(previous));
+      previousNodes = previousView.getBumpIndex();
+    }
+
+    touched.clear();
+    for (int node = 0; node < Math.max(nodes, previousNodes); node++) {
+      final boolean leaf = node < nodes && view.isLeaf(node);
+      final boolean previousLeaf = node < previousNodes && previousView.isLeaf(node);
+      if (leaf
+          && previousLeaf
+          && view.getLeafPrice(node) == previousView.getLeafPrice(node)
+          && view.getLeafQuantity(node) == previousView.getLeafQuantity(node)) {
+        continue;
+      }
+      if (previousLeaf) {
+        move(previousView.getLeafPrice(node), -previousView.getLeafQuantity(node));
+      }
+      if (leaf) {
+        move(view.getLeafPrice(node), view.getLeafQuantity(node));
+      }
+    }
+
+    final OrderType side = view.isBids() ? OrderType.BID : OrderType.ASK;
+    final Date date = new Date(timestamp);
+    for (Map.Entry<Long, Long> level : touched.entrySet()) {
+      final long quantity = levels.getOrDefault(level.getKey(), 0L);
+      if (quantity != level.getValue()) {
+        final BigDecimal volume =
+            market.baseSizeLotsToNumber(BigDecimal.valueOf(quantity), sizeDecimalPlaces);
+        events.accept(
+            new OrderBookUpdate(
+                side,
+                volume,
+                pair,
+                market.priceLotsToNumber(BigDecimal.valueOf(level.getKey()), priceDecimalPlaces),
+                date,
+                volume));
+      }
+    }
+
+    if (previous == null || previous.length != data.remaining()) {
+      previous = new byte[data.remaining()];
+    }
+    data.duplicate().get(previous);
+  }
+
+  private void move(long price, long quantity) {
+    final Long before = levels.get(price);
+    touched.putIfAbsent(price, before == null ? 0L : before);
+    final long after = (before == null ? 0L : before) + quantity;
+    if (after == 0) {
+      levels.remove(price);
+    } else {
+      levels.put(price, after);
+    }
+  }
+}
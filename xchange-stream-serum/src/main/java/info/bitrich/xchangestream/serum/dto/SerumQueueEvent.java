@@ -0,0 +1,99 @@
+package info.bitrich.xchangestream.serum.dto;
+
+import java.math.BigDecimal;
+import org.knowm.xchange.dto.Order.OrderType;
+
+/** A fill or the end of an order, decoded from the event queue of a market. */
+public class SerumQueueEvent {
+
+  public enum Type {
+    fill,
+    done
+  }
+
+  public enum Reason {
+    filled,
+    cancelled
+  }
+
+  public final Type type;
+  public final String symbol;
+  public final String market;
+  public final long timestamp;
+  public final long slot;
+  public final String orderId;
+  public final long clientId;
+  public final OrderType side;
+  /** Price of a fill, null for done. */
+  public final BigDecimal price;
+  /** Size of a fill, null for done. */
+  public final BigDecimal size;
+  /** Fee paid by a fill, negative for a rebate, null for done. */
+  public final BigDecimal feeCost;
+  /** Why the order is done, null for a fill. */
+  public final Reason reason;
+
+  public final boolean maker;
+  public final String openOrders;
+  public final int openOrdersSlot;
+  public final int feeTier;
+
+  public SerumQueueEvent(
+      final Type type,
+      final String symbol,
+      final String market,
+      long timestamp,
+      long slot,
+      final String orderId,
+      long clientId,
+      final OrderType side,
+      final BigDecimal price,
+      final BigDecimal size,
+      final BigDecimal feeCost,
+      final Reason reason,
+      boolean maker,
+      final String openOrders,
+      int openOrdersSlot,
+      int feeTier) {
+    this.type = type;
+    this.symbol = symbol;
+    this.market = market;
+    this.timestamp = timestamp;
+    this.slot = slot;
+    this.orderId = orderId;
+    this.clientId = clientId;
+    this.side = side;
+    this.price = price;
+    this.size = size;
+    this.feeCost = feeCost;
+    this.reason = reason;
+    this.maker = maker;
+    this.openOrders = openOrders;
+    this.openOrdersSlot = openOrdersSlot;
+    this.feeTier = feeTier;
+  }
+
+  @Override
+  public String toString() {
+    return "SerumQueueEvent{"
+        + "type="
+        + type
+        + ", symbol="
+        + symbol
+        + ", slot="
+        + slot
+        + ", orderId="
+        + orderId
+        + ", side="
+        + side
+        + ", price="
+        + price
+        + ", size="
+        + size
+        + ", reason="
+        + reason
+        + ", maker="
+        + maker
+        + '}';
+  }
+}
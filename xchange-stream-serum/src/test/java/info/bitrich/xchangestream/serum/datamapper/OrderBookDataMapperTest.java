@@ -0,0 +1,169 @@
+package info.bitrich.xchangestream.serum.datamapper;
+
+import static com.knowm.xchange.serum.structures.SlabView.HEADER_LEN;
+import static com.knowm.xchange.serum.structures.SlabView.NODE_LEN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.knowm.xchange.serum.core.Market;
+import com.knowm.xchange.serum.dto.PublicKey;
+import com.knowm.xchange.serum.structures.AccountFlagsLayout.AccountFlags;
+import com.knowm.xchange.serum.structures.MarketStat;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.knowm.xchange.currency.CurrencyPair;
+import org.knowm.xchange.dto.Order.OrderType;
+import org.knowm.xchange.dto.marketdata.OrderBookUpdate;
+
+public class OrderBookDataMapperTest {
+
+  private static final int NODES = 6;
+
+  private OrderBookDataMapper mapper;
+  private ByteBuffer slab;
+
+  @Before
+  public void setUp() {
+    // prices are in tenths of USDC and sizes in 1e-4 SOL
+    Market market = new Market(new TestMarketStat(100, 10), 6, 6, null, null);
+    mapper = new OrderBookDataMapper("SOL/USDC", market, 1, 4);
+
+    slab = ByteBuffer.allocate(HEADER_LEN + NODES * NODE_LEN + 7).order(ByteOrder.LITTLE_ENDIAN);
+    slab.put(5, (byte) (1 | 1 << 5)); // initialized, bids
+    slab.putInt(13, NODES); // bump index
+    slab.putInt(HEADER_LEN, 1); // inner node
+    leaf(1, 1000, 5000, 1);
+    leaf(2, 1000, 5000, 2);
+    leaf(3, 990, 1000, 3);
+  }
+
+  private void leaf(int node, long price, long quantity, long seqNum) {
+    int offset = HEADER_LEN + node * NODE_LEN;
+    slab.putInt(offset, 2);
+    slab.putLong(offset + 8, seqNum);
+    slab.putLong(offset + 16, price);
+    slab.putLong(offset + 56, quantity);
+  }
+
+  private void free(int node) {
+    slab.putInt(HEADER_LEN + node * NODE_LEN, 3);
+  }
+
+  private List<OrderBookUpdate> map() {
+    List<OrderBookUpdate> updates = new ArrayList<>();
+    mapper.map(slab, 1, 1000, updates::add);
+    return updates;
+  }
+
+  @Test
+  public void testFirstUpdateEmitsAllLevels() {
+    List<OrderBookUpdate> updates = map();
+
+    assertThat(updates).hasSize(2);
+    assertThat(updates)
+        .extracting(u -> u.getLimitOrder().getLimitPrice())
+        .containsExactlyInAnyOrder(new BigDecimal("100.0"), new BigDecimal("99.0"));
+    OrderBookUpdate best =
+        updates.stream()
+            .filter(u -> u.getLimitOrder().getLimitPrice().compareTo(new BigDecimal("100")) == 0)
+            .findFirst()
+            .get();
+    assertThat(best.getTotalVolume()).isEqualByComparingTo("1");
+    assertThat(best.getLimitOrder().getType()).isEqualTo(OrderType.BID);
+    assertThat(best.getLimitOrder().getInstrument()).isEqualTo(new CurrencyPair("SOL/USDC"));
+  }
+
+  @Test
+  public void testEmitsOnlyChangedLevels() {
+    map();
+    leaf(2, 1000, 2000, 2); // partially filled
+    free(3); // cancelled
+    leaf(4, 980, 3000, 4); // placed
+
+    List<OrderBookUpdate> updates = map();
+
+    assertThat(updates)
+        .extracting(u -> u.getLimitOrder().getLimitPrice(), OrderBookUpdate::getTotalVolume)
+        .containsExactlyInAnyOrder(
+            tuple(new BigDecimal("100.0"), new BigDecimal("0.7000")),
+            tuple(new BigDecimal("99.0"), new BigDecimal("0.0000")),
+            tuple(new BigDecimal("98.0"), new BigDecimal("0.3000")));
+  }
+
+  @Test
+  public void testSkipsLevelsWithTheSameTotal() {
+    map();
+    leaf(1, 1000, 5000, 9); // replaced in place by an order of the same size
+    assertThat(map()).isEmpty();
+
+    free(2);
+    leaf(5, 1000, 5000, 10); // replaced in another node
+    assertThat(map()).isEmpty();
+  }
+
+  private static class TestMarketStat implements MarketStat {
+
+    private final long baseLotSize;
+    private final long quoteLotSize;
+
+    TestMarketStat(long baseLotSize, long quoteLotSize) {
+      this.baseLotSize = baseLotSize;
+      this.quoteLotSize = quoteLotSize;
+    }
+
+    @Override
+    public AccountFlags getAccountFlags() {
+      return null;
+    }
+
+    @Override
+    public PublicKey getOwnAddress() {
+      return new PublicKey("market");
+    }
+
+    @Override
+    public PublicKey baseMint() {
+      return null;
+    }
+
+    @Override
+    public PublicKey quoteMint() {
+      return null;
+    }
+
+    @Override
+    public PublicKey getBids() {
+      return null;
+    }
+
+    @Override
+    public PublicKey getAsks() {
+      return null;
+    }
+
+    @Override
+    public PublicKey getEventQueue() {
+      return null;
+    }
+
+    @Override
+    public PublicKey getRequestQueue() {
+      return null;
+    }
+
+    @Override
+    public long getBaseLotSize() {
+      return baseLotSize;
+    }
+
+    @Override
+    public long getQuoteLotSize() {
+      return quoteLotSize;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package info.bitrich.xchangestream.service.netty;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.knowm.xchange.utils.LatencyHistogram;
+
+/**
+ * Metrics of the messages of one subscribed channel of a {@link NettyStreamingService}, e.g. the
+ * order book of one pair. Recording is lock-free and allocation-free, so it is done for every
+ * message on the event loop.
+ */
+public final class ChannelMetrics {
+
+  private final String channelId;
+  private final LongAdder messages = new LongAdder();
+  private final LatencyHistogram dispatch = new LatencyHistogram();
+  private final LatencyHistogram subscriber = new LatencyHistogram();
+  private final LatencyHistogram exchangeLag = new LatencyHistogram();
+
+  private long rateNanos = System.nanoTime();
+  private long rateMessages;
+
+  ChannelMetrics(String channelId) {
+    this.channelId = channelId;
+  }
+
+  /**
+   * @return the unique id of the channel, see {@link NettyStreamingService#getSubscriptionUniqueId}
+   */
+  public String getChannelId() {
+    return channelId;
+  }
+
+  /** @return the messages passed on to the subscribers of the channel */
+  public long getMessages() {
+    return messages.sum();
+  }
+
+  /**
+   * Time from the receipt of the frame holding a message to the dispatch to the channel, that is
+   * the time spent parsing the frame and routing the message. Messages which were not received in a
+   * frame of the connection, e.g. emitted by a subclass on another thread, are not recorded.
+   */
+  public LatencyHistogram getDispatch() {
+    return dispatch;
+  }
+
+  /**
+   * Time the subscribers of the channel spent handling a message. Subscribers run on the event loop
+   * unless they observe on another scheduler, so this is the time they hold up the following
+   * messages of the connection.
+   */
+  public LatencyHistogram getSubscriber() {
+    return subscriber;
+  }
+
+  /**
+   * Time from the exchange timestamp of a message to its receipt, according to the local clock.
+   * Recorded only by the services which extract the timestamp of their messages, see {@link
+   * NettyStreamingService#getMessageTimestamp}.
+   */
+  public LatencyHistogram getExchangeLag() {
+    return exchangeLag;
+  }
+
+  /**
+   * @return the messages per second since the previous call, or since the subscription for the
+   *     first call
+   */
+  public synchronized double getMessagesPerSecond() {
+    long now = System.nanoTime();
+    long count = messages.sum();
+    double rate =
+        now == rateNanos
+            ? 0
+            : (double) (count - rateMessages) * TimeUnit.SECONDS.toNanos(1) / (now - rateNanos);
+    rateNanos = now;
+    rateMessages = count;
+    return rate;
+  }
+
+  void recordMessage(long dispatchNanos, long subscriberNanos) {
+    messages.increment();
+    if (dispatchNanos >= 0) {
+      dispatch.record(dispatchNanos);
+    }
+    subscriber.record(subscriberNanos);
+  }
+
+  void recordExchangeLag(long lagMillis) {
+    exchangeLag.record(TimeUnit.MILLISECONDS.toNanos(lagMillis));
+  }
+
+  public synchronized void reset() {
+    messages.reset();
+    dispatch.reset();
+    subscriber.reset();
+    exchangeLag.reset();
+    rateNanos = System.nanoTime();
+    rateMessages = 0;
+  }
+
+  @Override
+  public String toString() {
+    return "ChannelMetrics [channelId="
+        + channelId
+        + ", messages="
+        + getMessages()
+        + ", dispatch="
+        + dispatch.snapshot()
+        + ", subscriber="
+        + subscriber.snapshot()
+        + ", exchangeLag="
+        + exchangeLag.snapshot()
+        + "]";
+  }
+}
@@ -13,7 +13,14 @@ public final class ConnectionStateModel {
 
   public enum State {
     CLOSED,
-    OPEN
+    OPEN,
+    /** The connection was lost and reconnection attempts are being made. */
+    RECONNECTING,
+    /**
+     * Too many reconnection attempts failed in a row; the next ones are made after a longer
+     * cool-down, see {@link ReconnectPolicy}.
+     */
+    SUSPENDED
   }
 
   private final AtomicReference<State> state =
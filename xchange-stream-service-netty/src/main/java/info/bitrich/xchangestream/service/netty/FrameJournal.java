@@ -0,0 +1,406 @@
+package info.bitrich.xchangestream.service.netty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the raw frames received by {@link NettyStreamingService}s, with their receipt time and
+ * channel, into rolling memory-mapped files, e.g. to analyze or replay a feed later.
+ *
+ * <p>Each service appends to its own {@link Appender}, a lock-free single-producer queue, so the
+ * event loop only stores references to the frame. A background thread encodes the queued frames and
+ * writes them to the current segment file, rolling to a new one when it is full. When a queue is
+ * full its frames are dropped rather than holding up the dispatch, see {@link #getDropped()}.
+ *
+ * <p>Segments are named {@code <name>-<index>.journal}. Each starts with a header followed by the
+ * records: the length of the rest of the record, the receipt time in epoch nanos, the id of the
+ * appender, flags such as {@link #FLAG_STANDBY}, the length and UTF-8 bytes of the origin of the
+ * frame (-1 if none), those of the channel id (-1 if none) and the UTF-8 bytes of the frame. A zero
+ * length ends the records of a segment. The order of the records is that of receipt within one
+ * appender, not across appenders, see {@link FrameJournalReader#byReceiptTime}.
+ *
+ * @see FrameJournalReader
+ */
+public final class FrameJournal implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(FrameJournal.class);
+
+  static final int MAGIC = 0x58434a33; // XCJ3
+  static final int HEADER_LENGTH = 8;
+
+  /** Receipt time, appender id, flags, origin length and channel length. */
+  static final int RECORD_HEADER_LENGTH = 8 + 4 + 4 + 4 + 4;
+
+  /** Flag of the frames received by a standby connection. */
+  public static final int FLAG_STANDBY = 1;
+
+  static final String SUFFIX = ".journal";
+
+  /** Frames written per queue before moving on to the next one. */
+  private static final int DRAIN_BATCH = 1024;
+
+  private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final Path directory;
+  private final String name;
+  private final int segmentSize;
+  private final int queueCapacity;
+  private final long epochNanosAtStart;
+  private final long nanoTimeAtStart;
+
+  private final List<Appender> appenders = new CopyOnWriteArrayList<>();
+  private final AtomicInteger appenderIds = new AtomicInteger();
+  private final AtomicLong recorded = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+  private final Thread writer;
+  private volatile boolean closed;
+
+  // accessed by the writer thread only
+  private int segmentIndex;
+  private MappedByteBuffer segment;
+
+  private FrameJournal(Builder builder) throws IOException {
+    this.directory = builder.directory;
+    this.name = builder.name;
+    this.segmentSize = builder.segmentSize;
+    this.queueCapacity = Integer.highestOneBit(Math.max(builder.queueCapacity - 1, 1)) << 1;
+    this.epochNanosAtStart = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    this.nanoTimeAtStart = System.nanoTime();
+
+    Files.createDirectories(directory);
+    List<Path> existing = segments(directory, name);
+    segmentIndex = existing.isEmpty() ? 0 : segmentIndex(existing.get(existing.size() - 1), name);
+    roll();
+
+    writer = new Thread(this::write, "xchange-frame-journal-" + name);
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * A new queue into the journal, of frames without origin.
+   *
+   * @see #newAppender(String)
+   */
+  public Appender newAppender() {
+    return newAppender(null);
+  }
+
+  /**
+   * A new queue into the journal. An appender must be fed by one thread at a time, like the event
+   * loop of a connection, and {@link Appender#close() closed} when its feed ends.
+   *
+   * @param origin recorded with each frame of the queue, e.g. {@link
+   *     NettyStreamingService#getFrameOrigin()}, null if none
+   */
+  public Appender newAppender(String origin) {
+    return newAppender(origin, false);
+  }
+
+  /**
+   * A new queue into the journal.
+   *
+   * @param origin see {@link #newAppender(String)}
+   * @param standby true if the frames are those of a standby connection, recorded with {@link
+   *     #FLAG_STANDBY}
+   */
+  public Appender newAppender(String origin, boolean standby) {
+    Appender appender =
+        new Appender(
+            queueCapacity, appenderIds.getAndIncrement(), standby ? FLAG_STANDBY : 0, origin);
+    appenders.add(appender);
+    return appender;
+  }
+
+  /** @return the frames written to the journal */
+  public long getRecorded() {
+    return recorded.get();
+  }
+
+  /** @return the frames dropped because their queue was full, too large or the journal closed */
+  public long getDropped() {
+    return dropped.sum();
+  }
+
+  /** @return the appenders the journal still drains, closed ones with frames left included */
+  int getAppenderCount() {
+    return appenders.size();
+  }
+
+  /** Writes the queued frames, then stops the recording. */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void write() {
+    int idle = 0;
+    while (true) {
+      boolean closing = closed;
+      int written = 0;
+      for (Appender appender : appenders) {
+        // read before draining, so a closed appender is dropped only once its last frame is written
+        boolean released = appender.released;
+        written += appender.drain(this);
+        if (released && appender.isEmpty()) {
+          appenders.remove(appender);
+        }
+      }
+      if (written > 0) {
+        idle = 0;
+      } else if (closing) {
+        break;
+      } else if (++idle < 16) {
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+    if (segment != null) {
+      segment.force();
+    }
+  }
+
+  private void write(long receivedNanos, Appender appender, String channel, String frame) {
+    if (segment == null) {
+      dropped.increment();
+      return;
+    }
+    byte[] originBytes = appender.originBytes;
+    byte[] channelBytes = channel == null ? null : channel.getBytes(StandardCharsets.UTF_8);
+    byte[] frameBytes = frame.getBytes(StandardCharsets.UTF_8);
+    int length =
+        RECORD_HEADER_LENGTH
+            + (originBytes == null ? 0 : originBytes.length)
+            + (channelBytes == null ? 0 : channelBytes.length)
+            + frameBytes.length;
+    if (length + 4 > segmentSize - HEADER_LENGTH) {
+      LOG.warn("Dropping a frame of {} bytes, larger than the journal segments", frameBytes.length);
+      dropped.increment();
+      return;
+    }
+    if (segment.remaining() < length + 4) {
+      try {
+        roll();
+      } catch (IOException e) {
+        LOG.error("Cannot create a journal segment, stopping the recording", e);
+        segment = null;
+        dropped.increment();
+        return;
+      }
+    }
+    int start = segment.position();
+    segment.position(start + 4);
+    segment.putLong(epochNanosAtStart + receivedNanos - nanoTimeAtStart);
+    segment.putInt(appender.id);
+    segment.putInt(appender.flags);
+    putBytes(originBytes);
+    putBytes(channelBytes);
+    segment.put(frameBytes);
+    // the length last, so a reader of a live segment never sees a partial record
+    segment.putInt(start, length);
+    recorded.lazySet(recorded.get() + 1);
+  }
+
+  private void putBytes(byte[] bytes) {
+    if (bytes == null) {
+      segment.putInt(-1);
+    } else {
+      segment.putInt(bytes.length);
+      segment.put(bytes);
+    }
+  }
+
+  private void roll() throws IOException {
+    if (segment != null) {
+      segment.force();
+    }
+    segmentIndex++;
+    Path path = directory.resolve(String.format("%s-%06d%s", name, segmentIndex, SUFFIX));
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+    segment.putInt(MAGIC);
+    segment.putInt(segmentSize);
+  }
+
+  /** @return the segments of the journal of the given name, in the order they were written */
+  static List<Path> segments(Path directory, String name) throws IOException {
+    List<Path> segments = new ArrayList<>();
+    if (!Files.isDirectory(directory)) {
+      return segments;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + "-*" + SUFFIX)) {
+      for (Path file : files) {
+        if (segmentIndex(file, name) > 0) {
+          segments.add(file);
+        }
+      }
+    }
+    segments.sort((a, b) -> Integer.compare(segmentIndex(a, name), segmentIndex(b, name)));
+    return segments;
+  }
+
+  private static int segmentIndex(Path file, String name) {
+    Matcher matcher =
+        Pattern.compile(Pattern.quote(name) + "-(\\d+)" + Pattern.quote(SUFFIX))
+            .matcher(file.getFileName().toString());
+    return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+  }
+
+  /**
+   * Single-producer queue of the frames of one service. Only the producer moves the tail and only
+   * the writer thread moves the head, so neither needs a lock or a compare-and-set.
+   */
+  public final class Appender {
+
+    private final int mask;
+    private final int id;
+    private final int flags;
+    private final byte[] originBytes;
+    private final long[] receivedNanos;
+    private final String[] channels;
+    private final String[] frames;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private long cachedHead; // producer's last read of head
+    private volatile boolean released;
+
+    private Appender(int capacity, int id, int flags, String origin) {
+      this.mask = capacity - 1;
+      this.id = id;
+      this.flags = flags;
+      this.originBytes = origin == null ? null : origin.getBytes(StandardCharsets.UTF_8);
+      this.receivedNanos = new long[capacity];
+      this.channels = new String[capacity];
+      this.frames = new String[capacity];
+    }
+
+    /**
+     * Queues a frame for the journal, without blocking.
+     *
+     * @param receivedNanos {@link System#nanoTime()} of the receipt of the frame
+     * @param channel the channel id of the messages of the frame, null if none
+     * @return false if the frame was dropped
+     */
+    public boolean append(long receivedNanos, String channel, String frame) {
+      long position = tail.get();
+      if (closed || released || position - cachedHead > mask) {
+        cachedHead = head.get();
+        if (closed || released || position - cachedHead > mask) {
+          dropped.increment();
+          return false;
+        }
+      }
+      int index = (int) position & mask;
+      this.receivedNanos[index] = receivedNanos;
+      channels[index] = channel;
+      frames[index] = frame;
+      tail.lazySet(position + 1);
+      return true;
+    }
+
+    /**
+     * Stops the queue, e.g. when its service is disconnected. The frames already queued are still
+     * written, the ones appended afterwards are dropped.
+     */
+    public void close() {
+      released = true;
+    }
+
+    private boolean isEmpty() {
+      return head.get() == tail.get();
+    }
+
+    private int drain(FrameJournal journal) {
+      long position = head.get();
+      long limit = Math.min(tail.get(), position + DRAIN_BATCH);
+      int count = 0;
+      for (; position < limit; position++, count++) {
+        int index = (int) position & mask;
+        journal.write(receivedNanos[index], this, channels[index], frames[index]);
+        channels[index] = null;
+        frames[index] = null;
+      }
+      head.lazySet(position);
+      return count;
+    }
+  }
+
+  public static final class Builder {
+    private Path directory;
+    private String name = "frames";
+    private int segmentSize = 128 * 1024 * 1024;
+    private int queueCapacity = 64 * 1024;
+
+    private Builder() {}
+
+    /** Directory of the segment files, created if missing. */
+    public Builder directory(Path directory) {
+      this.directory = directory;
+      return this;
+    }
+
+    /** Prefix of the segment files (default frames). New segments follow existing ones. */
+    public Builder name(String name) {
+      this.name = name;
+      return this;
+    }
+
+    /** Size of each segment file in bytes (default 128MB), the limit of the size of a frame. */
+    public Builder segmentSize(int segmentSize) {
+      this.segmentSize = segmentSize;
+      return this;
+    }
+
+    /** Frames each appender can hold before dropping them, rounded up to a power of 2. */
+    public Builder queueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /** Creates the first segment and starts the writer thread. */
+    public FrameJournal build() throws IOException {
+      if (directory == null) {
+        throw new IllegalArgumentException("The directory of the journal is required");
+      }
+      if (segmentSize <= HEADER_LENGTH + 4 + RECORD_HEADER_LENGTH) {
+        throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+      }
+      return new FrameJournal(this);
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package info.bitrich.xchangestream.service.netty;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Reads the frames recorded by a {@link FrameJournal}, segment after segment:
+ *
+ * <pre>
+ * try (FrameJournalReader reader = new FrameJournalReader(directory, "binance")) {
+ *   while (reader.next()) {
+ *     process(reader.getTimestamp(), reader.getOrigin(), reader.getChannel(), reader.getFrame());
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>The journal interleaves the queues of the services in batches, so the frames of several
+ * services are read in receipt order by {@link #byReceiptTime}, which merges the frames of each
+ * queue by their receipt time.
+ */
+public final class FrameJournalReader implements Closeable {
+
+  private static final int ANY_APPENDER = -1;
+
+  private final List<Path> segments;
+  private final ByteBuffer[] mapped;
+
+  /** The cursors of the queues ordered by their next frame, null when reading in file order. */
+  private final PriorityQueue<Cursor> merge;
+
+  private Cursor current;
+
+  public FrameJournalReader(Path directory, String name) throws IOException {
+    this(directory, name, false);
+  }
+
+  private FrameJournalReader(Path directory, String name, boolean merged) throws IOException {
+    this.segments = FrameJournal.segments(directory, name);
+    this.mapped = new ByteBuffer[segments.size()];
+    if (!merged) {
+      this.merge = null;
+      this.current = new Cursor(ANY_APPENDER, 0, 0, Integer.MAX_VALUE, 0, 0);
+      return;
+    }
+    // first pass over the record headers: where the frames of each queue start and end
+    Map<Integer, int[]> spans = new LinkedHashMap<>();
+    Cursor scan = new Cursor(ANY_APPENDER, 0, 0, Integer.MAX_VALUE, 0, 0);
+    while (scan.next(false)) {
+      int[] span = spans.get(scan.appender);
+      if (span == null) {
+        span = new int[] {scan.recordSegment, scan.recordPosition, 0, 0, spans.size()};
+        spans.put(scan.appender, span);
+      }
+      span[2] = scan.recordSegment;
+      span[3] = scan.recordPosition;
+    }
+    this.merge =
+        new PriorityQueue<>(
+            Math.max(1, spans.size()),
+            Comparator.<Cursor>comparingLong(cursor -> cursor.timestamp)
+                .thenComparingInt(cursor -> cursor.rank));
+    for (Map.Entry<Integer, int[]> entry : spans.entrySet()) {
+      int[] span = entry.getValue();
+      Cursor cursor = new Cursor(entry.getKey(), span[0], span[1], span[2], span[3], span[4]);
+      if (cursor.next(true)) {
+        merge.add(cursor);
+      }
+    }
+  }
+
+  /**
+   * A reader of the frames of each queue of the journal, e.g. of each service, in the order they
+   * were received, merged with those of the other queues by their receipt time.
+   */
+  public static FrameJournalReader byReceiptTime(Path directory, String name) throws IOException {
+    return new FrameJournalReader(directory, name, true);
+  }
+
+  /**
+   * Moves to the next frame.
+   *
+   * @return false at the end of the journal
+   */
+  public boolean next() throws IOException {
+    if (merge == null) {
+      return current.next(true);
+    }
+    if (current != null && current.next(true)) {
+      merge.add(current);
+    }
+    current = merge.poll();
+    return current != null;
+  }
+
+  /** @return the receipt time of the frame in epoch nanos */
+  public long getTimestamp() {
+    return current.timestamp;
+  }
+
+  /** @return the origin of the frame, e.g. the service which received it, null if none */
+  public String getOrigin() {
+    return current.origin;
+  }
+
+  /** @return the channel id of the messages of the frame, null if none */
+  public String getChannel() {
+    return current.channel;
+  }
+
+  /**
+   * @return true if the frame was received by a standby connection, a copy of what its primary
+   *     connection received while it was open
+   */
+  public boolean isStandby() {
+    return (current.flags & FrameJournal.FLAG_STANDBY) != 0;
+  }
+
+  public String getFrame() {
+    return current.frame;
+  }
+
+  private ByteBuffer segment(int index) throws IOException {
+    if (mapped[index] == null) {
+      Path path = segments.get(index);
+      ByteBuffer segment;
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      if (segment.remaining() < FrameJournal.HEADER_LENGTH
+          || segment.getInt() != FrameJournal.MAGIC) {
+        throw new IOException("Not a frame journal segment: " + path);
+      }
+      mapped[index] = segment;
+    }
+    // each cursor reads through its own position
+    return mapped[index].duplicate();
+  }
+
+  @Override
+  public void close() {
+    current = null;
+    if (merge != null) {
+      merge.clear();
+    }
+  }
+
+  /** Reads the records of one queue of the journal, or of all of them, in file order. */
+  private final class Cursor {
+
+    private final int appenderFilter;
+    private final int lastSegment;
+    private final int lastPosition;
+    private final int rank;
+
+    private int segmentIndex;
+    private int startPosition;
+    private ByteBuffer segment;
+    private boolean done;
+
+    private int recordSegment;
+    private int recordPosition;
+    private long timestamp;
+    private int appender;
+    private int flags;
+    private String origin;
+    private String channel;
+    private String frame;
+
+    private Cursor(
+        int appenderFilter,
+        int firstSegment,
+        int firstPosition,
+        int lastSegment,
+        int lastPosition,
+        int rank) {
+      this.appenderFilter = appenderFilter;
+      this.segmentIndex = firstSegment;
+      this.startPosition = firstPosition;
+      this.lastSegment = lastSegment;
+      this.lastPosition = lastPosition;
+      this.rank = rank;
+    }
+
+    /** @param decode false to read the header of the record only */
+    private boolean next(boolean decode) throws IOException {
+      while (!done) {
+        if (segment == null) {
+          if (segmentIndex >= segments.size() || segmentIndex > lastSegment) {
+            done = true;
+            return false;
+          }
+          segment = segment(segmentIndex);
+          segment.position(Math.max(startPosition, FrameJournal.HEADER_LENGTH));
+          startPosition = 0;
+        }
+        int start = segment.position();
+        int length = segment.remaining() >= 4 ? segment.getInt() : 0;
+        if (length <= 0) {
+          segment = null;
+          segmentIndex++;
+          continue;
+        }
+        recordSegment = segmentIndex;
+        recordPosition = start;
+        timestamp = segment.getLong();
+        appender = segment.getInt();
+        flags = segment.getInt();
+        if (segmentIndex == lastSegment && start >= lastPosition) {
+          done = true;
+        }
+        if (appenderFilter != ANY_APPENDER && appender != appenderFilter) {
+          segment.position(start + 4 + length);
+          continue;
+        }
+        if (decode) {
+          read(length);
+        } else {
+          segment.position(start + 4 + length);
+        }
+        return true;
+      }
+      return false;
+    }
+
+    private void read(int length) {
+      int originLength = segment.getInt();
+      origin = originLength < 0 ? null : string(originLength);
+      int channelLength = segment.getInt();
+      channel = channelLength < 0 ? null : string(channelLength);
+      frame =
+          string(
+              length
+                  - FrameJournal.RECORD_HEADER_LENGTH
+                  - Math.max(originLength, 0)
+                  - Math.max(channelLength, 0));
+    }
+
+    private String string(int length) {
+      byte[] bytes = new byte[length];
+      segment.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package info.bitrich.xchangestream.service.netty;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Replays the frames recorded by a {@link FrameJournal} through a {@link NettyStreamingService} in
+ * {@link NettyStreamingService#setReplayMode replay mode}, exactly as if they were received from
+ * the socket: {@code messageHandler}, then {@code handleChannelMessage}, then the observables of
+ * the adapters. The exchange lag of the {@link ChannelMetrics} is measured against the recorded
+ * receipt time of the frames.
+ *
+ * <pre>
+ * service.setReplayMode(true);
+ * // subscribe through the streaming market data service of the exchange as usual, then
+ * new FrameReplay(directory, "binance").replay(service);
+ * </pre>
+ *
+ * <p>A whole streaming exchange is replayed by passing the replay as the {@code Frame_Replay}
+ * exchange specific parameter: its services are then created in replay mode and added to the
+ * replay, so {@link #replay()} feeds each frame to the services of the {@link
+ * NettyStreamingService#getFrameOrigin() origin} it was recorded from.
+ *
+ * <p>The frames of all the services are replayed in the order they were received, see {@link
+ * FrameJournalReader#byReceiptTime}. The frames of standby connections are copies of those of their
+ * primary and are skipped, so a gap of the primary connection is replayed as a gap.
+ *
+ * <p>The {@link #getClock() clock} of the replay tells the receipt time of the frame being
+ * replayed, so the code consuming the replayed streams can be run on the recorded time rather than
+ * the wall clock, whatever the speed of the replay. It never goes backwards.
+ *
+ * <p>Since the subscribe messages are not sent, services which match the messages to their
+ * subscriptions by an id negotiated when subscribing need a recording of the same subscriptions.
+ */
+public final class FrameReplay {
+
+  /** Replays the frames as fast as possible. */
+  public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+  private final Path directory;
+  private final String name;
+  private final List<NettyStreamingService<?>> services = new CopyOnWriteArrayList<>();
+  private final Clock clock = new ReplayClock(ZoneOffset.UTC);
+  private volatile long clockEpochNanos;
+
+  public FrameReplay(Path directory, String name) {
+    this.directory = directory;
+    this.name = name;
+  }
+
+  /** Puts the service in replay mode and adds it to those {@link #replay()} feeds. */
+  public void addService(NettyStreamingService<?> service) {
+    service.setReplayMode(true);
+    services.add(service);
+  }
+
+  /**
+   * The time of the replay: the receipt time of the frame being replayed, or of the last one
+   * replayed, by {@link #replay()} or {@link #replay(NettyStreamingService)}. The epoch before the
+   * first frame.
+   */
+  public Clock getClock() {
+    return clock;
+  }
+
+  /**
+   * Replays all the frames into the added services as fast as possible, each frame into the
+   * services of the origin it was recorded from. The frames recorded without origin go to all the
+   * services.
+   *
+   * @return the number of frames replayed, standby frames excluded
+   */
+  public long replay() throws IOException {
+    return replay(services, true, AS_FAST_AS_POSSIBLE, true);
+  }
+
+  /**
+   * Replays all the frames into the added services at the given speed.
+   *
+   * @see #replay()
+   * @see #replay(NettyStreamingService, double)
+   */
+  public long replay(double speed) throws IOException {
+    return replay(services, true, speed, true);
+  }
+
+  /**
+   * Replays all the frames as fast as possible.
+   *
+   * @return the number of frames replayed
+   */
+  public long replay(NettyStreamingService<?> service) throws IOException {
+    return replay(service, AS_FAST_AS_POSSIBLE);
+  }
+
+  /**
+   * Replays all the frames, whatever their origin, spaced by the time between their receipt divided
+   * by the speed.
+   *
+   * @param speed 1 replays in real time, 10 ten times faster, {@link #AS_FAST_AS_POSSIBLE} without
+   *     waiting
+   * @return the number of frames replayed
+   */
+  public long replay(NettyStreamingService<?> service, double speed) throws IOException {
+    return replay(Collections.singletonList(service), false, speed, true);
+  }
+
+  /**
+   * @param routed true to replay each frame into the services of its origin only
+   * @param timekeeper true to advance the clock of the replay to each frame
+   */
+  private long replay(
+      List<NettyStreamingService<?>> services, boolean routed, double speed, boolean timekeeper)
+      throws IOException {
+    for (NettyStreamingService<?> service : services) {
+      if (!service.isReplayMode()) {
+        throw new IllegalStateException("The service must be in replay mode before subscribing");
+      }
+    }
+    if (!(speed > 0)) {
+      throw new IllegalArgumentException("Invalid speed " + speed);
+    }
+    boolean timed = speed != AS_FAST_AS_POSSIBLE;
+    long frames = 0;
+    long firstTimestamp = 0;
+    long timestamp = Long.MIN_VALUE;
+    long start = System.nanoTime();
+    try (FrameJournalReader reader = FrameJournalReader.byReceiptTime(directory, name)) {
+      while (reader.next()) {
+        if (reader.isStandby()) {
+          continue;
+        }
+        // never back in time, e.g. across recordings appended to the same journal
+        timestamp = Math.max(timestamp, reader.getTimestamp());
+        if (timed) {
+          if (frames == 0) {
+            firstTimestamp = timestamp;
+          }
+          long due = start + (long) ((timestamp - firstTimestamp) / speed);
+          for (long wait = due - System.nanoTime(); wait > 0; wait = due - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+          }
+        }
+        if (timekeeper) {
+          clockEpochNanos = timestamp;
+        }
+        String origin = routed ? reader.getOrigin() : null;
+        String frame = reader.getFrame();
+        for (NettyStreamingService<?> service : services) {
+          if (origin == null || origin.equals(service.getFrameOrigin())) {
+            service.replayFrame(timestamp, frame);
+          }
+        }
+        frames++;
+      }
+    }
+    return frames;
+  }
+
+  /**
+   * Replays the recording as fast as possible into several services at the same time, each on its
+   * own thread, e.g. to measure the throughput of the adapters on many cores. Each replay maps the
+   * segments, so they are read from the page cache shared by all of them rather than copied.
+   *
+   * @param copies the number of services to replay into
+   * @param services creates the services in replay mode, with their subscriptions
+   * @return the number of frames replayed into all the services
+   */
+  public long fanOut(int copies, Supplier<? extends NettyStreamingService<?>> services)
+      throws IOException, InterruptedException {
+
+    AtomicInteger threadCount = new AtomicInteger();
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            copies,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "xchange-frame-replay-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    try {
+      List<Future<Long>> futures = new ArrayList<>(copies);
+      for (int i = 0; i < copies; i++) {
+        futures.add(
+            executor.submit(
+                () ->
+                    replay(
+                        Collections.singletonList(services.get()),
+                        false,
+                        AS_FAST_AS_POSSIBLE,
+                        false)));
+      }
+      long frames = 0;
+      for (Future<Long> future : futures) {
+        try {
+          frames += future.get();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          }
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new IllegalStateException("Replay failed", cause);
+        }
+      }
+      return frames;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** A clock set to the receipt time of the frames as they are replayed. */
+  private final class ReplayClock extends Clock {
+
+    private final ZoneId zone;
+
+    private ReplayClock(ZoneId zone) {
+      this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return new ReplayClock(zone);
+    }
+
+    @Override
+    public long millis() {
+      return clockEpochNanos / 1_000_000;
+    }
+
+    @Override
+    public Instant instant() {
+      long nanos = clockEpochNanos;
+      return Instant.ofEpochSecond(nanos / 1_000_000_000, nanos % 1_000_000_000);
+    }
+  }
+}
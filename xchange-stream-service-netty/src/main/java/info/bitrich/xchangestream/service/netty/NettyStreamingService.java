@@ -34,22 +34,34 @@ import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.FastThreadLocal;
 import io.netty.util.internal.SocketUtils;
 import io.netty.util.internal.StringUtil;
 import io.reactivex.Completable;
 import io.reactivex.Observable;
 import io.reactivex.ObservableEmitter;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.schedulers.Schedulers;
 import io.reactivex.subjects.PublishSubject;
 import io.reactivex.subjects.Subject;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,28 +72,57 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
   protected static final Duration DEFAULT_RETRY_DURATION = Duration.ofSeconds(15);
   protected static final int DEFAULT_IDLE_TIMEOUT = 15;
 
+  /** Returned by {@link #getMessageSequence} for messages that carry no sequence number. */
+  protected static final long NO_SEQUENCE = Long.MIN_VALUE;
+
+  /** Returned by {@link #getMessageTimestamp} for messages that carry no timestamp. */
+  protected static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  /** The default number of recent message ids of a sequence key kept to recognize copies. */
+  public static final int DEFAULT_REDUNDANT_MESSAGE_WINDOW = 1024;
+
+  /** The frame being handled by the thread. */
+  private static final FastThreadLocal<Frame> FRAME =
+      new FastThreadLocal<Frame>() {
+        @Override
+        protected Frame initialValue() {
+          return new Frame();
+        }
+      };
+
   protected class Subscription {
 
     final ObservableEmitter<T> emitter;
     final String channelName;
     final Object[] args;
+    final ChannelMetrics metrics;
 
     public Subscription(ObservableEmitter<T> emitter, String channelName, Object[] args) {
       this.emitter = emitter;
       this.channelName = channelName;
       this.args = args;
+      this.metrics = new ChannelMetrics(getSubscriptionUniqueId(channelName, args));
     }
 
     public ObservableEmitter<T> getEmitter() {
       return emitter;
     }
+
+    public ChannelMetrics getMetrics() {
+      return metrics;
+    }
   }
 
   private final int maxFramePayloadLength;
   protected URI uri;
   private final AtomicBoolean isManualDisconnect = new AtomicBoolean();
   private Channel webSocketChannel;
-  private final Duration retryDuration;
+  private ReconnectPolicy reconnectPolicy;
+  private volatile FrameJournal frameJournal;
+  private volatile FrameJournal.Appender frameAppender;
+  private volatile boolean replayMode;
+  private final AtomicInteger reconnectAttempts = new AtomicInteger();
+  private volatile Disposable pendingReconnect;
   private final Duration connectionTimeout;
   private final int idleTimeoutSeconds;
   private volatile NioEventLoopGroup eventLoopGroup;
@@ -95,6 +136,16 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
 
   private final ConnectionStateModel connectionStateModel = new ConnectionStateModel();
 
+  // redundant connections
+  private volatile NettyStreamingService<T> primary;
+  private final List<NettyStreamingService<T>> standbys = new CopyOnWriteArrayList<>();
+  private final AtomicBoolean standbysStarted = new AtomicBoolean();
+  private final Map<String, DeliveredMessages> delivered = new ConcurrentHashMap<>();
+  private volatile int redundantMessageWindow = DEFAULT_REDUNDANT_MESSAGE_WINDOW;
+
+  /** Earliest time of the next connection attempt to each host, shared by all services. */
+  private static final Map<String, AtomicLong> NEXT_CONNECT_BY_HOST = new ConcurrentHashMap<>();
+
   // debugging
   private boolean acceptAllCertificates = false;
   private boolean enableLoggingHandler = false;
@@ -126,7 +177,7 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
       Duration retryDuration,
       int idleTimeoutSeconds) {
     this.maxFramePayloadLength = maxFramePayloadLength;
-    this.retryDuration = retryDuration;
+    this.reconnectPolicy = ReconnectPolicy.withMaxBackoff(retryDuration);
     this.connectionTimeout = connectionTimeout;
     this.idleTimeoutSeconds = idleTimeoutSeconds;
     try {
@@ -138,6 +189,10 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
 
   @Override
   protected Completable openConnection() {
+    attachFrameJournal();
+    if (replayMode) {
+      return Completable.fromAction(() -> connectionStateModel.setState(State.OPEN));
+    }
     return Completable.create(
             completable -> {
               try {
@@ -188,7 +243,7 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
                             true,
                             getCustomHeaders(),
                             maxFramePayloadLength),
-                        this::messageHandler);
+                        this::handleFrame);
 
                 if (eventLoopGroup == null || eventLoopGroup.isShutdown()) {
                   eventLoopGroup = new NioEventLoopGroup(2);
@@ -273,28 +328,98 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
             })
         .doOnComplete(
             () -> {
+              reconnectAttempts.set(0);
               resubscribeChannels();
 
               connectionStateModel.setState(State.OPEN);
               connectionSuccessEmitters.onNext(new Object());
+              connectStandbys();
             });
   }
 
+  /**
+   * Adds a hot-standby connection. It carries the same subscriptions as this connection and hands
+   * its messages over to this one, which passes on the first copy of each message and drops the
+   * others. A disconnect of either connection then causes no gap in the data.
+   *
+   * <p>Copies are recognized by {@link #getMessageSequence}, or by {@link #getMessageId} among the
+   * last {@link #setRedundantMessageWindow ids} of their sequence key. Messages with neither are
+   * passed on from this connection while it is open, and from the standby connections otherwise.
+   *
+   * @param standby a new instance of the same service with the same configuration, not connected.
+   *     It is connected after this one and reconnects on its own.
+   */
+  public void addStandbyConnection(NettyStreamingService<T> standby) {
+    if (standby == this || standby.primary != null || !standby.standbys.isEmpty()) {
+      throw new IllegalArgumentException("Standby connections cannot be nested or shared");
+    }
+    standby.primary = this;
+    standbys.add(standby);
+    // take a queue tagged as standby, the frames are copies of those of this connection
+    standby.setFrameJournal(standby.frameJournal);
+  }
+
+  public List<NettyStreamingService<T>> getStandbyConnections() {
+    return Collections.unmodifiableList(standbys);
+  }
+
+  private void connectStandbys() {
+    if (standbys.isEmpty() || !standbysStarted.compareAndSet(false, true)) {
+      return;
+    }
+    for (NettyStreamingService<T> standby : standbys) {
+      LOG.info("Connecting standby connection to {}", standby.uri);
+      standby
+          .connect()
+          .subscribe(
+              () -> LOG.info("Standby connection complete"),
+              e -> LOG.error("Standby connection failed: {}", e.getMessage()));
+    }
+  }
+
   private void scheduleReconnect() {
-    if (autoReconnect) {
-      LOG.info("Scheduling reconnection");
+    if (!autoReconnect) {
+      connectionStateModel.setState(State.CLOSED);
+      return;
+    }
+    int attempt = reconnectAttempts.incrementAndGet();
+    long delay = staggerByHost(reconnectPolicy.delayMillis(attempt));
+    if (reconnectPolicy.isSuspended(attempt)) {
+      LOG.warn(
+          "{} reconnection attempts to {} failed, next attempt in {}ms",
+          attempt - 1,
+          uri.getHost(),
+          delay);
+      connectionStateModel.setState(State.SUSPENDED);
+    } else {
+      LOG.info("Scheduling reconnection attempt {} in {}ms", attempt, delay);
+      connectionStateModel.setState(State.RECONNECTING);
+    }
 
-      webSocketChannel
-          .eventLoop()
-          .schedule(
-              () ->
-                  connect()
-                      .subscribe(
-                          () -> LOG.info("Reconnection complete"),
-                          e -> LOG.error("Reconnection failed: {}", e.getMessage())),
-              retryDuration.toMillis(),
-              TimeUnit.MILLISECONDS);
+    pendingReconnect =
+        Schedulers.computation()
+            .scheduleDirect(
+                () ->
+                    connect()
+                        .subscribe(
+                            () -> LOG.info("Reconnection complete"),
+                            e -> LOG.error("Reconnection failed: {}", e.getMessage())),
+                delay,
+                TimeUnit.MILLISECONDS);
+  }
+
+  /** Pushes the attempt back until the host stagger since the previous attempt has passed. */
+  private long staggerByHost(long delayMillis) {
+    long stagger = reconnectPolicy.getHostStagger().toMillis();
+    if (stagger <= 0 || uri.getHost() == null) {
+      return delayMillis;
     }
+    long now = System.currentTimeMillis();
+    long slot =
+        NEXT_CONNECT_BY_HOST
+            .computeIfAbsent(uri.getHost(), host -> new AtomicLong())
+            .updateAndGet(previous -> Math.max(now + delayMillis, previous + stagger));
+    return slot - now;
   }
 
   protected DefaultHttpHeaders getCustomHeaders() {
@@ -302,7 +427,26 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
   }
 
   public Completable disconnect() {
+    if (standbys.isEmpty()) {
+      return disconnectSocket();
+    }
+    List<Completable> completables = new ArrayList<>();
+    completables.add(disconnectSocket());
+    for (NettyStreamingService<T> standby : standbys) {
+      completables.add(standby.disconnect());
+    }
+    standbysStarted.set(false);
+    delivered.clear();
+    return Completable.merge(completables);
+  }
+
+  private Completable disconnectSocket() {
     isManualDisconnect.set(true);
+    detachFrameJournal();
+    Disposable reconnect = pendingReconnect;
+    if (reconnect != null) {
+      reconnect.dispose();
+    }
     return Completable.create(
         completable -> {
           if (webSocketChannel != null && webSocketChannel.isOpen()) {
@@ -340,6 +484,41 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
     return channelName;
   }
 
+  /**
+   * Sequence number of a message, used to drop the copies delivered by standby connections. Within
+   * a {@link #getSequenceKey sequence key} the numbers must increase with every new message.
+   *
+   * @return the sequence number or {@link #NO_SEQUENCE} if the message has none.
+   */
+  protected long getMessageSequence(String channel, T message) {
+    return NO_SEQUENCE;
+  }
+
+  /**
+   * Identity given to a message by the exchange, e.g. a trade id, used to drop the copies delivered
+   * by standby connections when the message has no {@link #getMessageSequence sequence number}.
+   *
+   * @return the id or null if the message has none.
+   */
+  protected String getMessageId(String channel, T message) {
+    return null;
+  }
+
+  /** The messages whose sequence numbers are compared, by default those of the same channel. */
+  protected String getSequenceKey(String channel, T message) {
+    return channel;
+  }
+
+  /**
+   * Exchange timestamp of a message, used to measure the {@link ChannelMetrics#getExchangeLag lag}
+   * of the channels.
+   *
+   * @return the timestamp in epoch millis or {@link #NO_TIMESTAMP} if the message has none.
+   */
+  protected long getMessageTimestamp(String channel, T message) {
+    return NO_TIMESTAMP;
+  }
+
   /**
    * Handler that receives incoming messages.
    *
@@ -347,9 +526,35 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
    */
   public abstract void messageHandler(String message);
 
+  void handleFrame(String message) {
+    Frame frame = FRAME.get();
+    frame.receivedNanos = System.nanoTime();
+    try {
+      messageHandler(message);
+    } finally {
+      FrameJournal.Appender appender = frameAppender;
+      if (appender != null) {
+        appender.append(frame.receivedNanos, frame.channel, message);
+      }
+      frame.receivedNanos = 0;
+      frame.channel = null;
+      frame.replayedMillis = 0;
+    }
+  }
+
+  /** Handles a recorded frame as if it had just been received, at the time it was recorded. */
+  void replayFrame(long receivedEpochNanos, String message) {
+    FRAME.get().replayedMillis = TimeUnit.NANOSECONDS.toMillis(receivedEpochNanos);
+    handleFrame(message);
+  }
+
   public void sendMessage(String message) {
     LOG.debug("Sending message: {}", message);
 
+    if (replayMode) {
+      return;
+    }
+
     if (webSocketChannel == null || !webSocketChannel.isOpen()) {
       LOG.warn("WebSocket is not open! Call connect first.");
       return;
@@ -386,7 +591,7 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
 
     return Observable.<T>create(
             e -> {
-              if (webSocketChannel == null || !webSocketChannel.isOpen()) {
+              if (!isSocketOpen()) {
                 e.onError(new NotConnectedException());
               }
               channels.computeIfAbsent(
@@ -401,24 +606,66 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
                       // needs to report
                       e.onError(throwable); // a problem creating the message
                     }
+                    standbys.forEach(
+                        standby -> standby.subscribeStandby(channelId, channelName, args));
                     return newSubscription;
                   });
             })
         .doOnDispose(
             () -> {
               if (channels.remove(channelId) != null) {
-                try {
-                  sendMessage(getUnsubscribeMessage(channelId));
-                } catch (IOException e) {
-                  LOG.debug("Failed to unsubscribe channel: {} {}", channelId, e.toString());
-                } catch (Exception e) {
-                  LOG.warn("Failed to unsubscribe channel: {}", channelId, e);
-                }
+                sendUnsubscribe(channelId);
+                standbys.forEach(standby -> standby.unsubscribeStandby(channelId));
               }
             })
         .share();
   }
 
+  /** Registers a subscription of the primary connection; its messages go to the primary. */
+  private void subscribeStandby(String channelId, String channelName, Object[] args) {
+    channels.computeIfAbsent(
+        channelId,
+        cid -> {
+          try {
+            sendMessage(getSubscribeMessage(channelName, args));
+          } catch (Exception e) {
+            LOG.warn("Failed to subscribe standby channel: {}", channelId, e);
+          }
+          return new Subscription(null, channelName, args);
+        });
+  }
+
+  private void unsubscribeStandby(String channelId) {
+    if (channels.remove(channelId) != null) {
+      sendUnsubscribe(channelId);
+    }
+  }
+
+  private void sendUnsubscribe(String channelId) {
+    try {
+      sendMessage(getUnsubscribeMessage(channelId));
+    } catch (IOException e) {
+      LOG.debug("Failed to unsubscribe channel: {} {}", channelId, e.toString());
+    } catch (Exception e) {
+      LOG.warn("Failed to unsubscribe channel: {}", channelId, e);
+    }
+  }
+
+  /**
+   * Metrics of the subscribed channels of this service, by unique channel id. The metrics of a
+   * channel are dropped when it is unsubscribed. Messages received by standby connections count
+   * towards the channels of their primary.
+   */
+  public Map<String, ChannelMetrics> getChannelMetrics() {
+    Map<String, ChannelMetrics> metrics = new HashMap<>();
+    for (Entry<String, Subscription> entry : channels.entrySet()) {
+      if (entry.getValue().emitter != null) {
+        metrics.put(entry.getKey(), entry.getValue().metrics);
+      }
+    }
+    return metrics;
+  }
+
   public void resubscribeChannels() {
     for (Entry<String, Subscription> entry : channels.entrySet()) {
       try {
@@ -443,7 +690,53 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
 
   protected void handleMessage(T message) {
     String channel = getChannel(message);
-    if (!StringUtil.isNullOrEmpty(channel)) handleChannelMessage(channel, message);
+    if (StringUtil.isNullOrEmpty(channel)) {
+      return;
+    }
+    NettyStreamingService<T> target = primary;
+    if (target != null) {
+      target.handleRedundantMessage(channel, message, true);
+    } else if (!standbys.isEmpty()) {
+      handleRedundantMessage(channel, message, false);
+    } else {
+      handleChannelMessage(channel, message);
+    }
+  }
+
+  /** Passes on the first copy of a message received on this or a standby connection. */
+  private void handleRedundantMessage(String channel, T message, boolean fromStandby) {
+    long sequence = getMessageSequence(channel, message);
+    String id = sequence == NO_SEQUENCE ? getMessageId(channel, message) : null;
+    if (sequence == NO_SEQUENCE && id == null) {
+      // nothing tells a copy from a repeated message, take them from one connection only
+      if (!fromStandby || !isConnectionOpen()) {
+        handleChannelMessage(channel, message);
+      }
+      return;
+    }
+    DeliveredMessages messages =
+        delivered.computeIfAbsent(
+            getSequenceKey(channel, message), key -> new DeliveredMessages(redundantMessageWindow));
+    if (messages.isFirstArrival(sequence, id)) {
+      handleChannelMessage(channel, message);
+    }
+  }
+
+  /** @return true if the socket of this connection, not counting its standby ones, is open. */
+  private boolean isConnectionOpen() {
+    return replayMode || (webSocketChannel != null && webSocketChannel.isOpen());
+  }
+
+  /**
+   * Sets the number of recent {@link #getMessageId message ids} of each sequence key kept to drop
+   * the copies delivered by the standby connections. A standby connection lagging behind by more
+   * messages passes its copies on again.
+   */
+  public void setRedundantMessageWindow(int redundantMessageWindow) {
+    if (redundantMessageWindow < 1) {
+      throw new IllegalArgumentException("The window must keep at least one message id");
+    }
+    this.redundantMessageWindow = redundantMessageWindow;
   }
 
   protected void handleError(T message, Throwable t) {
@@ -474,6 +767,10 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
       LOG.debug("Channel provided is null");
       return;
     }
+    Frame frame = FRAME.get();
+    if (frame.receivedNanos != 0 && frame.channel == null) {
+      frame.channel = channel;
+    }
     NettyStreamingService<T>.Subscription subscription = channels.get(channel);
     if (subscription == null) {
       LOG.debug("Channel has been closed {}.", channel);
@@ -484,7 +781,21 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
       LOG.debug("No subscriber for channel {}.", channel);
       return;
     }
+    long received = frame.receivedNanos;
+    long start = System.nanoTime();
     emitter.onNext(message);
+    long end = System.nanoTime();
+    ChannelMetrics metrics = subscription.metrics;
+    metrics.recordMessage(received == 0 ? -1 : start - received, end - start);
+    long timestamp = getMessageTimestamp(channel, message);
+    if (timestamp != NO_TIMESTAMP) {
+      long receivedMillis =
+          frame.replayedMillis != 0
+              ? frame.replayedMillis
+              : System.currentTimeMillis()
+                  - TimeUnit.NANOSECONDS.toMillis(end - (received == 0 ? start : received));
+      metrics.recordExchangeLag(receivedMillis - timestamp);
+    }
   }
 
   protected void handleChannelError(String channel, Throwable t) {
@@ -543,8 +854,20 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
     }
   }
 
+  /** @return true if this connection or one of its standby connections is open. */
   public boolean isSocketOpen() {
-    return webSocketChannel != null && webSocketChannel.isOpen();
+    if (replayMode) {
+      return true;
+    }
+    if (webSocketChannel != null && webSocketChannel.isOpen()) {
+      return true;
+    }
+    for (NettyStreamingService<T> standby : standbys) {
+      if (standby.isSocketOpen()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   public void useCompressedMessages(boolean compressedMessages) {
@@ -574,4 +897,105 @@ public abstract class NettyStreamingService<T> extends ConnectableService {
   public void setAutoReconnect(boolean autoReconnect) {
     this.autoReconnect = autoReconnect;
   }
+
+  public ReconnectPolicy getReconnectPolicy() {
+    return reconnectPolicy;
+  }
+
+  public void setReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+    if (reconnectPolicy != null) {
+      this.reconnectPolicy = reconnectPolicy;
+    }
+  }
+
+  /**
+   * Records the frames received by this service into the journal, null to stop recording. The
+   * frames are recorded after they are dispatched, with the first channel they were dispatched to.
+   * The queue of the service into the journal is released on {@link #disconnect()} and taken again
+   * on the next connection. The frames of a standby connection are recorded with {@link
+   * FrameJournal#FLAG_STANDBY}, and {@link FrameReplay} skips them.
+   */
+  public synchronized void setFrameJournal(FrameJournal frameJournal) {
+    detachFrameJournal();
+    this.frameJournal = frameJournal;
+    attachFrameJournal();
+  }
+
+  private synchronized void attachFrameJournal() {
+    if (frameJournal != null && frameAppender == null) {
+      frameAppender = frameJournal.newAppender(getFrameOrigin(), primary != null);
+    }
+  }
+
+  /** Lets the journal drop the queue of the service once its frames are written. */
+  private synchronized void detachFrameJournal() {
+    FrameJournal.Appender appender = frameAppender;
+    frameAppender = null;
+    if (appender != null) {
+      appender.close();
+    }
+  }
+
+  /**
+   * The origin recorded with the frames of this service in a {@link FrameJournal}, by which {@link
+   * FrameReplay#replay()} routes them back to the service: the host and path of its URI by default.
+   * Services whose URI changes from one connection to the next override it with a stable one.
+   */
+  public String getFrameOrigin() {
+    return uri.getHost() + uri.getPath();
+  }
+
+  public boolean isReplayMode() {
+    return replayMode;
+  }
+
+  /**
+   * Detaches the service from the socket to be fed by a {@link FrameReplay}: it connects without
+   * opening a socket, considers itself connected and sends nothing. Set before subscribing.
+   */
+  public void setReplayMode(boolean replayMode) {
+    this.replayMode = replayMode;
+  }
+
+  /** The receipt time of a frame and the channel its messages went to. */
+  private static final class Frame {
+    long receivedNanos;
+    String channel;
+    /** The receipt time of a replayed frame in epoch millis, 0 for a live one. */
+    long replayedMillis;
+  }
+
+  /**
+   * What has been passed on for one sequence key. Messages of the same key arrive on the threads of
+   * the different connections, hence the synchronization.
+   */
+  private static final class DeliveredMessages {
+    private long lastSequence = NO_SEQUENCE;
+    private final String[] recentIds;
+    private final Set<String> recentIdSet = new HashSet<>();
+    private int next;
+
+    DeliveredMessages(int window) {
+      this.recentIds = new String[window];
+    }
+
+    synchronized boolean isFirstArrival(long sequence, String id) {
+      if (sequence != NO_SEQUENCE) {
+        if (sequence <= lastSequence) {
+          return false;
+        }
+        lastSequence = sequence;
+        return true;
+      }
+      if (!recentIdSet.add(id)) {
+        return false;
+      }
+      if (recentIds[next] != null) {
+        recentIdSet.remove(recentIds[next]);
+      }
+      recentIds[next] = id;
+      next = (next + 1) % recentIds.length;
+      return true;
+    }
+  }
 }
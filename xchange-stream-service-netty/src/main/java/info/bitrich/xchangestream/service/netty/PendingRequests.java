@@ -0,0 +1,70 @@
+package info.bitrich.xchangestream.service.netty;
+
+import io.reactivex.Single;
+import io.reactivex.SingleEmitter;
+import io.reactivex.functions.Action;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Requests sent over a socket that wait for the message answering them, e.g. order entry
+ * acknowledgements. Each request is registered under the client id the exchange echoes back in its
+ * response.
+ *
+ * @param <K> type of the client request id
+ * @param <T> type of the response
+ */
+public class PendingRequests<K, T> {
+
+  private final Map<K, SingleEmitter<T>> pending = new ConcurrentHashMap<>();
+
+  /**
+   * @param id client id of the request, unique among the pending ones
+   * @param send sends the request, called on subscription once the request is registered
+   * @return emits the response, or the error the request failed with. Disposing it forgets the
+   *     request, so a timeout can be applied with {@link Single#timeout}.
+   */
+  public Single<T> send(K id, Action send) {
+    return Single.create(
+        emitter -> {
+          if (pending.putIfAbsent(id, emitter) != null) {
+            emitter.onError(new IllegalStateException("Request " + id + " is already pending"));
+            return;
+          }
+          emitter.setCancellable(() -> pending.remove(id, emitter));
+          send.run();
+        });
+  }
+
+  /** @return true if a request was waiting for the response */
+  public boolean complete(K id, T response) {
+    SingleEmitter<T> emitter = id == null ? null : pending.remove(id);
+    if (emitter == null) {
+      return false;
+    }
+    emitter.onSuccess(response);
+    return true;
+  }
+
+  /** @return true if a request was waiting for the response */
+  public boolean fail(K id, Throwable error) {
+    SingleEmitter<T> emitter = id == null ? null : pending.remove(id);
+    if (emitter == null) {
+      return false;
+    }
+    emitter.tryOnError(error);
+    return true;
+  }
+
+  /** Fails all the pending requests, e.g. when the connection is lost. */
+  public void failAll(Throwable error) {
+    List<K> ids = new ArrayList<>(pending.keySet());
+    ids.forEach(id -> fail(id, error));
+  }
+
+  public int size() {
+    return pending.size();
+  }
+}
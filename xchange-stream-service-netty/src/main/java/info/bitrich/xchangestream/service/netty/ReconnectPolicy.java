@@ -0,0 +1,156 @@
+package info.bitrich.xchangestream.service.netty;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * When a {@link NettyStreamingService} tries to reconnect after losing its connection.
+ *
+ * <p>The first attempt is made right away, since most disconnects are short network blips. Further
+ * attempts back off exponentially up to a maximum delay, each delay shortened by a random jitter so
+ * that many connections dropped at once do not retry in lockstep. After a number of consecutive
+ * failures the circuit breaker trips: the service reports {@link
+ * ConnectionStateModel.State#SUSPENDED} and waits a longer cool-down before each further attempt,
+ * until one succeeds.
+ *
+ * <p>Attempts of all the services connecting to the same host are spaced by at least {@link
+ * Builder#hostStagger(Duration)}, so a mass reconnect does not hit handshake rate limits.
+ */
+public final class ReconnectPolicy {
+
+  private final Duration firstDelay;
+  private final Duration initialBackoff;
+  private final Duration maxBackoff;
+  private final double jitter;
+  private final int failuresBeforeSuspend;
+  private final Duration suspendDuration;
+  private final Duration hostStagger;
+
+  private ReconnectPolicy(Builder builder) {
+    this.firstDelay = builder.firstDelay;
+    this.initialBackoff = builder.initialBackoff;
+    this.maxBackoff = builder.maxBackoff;
+    this.jitter = builder.jitter;
+    this.failuresBeforeSuspend = builder.failuresBeforeSuspend;
+    this.suspendDuration = builder.suspendDuration;
+    this.hostStagger = builder.hostStagger;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /** The default policy, backing off up to the given retry duration. */
+  public static ReconnectPolicy withMaxBackoff(Duration maxBackoff) {
+    return builder().maxBackoff(maxBackoff).build();
+  }
+
+  /**
+   * @param attempt number of the attempt since the connection was lost, starting at 1
+   * @return the delay in milliseconds before the attempt
+   */
+  public long delayMillis(int attempt) {
+    if (isSuspended(attempt)) {
+      return suspendDuration.toMillis();
+    }
+    if (attempt <= 1) {
+      return firstDelay.toMillis();
+    }
+    long backoff = initialBackoff.toMillis() << Math.min(attempt - 2, 30);
+    if (backoff <= 0 || backoff > maxBackoff.toMillis()) {
+      backoff = maxBackoff.toMillis();
+    }
+    long jitterMillis = (long) (backoff * jitter * ThreadLocalRandom.current().nextDouble());
+    return backoff - jitterMillis;
+  }
+
+  /** @return true if the attempt is made after the circuit breaker tripped */
+  public boolean isSuspended(int attempt) {
+    return failuresBeforeSuspend > 0 && attempt > failuresBeforeSuspend;
+  }
+
+  public Duration getHostStagger() {
+    return hostStagger;
+  }
+
+  @Override
+  public String toString() {
+    return "ReconnectPolicy{"
+        + "firstDelay="
+        + firstDelay
+        + ", initialBackoff="
+        + initialBackoff
+        + ", maxBackoff="
+        + maxBackoff
+        + ", jitter="
+        + jitter
+        + ", failuresBeforeSuspend="
+        + failuresBeforeSuspend
+        + ", suspendDuration="
+        + suspendDuration
+        + ", hostStagger="
+        + hostStagger
+        + '}';
+  }
+
+  public static final class Builder {
+    private Duration firstDelay = Duration.ZERO;
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = NettyStreamingService.DEFAULT_RETRY_DURATION;
+    private double jitter = 0.5;
+    private int failuresBeforeSuspend = 20;
+    private Duration suspendDuration = Duration.ofMinutes(5);
+    private Duration hostStagger = Duration.ofMillis(250);
+
+    private Builder() {}
+
+    /** Delay before the first attempt (default none). */
+    public Builder firstDelay(Duration firstDelay) {
+      this.firstDelay = firstDelay;
+      return this;
+    }
+
+    /** Delay before the second attempt, doubled for each further one (default 1s). */
+    public Builder initialBackoff(Duration initialBackoff) {
+      this.initialBackoff = initialBackoff;
+      return this;
+    }
+
+    /** Upper bound of the backoff (default 15s). */
+    public Builder maxBackoff(Duration maxBackoff) {
+      this.maxBackoff = maxBackoff;
+      return this;
+    }
+
+    /** Fraction of each backoff that is randomly taken off, between 0 and 1 (default 0.5). */
+    public Builder jitter(double jitter) {
+      if (jitter < 0 || jitter > 1) {
+        throw new IllegalArgumentException("Jitter must be between 0 and 1");
+      }
+      this.jitter = jitter;
+      return this;
+    }
+
+    /** Failed attempts after which the circuit breaker trips, 0 for never (default 20). */
+    public Builder failuresBeforeSuspend(int failuresBeforeSuspend) {
+      this.failuresBeforeSuspend = failuresBeforeSuspend;
+      return this;
+    }
+
+    /** Delay before each attempt once the circuit breaker tripped (default 5min). */
+    public Builder suspendDuration(Duration suspendDuration) {
+      this.suspendDuration = suspendDuration;
+      return this;
+    }
+
+    /** Minimum spacing of attempts to the same host across all services (default 250ms). */
+    public Builder hostStagger(Duration hostStagger) {
+      this.hostStagger = hostStagger;
+      return this;
+    }
+
+    public ReconnectPolicy build() {
+      return new ReconnectPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package info.bitrich.xchangestream.service.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.reactivex.disposables.Disposable;
+import java.util.Map;
+import org.junit.Test;
+import org.knowm.xchange.utils.LatencyHistogram;
+
+public class ChannelMetricsTest {
+
+  private final TestStreamingService service = new TestStreamingService();
+
+  @Test
+  public void testRecordsMessagesOfSubscribedChannels() {
+    Disposable trades = service.subscribeChannel("trades").subscribe();
+    service.subscribeChannel("book").subscribe();
+
+    service.handleFrame("{\"channel\":\"trades\",\"ts\":1}");
+    service.handleFrame("{\"channel\":\"trades\"}");
+    service.handleFrame("{\"channel\":\"book\"}");
+    service.handleFrame("{\"channel\":\"unknown\"}");
+
+    Map<String, ChannelMetrics> metrics = service.getChannelMetrics();
+    assertThat(metrics).containsOnlyKeys("trades", "book");
+    ChannelMetrics tradeMetrics = metrics.get("trades");
+    assertThat(tradeMetrics.getChannelId()).isEqualTo("trades");
+    assertThat(tradeMetrics.getMessages()).isEqualTo(2);
+    assertThat(tradeMetrics.getDispatch().getCount()).isEqualTo(2);
+    assertThat(tradeMetrics.getSubscriber().getCount()).isEqualTo(2);
+    assertThat(tradeMetrics.getExchangeLag().getCount()).isEqualTo(1);
+    assertThat(tradeMetrics.getExchangeLag().snapshot().getMaxNanos())
+        .isEqualTo(LatencyHistogram.MAX_TRACKABLE_NANOS);
+    assertThat(tradeMetrics.getMessagesPerSecond()).isPositive();
+    assertThat(metrics.get("book").getMessages()).isEqualTo(1);
+
+    trades.dispose();
+    assertThat(service.getChannelMetrics()).containsOnlyKeys("book");
+  }
+
+  @Test
+  public void testMessagesOutsideFramesHaveNoDispatchTime() {
+    service.subscribeChannel("trades").subscribe();
+
+    service.messageHandler("{\"channel\":\"trades\"}");
+
+    ChannelMetrics metrics = service.getChannelMetrics().get("trades");
+    assertThat(metrics.getMessages()).isEqualTo(1);
+    assertThat(metrics.getDispatch().getCount()).isZero();
+    assertThat(metrics.getSubscriber().getCount()).isEqualTo(1);
+
+    metrics.reset();
+    assertThat(metrics.getMessages()).isZero();
+    assertThat(metrics.getSubscriber().getCount()).isZero();
+  }
+
+  private static class TestStreamingService extends JsonNettyStreamingService {
+
+    TestStreamingService() {
+      super("ws://localhost");
+    }
+
+    @Override
+    public boolean isSocketOpen() {
+      return true;
+    }
+
+    @Override
+    protected String getChannelNameFromMessage(JsonNode message) {
+      return message.get("channel").asText();
+    }
+
+    @Override
+    protected long getMessageTimestamp(String channel, JsonNode message) {
+      JsonNode timestamp = message.get("ts");
+      return timestamp == null ? NO_TIMESTAMP : timestamp.asLong();
+    }
+
+    @Override
+    public String getSubscribeMessage(String channelName, Object... args) {
+      return null;
+    }
+
+    @Override
+    public String getUnsubscribeMessage(String channelName) {
+      return null;
+    }
+  }
+}
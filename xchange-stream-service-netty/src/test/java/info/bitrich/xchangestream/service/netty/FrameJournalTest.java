@@ -0,0 +1,204 @@
+package info.bitrich.xchangestream.service.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FrameJournalTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testRollsSegmentsAndReadsFramesInOrder() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal =
+        FrameJournal.builder().directory(directory).name("test").segmentSize(256).build();
+    FrameJournal.Appender appender = journal.newAppender();
+    long start = System.nanoTime();
+    for (int i = 0; i < 100; i++) {
+      assertThat(appender.append(start + i, i % 2 == 0 ? "trades" : null, "{\"n\":" + i + "}"))
+          .isTrue();
+    }
+    journal.close();
+
+    assertThat(journal.getRecorded()).isEqualTo(100);
+    assertThat(journal.getDropped()).isZero();
+    assertThat(FrameJournal.segments(directory, "test").size()).isGreaterThan(1);
+    assertThat(appender.append(start, null, "{}")).isFalse();
+
+    try (FrameJournalReader reader = new FrameJournalReader(directory, "test")) {
+      long previous = 0;
+      for (int i = 0; i < 100; i++) {
+        assertThat(reader.next()).isTrue();
+        assertThat(reader.getFrame()).isEqualTo("{\"n\":" + i + "}");
+        assertThat(reader.getChannel()).isEqualTo(i % 2 == 0 ? "trades" : null);
+        assertThat(reader.getTimestamp()).isGreaterThan(previous);
+        previous = reader.getTimestamp();
+      }
+      assertThat(reader.next()).isFalse();
+    }
+  }
+
+  @Test
+  public void testMergesTheAppendersByReceiptTime() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal =
+        FrameJournal.builder().directory(directory).name("test").segmentSize(256).build();
+    FrameJournal.Appender even = journal.newAppender("even");
+    FrameJournal.Appender odd = journal.newAppender("odd");
+    long start = System.nanoTime();
+    // each queue is written in batches, so the file holds the even frames before the odd ones
+    for (int i = 0; i < 20; i += 2) {
+      even.append(start + i, null, Integer.toString(i));
+    }
+    for (int i = 1; i < 20; i += 2) {
+      odd.append(start + i, null, Integer.toString(i));
+    }
+    journal.close();
+
+    List<String> frames = new ArrayList<>();
+    try (FrameJournalReader reader = FrameJournalReader.byReceiptTime(directory, "test")) {
+      while (reader.next()) {
+        assertThat(reader.getOrigin()).isEqualTo(frames.size() % 2 == 0 ? "even" : "odd");
+        frames.add(reader.getFrame());
+      }
+    }
+    assertThat(frames)
+        .containsExactly(
+            "0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15",
+            "16", "17", "18", "19");
+  }
+
+  @Test
+  public void testTagsTheFramesOfStandbyConnections() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("service").build();
+    TestStreamingService primary = new TestStreamingService();
+    TestStreamingService standby = new TestStreamingService();
+    primary.setFrameJournal(journal);
+    standby.setFrameJournal(journal);
+    primary.addStandbyConnection(standby);
+
+    primary.handleFrame("{\"n\":1}");
+    standby.handleFrame("{\"n\":1}");
+    journal.close();
+
+    try (FrameJournalReader reader = FrameJournalReader.byReceiptTime(directory, "service")) {
+      assertThat(reader.next()).isTrue();
+      assertThat(reader.isStandby()).isFalse();
+      assertThat(reader.next()).isTrue();
+      assertThat(reader.isStandby()).isTrue();
+      assertThat(reader.getOrigin()).isEqualTo(primary.getFrameOrigin());
+      assertThat(reader.next()).isFalse();
+    }
+  }
+
+  @Test
+  public void testNewJournalFollowsExistingSegments() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    for (String frame : new String[] {"first", "second"}) {
+      FrameJournal journal = FrameJournal.builder().directory(directory).name("test").build();
+      journal.newAppender().append(System.nanoTime(), null, frame);
+      journal.close();
+    }
+
+    assertThat(readFrames(directory, "test")).containsExactly("first", "second");
+  }
+
+  @Test
+  public void testRecordsFramesOfService() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("service").build();
+    TestStreamingService service = new TestStreamingService();
+    service.setFrameJournal(journal);
+    service.subscribeChannel("trades").subscribe();
+
+    service.handleFrame("{\"channel\":\"trades\"}");
+    service.handleFrame("{\"channel\":\"unknown\"}");
+    service.handleFrame("{\"event\":\"heartbeat\"}");
+    journal.close();
+
+    try (FrameJournalReader reader = new FrameJournalReader(directory, "service")) {
+      assertThat(reader.next()).isTrue();
+      assertThat(reader.getChannel()).isEqualTo("trades");
+      assertThat(reader.next()).isTrue();
+      assertThat(reader.getChannel()).isEqualTo("unknown");
+      assertThat(reader.next()).isTrue();
+      assertThat(reader.getChannel()).isNull();
+      assertThat(reader.getFrame()).isEqualTo("{\"event\":\"heartbeat\"}");
+      assertThat(reader.next()).isFalse();
+    }
+  }
+
+  @Test
+  public void testDisconnectReleasesTheAppenderOfService() throws Exception {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("service").build();
+    TestStreamingService service = new TestStreamingService();
+    service.setReplayMode(true);
+    service.setFrameJournal(journal);
+    service.connect().blockingAwait();
+    assertThat(journal.getAppenderCount()).isEqualTo(1);
+
+    service.handleFrame("{\"n\":1}");
+    service.disconnect().blockingAwait();
+    service.handleFrame("{\"n\":2}");
+    long deadline = System.currentTimeMillis() + 5000;
+    while (journal.getAppenderCount() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(journal.getAppenderCount()).isZero();
+
+    service.connect().blockingAwait();
+    service.handleFrame("{\"n\":3}");
+    assertThat(journal.getAppenderCount()).isEqualTo(1);
+    journal.close();
+
+    assertThat(readFrames(directory, "service")).containsExactly("{\"n\":1}", "{\"n\":3}");
+  }
+
+  private static List<String> readFrames(Path directory, String name) throws IOException {
+    List<String> frames = new ArrayList<>();
+    try (FrameJournalReader reader = new FrameJournalReader(directory, name)) {
+      while (reader.next()) {
+        frames.add(reader.getFrame());
+      }
+    }
+    return frames;
+  }
+
+  private static class TestStreamingService extends JsonNettyStreamingService {
+
+    TestStreamingService() {
+      super("ws://localhost");
+    }
+
+    @Override
+    public boolean isSocketOpen() {
+      return true;
+    }
+
+    @Override
+    protected String getChannelNameFromMessage(JsonNode message) {
+      JsonNode channel = message.get("channel");
+      return channel == null ? null : channel.asText();
+    }
+
+    @Override
+    public String getSubscribeMessage(String channelName, Object... args) {
+      return null;
+    }
+
+    @Override
+    public String getUnsubscribeMessage(String channelName) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,235 @@
+package info.bitrich.xchangestream.service.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FrameReplayTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private FrameReplay replay;
+
+  @Before
+  public void setUp() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("test").build();
+    FrameJournal.Appender appender = journal.newAppender();
+    // recorded a day ago
+    long start = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    for (int i = 0; i < 10; i++) {
+      String channel = i % 2 == 0 ? "trades" : "book";
+      appender.append(
+          start + TimeUnit.MILLISECONDS.toNanos(5 * i),
+          channel,
+          "{\"channel\":\"" + channel + "\",\"n\":" + i + "}");
+    }
+    journal.close();
+    replay = new FrameReplay(directory, "test");
+  }
+
+  @Test
+  public void testReplaysFramesThroughSubscriptions() throws IOException {
+    TestStreamingService service = new TestStreamingService();
+    service.setReplayMode(true);
+    service.connect().blockingAwait();
+    assertThat(service.isSocketOpen()).isTrue();
+    List<Integer> trades = new CopyOnWriteArrayList<>();
+    service.subscribeChannel("trades").subscribe(message -> trades.add(message.get("n").asInt()));
+
+    assertThat(replay.replay(service)).isEqualTo(10);
+
+    assertThat(trades).containsExactly(0, 2, 4, 6, 8);
+    ChannelMetrics metrics = service.getChannelMetrics().get("trades");
+    assertThat(metrics.getMessages()).isEqualTo(5);
+    // measured against the recorded receipt time, not the time of the replay
+    assertThat(metrics.getExchangeLag().snapshot().getMaxNanos())
+        .isLessThan(TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  public void testTimeScaledReplayKeepsTheSpacingOfTheFrames() throws IOException {
+    TestStreamingService service = new TestStreamingService();
+    service.setReplayMode(true);
+
+    long start = System.nanoTime();
+    replay.replay(service, 0.5);
+
+    // 45ms between the first and last frame, at half speed
+    assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(90));
+  }
+
+  @Test
+  public void testFansOutToSeveralServices() throws Exception {
+    List<TestStreamingService> services = new CopyOnWriteArrayList<>();
+
+    long frames =
+        replay.fanOut(
+            4,
+            () -> {
+              TestStreamingService service = new TestStreamingService();
+              service.setReplayMode(true);
+              service.subscribeChannel("book").subscribe();
+              services.add(service);
+              return service;
+            });
+
+    assertThat(frames).isEqualTo(40);
+    assertThat(services).hasSize(4);
+    for (TestStreamingService service : services) {
+      assertThat(service.getChannelMetrics().get("book").getMessages()).isEqualTo(5);
+    }
+  }
+
+  @Test
+  public void testReplaysIntoAddedServices() throws IOException {
+    TestStreamingService trades = new TestStreamingService();
+    TestStreamingService book = new TestStreamingService();
+    replay.addService(trades);
+    replay.addService(book);
+    trades.subscribeChannel("trades").subscribe();
+    book.subscribeChannel("book").subscribe();
+
+    assertThat(replay.replay()).isEqualTo(10);
+
+    assertThat(trades.getChannelMetrics().get("trades").getMessages()).isEqualTo(5);
+    assertThat(book.getChannelMetrics().get("book").getMessages()).isEqualTo(5);
+  }
+
+  @Test
+  public void testRoutesFramesToTheServicesOfTheirOrigin() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    TestStreamingService first = new TestStreamingService("ws://localhost/first");
+    TestStreamingService second = new TestStreamingService("ws://localhost/second");
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("routed").build();
+    FrameJournal.Appender firstAppender = journal.newAppender(first.getFrameOrigin());
+    FrameJournal.Appender secondAppender = journal.newAppender(second.getFrameOrigin());
+    long now = System.nanoTime();
+    firstAppender.append(now, "trades", "{\"channel\":\"trades\",\"n\":1}");
+    secondAppender.append(now, "trades", "{\"channel\":\"trades\",\"n\":2}");
+    firstAppender.append(now, "trades", "{\"channel\":\"trades\",\"n\":3}");
+    journal.newAppender().append(now, "trades", "{\"channel\":\"trades\",\"n\":4}");
+    journal.close();
+    FrameReplay routed = new FrameReplay(directory, "routed");
+    routed.addService(first);
+    routed.addService(second);
+    List<Integer> firstTrades = new CopyOnWriteArrayList<>();
+    List<Integer> secondTrades = new CopyOnWriteArrayList<>();
+    first
+        .subscribeChannel("trades")
+        .subscribe(message -> firstTrades.add(message.get("n").asInt()));
+    second
+        .subscribeChannel("trades")
+        .subscribe(message -> secondTrades.add(message.get("n").asInt()));
+
+    assertThat(routed.replay()).isEqualTo(4);
+
+    // the frames without origin go to every service
+    assertThat(firstTrades).containsExactlyInAnyOrder(1, 3, 4);
+    assertThat(secondTrades).containsExactlyInAnyOrder(2, 4);
+  }
+
+  @Test
+  public void testClockFollowsTheRecordedTime() throws IOException {
+    TestStreamingService service = new TestStreamingService();
+    replay.addService(service);
+    Clock clock = replay.getClock();
+    List<Instant> times = new CopyOnWriteArrayList<>();
+    service.subscribeChannel("trades").subscribe(message -> times.add(clock.instant()));
+    assertThat(clock.millis()).isZero();
+
+    replay.replay();
+
+    assertThat(times).hasSize(5);
+    // 5ms between two frames, the trades every other one
+    for (int i = 1; i < times.size(); i++) {
+      assertThat(Duration.between(times.get(i - 1), times.get(i))).isEqualTo(Duration.ofMillis(10));
+    }
+    assertThat(Duration.between(times.get(0), clock.instant())).isEqualTo(Duration.ofMillis(45));
+    // recorded a day ago
+    assertThat(clock.millis()).isLessThan(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(23));
+  }
+
+  @Test
+  public void testSkipsStandbyFramesAndNeverMovesTheClockBack() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    FrameJournal journal = FrameJournal.builder().directory(directory).name("standby").build();
+    FrameJournal.Appender primary = journal.newAppender("localhost");
+    FrameJournal.Appender standby = journal.newAppender("localhost", true);
+    long now = System.nanoTime();
+    primary.append(now, "trades", "{\"channel\":\"trades\",\"n\":1}");
+    standby.append(now + 1, "trades", "{\"channel\":\"trades\",\"n\":1}");
+    // e.g. a second recording appended with a clock set back
+    primary.append(now + 10_000_000, "trades", "{\"channel\":\"trades\",\"n\":2}");
+    primary.append(now + 5_000_000, "trades", "{\"channel\":\"trades\",\"n\":3}");
+    journal.close();
+    FrameReplay standbyReplay = new FrameReplay(directory, "standby");
+    TestStreamingService service = new TestStreamingService();
+    standbyReplay.addService(service);
+    Clock clock = standbyReplay.getClock();
+    List<Integer> trades = new CopyOnWriteArrayList<>();
+    List<Long> times = new CopyOnWriteArrayList<>();
+    service
+        .subscribeChannel("trades")
+        .subscribe(
+            message -> {
+              trades.add(message.get("n").asInt());
+              times.add(clock.millis());
+            });
+
+    assertThat(standbyReplay.replay()).isEqualTo(3);
+
+    assertThat(trades).containsExactly(1, 2, 3);
+    assertThat(times.get(2)).isEqualTo(times.get(1));
+  }
+
+  @Test
+  public void testRequiresReplayMode() {
+    assertThatThrownBy(() -> replay.replay(new TestStreamingService()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  private static class TestStreamingService extends JsonNettyStreamingService {
+
+    TestStreamingService() {
+      this("ws://localhost");
+    }
+
+    TestStreamingService(String apiUrl) {
+      super(apiUrl);
+    }
+
+    @Override
+    protected String getChannelNameFromMessage(JsonNode message) {
+      return message.get("channel").asText();
+    }
+
+    @Override
+    protected long getMessageTimestamp(String channel, JsonNode message) {
+      return System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1);
+    }
+
+    @Override
+    public String getSubscribeMessage(String channelName, Object... args) {
+      return "subscribe " + channelName;
+    }
+
+    @Override
+    public String getUnsubscribeMessage(String channelName) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package info.bitrich.xchangestream.service.netty;
+
+import java.time.Duration;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReconnectPolicyTest {
+
+  private final ReconnectPolicy policy =
+      ReconnectPolicy.builder()
+          .initialBackoff(Duration.ofSeconds(1))
+          .maxBackoff(Duration.ofSeconds(10))
+          .jitter(0.5)
+          .failuresBeforeSuspend(6)
+          .suspendDuration(Duration.ofMinutes(1))
+          .build();
+
+  @Test
+  public void testFirstAttemptIsImmediate() {
+    Assert.assertEquals(0, policy.delayMillis(1));
+  }
+
+  @Test
+  public void testBackoffDoublesWithJitterUpToMax() {
+    long[] backoffs = {1000, 2000, 4000, 8000, 10000};
+    for (int i = 0; i < backoffs.length; i++) {
+      for (int sample = 0; sample < 100; sample++) {
+        long delay = policy.delayMillis(i + 2);
+        Assert.assertTrue(delay <= backoffs[i]);
+        Assert.assertTrue(delay >= backoffs[i] / 2);
+      }
+    }
+  }
+
+  @Test
+  public void testSuspendsAfterConsecutiveFailures() {
+    Assert.assertFalse(policy.isSuspended(6));
+    Assert.assertTrue(policy.isSuspended(7));
+    Assert.assertEquals(60_000, policy.delayMillis(7));
+    Assert.assertEquals(60_000, policy.delayMillis(100));
+  }
+
+  @Test
+  public void testNoOverflowForManyAttempts() {
+    ReconnectPolicy neverSuspends = ReconnectPolicy.builder().failuresBeforeSuspend(0).build();
+    Assert.assertFalse(neverSuspends.isSuspended(1000));
+    Assert.assertTrue(neverSuspends.delayMillis(1000) <= 15_000);
+    Assert.assertTrue(neverSuspends.delayMillis(1000) > 0);
+  }
+}
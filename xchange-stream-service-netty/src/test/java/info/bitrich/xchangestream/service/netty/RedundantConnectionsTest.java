@@ -0,0 +1,231 @@
+package info.bitrich.xchangestream.service.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RedundantConnectionsTest {
+
+  private TestStreamingService primary;
+  private TestStreamingService standby;
+
+  @Before
+  public void setUp() {
+    primary = new TestStreamingService();
+    standby = new TestStreamingService();
+    primary.setReplayMode(true);
+    standby.setReplayMode(true);
+    primary.addStandbyConnection(standby);
+  }
+
+  @Test
+  public void testDropsTheCopiesDeliveredByTheStandby() {
+    List<Integer> trades = subscribe("trades");
+
+    primary.messageHandler(frame("trades", 1));
+    standby.messageHandler(frame("trades", 1));
+    standby.messageHandler(frame("trades", 2));
+    primary.messageHandler(frame("trades", 2));
+    standby.messageHandler(frame("trades", 3));
+
+    assertThat(trades).containsExactly(1, 2, 3);
+    assertThat(primary.getChannelMetrics().get("trades").getMessages()).isEqualTo(3);
+  }
+
+  @Test
+  public void testDropsMessagesOlderThanTheLastOnePassedOn() {
+    List<Integer> trades = subscribe("trades");
+
+    standby.messageHandler(frame("trades", 5));
+    primary.messageHandler(frame("trades", 3));
+    primary.messageHandler(frame("trades", 4));
+    primary.messageHandler(frame("trades", 5));
+    standby.messageHandler(frame("trades", 6));
+    primary.messageHandler(frame("trades", 6));
+
+    assertThat(trades).containsExactly(5, 6);
+  }
+
+  @Test
+  public void testComparesTheSequencesOfEachKeyApart() {
+    List<Integer> trades = subscribe("trades");
+    List<Integer> book = subscribe("book");
+
+    primary.messageHandler(frame("trades", 7));
+    standby.messageHandler(frame("book", 2));
+    primary.messageHandler(frame("book", 2));
+    standby.messageHandler(frame("trades", 7));
+    standby.messageHandler(frame("book", 3));
+
+    assertThat(trades).containsExactly(7);
+    assertThat(book).containsExactly(2, 3);
+  }
+
+  @Test
+  public void testSharedSequenceKeyOrdersSeveralChannels() {
+    primary = new TestStreamingService("market");
+    standby = new TestStreamingService("market");
+    primary.setReplayMode(true);
+    standby.setReplayMode(true);
+    primary.addStandbyConnection(standby);
+    List<Integer> trades = subscribe("trades");
+    List<Integer> book = subscribe("book");
+
+    primary.messageHandler(frame("book", 1));
+    standby.messageHandler(frame("trades", 2));
+    primary.messageHandler(frame("trades", 2));
+    // behind the trade, though never delivered on its own channel
+    standby.messageHandler(frame("book", 2));
+    standby.messageHandler(frame("book", 3));
+
+    assertThat(book).containsExactly(1, 3);
+    assertThat(trades).containsExactly(2);
+  }
+
+  @Test
+  public void testPassesOnRepeatedMessagesWithoutIdentityFromThePrimary() {
+    List<String> tickers = subscribeTickers();
+
+    primary.messageHandler("{\"channel\":\"ticker\",\"last\":\"1.0\"}");
+    standby.messageHandler("{\"channel\":\"ticker\",\"last\":\"1.0\"}");
+    standby.messageHandler("{\"channel\":\"ticker\",\"last\":\"1.1\"}");
+    primary.messageHandler("{\"channel\":\"ticker\",\"last\":\"1.0\"}");
+
+    assertThat(tickers)
+        .containsExactly(
+            "{\"channel\":\"ticker\",\"last\":\"1.0\"}",
+            "{\"channel\":\"ticker\",\"last\":\"1.0\"}");
+  }
+
+  @Test
+  public void testPassesOnMessagesWithoutIdentityFromTheStandbyWhileThePrimaryIsDown() {
+    primary.setReplayMode(false);
+    List<String> tickers = subscribeTickers();
+
+    standby.messageHandler("{\"channel\":\"ticker\",\"last\":\"1.0\"}");
+    standby.messageHandler("{\"channel\":\"ticker\",\"last\":\"1.0\"}");
+
+    assertThat(tickers).hasSize(2);
+  }
+
+  @Test
+  public void testDropsCopiesByIdWithinTheWindow() {
+    primary.setRedundantMessageWindow(200);
+    List<String> trades = new CopyOnWriteArrayList<>();
+    primary.subscribeChannel("fills").subscribe(message -> trades.add(message.get("id").asText()));
+
+    // the standby lags behind by 100 messages
+    for (int i = 0; i < 100; i++) {
+      primary.messageHandler(fill(i));
+    }
+    for (int i = 0; i < 100; i++) {
+      standby.messageHandler(fill(i));
+      primary.messageHandler(fill(100 + i));
+    }
+
+    assertThat(trades).hasSize(200);
+    assertThat(trades).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void testPassesOnCopiesOlderThanTheWindow() {
+    primary.setRedundantMessageWindow(2);
+    List<String> trades = new CopyOnWriteArrayList<>();
+    primary.subscribeChannel("fills").subscribe(message -> trades.add(message.get("id").asText()));
+
+    primary.messageHandler(fill(1));
+    primary.messageHandler(fill(2));
+    primary.messageHandler(fill(3));
+    standby.messageHandler(fill(3));
+    standby.messageHandler(fill(1));
+
+    assertThat(trades).containsExactly("1", "2", "3", "1");
+  }
+
+  @Test
+  public void testWithoutStandbyEveryMessageIsPassedOn() {
+    TestStreamingService single = new TestStreamingService();
+    single.setReplayMode(true);
+    List<Integer> trades = new CopyOnWriteArrayList<>();
+    single.subscribeChannel("trades").subscribe(message -> trades.add(message.get("seq").asInt()));
+
+    single.messageHandler(frame("trades", 2));
+    single.messageHandler(frame("trades", 1));
+    single.messageHandler(frame("trades", 1));
+
+    assertThat(trades).containsExactly(2, 1, 1);
+  }
+
+  private List<Integer> subscribe(String channel) {
+    List<Integer> sequences = new CopyOnWriteArrayList<>();
+    primary
+        .subscribeChannel(channel)
+        .subscribe(message -> sequences.add(message.get("seq").asInt()));
+    return sequences;
+  }
+
+  private List<String> subscribeTickers() {
+    List<String> tickers = new CopyOnWriteArrayList<>();
+    primary.subscribeChannel("ticker").subscribe(message -> tickers.add(message.toString()));
+    return tickers;
+  }
+
+  private static String fill(int id) {
+    return "{\"channel\":\"fills\",\"id\":\"" + id + "\"}";
+  }
+
+  private static String frame(String channel, long sequence) {
+    return "{\"channel\":\"" + channel + "\",\"seq\":" + sequence + "}";
+  }
+
+  private static class TestStreamingService extends JsonNettyStreamingService {
+
+    private final String sequenceKey;
+
+    TestStreamingService() {
+      this(null);
+    }
+
+    /** @param sequenceKey the key of all the channels, null for the default of one per channel */
+    TestStreamingService(String sequenceKey) {
+      super("ws://localhost");
+      this.sequenceKey = sequenceKey;
+    }
+
+    @Override
+    protected String getChannelNameFromMessage(JsonNode message) {
+      return message.get("channel").asText();
+    }
+
+    @Override
+    protected long getMessageSequence(String channel, JsonNode message) {
+      JsonNode sequence = message.get("seq");
+      return sequence == null ? NO_SEQUENCE : sequence.asLong();
+    }
+
+    @Override
+    protected String getMessageId(String channel, JsonNode message) {
+      JsonNode id = message.get("id");
+      return id == null ? null : id.asText();
+    }
+
+    @Override
+    protected String getSequenceKey(String channel, JsonNode message) {
+      return sequenceKey == null ? super.getSequenceKey(channel, message) : sequenceKey;
+    }
+
+    @Override
+    public String getSubscribeMessage(String channelName, Object... args) {
+      return "subscribe " + channelName;
+    }
+
+    @Override
+    public String getUnsubscribeMessage(String channelName) {
+      return null;
+    }
+  }
+}